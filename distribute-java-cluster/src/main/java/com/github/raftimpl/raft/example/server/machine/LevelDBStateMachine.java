@@ -6,18 +6,32 @@ import com.github.raftimpl.raft.StateMachine;
 import com.github.raftimpl.raft.example.server.service.ExampleProto;
 import com.github.raftimpl.raft.proto.RaftProto;
 import com.github.raftimpl.raft.storage.SegmentedLog;
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.InvalidProtocolBufferException;
 import org.apache.commons.io.FileUtils;
 import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBException;
+import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
+import org.iq80.leveldb.WriteBatch;
+import org.iq80.leveldb.impl.DbImpl;
 import org.iq80.leveldb.impl.Iq80DBFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 
 public class LevelDBStateMachine implements StateMachine {
     private static final Logger LOG = LoggerFactory.getLogger(LevelDBStateMachine.class);
+    // 写snapshot时每个WriteBatch包含的key数
+    private static final int SNAPSHOT_WRITE_BATCH_SIZE = 1000;
+    // leveldb的table文件写完后不再修改，快照目录和数据目录之间可以共享硬链接
+    private static final String[] IMMUTABLE_FILE_SUFFIXES = {".sst", ".ldb"};
     private DB db;
     private final String raftDataDir;
 
@@ -30,7 +44,7 @@ public class LevelDBStateMachine implements StateMachine {
         try {
             File snapshotData = new File(snapshotDir + File.separator + "data");
             File tmpSnapshotData = new File(tmpSnapshotDataDir);
-            FileUtils.copyDirectory(snapshotData, tmpSnapshotData);
+            RaftFileUtils.linkOrCopyDirectory(snapshotData, tmpSnapshotData, IMMUTABLE_FILE_SUFFIXES);
 
             Options options = new Options();
             DB tmpDB = Iq80DBFactory.factory.open(tmpSnapshotData, options);
@@ -40,34 +54,130 @@ public class LevelDBStateMachine implements StateMachine {
                  index <= localLastAppliedIndex; index++) {
                 RaftProto.LogEntry entry = raftLog.getEntry(index);
                 if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_DATA) {
-                    ExampleProto.SetRequest request = ExampleProto.SetRequest.parseFrom(entry.getData().toByteArray());
+                    ExampleProto.SetRequest request = ExampleProto.SetRequest.parseFrom(entry.getData());
                     tmpDB.put(request.getKey().getBytes(), request.getValue().getBytes());
                 }
             }
-            LOG.warn("writeSnapshot meet exception, msg={}");
-            LOG.info("hangzhou");
             tmpDB.close();
         } catch (Exception e) {
             LOG.warn("writeSnapshot meet exception, msg={}", e.getMessage());
         }
     }
 
+    @Override
+    public SnapshotWriter prepareSnap(long localLastAppliedIndex) {
+        if (db == null) {
+            return null;
+        }
+        if (db instanceof DbImpl) {
+            final File stagingDir = new File(raftDataDir + File.separator + "leveldb_snapshot");
+            if (linkLiveFiles((DbImpl) db, stagingDir)) {
+                return new SnapshotWriter() {
+                    @Override
+                    public boolean write(String tmpSnapshotDataDir) {
+                        try {
+                            FileUtils.moveDirectory(stagingDir, new File(tmpSnapshotDataDir));
+                            return true;
+                        } catch (IOException e) {
+                            LOG.warn("move snapshot files meet exception, msg={}", e.getMessage());
+                            FileUtils.deleteQuietly(stagingDir);
+                            return false;
+                        }
+                    }
+                };
+            }
+        }
+        return newIteratorSnapshotWriter();
+    }
+
+    /**
+     * apply已暂停，把memtable刷到table文件后，数据目录中的文件就是当前时间点的全部数据。
+     * table文件写完后不再修改，直接硬链接；MANIFEST、CURRENT和日志文件很小，复制一份，耗时只和文件数有关
+     */
+    private boolean linkLiveFiles(DbImpl dbImpl, File stagingDir) {
+        try {
+            dbImpl.flushMemTable();
+            // 暂停后台compaction，避免链接期间table文件被删除、MANIFEST被修改
+            dbImpl.suspendCompactions();
+            try {
+                RaftFileUtils.linkOrCopyDirectory(new File(getDataDir()), stagingDir, IMMUTABLE_FILE_SUFFIXES);
+            } finally {
+                dbImpl.resumeCompactions();
+            }
+            FileUtils.deleteQuietly(new File(stagingDir, "LOCK"));
+            return true;
+        } catch (Exception e) {
+            LOG.warn("link leveldb files meet exception, msg={}", e.getMessage());
+            FileUtils.deleteQuietly(stagingDir);
+            return false;
+        }
+    }
+
+    // 不能直接链接数据文件时，遍历leveldb快照写到新的数据库
+    private SnapshotWriter newIteratorSnapshotWriter() {
+        // leveldb快照固定当前时间点的数据，之后的写入对它不可见
+        final DB snapshotDB = db;
+        final Snapshot dbSnapshot = snapshotDB.getSnapshot();
+        return new SnapshotWriter() {
+            @Override
+            public boolean write(String tmpSnapshotDataDir) {
+                DB tmpDB = null;
+                DBIterator iterator = null;
+                try {
+                    Options options = new Options();
+                    options.createIfMissing(true);
+                    tmpDB = Iq80DBFactory.factory.open(new File(tmpSnapshotDataDir), options);
+                    iterator = snapshotDB.iterator(new ReadOptions().snapshot(dbSnapshot));
+                    iterator.seekToFirst();
+                    WriteBatch batch = tmpDB.createWriteBatch();
+                    int batchSize = 0;
+                    while (iterator.hasNext()) {
+                        Map.Entry<byte[], byte[]> entry = iterator.next();
+                        batch.put(entry.getKey(), entry.getValue());
+                        if (++batchSize >= SNAPSHOT_WRITE_BATCH_SIZE) {
+                            tmpDB.write(batch);
+                            batch.close();
+                            batch = tmpDB.createWriteBatch();
+                            batchSize = 0;
+                        }
+                    }
+                    tmpDB.write(batch);
+                    batch.close();
+                    return true;
+                } catch (Exception e) {
+                    LOG.warn("write snapshot meet exception, msg={}", e.getMessage());
+                    return false;
+                } finally {
+                    try {
+                        if (iterator != null) {
+                            iterator.close();
+                        }
+                        dbSnapshot.close();
+                        if (tmpDB != null) {
+                            tmpDB.close();
+                        }
+                    } catch (Exception e) {
+                        LOG.warn("close snapshot db meet exception, msg={}", e.getMessage());
+                    }
+                }
+            }
+        };
+    }
+
     @Override
     public void readSnap(String snapshotDir) {
         try {
-            // 将快照目录复制到数据目录
+            // 将快照目录复制到数据目录，sst文件使用硬链接，耗时只和文件数有关
             if (db != null) {
                 db.close();
                 db = null;
             }
-            String dataDir = raftDataDir + File.separator + "leveldb_data";
-            File dataFile = new File(dataDir);
-            if (dataFile.exists()) {
-                FileUtils.deleteDirectory(dataFile);
-            }
+            File dataFile = new File(getDataDir());
             File snapshotFile = new File(snapshotDir);
             if (snapshotFile.exists()) {
-                FileUtils.copyDirectory(snapshotFile, dataFile);
+                RaftFileUtils.linkOrCopyDirectory(snapshotFile, dataFile, IMMUTABLE_FILE_SUFFIXES);
+            } else if (dataFile.exists()) {
+                FileUtils.deleteDirectory(dataFile);
             }
 
             Options options = new Options();
@@ -90,6 +200,38 @@ public class LevelDBStateMachine implements StateMachine {
         }
     }
 
+    @Override
+    public void applyDataBatch(List<RaftProto.LogEntry> entries) {
+        try {
+            if (db == null) {
+                throw new BTreeException("database is closed, please wait for reopen");
+            }
+            // 一批日志合并成一个WriteBatch写入，只写一次leveldb的日志
+            WriteBatch batch = db.createWriteBatch();
+            try {
+                for (RaftProto.LogEntry entry : entries) {
+                    ExampleProto.SetRequest request;
+                    try {
+                        request = ExampleProto.SetRequest.parseFrom(entry.getData());
+                    } catch (InvalidProtocolBufferException e) {
+                        LOG.warn("parse entry failed, index={}, msg={}", entry.getIndex(), e.getMessage());
+                        continue;
+                    }
+                    batch.put(request.getKey().getBytes(), request.getValue().getBytes());
+                }
+                db.write(batch);
+            } finally {
+                batch.close();
+            }
+        } catch (Exception e) {
+            LOG.warn("meet exception, msg={}", e.getMessage());
+        }
+    }
+
+    private String getDataDir() {
+        return raftDataDir + File.separator + "leveldb_data";
+    }
+
     @Override
     public byte[] get(byte[] dataBytes) {
         byte[] result = null;
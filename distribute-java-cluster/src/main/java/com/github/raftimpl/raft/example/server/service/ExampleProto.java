@@ -1048,6 +1048,42 @@ public final class ExampleProto {
      */
     com.google.protobuf.ByteString
         getKeyBytes();
+
+    // optional uint64 max_staleness_ms = 2;
+    /**
+     * <code>optional uint64 max_staleness_ms = 2;</code>
+     *
+     * <pre>
+     * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+     * </pre>
+     */
+    boolean hasMaxStalenessMs();
+    /**
+     * <code>optional uint64 max_staleness_ms = 2;</code>
+     *
+     * <pre>
+     * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+     * </pre>
+     */
+    long getMaxStalenessMs();
+
+    // optional uint64 max_index_lag = 3;
+    /**
+     * <code>optional uint64 max_index_lag = 3;</code>
+     *
+     * <pre>
+     * 本地已应用日志落后leader commitIndex的最大条数
+     * </pre>
+     */
+    boolean hasMaxIndexLag();
+    /**
+     * <code>optional uint64 max_index_lag = 3;</code>
+     *
+     * <pre>
+     * 本地已应用日志落后leader commitIndex的最大条数
+     * </pre>
+     */
+    long getMaxIndexLag();
   }
   /**
    * Protobuf type {@code service.GetRequest}
@@ -1105,6 +1141,16 @@ public final class ExampleProto {
               key_ = input.readBytes();
               break;
             }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              maxStalenessMs_ = input.readUInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              maxIndexLag_ = input.readUInt64();
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -1188,8 +1234,58 @@ public final class ExampleProto {
       }
     }
 
+    // optional uint64 max_staleness_ms = 2;
+    public static final int MAX_STALENESS_MS_FIELD_NUMBER = 2;
+    private long maxStalenessMs_;
+    /**
+     * <code>optional uint64 max_staleness_ms = 2;</code>
+     *
+     * <pre>
+     * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+     * </pre>
+     */
+    public boolean hasMaxStalenessMs() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint64 max_staleness_ms = 2;</code>
+     *
+     * <pre>
+     * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+     * </pre>
+     */
+    public long getMaxStalenessMs() {
+      return maxStalenessMs_;
+    }
+
+    // optional uint64 max_index_lag = 3;
+    public static final int MAX_INDEX_LAG_FIELD_NUMBER = 3;
+    private long maxIndexLag_;
+    /**
+     * <code>optional uint64 max_index_lag = 3;</code>
+     *
+     * <pre>
+     * 本地已应用日志落后leader commitIndex的最大条数
+     * </pre>
+     */
+    public boolean hasMaxIndexLag() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional uint64 max_index_lag = 3;</code>
+     *
+     * <pre>
+     * 本地已应用日志落后leader commitIndex的最大条数
+     * </pre>
+     */
+    public long getMaxIndexLag() {
+      return maxIndexLag_;
+    }
+
     private void initFields() {
       key_ = "";
+      maxStalenessMs_ = 0L;
+      maxIndexLag_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -1206,6 +1302,12 @@ public final class ExampleProto {
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         output.writeBytes(1, getKeyBytes());
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt64(2, maxStalenessMs_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, maxIndexLag_);
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -1219,6 +1321,14 @@ public final class ExampleProto {
         size += com.google.protobuf.CodedOutputStream
           .computeBytesSize(1, getKeyBytes());
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, maxStalenessMs_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, maxIndexLag_);
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -1337,6 +1447,10 @@ public final class ExampleProto {
         super.clear();
         key_ = "";
         bitField0_ = (bitField0_ & ~0x00000001);
+        maxStalenessMs_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        maxIndexLag_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1369,6 +1483,14 @@ public final class ExampleProto {
           to_bitField0_ |= 0x00000001;
         }
         result.key_ = key_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.maxStalenessMs_ = maxStalenessMs_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.maxIndexLag_ = maxIndexLag_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1390,6 +1512,12 @@ public final class ExampleProto {
           key_ = other.key_;
           onChanged();
         }
+        if (other.hasMaxStalenessMs()) {
+          setMaxStalenessMs(other.getMaxStalenessMs());
+        }
+        if (other.hasMaxIndexLag()) {
+          setMaxIndexLag(other.getMaxIndexLag());
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -1491,6 +1619,104 @@ public final class ExampleProto {
         return this;
       }
 
+      // optional uint64 max_staleness_ms = 2;
+      private long maxStalenessMs_ ;
+      /**
+       * <code>optional uint64 max_staleness_ms = 2;</code>
+       *
+       * <pre>
+       * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+       * </pre>
+       */
+      public boolean hasMaxStalenessMs() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 max_staleness_ms = 2;</code>
+       *
+       * <pre>
+       * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+       * </pre>
+       */
+      public long getMaxStalenessMs() {
+        return maxStalenessMs_;
+      }
+      /**
+       * <code>optional uint64 max_staleness_ms = 2;</code>
+       *
+       * <pre>
+       * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+       * </pre>
+       */
+      public Builder setMaxStalenessMs(long value) {
+        bitField0_ |= 0x00000002;
+        maxStalenessMs_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 max_staleness_ms = 2;</code>
+       *
+       * <pre>
+       * 可以容忍的最大陈旧程度，满足条件时follower直接读本地状态机；都不设置表示不接受陈旧数据
+       * </pre>
+       */
+      public Builder clearMaxStalenessMs() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        maxStalenessMs_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 max_index_lag = 3;
+      private long maxIndexLag_ ;
+      /**
+       * <code>optional uint64 max_index_lag = 3;</code>
+       *
+       * <pre>
+       * 本地已应用日志落后leader commitIndex的最大条数
+       * </pre>
+       */
+      public boolean hasMaxIndexLag() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint64 max_index_lag = 3;</code>
+       *
+       * <pre>
+       * 本地已应用日志落后leader commitIndex的最大条数
+       * </pre>
+       */
+      public long getMaxIndexLag() {
+        return maxIndexLag_;
+      }
+      /**
+       * <code>optional uint64 max_index_lag = 3;</code>
+       *
+       * <pre>
+       * 本地已应用日志落后leader commitIndex的最大条数
+       * </pre>
+       */
+      public Builder setMaxIndexLag(long value) {
+        bitField0_ |= 0x00000004;
+        maxIndexLag_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 max_index_lag = 3;</code>
+       *
+       * <pre>
+       * 本地已应用日志落后leader commitIndex的最大条数
+       * </pre>
+       */
+      public Builder clearMaxIndexLag() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        maxIndexLag_ = 0L;
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:service.GetRequest)
     }
 
@@ -2004,10 +2230,11 @@ public final class ExampleProto {
     String[] descriptorData = {
       "\n\rexample.proto\022\007service\"(\n\nSetRequest\022\013" +
       "\n\003key\030\001 \001(\t\022\r\n\005value\030\002 \001(\t\"\036\n\013SetRespons" +
-      "e\022\017\n\007success\030\001 \001(\010\"\031\n\nGetRequest\022\013\n\003key\030" +
-      "\001 \001(\t\"\034\n\013GetResponse\022\r\n\005value\030\001 \001(\tB?\n/c" +
-      "om.github.raftimpl.raft.example.server.s" +
-      "erviceB\014ExampleProto"
+      "e\022\017\n\007success\030\001 \001(\010\"J\n\nGetRequest\022\013\n\003key\030" +
+      "\001 \001(\t\022\030\n\020max_staleness_ms\030\002 \001(\004\022\025\n\rmax_i" +
+      "ndex_lag\030\003 \001(\004\"\034\n\013GetResponse\022\r\n\005value\030\001" +
+      " \001(\tB?\n/com.github.raftimpl.raft.example" +
+      ".server.serviceB\014ExampleProto"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -2031,7 +2258,7 @@ public final class ExampleProto {
           internal_static_service_GetRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_service_GetRequest_descriptor,
-              new String[] { "Key", });
+              new String[] { "Key", "MaxStalenessMs", "MaxIndexLag", });
           internal_static_service_GetResponse_descriptor =
             getDescriptor().getMessageTypes().get(3);
           internal_static_service_GetResponse_fieldAccessorTable = new
@@ -5,15 +5,19 @@ import com.baidu.brpc.client.RpcClient;
 import com.baidu.brpc.client.RpcClientOptions;
 import com.baidu.brpc.client.instance.Endpoint;
 import com.github.raftimpl.raft.Peer;
+import com.github.raftimpl.raft.ProposeResult;
 import com.github.raftimpl.raft.RaftNode;
 import com.github.raftimpl.raft.StateMachine;
 import com.github.raftimpl.raft.example.server.service.ExampleProto;
 import com.github.raftimpl.raft.example.server.service.ExampleService;
 import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
 import com.googlecode.protobuf.format.JsonFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -67,10 +71,19 @@ public class ExampleServiceImpl implements ExampleService {
             ExampleProto.SetResponse responseFromLeader = leaderService.set(request);
             responseBuilder.mergeFrom(responseFromLeader);
         } else {
-            // 数据同步写入raft集群
-            byte[] data = request.toByteArray();
-            boolean success = raftNode.replicate(data, RaftProto.EntryType.ENTRY_TYPE_DATA);
-
+            // 数据写入raft集群，这里只等待future，不占用raft锁；超时由propose内部控制
+            // 序列化成ByteString后直接作为日志数据，不再额外拷贝
+            ByteString data = request.toByteString();
+            CompletableFuture<ProposeResult> future = raftNode.propose(data, RaftProto.EntryType.ENTRY_TYPE_DATA);
+            boolean success = false;
+            try {
+                future.get();
+                success = true;
+            } catch (ExecutionException ex) {
+                LOG.warn("set request failed, msg={}", ex.getCause().getMessage());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
             responseBuilder.setSuccess(success);
         }
 
@@ -101,8 +114,10 @@ public class ExampleServiceImpl implements ExampleService {
         // Follower-read 非强一致性
         ExampleProto.GetResponse.Builder responseBuilder = ExampleProto.GetResponse.newBuilder();
         byte[] keyBytes = request.getKey().getBytes();
-        // 从Leader节点获取Read Index，并等待Read Index之前的日志条目应用到复制状态机
-        if (raftNode.waitForLeaderCommitIndex()) {
+        // 客户端可以容忍陈旧数据并且本地数据足够新时直接读本地状态机；
+        // 否则从Leader节点获取Read Index，并等待Read Index之前的日志条目应用到复制状态机
+        if (raftNode.isStaleReadAllowed(request.getMaxStalenessMs(), request.getMaxIndexLag())
+                || raftNode.waitForLeaderCommitIndex()) {
             byte[] valueBytes = stateMachine.get(keyBytes);
             if (valueBytes != null) {
                 String value = new String(valueBytes);
@@ -15,6 +15,14 @@ public class Peer {
     private long nextIndex;
     // 已复制日志的最高索引值
     private long matchIndex;
+    // 已发出但还未收到响应的AppendEntries请求数，只对leader有效
+    private int inflightRequests;
+    // 复制纪元，nextIndex回退时递增，用于丢弃回退前发出的请求的响应
+    private long replicateEpoch;
+    // 复制线程，只对leader有效
+    private volatile Replicator replicator;
+    // 最近一次在当前任期内得到响应的请求的发送时间（System.nanoTime），用于计算leader租约，只对leader有效
+    private volatile long lastAckSendTime;
     private volatile Boolean voteGranted;
     private volatile boolean isCatchUp;
 
@@ -27,6 +35,13 @@ public class Peer {
         isCatchUp = false;
     }
 
+    // 直接使用给定的rpc接口，不建立连接，用于测试
+    Peer(RaftProto.Server server, RaftConsensusServiceAsync raftConsensusServiceAsync) {
+        this.server = server;
+        this.raftConsensusServiceAsync = raftConsensusServiceAsync;
+        isCatchUp = false;
+    }
+
     public RaftProto.Server getStorageServer() {
         return server;
     }
@@ -47,6 +62,14 @@ public class Peer {
         this.nextIndex = nextIndex;
     }
 
+    public long getLastAckSendTime() {
+        return lastAckSendTime;
+    }
+
+    public void setLastAckSendTime(long lastAckSendTime) {
+        this.lastAckSendTime = lastAckSendTime;
+    }
+
     public long getMatchIndex() {
         return matchIndex;
     }
@@ -55,6 +78,39 @@ public class Peer {
         this.matchIndex = matchIndex;
     }
 
+    public int getInflightRequests() {
+        return inflightRequests;
+    }
+
+    public void setInflightRequests(int inflightRequests) {
+        this.inflightRequests = inflightRequests;
+    }
+
+    public long getReplicateEpoch() {
+        return replicateEpoch;
+    }
+
+    public void setReplicateEpoch(long replicateEpoch) {
+        this.replicateEpoch = replicateEpoch;
+    }
+
+    public Replicator getReplicator() {
+        return replicator;
+    }
+
+    public void setReplicator(Replicator replicator) {
+        this.replicator = replicator;
+    }
+
+    public void stop() {
+        if (replicator != null) {
+            replicator.stop();
+        }
+        if (rpcClient != null) {
+            rpcClient.stop();
+        }
+    }
+
     public Boolean isVoteGranted() {
         return voteGranted;
     }
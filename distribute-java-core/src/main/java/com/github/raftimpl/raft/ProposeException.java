@@ -0,0 +1,29 @@
+package com.github.raftimpl.raft;
+
+/**
+ * propose失败的原因，通过CompletableFuture异常完成的方式返回给调用方
+ */
+public class ProposeException extends RuntimeException {
+
+    public enum ErrorCode {
+        // 当前节点不是leader
+        NOT_LEADER,
+        // 在maxAwaitTimeout内没有被应用到状态机，日志条目之后仍可能被提交
+        TIMEOUT,
+        // 提交前leader任期发生变化，日志条目可能被覆盖，也可能被新leader提交
+        TERM_CHANGED,
+        // 写本地日志失败
+        APPEND_FAILED
+    }
+
+    private final ErrorCode errorCode;
+
+    public ProposeException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.raftimpl.raft;
+
+/**
+ * propose成功后的结果：日志条目被提交并应用到状态机时的索引和任期号
+ */
+public class ProposeResult {
+    private final long index;
+    private final long term;
+
+    public ProposeResult(long index, long term) {
+        this.index = index;
+        this.term = term;
+    }
+
+    public long getIndex() {
+        return index;
+    }
+
+    public long getTerm() {
+        return term;
+    }
+}
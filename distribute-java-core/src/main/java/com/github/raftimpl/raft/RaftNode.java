@@ -3,21 +3,26 @@ package com.github.raftimpl.raft;
 import com.baidu.brpc.client.RpcCallback;
 import com.github.raftimpl.raft.proto.RaftProto;
 import com.github.raftimpl.raft.storage.SegmentedLog;
+import com.github.raftimpl.raft.util.CompressionUtils;
 import com.github.raftimpl.raft.util.ConfigurationUtils;
+import com.github.raftimpl.raft.util.RaftFileUtils;
 import com.google.protobuf.ByteString;
 import com.github.raftimpl.raft.storage.Snapshot;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.googlecode.protobuf.format.JsonFormat;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.*;
+import java.util.function.BiConsumer;
 
 /**
  * 该类是raft核心类，主要有如下功能：
@@ -44,13 +49,19 @@ public class RaftNode {
     private StateMachine stateMachine;
     private SegmentedLog raftLog;
     private Snapshot snapshot;
+    private SnapshotPolicy snapshotPolicy;
 
-    private NodeState state = NodeState.STATE_FOLLOWER;
+    // propose在锁外读取，快速拒绝非leader的请求
+    private volatile NodeState state = NodeState.STATE_FOLLOWER;
     // 服务器最后一次知道的任期号（初始化为 0，持续递增）
     private long currentTerm;
     // 在当前获得选票的候选人的Id
     private int votedFor;
     private int leaderId; // leader节点id
+    // 最近一次收到leader消息的时间（System.nanoTime）
+    private volatile long lastLeaderContactTime;
+    // 节点启动的时间（System.nanoTime）
+    private final long nodeStartTime = System.nanoTime();
     // 已知的最大的已经被提交的日志条目的索引值
     private long commitIndex;
     // 最后被应用到状态机的日志条目索引值（初始化为 0，持续递增）
@@ -59,8 +70,30 @@ public class RaftNode {
     private Lock lock = new ReentrantLock();
     private Condition commitIndexCondition = lock.newCondition();
     private Condition catchUpCondition = lock.newCondition();
+    // commitIndex前进时通知apply线程
+    private Condition applyCondition = lock.newCondition();
+    // apply线程应用一批日志时持有，安装snapshot替换状态机时也需要持有，保证两者互斥
+    private Lock applyLock = new ReentrantLock();
+
+    // group commit：并发提交的proposal先进入队列，由单独线程合并成一批写入日志
+    private BlockingQueue<Proposal> proposalQueue = new LinkedBlockingQueue<>();
+    // 已写入本地日志、等待apply的proposal，key为日志索引
+    private TreeMap<Long, Proposal> pendingProposals = new TreeMap<>();
+
+    // ReadIndex批量确认：正在确认leader身份的一轮，以及等待下一轮确认的读请求
+    private ReadIndexRound inflightReadRound;
+    private ReadIndexRound pendingReadRound;
+    private long readIndexSeq;
+    // follower读批量获取leader的commitIndex：正在请求的一轮，以及等待下一轮请求的读请求
+    private CommitIndexRound inflightCommitIndexRound;
+    private CommitIndexRound pendingCommitIndexRound;
+    // AppendEntries中带过来的leader commitIndex，以及收到的时间（System.nanoTime）
+    private long leaderCommitIndex;
+    private long leaderCommitIndexTime;
 
     private ExecutorService executorService;
+    private ExecutorService groupCommitExecutor;
+    private ExecutorService applyExecutor;
     private ScheduledExecutorService scheduledExecutorService;
     private ScheduledFuture electionScheduledFuture;
     private ScheduledFuture heartbeatScheduledFuture;
@@ -80,9 +113,10 @@ public class RaftNode {
         this.stateMachine = stateMachine;
 
         // load log and snapshot
-        raftLog = new SegmentedLog(RaftOptions.getDataDir(), RaftOptions.getMaxSegmentFileSize());
+        raftLog = new SegmentedLog(RaftOptions.getDataDir(), RaftOptions);
         snapshot = new Snapshot(RaftOptions.getDataDir());
         snapshot.reload();
+        snapshotPolicy = new SnapshotPolicy(RaftOptions);
 
         currentTerm = raftLog.getMeta().getCurrentTerm();
         votedFor = raftLog.getMeta().getVotedFor();
@@ -92,6 +126,7 @@ public class RaftNode {
                 && raftLog.getFirstLogIndex() <= snapshot.getMeta().getLastIncludedIndex()) {
             raftLog.truncatePrefix(snapshot.getMeta().getLastIncludedIndex() + 1);
         }
+        snapshotPolicy.recordSnapshot(System.nanoTime(), raftLog.getTotalSize());
         // apply state machine
         RaftProto.Configuration snapshotConfiguration = snapshot.getMeta().getConfig();
         if (snapshotConfiguration.getServersCount() > 0) {
@@ -99,13 +134,15 @@ public class RaftNode {
         }
         String snapshotDataDir = snapshot.getSnapshotDir() + File.separator + "data";
         stateMachine.readSnap(snapshotDataDir);
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
         for (long index = snapshot.getMeta().getLastIncludedIndex() + 1;
              index <= commitIndex; index++) {
-            RaftProto.LogEntry entry = raftLog.getEntry(index);
-            if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_DATA) {
-                stateMachine.applyData(entry.getData().toByteArray());
-            } else if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_CONFIGURATION) {
-                applyConfig(entry);
+            entries.add(raftLog.getEntry(index));
+            if (entries.size() >= RaftOptions.getMaxLogEntriesPerRequest() || index == commitIndex) {
+                long startTime = System.nanoTime();
+                applyEntries(entries);
+                snapshotPolicy.recordApply(entries.size(), System.nanoTime() - startTime);
+                entries.clear();
             }
         }
         lastAppliedIndex = commitIndex;
@@ -128,152 +165,480 @@ public class RaftNode {
                 60,
                 TimeUnit.SECONDS,
                 new LinkedBlockingQueue<Runnable>());
+        groupCommitExecutor = Executors.newSingleThreadExecutor();
+        groupCommitExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                groupCommit();
+            }
+        });
+        applyExecutor = Executors.newSingleThreadExecutor();
+        applyExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                applyCommittedEntries();
+            }
+        });
         scheduledExecutorService = Executors.newScheduledThreadPool(2);
         scheduledExecutorService.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
                 takeSnap();
             }
-        }, RaftOptions.getSnapshotPeriodSeconds(), RaftOptions.getSnapshotPeriodSeconds(), TimeUnit.SECONDS);
+        }, RaftOptions.getSnapshotCheckIntervalMilliseconds(),
+                RaftOptions.getSnapshotCheckIntervalMilliseconds(), TimeUnit.MILLISECONDS);
         // start election
         resetElectionTimer();
     }
 
+    /**
+     * 停止定时器、group commit线程、apply线程、复制线程和rpc线程池，关闭到其他节点的连接和日志
+     */
+    public void shutdown() {
+        scheduledExecutorService.shutdownNow();
+        groupCommitExecutor.shutdownNow();
+        applyExecutor.shutdownNow();
+        executorService.shutdownNow();
+        for (Peer peer : peerMap.values()) {
+            peer.stop();
+        }
+        try {
+            groupCommitExecutor.awaitTermination(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+            applyExecutor.awaitTermination(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        raftLog.close();
+    }
+
     // client set command
     public boolean replicate(byte[] data, RaftProto.EntryType entryType) {
-        lock.lock();
-        long newLastLogIndex = 0;
+        return replicate(ByteString.copyFrom(data), entryType);
+    }
+
+    public boolean replicate(ByteString data, RaftProto.EntryType entryType) {
+        CompletableFuture<ProposeResult> future = propose(data, entryType);
         try {
-            if (state != NodeState.STATE_LEADER) {
-                LOG.debug("I'm not the leader");
-                return false;
+            ProposeResult result = future.get();
+            LOG.debug("replicate success, index={} term={}", result.getIndex(), result.getTerm());
+            return true;
+        } catch (ExecutionException ex) {
+            LOG.debug("replicate failed, msg={}", ex.getCause().getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * 异步提交数据，不阻塞调用线程。
+     * 日志条目被应用到状态机后（asyncWrite时为写入leader本地日志后），future以提交的索引和任期号完成；
+     * 失败时以{@link ProposeException}异常完成，包括非leader、超时、任期变化等情况。
+     * @param data 数据二进制
+     * @param entryType 日志类型
+     * @return 提交结果
+     */
+    public CompletableFuture<ProposeResult> propose(byte[] data, RaftProto.EntryType entryType) {
+        return propose(ByteString.copyFrom(data), entryType);
+    }
+
+    /**
+     * 同{@link #propose(byte[], RaftProto.EntryType)}，ByteString不可变，直接放入日志条目，不再拷贝数据
+     */
+    public CompletableFuture<ProposeResult> propose(ByteString data, RaftProto.EntryType entryType) {
+        final Proposal proposal = new Proposal(data, entryType);
+        if (state != NodeState.STATE_LEADER) {
+            proposal.fail(ProposeException.ErrorCode.NOT_LEADER, "I'm not the leader");
+            return proposal.future;
+        }
+        final ScheduledFuture timeoutFuture = scheduledExecutorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                proposal.fail(ProposeException.ErrorCode.TIMEOUT,
+                        "not applied in " + RaftOptions.getMaxAwaitTimeout() + "ms, index=" + proposal.index);
             }
-            RaftProto.LogEntry logEntry = RaftProto.LogEntry.newBuilder()
-                    .setTerm(currentTerm)
-                    .setType(entryType)
-                    .setData(ByteString.copyFrom(data)).build();
-            List<RaftProto.LogEntry> entries = new ArrayList<>();
-            entries.add(logEntry);
-            newLastLogIndex = raftLog.append(entries);
- //           raftLog.updateMeta(currentTerm, null, raftLog.getFirstLogIndex());
-
-            for (RaftProto.Server server : configuration.getServersList()) {
-                final Peer peer = peerMap.get(server.getServerId());
-                executorService.submit(new Runnable() {
-                    @Override
-                    public void run() {
-                        appendEntries(peer);
-                    }
-                });
+        }, RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+        proposal.future.whenComplete(new BiConsumer<ProposeResult, Throwable>() {
+            @Override
+            public void accept(ProposeResult result, Throwable throwable) {
+                timeoutFuture.cancel(false);
             }
+        });
+        proposalQueue.offer(proposal);
+        return proposal.future;
+    }
 
-            if (RaftOptions.isAsyncWrite()) {
-                // 主节点写成功后，就返回。
-                return true;
+    /**
+     * group commit线程：阻塞等待第一个proposal，然后把队列中已有的proposal一次取出，
+     * 合并为一次日志追加，并且每个peer只触发一次appendEntries。
+     * 上一批在写盘、复制时到达的proposal会自然地攒成下一批。
+     */
+    private void groupCommit() {
+        List<Proposal> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(proposalQueue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            proposalQueue.drainTo(batch, RaftOptions.getMaxGroupCommitSize() - 1);
+            try {
+                appendProposals(batch);
+            } catch (Exception ex) {
+                LOG.warn("group commit meet exception:", ex);
+                for (Proposal proposal : batch) {
+                    proposal.fail(ProposeException.ErrorCode.APPEND_FAILED, ex.getMessage());
+                }
             }
+            batch.clear();
+        }
+    }
 
-            // sync wait commitIndex >= newLastLogIndex
-            long startTime = System.currentTimeMillis();
-            while (lastAppliedIndex < newLastLogIndex) {
-                if (System.currentTimeMillis() - startTime >= RaftOptions.getMaxAwaitTimeout()) {
-                    break;
+    private void appendProposals(List<Proposal> batch) {
+        lock.lock();
+        try {
+            if (state != NodeState.STATE_LEADER) {
+                LOG.debug("I'm not the leader, drop {} proposals", batch.size());
+                for (Proposal proposal : batch) {
+                    proposal.fail(ProposeException.ErrorCode.NOT_LEADER, "I'm not the leader");
                 }
-                commitIndexCondition.await(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+                return;
+            }
+            List<RaftProto.LogEntry> entries = new ArrayList<>(batch.size());
+            for (Proposal proposal : batch) {
+                RaftProto.LogEntry logEntry = RaftProto.LogEntry.newBuilder()
+                        .setTerm(currentTerm)
+                        .setType(proposal.entryType)
+                        .setData(proposal.data).build();
+                entries.add(logEntry);
+            }
+            long newLastLogIndex = raftLog.append(entries);
+            long index = newLastLogIndex - batch.size() + 1;
+            for (Proposal proposal : batch) {
+                proposal.index = index++;
+                proposal.term = currentTerm;
+                if (RaftOptions.isAsyncWrite()) {
+                    // 主节点写成功后，就返回。
+                    proposal.complete();
+                } else {
+                    pendingProposals.put(proposal.index, proposal);
+                }
+            }
+            LOG.debug("group commit {} entries, newLastLogIndex={}", batch.size(), newLastLogIndex);
+
+            for (Peer peer : peerMap.values()) {
+                wakeupReplicator(peer);
             }
-        } catch (Exception ex) {
-            ex.printStackTrace();
         } finally {
             lock.unlock();
         }
-        LOG.debug("lastAppliedIndex={} newLastLogIndex={}", lastAppliedIndex, newLastLogIndex);
-        if (lastAppliedIndex < newLastLogIndex) {
-            return false;
+    }
+
+    /**
+     * 唤醒peer的复制线程，复制线程在第一次唤醒时创建
+     * @param peer follower节点
+     */
+    public void wakeupReplicator(Peer peer) {
+        Replicator replicator = peer.getReplicator();
+        if (replicator == null) {
+            synchronized (peer) {
+                replicator = peer.getReplicator();
+                if (replicator == null) {
+                    replicator = new Replicator(this, peer);
+                    replicator.start();
+                    peer.setReplicator(replicator);
+                }
+            }
+        }
+        replicator.signal();
+    }
+
+    // in lock, 日志已应用到状态机，完成对应的proposal
+    private void completeProposals(long appliedIndex) {
+        Iterator<Proposal> iterator = pendingProposals.headMap(appliedIndex, true).values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().complete();
+            iterator.remove();
+        }
+    }
+
+    // in lock, 失去leader身份后，未提交的proposal结果未知，直接返回失败
+    private void failPendingProposals() {
+        for (Proposal proposal : pendingProposals.values()) {
+            proposal.fail(ProposeException.ErrorCode.TERM_CHANGED,
+                    "term changed before commit, index=" + proposal.index + " term=" + proposal.term);
         }
-        return true;
+        pendingProposals.clear();
     }
 
+    /**
+     * 以流水线方式向peer复制日志：在in-flight窗口（maxInflightAppendRequests）允许的范围内连续发送
+     * AppendEntries请求，发送时乐观地推进nextIndex，不等待响应；响应在AppendEntriesResponseCallback中异步处理。
+     * 没有新日志并且没有在途请求时，发送一个空的心跳请求。
+     * @param peer follower节点
+     * @return 是否发送了请求
+     */
     public boolean appendEntries(Peer peer) {
-        RaftProto.AppendEntriesRequest.Builder requestBuilder = RaftProto.AppendEntriesRequest.newBuilder();
-        long prevLogIndex;
-        long numEntries;
+        boolean isSent = false;
+        while (true) {
+            long lastSnapshotIndex;
+            long lastSnapshotTerm;
+            snapshot.getLock().lock();
+            try {
+                lastSnapshotIndex = snapshot.getMeta().getLastIncludedIndex();
+                lastSnapshotTerm = snapshot.getMeta().getLastIncludedTerm();
+            } finally {
+                snapshot.getLock().unlock();
+            }
 
-        boolean isNeedInstallSnapshot = false;
-        lock.lock();
-        try {
-            long firstLogIndex = raftLog.getFirstLogIndex();
-            if (peer.getNextIndex() < firstLogIndex) {
-                isNeedInstallSnapshot = true;
+            boolean isNeedInstallSnapshot = false;
+            RaftProto.AppendEntriesRequest request = null;
+            long replicateEpoch = 0;
+            lock.lock();
+            try {
+                if (state != NodeState.STATE_LEADER
+                        || peer.getInflightRequests() >= RaftOptions.getMaxInflightAppendRequests()) {
+                    break;
+                }
+                if (peer.getNextIndex() > raftLog.getLastLogIndex()
+                        && (isSent || peer.getInflightRequests() > 0)) {
+                    // 没有新日志，在途的请求可以起到心跳的作用
+                    break;
+                }
+                if (peer.getNextIndex() < raftLog.getFirstLogIndex()) {
+                    isNeedInstallSnapshot = true;
+                } else {
+                    request = buildAppendEntriesRequest(peer.getNextIndex() - 1,
+                            lastSnapshotIndex, lastSnapshotTerm, true);
+                    peer.setNextIndex(peer.getNextIndex() + request.getEntriesCount());
+                    peer.setInflightRequests(peer.getInflightRequests() + 1);
+                    replicateEpoch = peer.getReplicateEpoch();
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            LOG.debug("is need snapshot={}, peer={}", isNeedInstallSnapshot, peer.getStorageServer().getServerId());
+            if (isNeedInstallSnapshot) {
+                if (!installSnap(peer)) {
+                    return isSent;
+                }
+                continue;
+            }
+            AppendEntriesResponseCallback callback = new AppendEntriesResponseCallback(peer, request, replicateEpoch);
+            try {
+                // 日志列表在锁外整体压缩后发送，callback仍然按未压缩的请求计算matchIndex
+                peer.getRaftConsensusServiceAsync().appendEntries(CompressionUtils.compressEntries(
+                        request, RaftOptions.getCompressionType(), RaftOptions.getCompressionMinBytes()), callback);
+            } catch (RuntimeException ex) {
+                // 连接失败等情况下请求没有发出，brpc直接抛出异常而不会回调，
+                // 这里按请求失败处理，否则in-flight窗口永远不会归还；
+                // peer不可达时每次心跳都会走到这里，失败只通过回调处理，不再向复制线程抛出
+                callback.fail(ex);
+                return isSent;
+            }
+            isSent = true;
+            if (request.getEntriesCount() == 0) {
+                break;
             }
-        } finally {
-            lock.unlock();
         }
+        return isSent;
+    }
 
-        LOG.debug("is need snapshot={}, peer={}", isNeedInstallSnapshot, peer.getStorageServer().getServerId());
-        if (isNeedInstallSnapshot) {
-            if (!installSnap(peer)) {
-                return false;
+    // in lock
+    private RaftProto.AppendEntriesRequest buildAppendEntriesRequest(
+            long prevLogIndex, long lastSnapshotIndex, long lastSnapshotTerm, boolean withEntries) {
+        RaftProto.AppendEntriesRequest.Builder requestBuilder = RaftProto.AppendEntriesRequest.newBuilder();
+        long prevLogTerm;
+        if (prevLogIndex == 0) {
+            prevLogTerm = 0;
+        } else if (prevLogIndex == lastSnapshotIndex) {
+            prevLogTerm = lastSnapshotTerm;
+        } else {
+            prevLogTerm = raftLog.getEntryTerm(prevLogIndex);
+        }
+        requestBuilder.setServerId(localServer.getServerId());
+        requestBuilder.setTerm(currentTerm);
+        requestBuilder.setPrevLogTerm(prevLogTerm);
+        requestBuilder.setPrevLogIndex(prevLogIndex);
+        long numEntries = 0;
+        if (withEntries) {
+            numEntries = packEntries(prevLogIndex + 1, requestBuilder);
+        }
+        requestBuilder.setCommitIndex(Math.min(commitIndex, prevLogIndex + numEntries));
+        requestBuilder.setLeaderCommitIndex(commitIndex);
+        return requestBuilder.build();
+    }
+
+    /**
+     * in lock, 开始一轮ReadIndex确认：向每个peer异步发送一个不携带日志的心跳，
+     * 以matchIndex作为prevLogIndex，不改变复制流水线的状态。
+     * 等待中的读请求全部并入这一轮，大多数节点响应后一起放行。
+     */
+    private void startReadIndexRound() {
+        final ReadIndexRound round = pendingReadRound;
+        pendingReadRound = null;
+        inflightReadRound = round;
+        round.seq = ++readIndexSeq;
+        round.quorum = configuration.getServersCount() / 2 + 1;
+        // leader自己算一票
+        round.ackNum = 1;
+        LOG.debug("start read index round, seq={}, readers={}", round.seq, round.readerNum);
+        if (round.ackNum >= round.quorum) {
+            finishReadIndexRound(round, true);
+            return;
+        }
+        long lastSnapshotIndex = snapshot.getMeta().getLastIncludedIndex();
+        long lastSnapshotTerm = snapshot.getMeta().getLastIncludedTerm();
+        List<Peer> peers = new ArrayList<>();
+        for (RaftProto.Server server : configuration.getServersList()) {
+            Peer peer = peerMap.get(server.getServerId());
+            if (peer != null && server.getServerId() != localServer.getServerId()) {
+                peers.add(peer);
             }
         }
+        // 先记下需要等待的peer数，回调可能在发送时就被调用
+        round.waitingNum = peers.size();
+        if (round.waitingNum == 0) {
+            finishReadIndexRound(round, false);
+            return;
+        }
+        for (final Peer peer : peers) {
+            final RaftProto.AppendEntriesRequest request = buildAppendEntriesRequest(
+                    peer.getMatchIndex(), lastSnapshotIndex, lastSnapshotTerm, false);
+            final long sendTime = System.nanoTime();
+            peer.getRaftConsensusServiceAsync().appendEntries(request,
+                    new RpcCallback<RaftProto.AppendEntriesResponse>() {
+                        @Override
+                        public void success(RaftProto.AppendEntriesResponse response) {
+                            onReadIndexResponse(round, peer, request, response, sendTime);
+                        }
 
-        long lastSnapshotIndex;
-        long lastSnapshotTerm;
-        snapshot.getLock().lock();
-        try {
-            lastSnapshotIndex = snapshot.getMeta().getLastIncludedIndex();
-            lastSnapshotTerm = snapshot.getMeta().getLastIncludedTerm();
-        } finally {
-            snapshot.getLock().unlock();
+                        @Override
+                        public void fail(Throwable e) {
+                            LOG.warn("read index heartbeat with peer[{}:{}] failed",
+                                    peer.getStorageServer().getEndpoint().getHost(),
+                                    peer.getStorageServer().getEndpoint().getPort());
+                            onReadIndexResponse(round, peer, request, null, sendTime);
+                        }
+                    });
         }
+        // 响应丢失时不能让后面的读请求一直排队
+        scheduledExecutorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock();
+                try {
+                    finishReadIndexRound(round, false);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }, RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+    }
 
+    private void onReadIndexResponse(ReadIndexRound round, Peer peer, RaftProto.AppendEntriesRequest request,
+                                     RaftProto.AppendEntriesResponse response, long sendTime) {
         lock.lock();
         try {
-            long firstLogIndex = raftLog.getFirstLogIndex();
-            Validate.isTrue(peer.getNextIndex() >= firstLogIndex);
-            prevLogIndex = peer.getNextIndex() - 1;
-            long prevLogTerm;
-            if (prevLogIndex == 0) {
-                prevLogTerm = 0;
-            } else if (prevLogIndex == lastSnapshotIndex) {
-                prevLogTerm = lastSnapshotTerm;
-            } else {
-                prevLogTerm = raftLog.getEntryTerm(prevLogIndex);
+            round.waitingNum--;
+            if (response != null) {
+                if (response.getTerm() > currentTerm) {
+                    stepDown(response.getTerm());
+                } else if (state == NodeState.STATE_LEADER && response.getTerm() == request.getTerm()
+                        && request.getTerm() == currentTerm) {
+                    updateLeaseAck(peer, sendTime);
+                    round.ackNum++;
+                }
+            }
+            if (round.ackNum >= round.quorum) {
+                finishReadIndexRound(round, true);
+            } else if (round.waitingNum == 0) {
+                finishReadIndexRound(round, false);
             }
-            requestBuilder.setServerId(localServer.getServerId());
-            requestBuilder.setTerm(currentTerm);
-            requestBuilder.setPrevLogTerm(prevLogTerm);
-            requestBuilder.setPrevLogIndex(prevLogIndex);
-            numEntries = packEntries(peer.getNextIndex(), requestBuilder);
-            requestBuilder.setCommitIndex(Math.min(commitIndex, prevLogIndex + numEntries));
         } finally {
             lock.unlock();
         }
+    }
+
+    // in lock, 结束一轮确认，有等待的读请求时立即开始下一轮
+    private void finishReadIndexRound(ReadIndexRound round, boolean confirmed) {
+        if (round.future.isDone()) {
+            return;
+        }
+        round.future.complete(confirmed && state == NodeState.STATE_LEADER);
+        LOG.debug("finish read index round, seq={}, confirmed={}", round.seq, confirmed);
+        if (inflightReadRound == round) {
+            inflightReadRound = null;
+            if (pendingReadRound != null && state == NodeState.STATE_LEADER) {
+                startReadIndexRound();
+            }
+        }
+    }
 
-        RaftProto.AppendEntriesRequest request = requestBuilder.build();
-        RaftProto.AppendEntriesResponse response = peer.getRaftConsensusServiceAsync().appendEntries(request);
+    // in lock, 失去leader身份后，等待确认的读请求直接返回失败
+    private void failReadIndexRounds() {
+        if (inflightReadRound != null) {
+            inflightReadRound.future.complete(false);
+            inflightReadRound = null;
+        }
+        if (pendingReadRound != null) {
+            pendingReadRound.future.complete(false);
+            pendingReadRound = null;
+        }
+    }
 
-        lock.lock();
-        try {
-            if (response == null) {
-                LOG.warn("appendEntries with peer[{}:{}] failed",
-                        peer.getStorageServer().getEndpoint().getHost(),
-                        peer.getStorageServer().getEndpoint().getPort());
-                if (!ConfigurationUtils.containsStorageServer(configuration, peer.getStorageServer().getServerId())) {
-                    peerMap.remove(peer.getStorageServer().getServerId());
-                    peer.getRpcClient().stop();
-                }
-                return false;
+    private class AppendEntriesResponseCallback implements RpcCallback<RaftProto.AppendEntriesResponse> {
+        private Peer peer;
+        private RaftProto.AppendEntriesRequest request;
+        // 发送请求时peer的复制纪元，纪元变化说明流水线已经回退，之前发出的请求作废
+        private long replicateEpoch;
+        private long sendTime;
+        // 每个请求的结果只处理一次，发送时抛出的异常与回调不会重复处理
+        private final AtomicBoolean isHandled = new AtomicBoolean(false);
+
+        public AppendEntriesResponseCallback(Peer peer, RaftProto.AppendEntriesRequest request,
+                                             long replicateEpoch) {
+            this.peer = peer;
+            this.request = request;
+            this.replicateEpoch = replicateEpoch;
+            this.sendTime = System.nanoTime();
+        }
+
+        @Override
+        public void success(RaftProto.AppendEntriesResponse response) {
+            if (!isHandled.compareAndSet(false, true)) {
+                return;
             }
-            LOG.info("AppendEntries response[{}] from server {} " +
-                            "in term {} (my term is {})",
-                    response.getResCode(), peer.getStorageServer().getServerId(),
-                    response.getTerm(), currentTerm);
+            boolean isNeedReplicate = false;
+            lock.lock();
+            try {
+                peer.setInflightRequests(peer.getInflightRequests() - 1);
+                LOG.info("AppendEntries response[{}] from server {} " +
+                                "in term {} (my term is {})",
+                        response.getResCode(), peer.getStorageServer().getServerId(),
+                        response.getTerm(), currentTerm);
 
-            if (response.getTerm() > currentTerm) {
-                stepDown(response.getTerm());
-            } else {
+                if (response.getTerm() > currentTerm) {
+                    stepDown(response.getTerm());
+                    return;
+                }
+                if (state != NodeState.STATE_LEADER || request.getTerm() != currentTerm) {
+                    LOG.info("ignore AppendEntries RPC result of term {}", request.getTerm());
+                    return;
+                }
+                // 无论日志是否匹配，follower在当前任期内的响应都说明它在发送时刻之后仍然认可本节点为leader
+                updateLeaseAck(peer, sendTime);
                 if (response.getResCode() == RaftProto.ResCode.RES_CODE_SUCCESS) {
-                    peer.setMatchIndex(prevLogIndex + numEntries);
-                    peer.setNextIndex(peer.getMatchIndex() + 1);
+                    // 成功的响应即使来自已作废的请求，其匹配信息仍然有效
+                    long lastIndex = request.getPrevLogIndex() + request.getEntriesCount();
+                    if (lastIndex > peer.getMatchIndex()) {
+                        peer.setMatchIndex(lastIndex);
+                    }
+                    if (peer.getNextIndex() <= peer.getMatchIndex()) {
+                        peer.setNextIndex(peer.getMatchIndex() + 1);
+                    }
                     if (ConfigurationUtils.containsStorageServer(configuration, peer.getStorageServer().getServerId())) {
                         advanceCommitIndex();
                     } else {
@@ -284,15 +649,44 @@ public class RaftNode {
                             catchUpCondition.signalAll();
                         }
                     }
-                } else {
+                    isNeedReplicate = peer.getNextIndex() <= raftLog.getLastLogIndex();
+                } else if (replicateEpoch == peer.getReplicateEpoch()) {
+                    // 回退nextIndex，之前乐观发出的请求都作废
                     peer.setNextIndex(response.getLastLogIndex() + 1);
+                    peer.setReplicateEpoch(replicateEpoch + 1);
+                    isNeedReplicate = true;
                 }
+            } finally {
+                lock.unlock();
+            }
+            if (isNeedReplicate) {
+                wakeupReplicator(peer);
             }
-        } finally {
-            lock.unlock();
         }
 
-        return true;
+        @Override
+        public void fail(Throwable e) {
+            if (!isHandled.compareAndSet(false, true)) {
+                return;
+            }
+            LOG.warn("appendEntries with peer[{}:{}] failed",
+                    peer.getStorageServer().getEndpoint().getHost(),
+                    peer.getStorageServer().getEndpoint().getPort());
+            lock.lock();
+            try {
+                peer.setInflightRequests(peer.getInflightRequests() - 1);
+                if (!ConfigurationUtils.containsStorageServer(configuration, peer.getStorageServer().getServerId())) {
+                    peerMap.remove(peer.getStorageServer().getServerId());
+                    peer.stop();
+                } else if (replicateEpoch == peer.getReplicateEpoch()) {
+                    // 请求可能丢失，从matchIndex之后重新发送
+                    peer.setNextIndex(peer.getMatchIndex() + 1);
+                    peer.setReplicateEpoch(replicateEpoch + 1);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 
     // in lock
@@ -308,6 +702,8 @@ public class RaftNode {
             raftLog.updateMeta(currentTerm, votedFor, null, null);
         }
         state = NodeState.STATE_FOLLOWER;
+        failPendingProposals();
+        failReadIndexRounds();
         // stop heartbeat
         if (heartbeatScheduledFuture != null && !heartbeatScheduledFuture.isDone()) {
             heartbeatScheduledFuture.cancel(true);
@@ -321,62 +717,89 @@ public class RaftNode {
             return;
         }
 
-        snapshot.getIsTakeSnap().compareAndSet(false, true);
+        if (!snapshot.getIsTakeSnap().compareAndSet(false, true)) {
+            return;
+        }
         try {
+            double freeDiskRatio = getFreeDiskRatio();
+            SnapshotPolicy.Trigger trigger;
+            long logSize;
+            lock.lock();
+            try {
+                logSize = raftLog.getTotalSize();
+                trigger = snapshotPolicy.check(logSize,
+                        lastAppliedIndex - snapshot.getMeta().getLastIncludedIndex(),
+                        freeDiskRatio, System.nanoTime());
+            } finally {
+                lock.unlock();
+            }
+            if (trigger == SnapshotPolicy.Trigger.NONE) {
+                return;
+            }
+            LOG.info("snapshot triggered, trigger={} logSize={} freeDiskRatio={} applyNanosPerEntry={}",
+                    trigger, logSize, freeDiskRatio, snapshotPolicy.getApplyNanosPerEntry());
+
             long localLastAppliedIndex;
             long lastAppliedTerm = 0;
             RaftProto.Configuration.Builder localConfiguration = RaftProto.Configuration.newBuilder();
-            lock.lock();
+            StateMachine.SnapshotWriter snapshotWriter;
+            // 暂停apply，固定状态机在lastAppliedIndex处的时间点视图
+            applyLock.lock();
             try {
-                if (raftLog.getTotalSize() < RaftOptions.getSnapshotMinLogSize()) {
-                    return;
-                }
-                if (lastAppliedIndex <= snapshot.getMeta().getLastIncludedIndex()) {
-                    return;
-                }
-                localLastAppliedIndex = lastAppliedIndex;
-                if (lastAppliedIndex >= raftLog.getFirstLogIndex()
-                        && lastAppliedIndex <= raftLog.getLastLogIndex()) {
-                    lastAppliedTerm = raftLog.getEntryTerm(lastAppliedIndex);
+                lock.lock();
+                try {
+                    if (lastAppliedIndex <= snapshot.getMeta().getLastIncludedIndex()) {
+                        return;
+                    }
+                    localLastAppliedIndex = lastAppliedIndex;
+                    if (lastAppliedIndex >= raftLog.getFirstLogIndex()
+                            && lastAppliedIndex <= raftLog.getLastLogIndex()) {
+                        lastAppliedTerm = raftLog.getEntryTerm(lastAppliedIndex);
+                    }
+                    localConfiguration.mergeFrom(configuration);
+                } finally {
+                    lock.unlock();
                 }
-                localConfiguration.mergeFrom(configuration);
+                snapshotWriter = stateMachine.prepareSnap(localLastAppliedIndex);
             } finally {
-                lock.unlock();
+                applyLock.unlock();
             }
 
+            LOG.info("start taking snapshot");
+            // 使用单独的临时目录，不和follower接收snapshot的临时目录冲突
+            String tmpSnapshotDir = snapshot.getSnapshotDir() + ".taking";
+            String tmpSnapshotDataDir = tmpSnapshotDir + File.separator + "data";
+            FileUtils.deleteQuietly(new File(tmpSnapshotDir));
             boolean success = false;
-            snapshot.getLock().lock();
-            try {
-                LOG.info("start taking snapshot");
-                // take snapshot
-                String tmpSnapshotDir = snapshot.getSnapshotDir() + ".tmp";
+            if (snapshotWriter != null) {
+                // 在后台写出时间点视图，不持有raft锁和snapshot锁，期间照常apply，也可以向follower发送当前snapshot
                 snapshot.updateMeta(tmpSnapshotDir, localLastAppliedIndex,
                         lastAppliedTerm, localConfiguration.build());
-                String tmpSnapshotDataDir = tmpSnapshotDir + File.separator + "data";
-                stateMachine.writeSnap(snapshot.getSnapshotDir(), tmpSnapshotDataDir, this, localLastAppliedIndex);
-                // rename tmp snapshot dir to snapshot dir
-                try {
-                    File snapshotDirFile = new File(snapshot.getSnapshotDir());
-                    if (snapshotDirFile.exists()) {
-                        FileUtils.deleteDirectory(snapshotDirFile);
+                if (snapshotWriter.write(tmpSnapshotDataDir)) {
+                    snapshot.getLock().lock();
+                    try {
+                        success = replaceSnapshotDir(tmpSnapshotDir);
+                    } finally {
+                        snapshot.getLock().unlock();
                     }
-                    FileUtils.moveDirectory(new File(tmpSnapshotDir),
-                            new File(snapshot.getSnapshotDir()));
-                    LOG.info("end taking snapshot, result=success");
-                    success = true;
-                } catch (IOException ex) {
-                    LOG.warn("move direct failed when taking snapshot, msg={}", ex.getMessage());
                 }
-            } finally {
-                snapshot.getLock().unlock();
+            } else {
+                snapshot.getLock().lock();
+                try {
+                    snapshot.updateMeta(tmpSnapshotDir, localLastAppliedIndex,
+                            lastAppliedTerm, localConfiguration.build());
+                    stateMachine.writeSnap(snapshot.getSnapshotDir(), tmpSnapshotDataDir, this, localLastAppliedIndex);
+                    success = replaceSnapshotDir(tmpSnapshotDir);
+                } finally {
+                    snapshot.getLock().unlock();
+                }
             }
+            LOG.info("end taking snapshot, result={}", success ? "success" : "fail");
 
             if (success) {
-                // 重新加载snapshot
-                long lastSnapshotIndex = 0;
+                long lastSnapshotIndex;
                 snapshot.getLock().lock();
                 try {
-                    snapshot.reload();
                     lastSnapshotIndex = snapshot.getMeta().getLastIncludedIndex();
                 } finally {
                     snapshot.getLock().unlock();
@@ -385,9 +808,14 @@ public class RaftNode {
                 // discard old log entries
                 lock.lock();
                 try {
-                    if (lastSnapshotIndex > 0 && raftLog.getFirstLogIndex() <= lastSnapshotIndex) {
-                        raftLog.truncatePrefix(lastSnapshotIndex + 1);
+                    long truncateIndex = lastSnapshotIndex;
+                    if (trigger == SnapshotPolicy.Trigger.NORMAL) {
+                        truncateIndex = Math.min(truncateIndex, getRetainedLogIndex());
                     }
+                    if (truncateIndex > 0 && raftLog.getFirstLogIndex() <= truncateIndex) {
+                        raftLog.truncatePrefix(truncateIndex + 1);
+                    }
+                    snapshotPolicy.recordSnapshot(System.nanoTime(), raftLog.getTotalSize());
                 } finally {
                     lock.unlock();
                 }
@@ -397,11 +825,63 @@ public class RaftNode {
         }
     }
 
+    /**
+     * in lock, 在线follower还需要的最小日志索引，截断日志时保留它之后的日志，避免follower只能安装snapshot；
+     * 超过选举超时时间没有响应的follower不再保留，由日志总大小上限和磁盘空间兜底
+     */
+    private long getRetainedLogIndex() {
+        long retainedIndex = Long.MAX_VALUE;
+        if (state != NodeState.STATE_LEADER) {
+            return retainedIndex;
+        }
+        long now = System.nanoTime();
+        long aliveNanos = TimeUnit.MILLISECONDS.toNanos(RaftOptions.getElectionTimeoutMilliseconds());
+        for (Peer peer : peerMap.values()) {
+            // 已经落后到日志之外的follower本来就需要安装snapshot，不用保留
+            if (peer.getLastAckSendTime() != 0 && now - peer.getLastAckSendTime() < aliveNanos
+                    && peer.getMatchIndex() + 1 >= raftLog.getFirstLogIndex()) {
+                retainedIndex = Math.min(retainedIndex, peer.getMatchIndex());
+            }
+        }
+        return retainedIndex;
+    }
+
+    // 数据目录所在磁盘的剩余空间比例
+    private double getFreeDiskRatio() {
+        File dataDir = new File(RaftOptions.getDataDir());
+        long totalSpace = dataDir.getTotalSpace();
+        if (totalSpace <= 0) {
+            return 1.0;
+        }
+        return (double) dataDir.getUsableSpace() / totalSpace;
+    }
+
+    /**
+     * in snapshot lock, 用新生成的snapshot目录替换当前snapshot目录并重新加载元数据，
+     * 正在发送的旧snapshot文件已经打开，替换不影响发送
+     * @param newSnapshotDir 新snapshot目录
+     * @return 是否替换成功
+     */
+    private boolean replaceSnapshotDir(String newSnapshotDir) {
+        try {
+            File snapshotDirFile = new File(snapshot.getSnapshotDir());
+            if (snapshotDirFile.exists()) {
+                FileUtils.deleteDirectory(snapshotDirFile);
+            }
+            FileUtils.moveDirectory(new File(newSnapshotDir), snapshotDirFile);
+            snapshot.reload();
+            return true;
+        } catch (IOException ex) {
+            LOG.warn("move direct failed when taking snapshot, msg={}", ex.getMessage());
+            return false;
+        }
+    }
+
     // in lock
     public void applyConfig(RaftProto.LogEntry entry) {
         try {
             RaftProto.Configuration newConfiguration
-                    = RaftProto.Configuration.parseFrom(entry.getData().toByteArray());
+                    = RaftProto.Configuration.parseFrom(entry.getData());
             configuration = newConfiguration;
             // update peerMap
             for (RaftProto.Server server : newConfiguration.getServersList()) {
@@ -698,10 +1178,20 @@ public class RaftNode {
     private void becomeLeader() {
         state = NodeState.STATE_LEADER;
         leaderId = localServer.getServerId();
+        // 之前任期的响应不能用于本任期的租约
+        for (Peer peer : peerMap.values()) {
+            peer.setLastAckSendTime(0);
+        }
         // stop vote timer
         if (electionScheduledFuture != null && !electionScheduledFuture.isDone()) {
             electionScheduledFuture.cancel(true);
         }
+        // 追加一条当前任期的空日志，提交后之前任期的日志也随之提交，租约读才能使用commitIndex
+        RaftProto.LogEntry noopEntry = RaftProto.LogEntry.newBuilder()
+                .setTerm(currentTerm)
+                .setType(RaftProto.EntryType.ENTRY_TYPE_NOOP)
+                .build();
+        raftLog.append(Collections.singletonList(noopEntry));
         // start heartbeat timer
         startNewHeartbeat();
     }
@@ -723,13 +1213,8 @@ public class RaftNode {
     // in lock, 开始心跳，对leader有效
     private void startNewHeartbeat() {
         LOG.debug("start new heartbeat, peers={}", peerMap.keySet());
-        for (final Peer peer : peerMap.values()) {
-            executorService.submit(new Runnable() {
-                @Override
-                public void run() {
-                    appendEntries(peer);
-                }
-            });
+        for (Peer peer : peerMap.values()) {
+            wakeupReplicator(peer);
         }
         resetHeartbeatTimer();
     }
@@ -759,21 +1244,112 @@ public class RaftNode {
         if (commitIndex >= newCommitIndex) {
             return;
         }
-        long oldCommitIndex = commitIndex;
         commitIndex = newCommitIndex;
         raftLog.updateMeta(currentTerm, null, raftLog.getFirstLogIndex(), commitIndex);
-        // 同步到状态机
-        for (long index = oldCommitIndex + 1; index <= newCommitIndex; index++) {
-            RaftProto.LogEntry entry = raftLog.getEntry(index);
+        // 由apply线程同步到状态机
+        signalApply();
+    }
+
+    // in lock, commitIndex前进后通知apply线程
+    public void signalApply() {
+        applyCondition.signalAll();
+    }
+
+    /**
+     * apply线程：按顺序把已提交的日志应用到状态机。
+     * 应用数据时不持有raft锁，状态机写入慢不会影响心跳、选举和日志复制；
+     * 每批应用完成后更新lastAppliedIndex，完成对应的proposal并唤醒等待读的线程。
+     */
+    private void applyCommittedEntries() {
+        while (!Thread.currentThread().isInterrupted()) {
+            lock.lock();
+            try {
+                while (lastAppliedIndex >= commitIndex) {
+                    applyCondition.await();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            applyLock.lock();
+            try {
+                long toIndex;
+                List<RaftProto.LogEntry> entries = new ArrayList<>();
+                lock.lock();
+                try {
+                    // 等待期间可能安装了snapshot，重新确定范围；
+                    // 读日志在锁内完成（基本命中缓存），避免和segment切换、截断并发，只有应用状态机放在锁外
+                    long fromIndex = lastAppliedIndex + 1;
+                    toIndex = Math.min(commitIndex, lastAppliedIndex + RaftOptions.getMaxLogEntriesPerRequest());
+                    for (long index = fromIndex; index <= toIndex; index++) {
+                        RaftProto.LogEntry entry = raftLog.getEntry(index);
+                        if (entry == null) {
+                            LOG.warn("entry not found when apply, index={}", index);
+                            toIndex = index - 1;
+                            break;
+                        }
+                        entries.add(entry);
+                    }
+                    if (entries.isEmpty()) {
+                        // 读不到日志时稍后重试，避免空转
+                        applyCondition.await(100, TimeUnit.MILLISECONDS);
+                        continue;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                long startTime = System.nanoTime();
+                applyEntries(entries);
+                snapshotPolicy.recordApply(entries.size(), System.nanoTime() - startTime);
+                lock.lock();
+                try {
+                    if (toIndex > lastAppliedIndex) {
+                        lastAppliedIndex = toIndex;
+                    }
+                    LOG.debug("commitIndex={} lastAppliedIndex={}", commitIndex, lastAppliedIndex);
+                    completeProposals(lastAppliedIndex);
+                    commitIndexCondition.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (Exception ex) {
+                LOG.error("apply committed entries meet exception:", ex);
+            } finally {
+                applyLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 连续的数据日志合并成一批交给状态机，配置日志在锁内单独应用，空日志直接跳过。
+     * 日志条目直接交给状态机，状态机可以在ByteString上解析数据，不需要先拷贝成byte[]
+     */
+    private void applyEntries(List<RaftProto.LogEntry> entries) {
+        List<RaftProto.LogEntry> dataEntries = new ArrayList<>();
+        for (RaftProto.LogEntry entry : entries) {
             if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_DATA) {
-                stateMachine.applyData(entry.getData().toByteArray());
+                dataEntries.add(entry);
             } else if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_CONFIGURATION) {
-                applyConfig(entry);
+                if (!dataEntries.isEmpty()) {
+                    stateMachine.applyDataBatch(dataEntries);
+                    dataEntries = new ArrayList<>();
+                }
+                lock.lock();
+                try {
+                    applyConfig(entry);
+                } finally {
+                    lock.unlock();
+                }
             }
         }
-        lastAppliedIndex = commitIndex;
-        LOG.debug("commitIndex={} lastAppliedIndex={}", commitIndex, lastAppliedIndex);
-        commitIndexCondition.signalAll();
+        if (!dataEntries.isEmpty()) {
+            stateMachine.applyDataBatch(dataEntries);
+        }
     }
 
     // in lock
@@ -788,62 +1364,37 @@ public class RaftNode {
     }
 
     private boolean installSnap(Peer peer) {
-        if (snapshot.getIsTakeSnap().get()) {
-            LOG.info("already in take snapshot, please send install snapshot request later");
-            return false;
-        }
         if (!snapshot.getIsinstallSnap().compareAndSet(false, true)) {
             LOG.info("already in install snapshot");
             return false;
         }
 
         LOG.info("begin send install snapshot request to server={}", peer.getStorageServer().getServerId());
-        boolean isSuccess = true;
-        TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap = snapshot.openSnapshotFiles();
+        boolean isSuccess = false;
+        // 元数据和文件一起获取，之后即使本节点生成了新的snapshot，发送的仍是同一个snapshot
+        TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap;
+        RaftProto.SnapshotMetaData metaData;
+        snapshot.getLock().lock();
+        try {
+            snapshotDataFileMap = snapshot.openSnapshotFiles();
+            metaData = snapshot.getMeta();
+        } finally {
+            snapshot.getLock().unlock();
+        }
         LOG.info("total snapshot files={}", snapshotDataFileMap.keySet());
         try {
-            boolean isLastRequest = false;
-            String lastFileName = null;
-            long lastOffset = 0;
-            long lastLength = 0;
-            while (!isLastRequest) {
-                RaftProto.InstallSnapshotRequest request
-                        = buildInstallSnapshotRequest(snapshotDataFileMap, lastFileName, lastOffset, lastLength);
-                if (request == null) {
-                    LOG.warn("snapshot request == null");
-                    isSuccess = false;
-                    break;
-                }
-                if (request.getIsLast()) {
-                    isLastRequest = true;
-                }
-                LOG.info("install snapshot request, fileName={}, offset={}, size={}, isFirst={}, isLast={}",
-                        request.getFileName(), request.getOffset(), request.getData().toByteArray().length,
-                        request.getIsFirst(), request.getIsLast());
-                RaftProto.InstallSnapshotResponse response
-                        = peer.getRaftConsensusServiceAsync().installSnap(request);
-                if (response != null && response.getResCode() == RaftProto.ResCode.RES_CODE_SUCCESS) {
-                    lastFileName = request.getFileName();
-                    lastOffset = request.getOffset();
-                    lastLength = request.getData().size();
-                } else {
-                    isSuccess = false;
-                    break;
-                }
+            List<RaftProto.SnapshotChunk> chunks = splitSnapshotChunks(snapshotDataFileMap);
+            if (chunks.isEmpty()) {
+                LOG.warn("snapshot has no data file");
+            } else {
+                isSuccess = sendSnapshotChunks(peer, metaData, snapshotDataFileMap, chunks);
             }
 
             if (isSuccess) {
-                long lastIncludedIndexInSnapshot;
-                snapshot.getLock().lock();
-                try {
-                    lastIncludedIndexInSnapshot = snapshot.getMeta().getLastIncludedIndex();
-                } finally {
-                    snapshot.getLock().unlock();
-                }
-
                 lock.lock();
                 try {
-                    peer.setNextIndex(lastIncludedIndexInSnapshot + 1);
+                    peer.setNextIndex(metaData.getLastIncludedIndex() + 1);
+                    peer.setReplicateEpoch(peer.getReplicateEpoch() + 1);
                 } finally {
                     lock.unlock();
                 }
@@ -857,69 +1408,163 @@ public class RaftNode {
         return isSuccess;
     }
 
-    private RaftProto.InstallSnapshotRequest buildInstallSnapshotRequest(
-            TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap,
-            String lastFileName, long lastOffset, long lastLength) {
-        RaftProto.InstallSnapshotRequest.Builder requestBuilder = RaftProto.InstallSnapshotRequest.newBuilder();
-
-        snapshot.getLock().lock();
+    /**
+     * 发送snapshot：
+     * 第一个请求只带snapshot元数据和文件清单，follower据此建立临时目录，并复用本地已有的相同文件；
+     * 其余文件的数据块在maxInflightSnapshotRequests窗口内连续发送，不等待前一块的响应，
+     * follower带回的上次已经收到的数据块，校验和一致的不再重复发送；
+     * 最后一个请求会让follower切换snapshot，必须在所有数据块都写入成功后再同步发送。
+     */
+    private boolean sendSnapshotChunks(final Peer peer, RaftProto.SnapshotMetaData metaData,
+                                       TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap,
+                                       List<RaftProto.SnapshotChunk> chunks) {
+        RaftProto.InstallSnapshotResponse firstResponse = sendSnapshotRequest(peer,
+                buildFirstInstallSnapshotRequest(metaData, snapshotDataFileMap));
+        if (firstResponse == null) {
+            return false;
+        }
+        Set<String> reusedFiles = new HashSet<>(firstResponse.getReusedFilesList());
+        Set<RaftProto.SnapshotChunk> receivedChunks = new HashSet<>(firstResponse.getReceivedChunksList());
+        LOG.info("server={} reuses {} of {} snapshot files, already has {} snapshot chunks",
+                peer.getStorageServer().getServerId(), reusedFiles.size(), snapshotDataFileMap.size(),
+                receivedChunks.size());
+
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(RaftOptions.getMaxSnapshotBytesPerRequest());
+        final int maxInflight = Math.max(1, RaftOptions.getMaxInflightSnapshotRequests());
+        final Semaphore inflight = new Semaphore(maxInflight);
+        final AtomicBoolean isFailed = new AtomicBoolean(false);
         try {
-            if (lastFileName == null) {
-                lastFileName = snapshotDataFileMap.firstKey();
-                lastOffset = 0;
-                lastLength = 0;
-            }
-            Snapshot.SnapshotDataFile lastFile = snapshotDataFileMap.get(lastFileName);
-            long lastFileLength = lastFile.randomAccessFile.length();
-            String currentFileName = lastFileName;
-            long currentOffset = lastOffset + lastLength;
-            int currentDataSize = RaftOptions.getMaxSnapshotBytesPerRequest();
-            Snapshot.SnapshotDataFile currentDataFile = lastFile;
-            if (lastOffset + lastLength < lastFileLength) {
-                if (lastOffset + lastLength + RaftOptions.getMaxSnapshotBytesPerRequest() > lastFileLength) {
-                    currentDataSize = (int) (lastFileLength - (lastOffset + lastLength));
+            for (int i = 0; i < chunks.size() && !isFailed.get(); i++) {
+                RaftProto.SnapshotChunk chunk = chunks.get(i);
+                if (reusedFiles.contains(chunk.getFileName())) {
+                    continue;
                 }
-            } else {
-                Map.Entry<String, Snapshot.SnapshotDataFile> currentEntry
-                        = snapshotDataFileMap.higherEntry(lastFileName);
-                if (currentEntry == null) {
-                    LOG.warn("reach the last file={}", lastFileName);
-                    return null;
+                RaftProto.InstallSnapshotRequest rawRequest
+                        = buildInstallSnapshotRequest(metaData, snapshotDataFileMap, chunk, readBuffer);
+                if (rawRequest == null) {
+                    isFailed.set(true);
+                    break;
                 }
-                currentDataFile = currentEntry.getValue();
-                currentFileName = currentEntry.getKey();
-                currentOffset = 0;
-                int currentFileLenght = (int) currentEntry.getValue().randomAccessFile.length();
-                if (currentFileLenght < RaftOptions.getMaxSnapshotBytesPerRequest()) {
-                    currentDataSize = currentFileLenght;
+                if (!receivedChunks.isEmpty() && receivedChunks.contains(chunk.toBuilder()
+                        .setChecksum(RaftFileUtils.getCRC32(rawRequest.getData().asReadOnlyByteBuffer())).build())) {
+                    continue;
+                }
+                final RaftProto.InstallSnapshotRequest request = compressInstallSnapshotRequest(rawRequest);
+                inflight.acquire();
+                logInstallSnapshotRequest(request);
+                RpcCallback<RaftProto.InstallSnapshotResponse> callback
+                        = new RpcCallback<RaftProto.InstallSnapshotResponse>() {
+                    private final AtomicBoolean isHandled = new AtomicBoolean(false);
+
+                    @Override
+                    public void success(RaftProto.InstallSnapshotResponse response) {
+                        if (!isHandled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        if (response.getResCode() != RaftProto.ResCode.RES_CODE_SUCCESS) {
+                            isFailed.set(true);
+                        }
+                        inflight.release();
+                    }
+
+                    @Override
+                    public void fail(Throwable e) {
+                        if (!isHandled.compareAndSet(false, true)) {
+                            return;
+                        }
+                        LOG.warn("install snapshot with peer[{}:{}] failed, fileName={}, offset={}",
+                                peer.getStorageServer().getEndpoint().getHost(),
+                                peer.getStorageServer().getEndpoint().getPort(),
+                                request.getFileName(), request.getOffset());
+                        isFailed.set(true);
+                        inflight.release();
+                    }
+                };
+                try {
+                    peer.getRaftConsensusServiceAsync().installSnap(request, callback);
+                } catch (RuntimeException ex) {
+                    callback.fail(ex);
                 }
             }
-            byte[] currentData = new byte[currentDataSize];
-            currentDataFile.randomAccessFile.seek(currentOffset);
-            currentDataFile.randomAccessFile.read(currentData);
-            requestBuilder.setData(ByteString.copyFrom(currentData));
-            requestBuilder.setFileName(currentFileName);
-            requestBuilder.setOffset(currentOffset);
-            requestBuilder.setIsFirst(false);
-            if (currentFileName.equals(snapshotDataFileMap.lastKey())
-                    && currentOffset + currentDataSize >= currentDataFile.randomAccessFile.length()) {
-                requestBuilder.setIsLast(true);
-            } else {
-                requestBuilder.setIsLast(false);
-            }
-            if (currentFileName.equals(snapshotDataFileMap.firstKey()) && currentOffset == 0) {
-                requestBuilder.setIsFirst(true);
-                requestBuilder.setSnapshotMetaData(snapshot.getMeta());
-            } else {
-                requestBuilder.setIsFirst(false);
+            // 等待所有在途的数据块
+            inflight.acquire(maxInflight);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (isFailed.get()) {
+            return false;
+        }
+        RaftProto.InstallSnapshotRequest.Builder lastRequestBuilder = newInstallSnapshotRequestBuilder(metaData);
+        lastRequestBuilder.setIsLast(true);
+        return sendSnapshotRequest(peer, lastRequestBuilder.build()) != null;
+    }
+
+    // 按配置压缩数据块，校验和仍然按原始数据计算
+    private RaftProto.InstallSnapshotRequest compressInstallSnapshotRequest(RaftProto.InstallSnapshotRequest request) {
+        ByteString compressedData = CompressionUtils.compressIfSmaller(request.getData(),
+                RaftOptions.getCompressionType(), RaftOptions.getCompressionMinBytes());
+        if (compressedData == null) {
+            return request;
+        }
+        return request.toBuilder()
+                .setData(compressedData)
+                .setCompression(RaftOptions.getCompressionType())
+                .build();
+    }
+
+    // 同步发送一个请求，失败时返回null
+    private RaftProto.InstallSnapshotResponse sendSnapshotRequest(Peer peer, RaftProto.InstallSnapshotRequest request) {
+        if (request == null) {
+            LOG.warn("snapshot request == null");
+            return null;
+        }
+        logInstallSnapshotRequest(request);
+        RaftProto.InstallSnapshotResponse response = peer.getRaftConsensusServiceAsync().installSnap(request);
+        if (response == null || response.getResCode() != RaftProto.ResCode.RES_CODE_SUCCESS) {
+            return null;
+        }
+        return response;
+    }
+
+    private void logInstallSnapshotRequest(RaftProto.InstallSnapshotRequest request) {
+        LOG.info("install snapshot request, fileName={}, offset={}, size={}, isFirst={}, isLast={}",
+                request.getFileName(), request.getOffset(), request.getData().size(),
+                request.getIsFirst(), request.getIsLast());
+    }
+
+    // 按maxSnapshotBytesPerRequest把snapshot文件切分成数据块，空文件也占一块，保证follower会创建它
+    private List<RaftProto.SnapshotChunk> splitSnapshotChunks(TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap) {
+        List<RaftProto.SnapshotChunk> chunks = new ArrayList<>();
+        int maxChunkSize = RaftOptions.getMaxSnapshotBytesPerRequest();
+        snapshot.getLock().lock();
+        try {
+            for (Snapshot.SnapshotDataFile dataFile : snapshotDataFileMap.values()) {
+                long fileLength = dataFile.randomAccessFile.length();
+                long offset = 0;
+                do {
+                    int length = (int) Math.min(maxChunkSize, fileLength - offset);
+                    chunks.add(RaftProto.SnapshotChunk.newBuilder()
+                            .setFileName(dataFile.fileName)
+                            .setOffset(offset)
+                            .setLength(length).build());
+                    offset += length;
+                } while (offset < fileLength);
             }
-        } catch (Exception ex) {
+        } catch (IOException ex) {
             LOG.warn("meet exception:", ex);
-            return null;
+            chunks.clear();
         } finally {
             snapshot.getLock().unlock();
         }
+        return chunks;
+    }
 
+    // 每个请求都带上snapshot元数据，follower据此丢弃不属于正在接收的snapshot的请求
+    private RaftProto.InstallSnapshotRequest.Builder newInstallSnapshotRequestBuilder(
+            RaftProto.SnapshotMetaData metaData) {
+        RaftProto.InstallSnapshotRequest.Builder requestBuilder = RaftProto.InstallSnapshotRequest.newBuilder();
+        requestBuilder.setSnapshotMetaData(metaData);
         lock.lock();
         try {
             requestBuilder.setTerm(currentTerm);
@@ -927,108 +1572,395 @@ public class RaftNode {
         } finally {
             lock.unlock();
         }
+        return requestBuilder;
+    }
 
+    private RaftProto.InstallSnapshotRequest buildFirstInstallSnapshotRequest(
+            RaftProto.SnapshotMetaData metaData, TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap) {
+        RaftProto.InstallSnapshotRequest.Builder requestBuilder = newInstallSnapshotRequestBuilder(metaData);
+        snapshot.getLock().lock();
+        try {
+            requestBuilder.addAllFiles(snapshot.getManifest(metaData, snapshotDataFileMap));
+            requestBuilder.setIsFirst(true);
+        } catch (IOException ex) {
+            LOG.warn("meet exception:", ex);
+            return null;
+        } finally {
+            snapshot.getLock().unlock();
+        }
+        return requestBuilder.build();
+    }
+
+    private RaftProto.InstallSnapshotRequest buildInstallSnapshotRequest(
+            RaftProto.SnapshotMetaData metaData, TreeMap<String, Snapshot.SnapshotDataFile> snapshotDataFileMap,
+            RaftProto.SnapshotChunk chunk, ByteBuffer readBuffer) {
+        RaftProto.InstallSnapshotRequest.Builder requestBuilder = newInstallSnapshotRequestBuilder(metaData);
+        snapshot.getLock().lock();
+        try {
+            // 通过FileChannel按位置读，复用同一个读缓冲区
+            FileChannel channel = snapshotDataFileMap.get(chunk.getFileName()).randomAccessFile.getChannel();
+            readBuffer.clear();
+            readBuffer.limit(chunk.getLength());
+            long position = chunk.getOffset();
+            while (readBuffer.hasRemaining()) {
+                int readLen = channel.read(readBuffer, position);
+                if (readLen < 0) {
+                    LOG.warn("snapshot file {} is shorter than expected", chunk.getFileName());
+                    return null;
+                }
+                position += readLen;
+            }
+            readBuffer.flip();
+            requestBuilder.setData(ByteString.copyFrom(readBuffer));
+            requestBuilder.setFileName(chunk.getFileName());
+            requestBuilder.setOffset(chunk.getOffset());
+        } catch (Exception ex) {
+            LOG.warn("meet exception:", ex);
+            return null;
+        } finally {
+            snapshot.getLock().unlock();
+        }
         return requestBuilder.build();
     }
 
     public boolean waitUntilApplied() {
-        final CountDownLatch cdl;
+        if (RaftOptions.isLeaseReadEnabled()) {
+            lock.lock();
+            try {
+                if (isLeaseValid()) {
+                    // 租约有效，本节点一定是leader，commitIndex即为readIndex，不需要再与follower确认
+                    return waitForApplied(commitIndex);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+            LOG.debug("leader lease is not valid, fallback to read index");
+        }
         long readIndex;
+        ReadIndexRound round;
         lock.lock();
         try {
-            // 记录当前commitIndex为readIndex
-            // 创建CountDownLatch，值为Peer节点数的一半（向上取整，加上Leader节点本身即可超过半数）
+            if (state != NodeState.STATE_LEADER) {
+                return false;
+            }
+            // 记录当前commitIndex为readIndex，并加入下一轮确认；
+            // 正在进行的一轮的心跳在本请求到达之前就发出了，不能用来确认本请求
             readIndex = commitIndex;
-            int peerNum = configuration.getServersList().size();
-            cdl = new CountDownLatch((peerNum + 1) >> 1);
-
-            // 向所有Follower节点发送心跳包，如果得到响应就让CountDownLatch减一
-            LOG.debug("ensure leader, peers={}", peerMap.keySet());
-            for (final Peer peer : peerMap.values()) {
-                executorService.submit(new Runnable() {
-                    @Override
-                    public void run() {
-                        if (appendEntries(peer)) {
-                            cdl.countDown();
-                        }
-                    }
-                });
+            if (pendingReadRound == null) {
+                pendingReadRound = new ReadIndexRound();
+            }
+            round = pendingReadRound;
+            round.readerNum++;
+            if (inflightReadRound == null) {
+                startReadIndexRound();
             }
         } finally {
             lock.unlock();
         }
 
-        // 等待CountDownLatch减为0或超时
+        // 等待大多数节点确认leader身份或超时
         try {
-            if (cdl.await(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS)) {
+            if (round.future.get(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS)) {
                 lock.lock();
                 try {
-                    // 如果CountDownLatch在超时时间内减为0，则成功确认当前节点是Leader节点，等待readIndex之前的日志条目被应用到复制状态机
-                    long startTime = System.currentTimeMillis();
-                    while (lastAppliedIndex < readIndex
-                            && System.currentTimeMillis() - startTime < RaftOptions.getMaxAwaitTimeout()) {
-                        commitIndexCondition.await(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
-                    }
-                    return lastAppliedIndex >= readIndex;
+                    // 成功确认当前节点是Leader节点，等待readIndex之前的日志条目被应用到复制状态机
+                    return waitForApplied(readIndex);
                 } finally {
                     lock.unlock();
                 }
             }
-        } catch (InterruptedException ignore) {
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            LOG.warn("wait read index confirm failed, msg={}", ex.getMessage());
         }
         return false;
     }
 
+    // in lock
+    private void updateLeaseAck(Peer peer, long sendTime) {
+        if (sendTime > peer.getLastAckSendTime()) {
+            peer.setLastAckSendTime(sendTime);
+        }
+    }
+
+    /**
+     * in lock, 判断leader租约是否有效。
+     * 取大多数节点（包括自己）确认过的最早发送时间作为租约起点，租约时长为选举超时时间扣除时钟漂移；
+     * 另外要求当前任期已经提交过日志，保证commitIndex不落后于之前任期的leader。
+     */
+    private boolean isLeaseValid() {
+        if (state != NodeState.STATE_LEADER) {
+            return false;
+        }
+        if (raftLog.getEntryTerm(commitIndex) != currentTerm) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long leaseStart = getQuorumAckSendTime(now);
+        if (leaseStart == 0) {
+            return false;
+        }
+        long leaseNanos = TimeUnit.MILLISECONDS.toNanos((long) (RaftOptions.getElectionTimeoutMilliseconds()
+                * (1 - RaftOptions.getLeaseClockDriftRatio())));
+        return now - leaseStart < leaseNanos;
+    }
+
+    // in lock, 大多数节点（包括自己）确认过的最早发送时间，不足大多数时返回0
+    private long getQuorumAckSendTime(long now) {
+        List<Long> ackTimes = new ArrayList<>();
+        ackTimes.add(now);
+        for (RaftProto.Server server : configuration.getServersList()) {
+            Peer peer = peerMap.get(server.getServerId());
+            if (peer != null && server.getServerId() != localServer.getServerId()) {
+                ackTimes.add(peer.getLastAckSendTime());
+            }
+        }
+        int quorum = configuration.getServersCount() / 2 + 1;
+        if (ackTimes.size() < quorum) {
+            return 0;
+        }
+        Collections.sort(ackTimes, Collections.<Long>reverseOrder());
+        return ackTimes.get(quorum - 1);
+    }
+
+    // in lock, 等待readIndex之前的日志条目被应用到复制状态机
+    private boolean waitForApplied(long readIndex) throws InterruptedException {
+        long startTime = System.currentTimeMillis();
+        while (lastAppliedIndex < readIndex
+                && System.currentTimeMillis() - startTime < RaftOptions.getMaxAwaitTimeout()) {
+            commitIndexCondition.await(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+        }
+        return lastAppliedIndex >= readIndex;
+    }
+
+    /**
+     * 是否在最小选举超时时间内收到过leader的消息，开启租约读时用于拒绝投票。
+     * 刚启动的节点不知道重启前是否有leader，旧leader的租约可能还没过期，启动后的一个选举超时时间内也认为leader存活
+     */
+    public boolean isLeaderAlive() {
+        if (state == NodeState.STATE_LEADER) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long electionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(RaftOptions.getElectionTimeoutMilliseconds());
+        if (now - nodeStartTime < electionTimeoutNanos) {
+            return true;
+        }
+        return leaderId > 0 && now - lastLeaderContactTime < electionTimeoutNanos;
+    }
+
+    public void updateLeaderContactTime() {
+        lastLeaderContactTime = System.nanoTime();
+    }
+
+    /**
+     * follower读：获取leader的commitIndex作为readIndex，并等待readIndex之前的日志条目被应用到复制状态机。
+     * 并发的读请求合并成一次getLeaderCommitIndex请求；
+     * 开启leaderCommitIndexCacheMilliseconds时，直接使用AppendEntries中带来的足够新的leader commitIndex。
+     */
     public boolean waitForLeaderCommitIndex() {
         long readIndex = -1;
-        boolean callLeader = false;
-        Peer leader = null;
+        CommitIndexRound round = null;
 
         lock.lock();
         try {
-            // 记录commitIndex为readIndex
-            // 如果当前节点是Leader节点，则直接获取当前commitIndex，否则通过RPC从Leader节点获取commitIndex
             if (leaderId == localServer.getServerId()) {
                 readIndex = commitIndex;
+            } else if (isLeaderCommitIndexFresh()) {
+                readIndex = leaderCommitIndex;
             } else {
-                callLeader = true;
-                leader = peerMap.get(leaderId);
+                // 正在进行的一轮请求在本请求到达之前就发出了，加入下一轮
+                if (pendingCommitIndexRound == null) {
+                    pendingCommitIndexRound = new CommitIndexRound();
+                }
+                round = pendingCommitIndexRound;
+                round.readerNum++;
+                if (inflightCommitIndexRound == null) {
+                    startCommitIndexRound();
+                }
             }
         } finally {
             lock.unlock();
         }
 
-        if (callLeader && leader != null) {
-            RaftProto.GetLeaderCommitIndexRequest request = RaftProto.GetLeaderCommitIndexRequest.newBuilder().build();
-            RaftProto.GetLeaderCommitIndexResponse response =
-                    leader.getRaftConsensusServiceAsync().getLeaderCommitIndex(request);
-            if (response == null) {
-                LOG.warn("acquire commit index from leader[{}:{}] failed",
-                        leader.getStorageServer().getEndpoint().getHost(),
-                        leader.getStorageServer().getEndpoint().getPort());
-                return false;
+        try {
+            if (round != null) {
+                Long roundCommitIndex = round.future.get(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+                if (roundCommitIndex == null) {
+                    return false;
+                }
+                readIndex = roundCommitIndex;
             }
-            readIndex = response.getCommitIndex();
+            lock.lock();
+            try {
+                return waitForApplied(readIndex);
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            LOG.warn("acquire commit index from leader failed, msg={}", ex.getMessage());
         }
+        return false;
+    }
 
-        if (readIndex == -1) {
+    /**
+     * 客户端可以容忍陈旧数据时，判断本地状态机是否足够新，可以不获取readIndex直接读。
+     * @param maxStalenessMs 距离上次收到leader消息的最长时间，0表示不限制
+     * @param maxIndexLag 本地已应用日志落后leader commitIndex的最大条数，0表示不限制
+     * @return 两个参数都为0时返回false，即不接受陈旧数据
+     */
+    public boolean isStaleReadAllowed(long maxStalenessMs, long maxIndexLag) {
+        if (maxStalenessMs <= 0 && maxIndexLag <= 0) {
             return false;
         }
-
         lock.lock();
         try {
-            // 等待readIndex之前的日志条目被应用到复制状态机
-            long startTime = System.currentTimeMillis();
-            while (lastAppliedIndex < readIndex
-                    && System.currentTimeMillis() - startTime < RaftOptions.getMaxAwaitTimeout()) {
-                commitIndexCondition.await(RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
-            }
-            return lastAppliedIndex >= readIndex;
-        } catch (InterruptedException ignore) {
+            // 只限制落后条数时，也要求最近与leader（或大多数follower）有过联系，否则已知的commitIndex本身就是旧的
+            long maxElapsedMs = maxStalenessMs > 0 ? maxStalenessMs : RaftOptions.getElectionTimeoutMilliseconds();
+            long now = System.nanoTime();
+            long lastContactTime;
+            long knownCommitIndex;
+            if (state == NodeState.STATE_LEADER) {
+                // leader可能已经被隔离，以大多数节点最近一次确认的时间衡量陈旧程度
+                lastContactTime = getQuorumAckSendTime(now);
+                knownCommitIndex = commitIndex;
+            } else if (leaderId > 0) {
+                lastContactTime = lastLeaderContactTime;
+                knownCommitIndex = Math.max(commitIndex, leaderCommitIndex);
+            } else {
+                return false;
+            }
+            if (lastContactTime == 0 || now - lastContactTime > TimeUnit.MILLISECONDS.toNanos(maxElapsedMs)) {
+                return false;
+            }
+            return maxIndexLag <= 0 || knownCommitIndex - lastAppliedIndex <= maxIndexLag;
         } finally {
             lock.unlock();
         }
-        return false;
+    }
+
+    // in lock
+    private boolean isLeaderCommitIndexFresh() {
+        long maxAge = RaftOptions.getLeaderCommitIndexCacheMilliseconds();
+        return maxAge > 0 && leaderId > 0 && leaderCommitIndexTime > 0
+                && System.nanoTime() - leaderCommitIndexTime < TimeUnit.MILLISECONDS.toNanos(maxAge);
+    }
+
+    // in lock, 收到leader的AppendEntries或commitIndex响应时更新
+    public void updateLeaderCommitIndex(long newLeaderCommitIndex) {
+        if (newLeaderCommitIndex >= leaderCommitIndex) {
+            leaderCommitIndex = newLeaderCommitIndex;
+            leaderCommitIndexTime = System.nanoTime();
+        }
+    }
+
+    // in lock, 向leader发起一轮getLeaderCommitIndex请求，结果由这一轮的所有读请求共享
+    private void startCommitIndexRound() {
+        final CommitIndexRound round = pendingCommitIndexRound;
+        pendingCommitIndexRound = null;
+        inflightCommitIndexRound = round;
+        final Peer leader = peerMap.get(leaderId);
+        if (leader == null) {
+            finishCommitIndexRound(round, null);
+            return;
+        }
+        RaftProto.GetLeaderCommitIndexRequest request = RaftProto.GetLeaderCommitIndexRequest.newBuilder().build();
+        leader.getRaftConsensusServiceAsync().getLeaderCommitIndex(request,
+                new RpcCallback<RaftProto.GetLeaderCommitIndexResponse>() {
+                    @Override
+                    public void success(RaftProto.GetLeaderCommitIndexResponse response) {
+                        lock.lock();
+                        try {
+                            updateLeaderCommitIndex(response.getCommitIndex());
+                            finishCommitIndexRound(round, response.getCommitIndex());
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+
+                    @Override
+                    public void fail(Throwable e) {
+                        LOG.warn("acquire commit index from leader[{}:{}] failed",
+                                leader.getStorageServer().getEndpoint().getHost(),
+                                leader.getStorageServer().getEndpoint().getPort());
+                        lock.lock();
+                        try {
+                            finishCommitIndexRound(round, null);
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                });
+        scheduledExecutorService.schedule(new Runnable() {
+            @Override
+            public void run() {
+                lock.lock();
+                try {
+                    finishCommitIndexRound(round, null);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }, RaftOptions.getMaxAwaitTimeout(), TimeUnit.MILLISECONDS);
+    }
+
+    // in lock, 结束一轮请求，有等待的读请求时立即开始下一轮
+    private void finishCommitIndexRound(CommitIndexRound round, Long roundCommitIndex) {
+        if (round.future.isDone()) {
+            return;
+        }
+        round.future.complete(roundCommitIndex);
+        LOG.debug("finish commit index round, readers={}, commitIndex={}", round.readerNum, roundCommitIndex);
+        if (inflightCommitIndexRound == round) {
+            inflightCommitIndexRound = null;
+            if (pendingCommitIndexRound != null) {
+                startCommitIndexRound();
+            }
+        }
+    }
+
+    // 一轮follower读的getLeaderCommitIndex请求，失败时结果为null
+    private static class CommitIndexRound {
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private int readerNum;
+    }
+
+    // 一轮ReadIndex确认，同一轮中的读请求共享一次心跳
+    private static class ReadIndexRound {
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+        private long seq;
+        private int readerNum;
+        private int quorum;
+        private int ackNum;
+        // 还没有响应的peer数
+        private int waitingNum;
+    }
+
+    private static class Proposal {
+        private final ByteString data;
+        private final RaftProto.EntryType entryType;
+        private final CompletableFuture<ProposeResult> future = new CompletableFuture<>();
+        private volatile long index;
+        private volatile long term;
+
+        Proposal(ByteString data, RaftProto.EntryType entryType) {
+            this.data = data;
+            this.entryType = entryType;
+        }
+
+        void complete() {
+            future.complete(new ProposeResult(index, term));
+        }
+
+        void fail(ProposeException.ErrorCode errorCode, String message) {
+            future.completeExceptionally(new ProposeException(errorCode, message));
+        }
     }
 
     public Lock getLock() {
@@ -1067,6 +1999,10 @@ public class RaftNode {
         return raftLog;
     }
 
+    public SnapshotPolicy getSnapshotPolicy() {
+        return snapshotPolicy;
+    }
+
     public int getLeaderId() {
         return leaderId;
     }
@@ -1114,4 +2050,12 @@ public class RaftNode {
     public Condition getCommitIndexCondition() {
         return commitIndexCondition;
     }
+
+    public Lock getApplyLock() {
+        return applyLock;
+    }
+
+    public RaftOptions getRaftOptions() {
+        return RaftOptions;
+    }
 }
@@ -1,5 +1,6 @@
 package com.github.raftimpl.raft;
 
+import com.github.raftimpl.raft.proto.RaftProto;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -7,6 +8,15 @@ import lombok.Setter;
 @Setter
 public class RaftOptions {
 
+    public enum LogSyncPolicy {
+        // 不主动刷盘，由操作系统决定何时落盘
+        NONE,
+        // 每次追加一批日志后fsync一次
+        BATCH,
+        // 后台按logSyncIntervalMilliseconds周期刷盘，未落盘数据最多停留一个周期
+        PERIODIC
+    }
+
     // A follower would become a candidate if it doesn't receive any message
     // from the leader in electionTimeoutMs milliseconds
     private int electionTimeoutMilliseconds = 5000;
@@ -14,30 +24,88 @@ public class RaftOptions {
     // A leader sends RPCs at least this often, even if there is no data to send
     private int heartbeatPeriodMilliseconds = 500;
 
-    // snapshot定时器执行间隔
+    // 两次snapshot的最小间隔，日志总大小超过snapshotMaxLogSize或磁盘空间不足时不受限制
     private int snapshotPeriodSeconds = 3600;
-    // log entry大小达到snapshotMinLogSize，才做snapshot
+    // 检查是否需要做snapshot的间隔，单位ms
+    private long snapshotCheckIntervalMilliseconds = 1000;
+    // 上次snapshot之后新增的log entry大小达到snapshotMinLogSize，才做snapshot
     private int snapshotMinLogSize = 100 * 1024 * 1024;
+    // 预计重启时回放日志的耗时达到该值时做snapshot，单位ms，0表示不考虑回放耗时
+    private long snapshotMaxReplayMilliseconds = 60 * 1000;
+    // 日志总大小达到该值时立即做snapshot，并且截断日志时不再为落后的follower保留日志，0表示不限制
+    private long snapshotMaxLogSize = 1024L * 1024 * 1024;
+    // 数据目录所在磁盘的剩余空间比例低于该值时立即做snapshot，截断日志时不再为落后的follower保留日志，也不再要求snapshotMinLogSize
+    private double snapshotMinFreeDiskRatio = 0.1;
     private int maxSnapshotBytesPerRequest = 500 * 1024; // 500k
+    // 安装snapshot时最多同时在途的数据块请求数
+    private int maxInflightSnapshotRequests = 4;
 
     private int maxLogEntriesPerRequest = 5000;
 
+    // 每个follower最多同时在途的AppendEntries请求数，1表示不使用流水线
+    private int maxInflightAppendRequests = 8;
+
+    // group commit时一批最多合并的proposal数
+    private int maxGroupCommitSize = 1000;
+
     // 单个segment文件大小，默认100m
     private int maxSegmentFileSize = 100 * 1000 * 1000;
 
+    // segment日志刷盘策略
+    private LogSyncPolicy logSyncPolicy = LogSyncPolicy.NONE;
+    // PERIODIC刷盘策略下的刷盘周期，即未刷盘数据的最大停留时间，单位ms
+    private long logSyncIntervalMilliseconds = 10;
+
+    // segment文件是否使用mmap读写，开启后按maxSegmentFileSize预分配文件并映射到内存
+    private boolean segmentMmapEnabled = false;
+
+    // 一次追加的多条日志是否合并成一条record写入segment（一个头部、一次crc、一次写入）；
+    // 关闭后仍然可以读取合并的record，但旧版本无法读取
+    private boolean segmentBatchRecordEnabled = true;
+
+    // 是否在后台预分配下一个segment文件
+    private boolean segmentPreallocEnabled = true;
+    // 最多保留多少个truncatePrefix删除的segment文件用于复用
+    private int maxRecycledSegmentFiles = 2;
+
+    // 日志和snapshot数据块的压缩方式：segment中的每条record、每个AppendEntries请求的日志列表整体压缩，
+    // snapshot数据块按请求压缩；旧版本无法读取压缩的数据，所有节点升级后才能开启
+    private RaftProto.CompressionType compressionType = RaftProto.CompressionType.COMPRESSION_NONE;
+    // 小于该字节数的数据不压缩，按整条record、整个日志列表或者整个数据块计算
+    private int compressionMinBytes = 256;
+
+    // 日志缓存的最大字节数，0表示不缓存
+    private long logEntryCacheBytes = 32 * 1024 * 1024;
+    // 日志缓存未命中时，从segment文件预读的最大条数和字节数
+    private int logReadAheadCount = 256;
+    private int logReadAheadBytes = 1024 * 1024;
+
+    // 启动时并行加载segment的线程数
+    private int logLoadThreadNum = Runtime.getRuntime().availableProcessors();
+
     // follower与leader差距在catchupMargin，才可以参与选举和提供服务
     private long catchupMargin = 500;
 
     // replicate最大等待超时时间，单位ms
     private long maxAwaitTimeout = 1000;
 
-    // 与其他节点进行同步、选主等操作的线程池大小
+    // 与其他节点进行选主、读确认等操作的线程池大小，日志复制由每个follower独立的复制线程负责
     private int raftConsensusThreadNum = 20;
 
     // 是否异步写数据；true表示主节点保存后就返回，然后异步同步给从节点；
     // false表示主节点同步给大多数从节点后才返回。
     private boolean asyncWrite = false;
 
+    // 是否开启leader租约读：租约有效期内leader直接读本地状态机，不需要与follower确认leader身份；
+    // 开启后follower在选举超时时间内收到过leader消息时拒绝投票，刚启动的节点在一个选举超时时间内也拒绝投票，保证租约期内不会选出新leader
+    private boolean leaseReadEnabled = false;
+    // 时钟漂移比例，租约时长为electionTimeoutMilliseconds * (1 - leaseClockDriftRatio)
+    private double leaseClockDriftRatio = 0.1;
+
+    // follower读时，AppendEntries带来的leader commitIndex在多长时间内可以直接作为readIndex，单位ms；
+    // 0表示每次都向leader获取（并发的读请求合并成一次请求）
+    private long leaderCommitIndexCacheMilliseconds = 0;
+
     // raft的log和snapshot父目录，绝对路径
     private String dataDir = System.getProperty("com.github.raftimpl.raft.data.dir");
 
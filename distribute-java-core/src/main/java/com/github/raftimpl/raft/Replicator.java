@@ -0,0 +1,79 @@
+package com.github.raftimpl.raft;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 每个follower对应一个复制线程。
+ * 新日志写入、心跳定时器、AppendEntries响应回调都只负责唤醒该线程，
+ * 线程忙时到达的多次唤醒会被合并成一次，因此同一follower同一时刻最多只有一轮appendEntries在执行，
+ * 写入量再大也不会堆积针对同一follower的重复任务。
+ */
+public class Replicator implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Replicator.class);
+
+    private final RaftNode raftNode;
+    private final Peer peer;
+    private final Lock lock = new ReentrantLock();
+    private final Condition wakeupCondition = lock.newCondition();
+    // 是否有未处理的唤醒
+    private boolean isSignaled;
+    private volatile boolean isStopped;
+
+    public Replicator(RaftNode raftNode, Peer peer) {
+        this.raftNode = raftNode;
+        this.peer = peer;
+    }
+
+    public void start() {
+        Thread thread = new Thread(this, "replicator-" + peer.getStorageServer().getServerId());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void signal() {
+        lock.lock();
+        try {
+            isSignaled = true;
+            wakeupCondition.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop() {
+        isStopped = true;
+        signal();
+    }
+
+    @Override
+    public void run() {
+        while (!isStopped) {
+            lock.lock();
+            try {
+                while (!isSignaled && !isStopped) {
+                    wakeupCondition.await();
+                }
+                isSignaled = false;
+            } catch (InterruptedException ex) {
+                break;
+            } finally {
+                lock.unlock();
+            }
+            if (isStopped) {
+                break;
+            }
+            try {
+                raftNode.appendEntries(peer);
+            } catch (Exception ex) {
+                LOG.warn("replicate to server {} meet exception:", peer.getStorageServer().getServerId(), ex);
+            }
+        }
+        LOG.info("replicator of server {} stopped", peer.getStorageServer().getServerId());
+    }
+}
@@ -0,0 +1,97 @@
+package com.github.raftimpl.raft;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自适应snapshot触发策略。
+ * 综合上次snapshot之后新增的日志大小、重启时回放日志的预计耗时和磁盘剩余空间，决定是否做snapshot；
+ * 日志总大小超过上限或磁盘空间不足时为紧急snapshot，截断日志时不再为落后的follower保留日志。
+ * 非线程安全的部分由调用方在raft锁内访问，apply耗时统计只由apply线程写入。
+ */
+public class SnapshotPolicy {
+
+    public enum Trigger {
+        // 不需要做snapshot
+        NONE,
+        // 正常snapshot，leader截断日志时保留在线follower还需要的日志
+        NORMAL,
+        // 紧急snapshot，直接截断到snapshot位置
+        URGENT
+    }
+
+    // 计算apply平均耗时时新样本的权重
+    private static final double APPLY_COST_WEIGHT = 0.2;
+
+    private final RaftOptions raftOptions;
+    // 状态机应用一条日志的平均耗时（纳秒），指数加权移动平均
+    private volatile double applyNanosPerEntry;
+    // 上次snapshot完成的时间（System.nanoTime），启动时视为刚做过snapshot
+    private long lastSnapshotTime;
+    // 上次snapshot截断后剩余的日志大小，用于计算之后新增的日志大小
+    private long logSizeAfterSnapshot;
+
+    public SnapshotPolicy(RaftOptions raftOptions) {
+        this.raftOptions = raftOptions;
+        this.lastSnapshotTime = System.nanoTime();
+    }
+
+    /**
+     * 记录一批日志的apply耗时，用于估计重启时回放日志的耗时
+     * @param entryCount 日志条数
+     * @param costNanos 耗时（纳秒）
+     */
+    public void recordApply(int entryCount, long costNanos) {
+        if (entryCount <= 0) {
+            return;
+        }
+        double sample = (double) costNanos / entryCount;
+        double current = applyNanosPerEntry;
+        applyNanosPerEntry = current == 0 ? sample : current + APPLY_COST_WEIGHT * (sample - current);
+    }
+
+    // in lock, 记录snapshot完成（包括安装leader发来的snapshot）以及截断后的日志大小
+    public void recordSnapshot(long nowNanos, long logSize) {
+        lastSnapshotTime = nowNanos;
+        logSizeAfterSnapshot = logSize;
+    }
+
+    // 预计重启时回放entryCount条日志的耗时，单位ms
+    public long estimateReplayMillis(long entryCount) {
+        return (long) (entryCount * applyNanosPerEntry / TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * in lock, 判断是否需要做snapshot
+     * @param logSize 当前日志总大小
+     * @param unsnapshottedEntries 已apply但还不在snapshot中的日志条数
+     * @param freeDiskRatio 数据目录所在磁盘的剩余空间比例
+     * @param nowNanos 当前时间（System.nanoTime）
+     * @return 触发类型
+     */
+    public Trigger check(long logSize, long unsnapshottedEntries, double freeDiskRatio, long nowNanos) {
+        if (unsnapshottedEntries <= 0) {
+            return Trigger.NONE;
+        }
+        if (raftOptions.getSnapshotMaxLogSize() > 0 && logSize >= raftOptions.getSnapshotMaxLogSize()) {
+            return Trigger.URGENT;
+        }
+        if (freeDiskRatio < raftOptions.getSnapshotMinFreeDiskRatio()) {
+            return Trigger.URGENT;
+        }
+        if (nowNanos - lastSnapshotTime < TimeUnit.SECONDS.toNanos(raftOptions.getSnapshotPeriodSeconds())) {
+            return Trigger.NONE;
+        }
+        if (logSize - logSizeAfterSnapshot >= raftOptions.getSnapshotMinLogSize()) {
+            return Trigger.NORMAL;
+        }
+        if (raftOptions.getSnapshotMaxReplayMilliseconds() > 0
+                && estimateReplayMillis(unsnapshottedEntries) >= raftOptions.getSnapshotMaxReplayMilliseconds()) {
+            return Trigger.NORMAL;
+        }
+        return Trigger.NONE;
+    }
+
+    public double getApplyNanosPerEntry() {
+        return applyNanosPerEntry;
+    }
+}
@@ -1,5 +1,9 @@
 package com.github.raftimpl.raft;
 
+import com.github.raftimpl.raft.proto.RaftProto;
+
+import java.util.List;
+
 public interface StateMachine {
     /**
      * 对状态机中数据进行snapshot，每个节点本地定时调用
@@ -10,6 +14,18 @@ public interface StateMachine {
      */
     void writeSnap(String snapshotDir, String tmpSnapshotDataDir, RaftNode raftNode, long localLastAppliedIndex);
 
+    /**
+     * 固定状态机当前的时间点视图，用于在后台生成snapshot。
+     * 调用时apply线程已暂停，状态机正好包含localLastAppliedIndex及之前的日志，实现应尽快返回（比如只获取LevelDB的snapshot）；
+     * 返回的SnapshotWriter在后台把视图写到新snapshot数据目录，写的过程中不持有raft锁和snapshot锁，状态机照常apply。
+     * 默认返回null，表示不支持时间点视图，仍在snapshot锁内调用writeSnap生成snapshot
+     * @param localLastAppliedIndex 已应用到复制状态机的最大日志条目索引
+     * @return 写snapshot的writer
+     */
+    default SnapshotWriter prepareSnap(long localLastAppliedIndex) {
+        return null;
+    }
+
     /**
      * 读取snapshot到状态机，节点启动时调用
      * @param snapshotDir snapshot数据目录
@@ -22,10 +38,32 @@ public interface StateMachine {
      */
     void applyData(byte[] dataBytes);
 
+    /**
+     * 将一批连续的已提交日志应用到状态机，状态机可以合并成一次写入。
+     * 实现时可以直接在entry.getData()上解析数据，避免拷贝成byte[]
+     * @param entries 按index递增排列的数据日志
+     */
+    default void applyDataBatch(List<RaftProto.LogEntry> entries) {
+        for (RaftProto.LogEntry entry : entries) {
+            applyData(entry.getData().toByteArray());
+        }
+    }
+
     /**
      * 从状态机读取数据
      * @param dataBytes Key的数据二进制
      * @return Value的数据二进制
      */
     byte[] get(byte[] dataBytes);
+
+    /**
+     * 把prepareSnap固定的时间点视图写到snapshot数据目录，只会调用一次，结束后释放视图
+     */
+    interface SnapshotWriter {
+        /**
+         * @param tmpSnapshotDataDir 新snapshot数据目录
+         * @return 是否写成功
+         */
+        boolean write(String tmpSnapshotDataDir);
+    }
 }
@@ -112,6 +112,14 @@ public final class RaftProto {
      * <code>ENTRY_TYPE_CONFIGURATION = 1;</code>
      */
     ENTRY_TYPE_CONFIGURATION(1, 1),
+    /**
+     * <code>ENTRY_TYPE_NOOP = 2;</code>
+     *
+     * <pre>
+     * leader当选后追加的空日志，用于尽快提交当前任期的日志，不应用到状态机
+     * </pre>
+     */
+    ENTRY_TYPE_NOOP(2, 2),
     ;
 
     /**
@@ -122,6 +130,14 @@ public final class RaftProto {
      * <code>ENTRY_TYPE_CONFIGURATION = 1;</code>
      */
     public static final int ENTRY_TYPE_CONFIGURATION_VALUE = 1;
+    /**
+     * <code>ENTRY_TYPE_NOOP = 2;</code>
+     *
+     * <pre>
+     * leader当选后追加的空日志，用于尽快提交当前任期的日志，不应用到状态机
+     * </pre>
+     */
+    public static final int ENTRY_TYPE_NOOP_VALUE = 2;
 
 
     public final int getNumber() { return value; }
@@ -130,6 +146,7 @@ public final class RaftProto {
       switch (value) {
         case 0: return ENTRY_TYPE_DATA;
         case 1: return ENTRY_TYPE_CONFIGURATION;
+        case 2: return ENTRY_TYPE_NOOP;
         default: return null;
       }
     }
@@ -181,6 +198,97 @@ public final class RaftProto {
     // @@protoc_insertion_point(enum_scope:raft.EntryType)
   }
 
+  /**
+   * Protobuf enum {@code raft.CompressionType}
+   */
+  public enum CompressionType
+      implements com.google.protobuf.ProtocolMessageEnum {
+    /**
+     * <code>COMPRESSION_NONE = 0;</code>
+     */
+    COMPRESSION_NONE(0, 0),
+    /**
+     * <code>COMPRESSION_DEFLATE = 1;</code>
+     */
+    COMPRESSION_DEFLATE(1, 1),
+    /**
+     * <code>COMPRESSION_SNAPPY = 2;</code>
+     */
+    COMPRESSION_SNAPPY(2, 2),
+    ;
+
+    /**
+     * <code>COMPRESSION_NONE = 0;</code>
+     */
+    public static final int COMPRESSION_NONE_VALUE = 0;
+    /**
+     * <code>COMPRESSION_DEFLATE = 1;</code>
+     */
+    public static final int COMPRESSION_DEFLATE_VALUE = 1;
+    /**
+     * <code>COMPRESSION_SNAPPY = 2;</code>
+     */
+    public static final int COMPRESSION_SNAPPY_VALUE = 2;
+
+
+    public final int getNumber() { return value; }
+
+    public static CompressionType valueOf(int value) {
+      switch (value) {
+        case 0: return COMPRESSION_NONE;
+        case 1: return COMPRESSION_DEFLATE;
+        case 2: return COMPRESSION_SNAPPY;
+        default: return null;
+      }
+    }
+
+    public static com.google.protobuf.Internal.EnumLiteMap<CompressionType>
+        internalGetValueMap() {
+      return internalValueMap;
+    }
+    private static com.google.protobuf.Internal.EnumLiteMap<CompressionType>
+        internalValueMap =
+          new com.google.protobuf.Internal.EnumLiteMap<CompressionType>() {
+            public CompressionType findValueByNumber(int number) {
+              return CompressionType.valueOf(number);
+            }
+          };
+
+    public final com.google.protobuf.Descriptors.EnumValueDescriptor
+        getValueDescriptor() {
+      return getDescriptor().getValues().get(index);
+    }
+    public final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptorForType() {
+      return getDescriptor();
+    }
+    public static final com.google.protobuf.Descriptors.EnumDescriptor
+        getDescriptor() {
+      return com.github.raftimpl.raft.proto.RaftProto.getDescriptor().getEnumTypes().get(2);
+    }
+
+    private static final CompressionType[] VALUES = values();
+
+    public static CompressionType valueOf(
+        com.google.protobuf.Descriptors.EnumValueDescriptor desc) {
+      if (desc.getType() != getDescriptor()) {
+        throw new java.lang.IllegalArgumentException(
+          "EnumValueDescriptor is not for this type.");
+      }
+      return VALUES[desc.getIndex()];
+    }
+
+    private final int index;
+    private final int value;
+
+    private CompressionType(int index, int value) {
+      this.index = index;
+      this.value = value;
+    }
+
+    // @@protoc_insertion_point(enum_scope:raft.CompressionType)
+  }
+
   public interface EndpointOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
@@ -3954,100 +4062,57 @@ public final class RaftProto {
     // @@protoc_insertion_point(class_scope:raft.LogEntry)
   }
 
-  public interface VoteRequestOrBuilder
+  public interface LogEntryBatchOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
-    // optional uint32 server_id = 1;
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 请求选票的候选人的 Id
-     * </pre>
-     */
-    boolean hasServerId();
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 请求选票的候选人的 Id
-     * </pre>
-     */
-    int getServerId();
-
-    // optional uint64 term = 2;
-    /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 候选人的任期号
-     * </pre>
-     */
-    boolean hasTerm();
+    // repeated .raft.LogEntry entries = 1;
     /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 候选人的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    long getTerm();
-
-    // optional uint64 last_log_term = 3;
+    java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> 
+        getEntriesList();
     /**
-     * <code>optional uint64 last_log_term = 3;</code>
-     *
-     * <pre>
-     * 候选人的最后日志条目的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    boolean hasLastLogTerm();
+    com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index);
     /**
-     * <code>optional uint64 last_log_term = 3;</code>
-     *
-     * <pre>
-     * 候选人的最后日志条目的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    long getLastLogTerm();
-
-    // optional uint64 last_log_index = 4;
+    int getEntriesCount();
     /**
-     * <code>optional uint64 last_log_index = 4;</code>
-     *
-     * <pre>
-     * 候选人最后日志条目的索引值
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    boolean hasLastLogIndex();
+    java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+        getEntriesOrBuilderList();
     /**
-     * <code>optional uint64 last_log_index = 4;</code>
-     *
-     * <pre>
-     * 候选人最后日志条目的索引值
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    long getLastLogIndex();
+    com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+        int index);
   }
   /**
-   * Protobuf type {@code raft.VoteRequest}
+   * Protobuf type {@code raft.LogEntryBatch}
+   *
+   * <pre>
+   * segment中一次追加的多条日志合并成的一条record
+   * </pre>
    */
-  public static final class VoteRequest extends
+  public static final class LogEntryBatch extends
       com.google.protobuf.GeneratedMessage
-      implements VoteRequestOrBuilder {
-    // Use VoteRequest.newBuilder() to construct.
-    private VoteRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      implements LogEntryBatchOrBuilder {
+    // Use LogEntryBatch.newBuilder() to construct.
+    private LogEntryBatch(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private VoteRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private LogEntryBatch(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final VoteRequest defaultInstance;
-    public static VoteRequest getDefaultInstance() {
+    private static final LogEntryBatch defaultInstance;
+    public static LogEntryBatch getDefaultInstance() {
       return defaultInstance;
     }
 
-    public VoteRequest getDefaultInstanceForType() {
+    public LogEntryBatch getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -4057,7 +4122,7 @@ public final class RaftProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private VoteRequest(
+    private LogEntryBatch(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -4080,24 +4145,12 @@ public final class RaftProto {
               }
               break;
             }
-            case 8: {
-              bitField0_ |= 0x00000001;
-              serverId_ = input.readUInt32();
-              break;
-            }
-            case 16: {
-              bitField0_ |= 0x00000002;
-              term_ = input.readUInt64();
-              break;
-            }
-            case 24: {
-              bitField0_ |= 0x00000004;
-              lastLogTerm_ = input.readUInt64();
-              break;
-            }
-            case 32: {
-              bitField0_ |= 0x00000008;
-              lastLogIndex_ = input.readUInt64();
+            case 10: {
+              if (!((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+                entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>();
+                mutable_bitField0_ |= 0x00000001;
+              }
+              entries_.add(input.readMessage(com.github.raftimpl.raft.proto.RaftProto.LogEntry.PARSER, extensionRegistry));
               break;
             }
           }
@@ -4108,139 +4161,78 @@ public final class RaftProto {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
+          entries_ = java.util.Collections.unmodifiableList(entries_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_LogEntryBatch_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_fieldAccessorTable
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_LogEntryBatch_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              com.github.raftimpl.raft.proto.RaftProto.VoteRequest.class, com.github.raftimpl.raft.proto.RaftProto.VoteRequest.Builder.class);
+              com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.class, com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<VoteRequest> PARSER =
-        new com.google.protobuf.AbstractParser<VoteRequest>() {
-      public VoteRequest parsePartialFrom(
+    public static com.google.protobuf.Parser<LogEntryBatch> PARSER =
+        new com.google.protobuf.AbstractParser<LogEntryBatch>() {
+      public LogEntryBatch parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new VoteRequest(input, extensionRegistry);
+        return new LogEntryBatch(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<VoteRequest> getParserForType() {
+    public com.google.protobuf.Parser<LogEntryBatch> getParserForType() {
       return PARSER;
     }
 
-    private int bitField0_;
-    // optional uint32 server_id = 1;
-    public static final int SERVER_ID_FIELD_NUMBER = 1;
-    private int serverId_;
+    // repeated .raft.LogEntry entries = 1;
+    public static final int ENTRIES_FIELD_NUMBER = 1;
+    private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_;
     /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 请求选票的候选人的 Id
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    public boolean hasServerId() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
+    public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
+      return entries_;
     }
     /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 请求选票的候选人的 Id
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    public int getServerId() {
-      return serverId_;
+    public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+        getEntriesOrBuilderList() {
+      return entries_;
     }
-
-    // optional uint64 term = 2;
-    public static final int TERM_FIELD_NUMBER = 2;
-    private long term_;
     /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 候选人的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    public boolean hasTerm() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
+    public int getEntriesCount() {
+      return entries_.size();
     }
     /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 候选人的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    public long getTerm() {
-      return term_;
+    public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
+      return entries_.get(index);
     }
-
-    // optional uint64 last_log_term = 3;
-    public static final int LAST_LOG_TERM_FIELD_NUMBER = 3;
-    private long lastLogTerm_;
     /**
-     * <code>optional uint64 last_log_term = 3;</code>
-     *
-     * <pre>
-     * 候选人的最后日志条目的任期号
-     * </pre>
+     * <code>repeated .raft.LogEntry entries = 1;</code>
      */
-    public boolean hasLastLogTerm() {
-      return ((bitField0_ & 0x00000004) == 0x00000004);
-    }
-    /**
-     * <code>optional uint64 last_log_term = 3;</code>
-     *
-     * <pre>
-     * 候选人的最后日志条目的任期号
-     * </pre>
-     */
-    public long getLastLogTerm() {
-      return lastLogTerm_;
-    }
-
-    // optional uint64 last_log_index = 4;
-    public static final int LAST_LOG_INDEX_FIELD_NUMBER = 4;
-    private long lastLogIndex_;
-    /**
-     * <code>optional uint64 last_log_index = 4;</code>
-     *
-     * <pre>
-     * 候选人最后日志条目的索引值
-     * </pre>
-     */
-    public boolean hasLastLogIndex() {
-      return ((bitField0_ & 0x00000008) == 0x00000008);
-    }
-    /**
-     * <code>optional uint64 last_log_index = 4;</code>
-     *
-     * <pre>
-     * 候选人最后日志条目的索引值
-     * </pre>
-     */
-    public long getLastLogIndex() {
-      return lastLogIndex_;
+    public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+        int index) {
+      return entries_.get(index);
     }
 
     private void initFields() {
-      serverId_ = 0;
-      term_ = 0L;
-      lastLogTerm_ = 0L;
-      lastLogIndex_ = 0L;
+      entries_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -4254,17 +4246,8 @@ public final class RaftProto {
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
       getSerializedSize();
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt32(1, serverId_);
-      }
-      if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeUInt64(2, term_);
-      }
-      if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        output.writeUInt64(3, lastLogTerm_);
-      }
-      if (((bitField0_ & 0x00000008) == 0x00000008)) {
-        output.writeUInt64(4, lastLogIndex_);
+      for (int i = 0; i < entries_.size(); i++) {
+        output.writeMessage(1, entries_.get(i));
       }
       getUnknownFields().writeTo(output);
     }
@@ -4275,21 +4258,9 @@ public final class RaftProto {
       if (size != -1) return size;
 
       size = 0;
-      if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt32Size(1, serverId_);
-      }
-      if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(2, term_);
-      }
-      if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(3, lastLogTerm_);
-      }
-      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+      for (int i = 0; i < entries_.size(); i++) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(4, lastLogIndex_);
+          .computeMessageSize(1, entries_.get(i));
       }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -4303,53 +4274,53 @@ public final class RaftProto {
       return super.writeReplace();
     }
 
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(byte[] data)
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseDelimitedFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseDelimitedFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -4358,7 +4329,7 @@ public final class RaftProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.VoteRequest prototype) {
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -4370,24 +4341,28 @@ public final class RaftProto {
       return builder;
     }
     /**
-     * Protobuf type {@code raft.VoteRequest}
+     * Protobuf type {@code raft.LogEntryBatch}
+     *
+     * <pre>
+     * segment中一次追加的多条日志合并成的一条record
+     * </pre>
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements com.github.raftimpl.raft.proto.RaftProto.VoteRequestOrBuilder {
+       implements com.github.raftimpl.raft.proto.RaftProto.LogEntryBatchOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_LogEntryBatch_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_fieldAccessorTable
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_LogEntryBatch_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                com.github.raftimpl.raft.proto.RaftProto.VoteRequest.class, com.github.raftimpl.raft.proto.RaftProto.VoteRequest.Builder.class);
+                com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.class, com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.Builder.class);
       }
 
-      // Construct using com.github.raftimpl.raft.proto.RaftProto.VoteRequest.newBuilder()
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -4399,6 +4374,7 @@ public final class RaftProto {
       }
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getEntriesFieldBuilder();
         }
       }
       private static Builder create() {
@@ -4407,14 +4383,12 @@ public final class RaftProto {
 
       public Builder clear() {
         super.clear();
-        serverId_ = 0;
-        bitField0_ = (bitField0_ & ~0x00000001);
-        term_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000002);
-        lastLogTerm_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000004);
-        lastLogIndex_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000008);
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+        } else {
+          entriesBuilder_.clear();
+        }
         return this;
       }
 
@@ -4424,68 +4398,73 @@ public final class RaftProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_LogEntryBatch_descriptor;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest getDefaultInstanceForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.VoteRequest.getDefaultInstance();
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.getDefaultInstance();
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest build() {
-        com.github.raftimpl.raft.proto.RaftProto.VoteRequest result = buildPartial();
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch build() {
+        com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.VoteRequest result = new com.github.raftimpl.raft.proto.RaftProto.VoteRequest(this);
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch result = new com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch(this);
         int from_bitField0_ = bitField0_;
-        int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
-          to_bitField0_ |= 0x00000001;
-        }
-        result.serverId_ = serverId_;
-        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
-          to_bitField0_ |= 0x00000002;
-        }
-        result.term_ = term_;
-        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
-          to_bitField0_ |= 0x00000004;
-        }
-        result.lastLogTerm_ = lastLogTerm_;
-        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
-          to_bitField0_ |= 0x00000008;
+        if (entriesBuilder_ == null) {
+          if (((bitField0_ & 0x00000001) == 0x00000001)) {
+            entries_ = java.util.Collections.unmodifiableList(entries_);
+            bitField0_ = (bitField0_ & ~0x00000001);
+          }
+          result.entries_ = entries_;
+        } else {
+          result.entries_ = entriesBuilder_.build();
         }
-        result.lastLogIndex_ = lastLogIndex_;
-        result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.VoteRequest) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.VoteRequest)other);
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.VoteRequest other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.VoteRequest.getDefaultInstance()) return this;
-        if (other.hasServerId()) {
-          setServerId(other.getServerId());
-        }
-        if (other.hasTerm()) {
-          setTerm(other.getTerm());
-        }
-        if (other.hasLastLogTerm()) {
-          setLastLogTerm(other.getLastLogTerm());
-        }
-        if (other.hasLastLogIndex()) {
-          setLastLogIndex(other.getLastLogIndex());
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch.getDefaultInstance()) return this;
+        if (entriesBuilder_ == null) {
+          if (!other.entries_.isEmpty()) {
+            if (entries_.isEmpty()) {
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+            } else {
+              ensureEntriesIsMutable();
+              entries_.addAll(other.entries_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.entries_.isEmpty()) {
+            if (entriesBuilder_.isEmpty()) {
+              entriesBuilder_.dispose();
+              entriesBuilder_ = null;
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000001);
+              entriesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getEntriesFieldBuilder() : null;
+            } else {
+              entriesBuilder_.addAllMessages(other.entries_);
+            }
+          }
         }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -4499,11 +4478,11 @@ public final class RaftProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.VoteRequest parsedMessage = null;
+        com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.VoteRequest) e.getUnfinishedMessage();
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.LogEntryBatch) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -4514,271 +4493,351 @@ public final class RaftProto {
       }
       private int bitField0_;
 
-      // optional uint32 server_id = 1;
-      private int serverId_ ;
+      // repeated .raft.LogEntry entries = 1;
+      private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_ =
+        java.util.Collections.emptyList();
+      private void ensureEntriesIsMutable() {
+        if (!((bitField0_ & 0x00000001) == 0x00000001)) {
+          entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>(entries_);
+          bitField0_ |= 0x00000001;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> entriesBuilder_;
+
       /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 请求选票的候选人的 Id
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public boolean hasServerId() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
+        if (entriesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(entries_);
+        } else {
+          return entriesBuilder_.getMessageList();
+        }
       }
       /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 请求选票的候选人的 Id
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public int getServerId() {
-        return serverId_;
+      public int getEntriesCount() {
+        if (entriesBuilder_ == null) {
+          return entries_.size();
+        } else {
+          return entriesBuilder_.getCount();
+        }
       }
       /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 请求选票的候选人的 Id
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder setServerId(int value) {
-        bitField0_ |= 0x00000001;
-        serverId_ = value;
-        onChanged();
-        return this;
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);
+        } else {
+          return entriesBuilder_.getMessage(index);
+        }
       }
       /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 请求选票的候选人的 Id
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder clearServerId() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        serverId_ = 0;
-        onChanged();
+      public Builder setEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.set(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, value);
+        }
         return this;
       }
-
-      // optional uint64 term = 2;
-      private long term_ ;
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 候选人的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public boolean hasTerm() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
-      }
-      /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 候选人的任期号
-       * </pre>
+      public Builder setEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public long getTerm() {
-        return term_;
+      public Builder addEntries(com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(value);
+        }
+        return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 候选人的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder setTerm(long value) {
-        bitField0_ |= 0x00000002;
-        term_ = value;
-        onChanged();
+      public Builder addEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, value);
+        }
         return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 候选人的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder clearTerm() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        term_ = 0L;
-        onChanged();
+      public Builder addEntries(
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(builderForValue.build());
+        }
         return this;
       }
-
-      // optional uint64 last_log_term = 3;
-      private long lastLogTerm_ ;
       /**
-       * <code>optional uint64 last_log_term = 3;</code>
-       *
-       * <pre>
-       * 候选人的最后日志条目的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public boolean hasLastLogTerm() {
-        return ((bitField0_ & 0x00000004) == 0x00000004);
+      public Builder addEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
       }
       /**
-       * <code>optional uint64 last_log_term = 3;</code>
-       *
-       * <pre>
-       * 候选人的最后日志条目的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public long getLastLogTerm() {
-        return lastLogTerm_;
+      public Builder addAllEntries(
+          java.lang.Iterable<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntry> values) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          super.addAll(values, entries_);
+          onChanged();
+        } else {
+          entriesBuilder_.addAllMessages(values);
+        }
+        return this;
       }
       /**
-       * <code>optional uint64 last_log_term = 3;</code>
-       *
-       * <pre>
-       * 候选人的最后日志条目的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder setLastLogTerm(long value) {
-        bitField0_ |= 0x00000004;
-        lastLogTerm_ = value;
-        onChanged();
+      public Builder clearEntries() {
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000001);
+          onChanged();
+        } else {
+          entriesBuilder_.clear();
+        }
         return this;
       }
       /**
-       * <code>optional uint64 last_log_term = 3;</code>
-       *
-       * <pre>
-       * 候选人的最后日志条目的任期号
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder clearLastLogTerm() {
-        bitField0_ = (bitField0_ & ~0x00000004);
-        lastLogTerm_ = 0L;
-        onChanged();
+      public Builder removeEntries(int index) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.remove(index);
+          onChanged();
+        } else {
+          entriesBuilder_.remove(index);
+        }
         return this;
       }
-
-      // optional uint64 last_log_index = 4;
-      private long lastLogIndex_ ;
       /**
-       * <code>optional uint64 last_log_index = 4;</code>
-       *
-       * <pre>
-       * 候选人最后日志条目的索引值
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public boolean hasLastLogIndex() {
-        return ((bitField0_ & 0x00000008) == 0x00000008);
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder getEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().getBuilder(index);
       }
       /**
-       * <code>optional uint64 last_log_index = 4;</code>
-       *
-       * <pre>
-       * 候选人最后日志条目的索引值
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public long getLastLogIndex() {
-        return lastLogIndex_;
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+          int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);  } else {
+          return entriesBuilder_.getMessageOrBuilder(index);
+        }
       }
       /**
-       * <code>optional uint64 last_log_index = 4;</code>
-       *
-       * <pre>
-       * 候选人最后日志条目的索引值
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder setLastLogIndex(long value) {
-        bitField0_ |= 0x00000008;
-        lastLogIndex_ = value;
-        onChanged();
-        return this;
+      public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+           getEntriesOrBuilderList() {
+        if (entriesBuilder_ != null) {
+          return entriesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(entries_);
+        }
       }
       /**
-       * <code>optional uint64 last_log_index = 4;</code>
-       *
-       * <pre>
-       * 候选人最后日志条目的索引值
-       * </pre>
+       * <code>repeated .raft.LogEntry entries = 1;</code>
        */
-      public Builder clearLastLogIndex() {
-        bitField0_ = (bitField0_ & ~0x00000008);
-        lastLogIndex_ = 0L;
-        onChanged();
-        return this;
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder() {
+        return getEntriesFieldBuilder().addBuilder(
+            com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 1;</code>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().addBuilder(
+            index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 1;</code>
+       */
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder> 
+           getEntriesBuilderList() {
+        return getEntriesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+          getEntriesFieldBuilder() {
+        if (entriesBuilder_ == null) {
+          entriesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder>(
+                  entries_,
+                  ((bitField0_ & 0x00000001) == 0x00000001),
+                  getParentForChildren(),
+                  isClean());
+          entries_ = null;
+        }
+        return entriesBuilder_;
       }
 
-      // @@protoc_insertion_point(builder_scope:raft.VoteRequest)
+      // @@protoc_insertion_point(builder_scope:raft.LogEntryBatch)
     }
 
     static {
-      defaultInstance = new VoteRequest(true);
+      defaultInstance = new LogEntryBatch(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:raft.VoteRequest)
+    // @@protoc_insertion_point(class_scope:raft.LogEntryBatch)
   }
 
-  public interface VoteResponseOrBuilder
+  public interface VoteRequestOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
-    // optional uint64 term = 1;
+    // optional uint32 server_id = 1;
     /**
-     * <code>optional uint64 term = 1;</code>
+     * <code>optional uint32 server_id = 1;</code>
      *
      * <pre>
-     * 当前任期号，以便于候选人去更新自己的任期号
+     * 请求选票的候选人的 Id
      * </pre>
      */
-    boolean hasTerm();
+    boolean hasServerId();
     /**
-     * <code>optional uint64 term = 1;</code>
+     * <code>optional uint32 server_id = 1;</code>
      *
      * <pre>
-     * 当前任期号，以便于候选人去更新自己的任期号
+     * 请求选票的候选人的 Id
      * </pre>
      */
-    long getTerm();
+    int getServerId();
 
-    // optional bool granted = 2;
+    // optional uint64 term = 2;
     /**
-     * <code>optional bool granted = 2;</code>
+     * <code>optional uint64 term = 2;</code>
      *
      * <pre>
-     * 候选人赢得了此张选票时为真
+     * 候选人的任期号
      * </pre>
      */
-    boolean hasGranted();
+    boolean hasTerm();
     /**
-     * <code>optional bool granted = 2;</code>
+     * <code>optional uint64 term = 2;</code>
      *
      * <pre>
-     * 候选人赢得了此张选票时为真
+     * 候选人的任期号
      * </pre>
      */
-    boolean getGranted();
+    long getTerm();
+
+    // optional uint64 last_log_term = 3;
+    /**
+     * <code>optional uint64 last_log_term = 3;</code>
+     *
+     * <pre>
+     * 候选人的最后日志条目的任期号
+     * </pre>
+     */
+    boolean hasLastLogTerm();
+    /**
+     * <code>optional uint64 last_log_term = 3;</code>
+     *
+     * <pre>
+     * 候选人的最后日志条目的任期号
+     * </pre>
+     */
+    long getLastLogTerm();
+
+    // optional uint64 last_log_index = 4;
+    /**
+     * <code>optional uint64 last_log_index = 4;</code>
+     *
+     * <pre>
+     * 候选人最后日志条目的索引值
+     * </pre>
+     */
+    boolean hasLastLogIndex();
+    /**
+     * <code>optional uint64 last_log_index = 4;</code>
+     *
+     * <pre>
+     * 候选人最后日志条目的索引值
+     * </pre>
+     */
+    long getLastLogIndex();
   }
   /**
-   * Protobuf type {@code raft.VoteResponse}
+   * Protobuf type {@code raft.VoteRequest}
    */
-  public static final class VoteResponse extends
+  public static final class VoteRequest extends
       com.google.protobuf.GeneratedMessage
-      implements VoteResponseOrBuilder {
-    // Use VoteResponse.newBuilder() to construct.
-    private VoteResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      implements VoteRequestOrBuilder {
+    // Use VoteRequest.newBuilder() to construct.
+    private VoteRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private VoteResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private VoteRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final VoteResponse defaultInstance;
-    public static VoteResponse getDefaultInstance() {
+    private static final VoteRequest defaultInstance;
+    public static VoteRequest getDefaultInstance() {
       return defaultInstance;
     }
 
-    public VoteResponse getDefaultInstanceForType() {
+    public VoteRequest getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -4788,7 +4847,7 @@ public final class RaftProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private VoteResponse(
+    private VoteRequest(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -4813,12 +4872,22 @@ public final class RaftProto {
             }
             case 8: {
               bitField0_ |= 0x00000001;
-              term_ = input.readUInt64();
+              serverId_ = input.readUInt32();
               break;
             }
             case 16: {
               bitField0_ |= 0x00000002;
-              granted_ = input.readBool();
+              term_ = input.readUInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              lastLogTerm_ = input.readUInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              lastLogIndex_ = input.readUInt64();
               break;
             }
           }
@@ -4835,83 +4904,133 @@ public final class RaftProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_fieldAccessorTable
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              com.github.raftimpl.raft.proto.RaftProto.VoteResponse.class, com.github.raftimpl.raft.proto.RaftProto.VoteResponse.Builder.class);
+              com.github.raftimpl.raft.proto.RaftProto.VoteRequest.class, com.github.raftimpl.raft.proto.RaftProto.VoteRequest.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<VoteResponse> PARSER =
-        new com.google.protobuf.AbstractParser<VoteResponse>() {
-      public VoteResponse parsePartialFrom(
+    public static com.google.protobuf.Parser<VoteRequest> PARSER =
+        new com.google.protobuf.AbstractParser<VoteRequest>() {
+      public VoteRequest parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new VoteResponse(input, extensionRegistry);
+        return new VoteRequest(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<VoteResponse> getParserForType() {
+    public com.google.protobuf.Parser<VoteRequest> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // optional uint64 term = 1;
-    public static final int TERM_FIELD_NUMBER = 1;
+    // optional uint32 server_id = 1;
+    public static final int SERVER_ID_FIELD_NUMBER = 1;
+    private int serverId_;
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 请求选票的候选人的 Id
+     * </pre>
+     */
+    public boolean hasServerId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 请求选票的候选人的 Id
+     * </pre>
+     */
+    public int getServerId() {
+      return serverId_;
+    }
+
+    // optional uint64 term = 2;
+    public static final int TERM_FIELD_NUMBER = 2;
     private long term_;
     /**
-     * <code>optional uint64 term = 1;</code>
+     * <code>optional uint64 term = 2;</code>
      *
      * <pre>
-     * 当前任期号，以便于候选人去更新自己的任期号
+     * 候选人的任期号
      * </pre>
      */
     public boolean hasTerm() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
+      return ((bitField0_ & 0x00000002) == 0x00000002);
     }
     /**
-     * <code>optional uint64 term = 1;</code>
+     * <code>optional uint64 term = 2;</code>
      *
      * <pre>
-     * 当前任期号，以便于候选人去更新自己的任期号
+     * 候选人的任期号
      * </pre>
      */
     public long getTerm() {
       return term_;
     }
 
-    // optional bool granted = 2;
-    public static final int GRANTED_FIELD_NUMBER = 2;
-    private boolean granted_;
+    // optional uint64 last_log_term = 3;
+    public static final int LAST_LOG_TERM_FIELD_NUMBER = 3;
+    private long lastLogTerm_;
     /**
-     * <code>optional bool granted = 2;</code>
+     * <code>optional uint64 last_log_term = 3;</code>
      *
      * <pre>
-     * 候选人赢得了此张选票时为真
+     * 候选人的最后日志条目的任期号
      * </pre>
      */
-    public boolean hasGranted() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
+    public boolean hasLastLogTerm() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
     }
     /**
-     * <code>optional bool granted = 2;</code>
+     * <code>optional uint64 last_log_term = 3;</code>
      *
      * <pre>
-     * 候选人赢得了此张选票时为真
+     * 候选人的最后日志条目的任期号
      * </pre>
      */
-    public boolean getGranted() {
-      return granted_;
+    public long getLastLogTerm() {
+      return lastLogTerm_;
+    }
+
+    // optional uint64 last_log_index = 4;
+    public static final int LAST_LOG_INDEX_FIELD_NUMBER = 4;
+    private long lastLogIndex_;
+    /**
+     * <code>optional uint64 last_log_index = 4;</code>
+     *
+     * <pre>
+     * 候选人最后日志条目的索引值
+     * </pre>
+     */
+    public boolean hasLastLogIndex() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint64 last_log_index = 4;</code>
+     *
+     * <pre>
+     * 候选人最后日志条目的索引值
+     * </pre>
+     */
+    public long getLastLogIndex() {
+      return lastLogIndex_;
     }
 
     private void initFields() {
+      serverId_ = 0;
       term_ = 0L;
-      granted_ = false;
+      lastLogTerm_ = 0L;
+      lastLogIndex_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -4926,10 +5045,16 @@ public final class RaftProto {
                         throws java.io.IOException {
       getSerializedSize();
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt64(1, term_);
+        output.writeUInt32(1, serverId_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeBool(2, granted_);
+        output.writeUInt64(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, lastLogTerm_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt64(4, lastLogIndex_);
       }
       getUnknownFields().writeTo(output);
     }
@@ -4942,11 +5067,19 @@ public final class RaftProto {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(1, term_);
+          .computeUInt32Size(1, serverId_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeBoolSize(2, granted_);
+          .computeUInt64Size(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, lastLogTerm_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(4, lastLogIndex_);
       }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -4960,53 +5093,53 @@ public final class RaftProto {
       return super.writeReplace();
     }
 
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(byte[] data)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseDelimitedFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseDelimitedFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteRequest parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -5015,7 +5148,7 @@ public final class RaftProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.VoteResponse prototype) {
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.VoteRequest prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -5027,24 +5160,24 @@ public final class RaftProto {
       return builder;
     }
     /**
-     * Protobuf type {@code raft.VoteResponse}
+     * Protobuf type {@code raft.VoteRequest}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements com.github.raftimpl.raft.proto.RaftProto.VoteResponseOrBuilder {
+       implements com.github.raftimpl.raft.proto.RaftProto.VoteRequestOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_fieldAccessorTable
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                com.github.raftimpl.raft.proto.RaftProto.VoteResponse.class, com.github.raftimpl.raft.proto.RaftProto.VoteResponse.Builder.class);
+                com.github.raftimpl.raft.proto.RaftProto.VoteRequest.class, com.github.raftimpl.raft.proto.RaftProto.VoteRequest.Builder.class);
       }
 
-      // Construct using com.github.raftimpl.raft.proto.RaftProto.VoteResponse.newBuilder()
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.VoteRequest.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -5064,10 +5197,14 @@ public final class RaftProto {
 
       public Builder clear() {
         super.clear();
-        term_ = 0L;
+        serverId_ = 0;
         bitField0_ = (bitField0_ & ~0x00000001);
-        granted_ = false;
+        term_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
+        lastLogTerm_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        lastLogIndex_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -5077,54 +5214,68 @@ public final class RaftProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteRequest_descriptor;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse getDefaultInstanceForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.VoteResponse.getDefaultInstance();
+      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.VoteRequest.getDefaultInstance();
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse build() {
-        com.github.raftimpl.raft.proto.RaftProto.VoteResponse result = buildPartial();
+      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest build() {
+        com.github.raftimpl.raft.proto.RaftProto.VoteRequest result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.VoteResponse result = new com.github.raftimpl.raft.proto.RaftProto.VoteResponse(this);
+      public com.github.raftimpl.raft.proto.RaftProto.VoteRequest buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.VoteRequest result = new com.github.raftimpl.raft.proto.RaftProto.VoteRequest(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.term_ = term_;
+        result.serverId_ = serverId_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
-        result.granted_ = granted_;
+        result.term_ = term_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.lastLogTerm_ = lastLogTerm_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.lastLogIndex_ = lastLogIndex_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.VoteResponse) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.VoteResponse)other);
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.VoteRequest) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.VoteRequest)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.VoteResponse other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.VoteResponse.getDefaultInstance()) return this;
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.VoteRequest other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.VoteRequest.getDefaultInstance()) return this;
+        if (other.hasServerId()) {
+          setServerId(other.getServerId());
+        }
         if (other.hasTerm()) {
           setTerm(other.getTerm());
         }
-        if (other.hasGranted()) {
-          setGranted(other.getGranted());
+        if (other.hasLastLogTerm()) {
+          setLastLogTerm(other.getLastLogTerm());
+        }
+        if (other.hasLastLogIndex()) {
+          setLastLogIndex(other.getLastLogIndex());
         }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -5138,11 +5289,11 @@ public final class RaftProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.VoteResponse parsedMessage = null;
+        com.github.raftimpl.raft.proto.RaftProto.VoteRequest parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.VoteResponse) e.getUnfinishedMessage();
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.VoteRequest) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -5153,272 +5304,271 @@ public final class RaftProto {
       }
       private int bitField0_;
 
-      // optional uint64 term = 1;
+      // optional uint32 server_id = 1;
+      private int serverId_ ;
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 请求选票的候选人的 Id
+       * </pre>
+       */
+      public boolean hasServerId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 请求选票的候选人的 Id
+       * </pre>
+       */
+      public int getServerId() {
+        return serverId_;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 请求选票的候选人的 Id
+       * </pre>
+       */
+      public Builder setServerId(int value) {
+        bitField0_ |= 0x00000001;
+        serverId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 请求选票的候选人的 Id
+       * </pre>
+       */
+      public Builder clearServerId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        serverId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 term = 2;
       private long term_ ;
       /**
-       * <code>optional uint64 term = 1;</code>
+       * <code>optional uint64 term = 2;</code>
        *
        * <pre>
-       * 当前任期号，以便于候选人去更新自己的任期号
+       * 候选人的任期号
        * </pre>
        */
       public boolean hasTerm() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+        return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional uint64 term = 1;</code>
+       * <code>optional uint64 term = 2;</code>
        *
        * <pre>
-       * 当前任期号，以便于候选人去更新自己的任期号
+       * 候选人的任期号
        * </pre>
        */
       public long getTerm() {
         return term_;
       }
       /**
-       * <code>optional uint64 term = 1;</code>
+       * <code>optional uint64 term = 2;</code>
        *
        * <pre>
-       * 当前任期号，以便于候选人去更新自己的任期号
+       * 候选人的任期号
        * </pre>
        */
       public Builder setTerm(long value) {
-        bitField0_ |= 0x00000001;
+        bitField0_ |= 0x00000002;
         term_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 term = 1;</code>
+       * <code>optional uint64 term = 2;</code>
        *
        * <pre>
-       * 当前任期号，以便于候选人去更新自己的任期号
+       * 候选人的任期号
        * </pre>
        */
       public Builder clearTerm() {
-        bitField0_ = (bitField0_ & ~0x00000001);
+        bitField0_ = (bitField0_ & ~0x00000002);
         term_ = 0L;
         onChanged();
         return this;
       }
 
-      // optional bool granted = 2;
-      private boolean granted_ ;
+      // optional uint64 last_log_term = 3;
+      private long lastLogTerm_ ;
       /**
-       * <code>optional bool granted = 2;</code>
+       * <code>optional uint64 last_log_term = 3;</code>
        *
        * <pre>
-       * 候选人赢得了此张选票时为真
+       * 候选人的最后日志条目的任期号
        * </pre>
        */
-      public boolean hasGranted() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+      public boolean hasLastLogTerm() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
       }
       /**
-       * <code>optional bool granted = 2;</code>
+       * <code>optional uint64 last_log_term = 3;</code>
        *
        * <pre>
-       * 候选人赢得了此张选票时为真
+       * 候选人的最后日志条目的任期号
        * </pre>
        */
-      public boolean getGranted() {
-        return granted_;
+      public long getLastLogTerm() {
+        return lastLogTerm_;
       }
       /**
-       * <code>optional bool granted = 2;</code>
+       * <code>optional uint64 last_log_term = 3;</code>
        *
        * <pre>
-       * 候选人赢得了此张选票时为真
+       * 候选人的最后日志条目的任期号
        * </pre>
        */
-      public Builder setGranted(boolean value) {
-        bitField0_ |= 0x00000002;
-        granted_ = value;
+      public Builder setLastLogTerm(long value) {
+        bitField0_ |= 0x00000004;
+        lastLogTerm_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional bool granted = 2;</code>
+       * <code>optional uint64 last_log_term = 3;</code>
        *
        * <pre>
-       * 候选人赢得了此张选票时为真
+       * 候选人的最后日志条目的任期号
        * </pre>
        */
-      public Builder clearGranted() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        granted_ = false;
+      public Builder clearLastLogTerm() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        lastLogTerm_ = 0L;
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:raft.VoteResponse)
+      // optional uint64 last_log_index = 4;
+      private long lastLogIndex_ ;
+      /**
+       * <code>optional uint64 last_log_index = 4;</code>
+       *
+       * <pre>
+       * 候选人最后日志条目的索引值
+       * </pre>
+       */
+      public boolean hasLastLogIndex() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint64 last_log_index = 4;</code>
+       *
+       * <pre>
+       * 候选人最后日志条目的索引值
+       * </pre>
+       */
+      public long getLastLogIndex() {
+        return lastLogIndex_;
+      }
+      /**
+       * <code>optional uint64 last_log_index = 4;</code>
+       *
+       * <pre>
+       * 候选人最后日志条目的索引值
+       * </pre>
+       */
+      public Builder setLastLogIndex(long value) {
+        bitField0_ |= 0x00000008;
+        lastLogIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 last_log_index = 4;</code>
+       *
+       * <pre>
+       * 候选人最后日志条目的索引值
+       * </pre>
+       */
+      public Builder clearLastLogIndex() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        lastLogIndex_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:raft.VoteRequest)
     }
 
     static {
-      defaultInstance = new VoteResponse(true);
+      defaultInstance = new VoteRequest(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:raft.VoteResponse)
+    // @@protoc_insertion_point(class_scope:raft.VoteRequest)
   }
 
-  public interface AppendEntriesRequestOrBuilder
+  public interface VoteResponseOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
-    // optional uint32 server_id = 1;
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 领导人的Id
-     * </pre>
-     */
-    boolean hasServerId();
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 领导人的Id
-     * </pre>
-     */
-    int getServerId();
-
-    // optional uint64 term = 2;
+    // optional uint64 term = 1;
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 term = 1;</code>
      *
      * <pre>
-     * 领导人的任期号
+     * 当前任期号，以便于候选人去更新自己的任期号
      * </pre>
      */
     boolean hasTerm();
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 term = 1;</code>
      *
      * <pre>
-     * 领导人的任期号
+     * 当前任期号，以便于候选人去更新自己的任期号
      * </pre>
      */
     long getTerm();
 
-    // optional uint64 prev_log_index = 3;
+    // optional bool granted = 2;
     /**
-     * <code>optional uint64 prev_log_index = 3;</code>
+     * <code>optional bool granted = 2;</code>
      *
      * <pre>
-     * 新的日志条目紧随之前的索引值
+     * 候选人赢得了此张选票时为真
      * </pre>
      */
-    boolean hasPrevLogIndex();
+    boolean hasGranted();
     /**
-     * <code>optional uint64 prev_log_index = 3;</code>
+     * <code>optional bool granted = 2;</code>
      *
      * <pre>
-     * 新的日志条目紧随之前的索引值
+     * 候选人赢得了此张选票时为真
      * </pre>
      */
-    long getPrevLogIndex();
+    boolean getGranted();
+  }
+  /**
+   * Protobuf type {@code raft.VoteResponse}
+   */
+  public static final class VoteResponse extends
+      com.google.protobuf.GeneratedMessage
+      implements VoteResponseOrBuilder {
+    // Use VoteResponse.newBuilder() to construct.
+    private VoteResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private VoteResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    // optional uint64 prev_log_term = 4;
-    /**
-     * <code>optional uint64 prev_log_term = 4;</code>
-     *
-     * <pre>
-     * prev_log_index条目的任期号
-     * </pre>
-     */
-    boolean hasPrevLogTerm();
-    /**
-     * <code>optional uint64 prev_log_term = 4;</code>
-     *
-     * <pre>
-     * prev_log_index条目的任期号
-     * </pre>
-     */
-    long getPrevLogTerm();
-
-    // optional uint64 commit_index = 5;
-    /**
-     * <code>optional uint64 commit_index = 5;</code>
-     *
-     * <pre>
-     * 领导人已经提交的日志的索引值
-     * </pre>
-     */
-    boolean hasCommitIndex();
-    /**
-     * <code>optional uint64 commit_index = 5;</code>
-     *
-     * <pre>
-     * 领导人已经提交的日志的索引值
-     * </pre>
-     */
-    long getCommitIndex();
-
-    // repeated .raft.LogEntry entries = 6;
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> 
-        getEntriesList();
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index);
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    int getEntriesCount();
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
-        getEntriesOrBuilderList();
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
-        int index);
-  }
-  /**
-   * Protobuf type {@code raft.AppendEntriesRequest}
-   */
-  public static final class AppendEntriesRequest extends
-      com.google.protobuf.GeneratedMessage
-      implements AppendEntriesRequestOrBuilder {
-    // Use AppendEntriesRequest.newBuilder() to construct.
-    private AppendEntriesRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
-      super(builder);
-      this.unknownFields = builder.getUnknownFields();
-    }
-    private AppendEntriesRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
-
-    private static final AppendEntriesRequest defaultInstance;
-    public static AppendEntriesRequest getDefaultInstance() {
+    private static final VoteResponse defaultInstance;
+    public static VoteResponse getDefaultInstance() {
       return defaultInstance;
     }
 
-    public AppendEntriesRequest getDefaultInstanceForType() {
+    public VoteResponse getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -5428,7 +5578,7 @@ public final class RaftProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private AppendEntriesRequest(
+    private VoteResponse(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -5453,35 +5603,12 @@ public final class RaftProto {
             }
             case 8: {
               bitField0_ |= 0x00000001;
-              serverId_ = input.readUInt32();
+              term_ = input.readUInt64();
               break;
             }
             case 16: {
               bitField0_ |= 0x00000002;
-              term_ = input.readUInt64();
-              break;
-            }
-            case 24: {
-              bitField0_ |= 0x00000004;
-              prevLogIndex_ = input.readUInt64();
-              break;
-            }
-            case 32: {
-              bitField0_ |= 0x00000008;
-              prevLogTerm_ = input.readUInt64();
-              break;
-            }
-            case 40: {
-              bitField0_ |= 0x00000010;
-              commitIndex_ = input.readUInt64();
-              break;
-            }
-            case 50: {
-              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
-                entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>();
-                mutable_bitField0_ |= 0x00000020;
-              }
-              entries_.add(input.readMessage(com.github.raftimpl.raft.proto.RaftProto.LogEntry.PARSER, extensionRegistry));
+              granted_ = input.readBool();
               break;
             }
           }
@@ -5492,254 +5619,107 @@ public final class RaftProto {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
-        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
-          entries_ = java.util.Collections.unmodifiableList(entries_);
-        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_fieldAccessorTable
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.Builder.class);
+              com.github.raftimpl.raft.proto.RaftProto.VoteResponse.class, com.github.raftimpl.raft.proto.RaftProto.VoteResponse.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<AppendEntriesRequest> PARSER =
-        new com.google.protobuf.AbstractParser<AppendEntriesRequest>() {
-      public AppendEntriesRequest parsePartialFrom(
+    public static com.google.protobuf.Parser<VoteResponse> PARSER =
+        new com.google.protobuf.AbstractParser<VoteResponse>() {
+      public VoteResponse parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new AppendEntriesRequest(input, extensionRegistry);
+        return new VoteResponse(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<AppendEntriesRequest> getParserForType() {
+    public com.google.protobuf.Parser<VoteResponse> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // optional uint32 server_id = 1;
-    public static final int SERVER_ID_FIELD_NUMBER = 1;
-    private int serverId_;
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 领导人的Id
-     * </pre>
-     */
-    public boolean hasServerId() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
-    }
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     *
-     * <pre>
-     * 领导人的Id
-     * </pre>
-     */
-    public int getServerId() {
-      return serverId_;
-    }
-
-    // optional uint64 term = 2;
-    public static final int TERM_FIELD_NUMBER = 2;
+    // optional uint64 term = 1;
+    public static final int TERM_FIELD_NUMBER = 1;
     private long term_;
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 term = 1;</code>
      *
      * <pre>
-     * 领导人的任期号
+     * 当前任期号，以便于候选人去更新自己的任期号
      * </pre>
      */
     public boolean hasTerm() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
+      return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 term = 1;</code>
      *
      * <pre>
-     * 领导人的任期号
+     * 当前任期号，以便于候选人去更新自己的任期号
      * </pre>
      */
     public long getTerm() {
       return term_;
     }
 
-    // optional uint64 prev_log_index = 3;
-    public static final int PREV_LOG_INDEX_FIELD_NUMBER = 3;
-    private long prevLogIndex_;
+    // optional bool granted = 2;
+    public static final int GRANTED_FIELD_NUMBER = 2;
+    private boolean granted_;
     /**
-     * <code>optional uint64 prev_log_index = 3;</code>
+     * <code>optional bool granted = 2;</code>
      *
      * <pre>
-     * 新的日志条目紧随之前的索引值
+     * 候选人赢得了此张选票时为真
      * </pre>
      */
-    public boolean hasPrevLogIndex() {
-      return ((bitField0_ & 0x00000004) == 0x00000004);
+    public boolean hasGranted() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
     }
     /**
-     * <code>optional uint64 prev_log_index = 3;</code>
+     * <code>optional bool granted = 2;</code>
      *
      * <pre>
-     * 新的日志条目紧随之前的索引值
+     * 候选人赢得了此张选票时为真
      * </pre>
      */
-    public long getPrevLogIndex() {
-      return prevLogIndex_;
+    public boolean getGranted() {
+      return granted_;
     }
 
-    // optional uint64 prev_log_term = 4;
-    public static final int PREV_LOG_TERM_FIELD_NUMBER = 4;
-    private long prevLogTerm_;
-    /**
-     * <code>optional uint64 prev_log_term = 4;</code>
-     *
-     * <pre>
-     * prev_log_index条目的任期号
-     * </pre>
-     */
-    public boolean hasPrevLogTerm() {
-      return ((bitField0_ & 0x00000008) == 0x00000008);
-    }
-    /**
-     * <code>optional uint64 prev_log_term = 4;</code>
-     *
-     * <pre>
-     * prev_log_index条目的任期号
-     * </pre>
-     */
-    public long getPrevLogTerm() {
-      return prevLogTerm_;
+    private void initFields() {
+      term_ = 0L;
+      granted_ = false;
     }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
 
-    // optional uint64 commit_index = 5;
-    public static final int COMMIT_INDEX_FIELD_NUMBER = 5;
-    private long commitIndex_;
-    /**
-     * <code>optional uint64 commit_index = 5;</code>
-     *
-     * <pre>
-     * 领导人已经提交的日志的索引值
-     * </pre>
-     */
-    public boolean hasCommitIndex() {
-      return ((bitField0_ & 0x00000010) == 0x00000010);
-    }
-    /**
-     * <code>optional uint64 commit_index = 5;</code>
-     *
-     * <pre>
-     * 领导人已经提交的日志的索引值
-     * </pre>
-     */
-    public long getCommitIndex() {
-      return commitIndex_;
-    }
-
-    // repeated .raft.LogEntry entries = 6;
-    public static final int ENTRIES_FIELD_NUMBER = 6;
-    private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_;
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
-      return entries_;
-    }
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
-        getEntriesOrBuilderList() {
-      return entries_;
-    }
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    public int getEntriesCount() {
-      return entries_.size();
-    }
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
-      return entries_.get(index);
-    }
-    /**
-     * <code>repeated .raft.LogEntry entries = 6;</code>
-     *
-     * <pre>
-     * 准备存储的日志条目（表示心跳时为空）
-     * </pre>
-     */
-    public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
-        int index) {
-      return entries_.get(index);
-    }
-
-    private void initFields() {
-      serverId_ = 0;
-      term_ = 0L;
-      prevLogIndex_ = 0L;
-      prevLogTerm_ = 0L;
-      commitIndex_ = 0L;
-      entries_ = java.util.Collections.emptyList();
-    }
-    private byte memoizedIsInitialized = -1;
-    public final boolean isInitialized() {
-      byte isInitialized = memoizedIsInitialized;
-      if (isInitialized != -1) return isInitialized == 1;
-
-      memoizedIsInitialized = 1;
-      return true;
+      memoizedIsInitialized = 1;
+      return true;
     }
 
     public void writeTo(com.google.protobuf.CodedOutputStream output)
                         throws java.io.IOException {
       getSerializedSize();
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt32(1, serverId_);
+        output.writeUInt64(1, term_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeUInt64(2, term_);
-      }
-      if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        output.writeUInt64(3, prevLogIndex_);
-      }
-      if (((bitField0_ & 0x00000008) == 0x00000008)) {
-        output.writeUInt64(4, prevLogTerm_);
-      }
-      if (((bitField0_ & 0x00000010) == 0x00000010)) {
-        output.writeUInt64(5, commitIndex_);
-      }
-      for (int i = 0; i < entries_.size(); i++) {
-        output.writeMessage(6, entries_.get(i));
+        output.writeBool(2, granted_);
       }
       getUnknownFields().writeTo(output);
     }
@@ -5752,27 +5732,11 @@ public final class RaftProto {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt32Size(1, serverId_);
+          .computeUInt64Size(1, term_);
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(2, term_);
-      }
-      if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(3, prevLogIndex_);
-      }
-      if (((bitField0_ & 0x00000008) == 0x00000008)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(4, prevLogTerm_);
-      }
-      if (((bitField0_ & 0x00000010) == 0x00000010)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(5, commitIndex_);
-      }
-      for (int i = 0; i < entries_.size(); i++) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeMessageSize(6, entries_.get(i));
+          .computeBoolSize(2, granted_);
       }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -5786,53 +5750,53 @@ public final class RaftProto {
       return super.writeReplace();
     }
 
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(byte[] data)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseDelimitedFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseDelimitedFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.VoteResponse parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -5841,7 +5805,7 @@ public final class RaftProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest prototype) {
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.VoteResponse prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -5853,24 +5817,24 @@ public final class RaftProto {
       return builder;
     }
     /**
-     * Protobuf type {@code raft.AppendEntriesRequest}
+     * Protobuf type {@code raft.VoteResponse}
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequestOrBuilder {
+       implements com.github.raftimpl.raft.proto.RaftProto.VoteResponseOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_fieldAccessorTable
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.Builder.class);
+                com.github.raftimpl.raft.proto.RaftProto.VoteResponse.class, com.github.raftimpl.raft.proto.RaftProto.VoteResponse.Builder.class);
       }
 
-      // Construct using com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.newBuilder()
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.VoteResponse.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -5882,7 +5846,6 @@ public final class RaftProto {
       }
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getEntriesFieldBuilder();
         }
       }
       private static Builder create() {
@@ -5891,22 +5854,10 @@ public final class RaftProto {
 
       public Builder clear() {
         super.clear();
-        serverId_ = 0;
-        bitField0_ = (bitField0_ & ~0x00000001);
         term_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        granted_ = false;
         bitField0_ = (bitField0_ & ~0x00000002);
-        prevLogIndex_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000004);
-        prevLogTerm_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000008);
-        commitIndex_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000010);
-        if (entriesBuilder_ == null) {
-          entries_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000020);
-        } else {
-          entriesBuilder_.clear();
-        }
         return this;
       }
 
@@ -5916,110 +5867,54 @@ public final class RaftProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_VoteResponse_descriptor;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest getDefaultInstanceForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.getDefaultInstance();
+      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.VoteResponse.getDefaultInstance();
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest build() {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest result = buildPartial();
+      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse build() {
+        com.github.raftimpl.raft.proto.RaftProto.VoteResponse result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest result = new com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest(this);
+      public com.github.raftimpl.raft.proto.RaftProto.VoteResponse buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.VoteResponse result = new com.github.raftimpl.raft.proto.RaftProto.VoteResponse(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.serverId_ = serverId_;
+        result.term_ = term_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
-        result.term_ = term_;
-        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
-          to_bitField0_ |= 0x00000004;
-        }
-        result.prevLogIndex_ = prevLogIndex_;
-        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
-          to_bitField0_ |= 0x00000008;
-        }
-        result.prevLogTerm_ = prevLogTerm_;
-        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
-          to_bitField0_ |= 0x00000010;
-        }
-        result.commitIndex_ = commitIndex_;
-        if (entriesBuilder_ == null) {
-          if (((bitField0_ & 0x00000020) == 0x00000020)) {
-            entries_ = java.util.Collections.unmodifiableList(entries_);
-            bitField0_ = (bitField0_ & ~0x00000020);
-          }
-          result.entries_ = entries_;
-        } else {
-          result.entries_ = entriesBuilder_.build();
-        }
+        result.granted_ = granted_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest)other);
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.VoteResponse) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.VoteResponse)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.getDefaultInstance()) return this;
-        if (other.hasServerId()) {
-          setServerId(other.getServerId());
-        }
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.VoteResponse other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.VoteResponse.getDefaultInstance()) return this;
         if (other.hasTerm()) {
           setTerm(other.getTerm());
         }
-        if (other.hasPrevLogIndex()) {
-          setPrevLogIndex(other.getPrevLogIndex());
-        }
-        if (other.hasPrevLogTerm()) {
-          setPrevLogTerm(other.getPrevLogTerm());
-        }
-        if (other.hasCommitIndex()) {
-          setCommitIndex(other.getCommitIndex());
-        }
-        if (entriesBuilder_ == null) {
-          if (!other.entries_.isEmpty()) {
-            if (entries_.isEmpty()) {
-              entries_ = other.entries_;
-              bitField0_ = (bitField0_ & ~0x00000020);
-            } else {
-              ensureEntriesIsMutable();
-              entries_.addAll(other.entries_);
-            }
-            onChanged();
-          }
-        } else {
-          if (!other.entries_.isEmpty()) {
-            if (entriesBuilder_.isEmpty()) {
-              entriesBuilder_.dispose();
-              entriesBuilder_ = null;
-              entries_ = other.entries_;
-              bitField0_ = (bitField0_ & ~0x00000020);
-              entriesBuilder_ = 
-                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
-                   getEntriesFieldBuilder() : null;
-            } else {
-              entriesBuilder_.addAllMessages(other.entries_);
-            }
-          }
+        if (other.hasGranted()) {
+          setGranted(other.getGranted());
         }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -6033,11 +5928,11 @@ public final class RaftProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parsedMessage = null;
+        com.github.raftimpl.raft.proto.RaftProto.VoteResponse parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest) e.getUnfinishedMessage();
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.VoteResponse) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -6048,642 +5943,4328 @@ public final class RaftProto {
       }
       private int bitField0_;
 
-      // optional uint32 server_id = 1;
-      private int serverId_ ;
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 领导人的Id
-       * </pre>
-       */
-      public boolean hasServerId() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 领导人的Id
-       * </pre>
-       */
-      public int getServerId() {
-        return serverId_;
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 领导人的Id
-       * </pre>
-       */
-      public Builder setServerId(int value) {
-        bitField0_ |= 0x00000001;
-        serverId_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       *
-       * <pre>
-       * 领导人的Id
-       * </pre>
-       */
-      public Builder clearServerId() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        serverId_ = 0;
-        onChanged();
-        return this;
-      }
-
-      // optional uint64 term = 2;
+      // optional uint64 term = 1;
       private long term_ ;
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>optional uint64 term = 1;</code>
        *
        * <pre>
-       * 领导人的任期号
+       * 当前任期号，以便于候选人去更新自己的任期号
        * </pre>
        */
       public boolean hasTerm() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+        return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>optional uint64 term = 1;</code>
        *
        * <pre>
-       * 领导人的任期号
+       * 当前任期号，以便于候选人去更新自己的任期号
        * </pre>
        */
       public long getTerm() {
         return term_;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>optional uint64 term = 1;</code>
        *
        * <pre>
-       * 领导人的任期号
+       * 当前任期号，以便于候选人去更新自己的任期号
        * </pre>
        */
       public Builder setTerm(long value) {
-        bitField0_ |= 0x00000002;
+        bitField0_ |= 0x00000001;
         term_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>optional uint64 term = 1;</code>
        *
        * <pre>
-       * 领导人的任期号
+       * 当前任期号，以便于候选人去更新自己的任期号
        * </pre>
        */
       public Builder clearTerm() {
-        bitField0_ = (bitField0_ & ~0x00000002);
+        bitField0_ = (bitField0_ & ~0x00000001);
         term_ = 0L;
         onChanged();
         return this;
       }
 
-      // optional uint64 prev_log_index = 3;
-      private long prevLogIndex_ ;
+      // optional bool granted = 2;
+      private boolean granted_ ;
       /**
-       * <code>optional uint64 prev_log_index = 3;</code>
+       * <code>optional bool granted = 2;</code>
        *
        * <pre>
-       * 新的日志条目紧随之前的索引值
+       * 候选人赢得了此张选票时为真
        * </pre>
        */
-      public boolean hasPrevLogIndex() {
-        return ((bitField0_ & 0x00000004) == 0x00000004);
+      public boolean hasGranted() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional uint64 prev_log_index = 3;</code>
+       * <code>optional bool granted = 2;</code>
        *
        * <pre>
-       * 新的日志条目紧随之前的索引值
+       * 候选人赢得了此张选票时为真
        * </pre>
        */
-      public long getPrevLogIndex() {
-        return prevLogIndex_;
+      public boolean getGranted() {
+        return granted_;
       }
       /**
-       * <code>optional uint64 prev_log_index = 3;</code>
+       * <code>optional bool granted = 2;</code>
        *
        * <pre>
-       * 新的日志条目紧随之前的索引值
+       * 候选人赢得了此张选票时为真
        * </pre>
        */
-      public Builder setPrevLogIndex(long value) {
-        bitField0_ |= 0x00000004;
-        prevLogIndex_ = value;
+      public Builder setGranted(boolean value) {
+        bitField0_ |= 0x00000002;
+        granted_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 prev_log_index = 3;</code>
+       * <code>optional bool granted = 2;</code>
        *
        * <pre>
-       * 新的日志条目紧随之前的索引值
+       * 候选人赢得了此张选票时为真
        * </pre>
        */
-      public Builder clearPrevLogIndex() {
-        bitField0_ = (bitField0_ & ~0x00000004);
-        prevLogIndex_ = 0L;
+      public Builder clearGranted() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        granted_ = false;
         onChanged();
         return this;
       }
 
-      // optional uint64 prev_log_term = 4;
-      private long prevLogTerm_ ;
-      /**
-       * <code>optional uint64 prev_log_term = 4;</code>
-       *
-       * <pre>
-       * prev_log_index条目的任期号
-       * </pre>
-       */
-      public boolean hasPrevLogTerm() {
-        return ((bitField0_ & 0x00000008) == 0x00000008);
-      }
-      /**
-       * <code>optional uint64 prev_log_term = 4;</code>
-       *
-       * <pre>
-       * prev_log_index条目的任期号
-       * </pre>
-       */
-      public long getPrevLogTerm() {
-        return prevLogTerm_;
-      }
-      /**
-       * <code>optional uint64 prev_log_term = 4;</code>
-       *
-       * <pre>
-       * prev_log_index条目的任期号
-       * </pre>
-       */
-      public Builder setPrevLogTerm(long value) {
-        bitField0_ |= 0x00000008;
-        prevLogTerm_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional uint64 prev_log_term = 4;</code>
-       *
-       * <pre>
-       * prev_log_index条目的任期号
-       * </pre>
-       */
-      public Builder clearPrevLogTerm() {
-        bitField0_ = (bitField0_ & ~0x00000008);
-        prevLogTerm_ = 0L;
-        onChanged();
-        return this;
-      }
+      // @@protoc_insertion_point(builder_scope:raft.VoteResponse)
+    }
 
-      // optional uint64 commit_index = 5;
-      private long commitIndex_ ;
-      /**
-       * <code>optional uint64 commit_index = 5;</code>
-       *
-       * <pre>
-       * 领导人已经提交的日志的索引值
-       * </pre>
-       */
-      public boolean hasCommitIndex() {
-        return ((bitField0_ & 0x00000010) == 0x00000010);
-      }
-      /**
-       * <code>optional uint64 commit_index = 5;</code>
-       *
-       * <pre>
-       * 领导人已经提交的日志的索引值
-       * </pre>
-       */
-      public long getCommitIndex() {
-        return commitIndex_;
-      }
-      /**
-       * <code>optional uint64 commit_index = 5;</code>
-       *
-       * <pre>
-       * 领导人已经提交的日志的索引值
-       * </pre>
-       */
-      public Builder setCommitIndex(long value) {
-        bitField0_ |= 0x00000010;
-        commitIndex_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional uint64 commit_index = 5;</code>
-       *
-       * <pre>
-       * 领导人已经提交的日志的索引值
-       * </pre>
-       */
-      public Builder clearCommitIndex() {
-        bitField0_ = (bitField0_ & ~0x00000010);
-        commitIndex_ = 0L;
-        onChanged();
-        return this;
-      }
+    static {
+      defaultInstance = new VoteResponse(true);
+      defaultInstance.initFields();
+    }
 
-      // repeated .raft.LogEntry entries = 6;
-      private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_ =
-        java.util.Collections.emptyList();
-      private void ensureEntriesIsMutable() {
-        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
-          entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>(entries_);
-          bitField0_ |= 0x00000020;
-         }
-      }
+    // @@protoc_insertion_point(class_scope:raft.VoteResponse)
+  }
 
-      private com.google.protobuf.RepeatedFieldBuilder<
-          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> entriesBuilder_;
+  public interface AppendEntriesRequestOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
 
-      /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
-       *
-       * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
-       * </pre>
-       */
-      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
-        if (entriesBuilder_ == null) {
-          return java.util.Collections.unmodifiableList(entries_);
-        } else {
-          return entriesBuilder_.getMessageList();
-        }
-      }
-      /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
-       *
-       * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
-       * </pre>
-       */
-      public int getEntriesCount() {
-        if (entriesBuilder_ == null) {
-          return entries_.size();
-        } else {
-          return entriesBuilder_.getCount();
-        }
+    // optional uint32 server_id = 1;
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 领导人的Id
+     * </pre>
+     */
+    boolean hasServerId();
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 领导人的Id
+     * </pre>
+     */
+    int getServerId();
+
+    // optional uint64 term = 2;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 领导人的任期号
+     * </pre>
+     */
+    boolean hasTerm();
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 领导人的任期号
+     * </pre>
+     */
+    long getTerm();
+
+    // optional uint64 prev_log_index = 3;
+    /**
+     * <code>optional uint64 prev_log_index = 3;</code>
+     *
+     * <pre>
+     * 新的日志条目紧随之前的索引值
+     * </pre>
+     */
+    boolean hasPrevLogIndex();
+    /**
+     * <code>optional uint64 prev_log_index = 3;</code>
+     *
+     * <pre>
+     * 新的日志条目紧随之前的索引值
+     * </pre>
+     */
+    long getPrevLogIndex();
+
+    // optional uint64 prev_log_term = 4;
+    /**
+     * <code>optional uint64 prev_log_term = 4;</code>
+     *
+     * <pre>
+     * prev_log_index条目的任期号
+     * </pre>
+     */
+    boolean hasPrevLogTerm();
+    /**
+     * <code>optional uint64 prev_log_term = 4;</code>
+     *
+     * <pre>
+     * prev_log_index条目的任期号
+     * </pre>
+     */
+    long getPrevLogTerm();
+
+    // optional uint64 commit_index = 5;
+    /**
+     * <code>optional uint64 commit_index = 5;</code>
+     *
+     * <pre>
+     * 领导人已经提交的日志的索引值
+     * </pre>
+     */
+    boolean hasCommitIndex();
+    /**
+     * <code>optional uint64 commit_index = 5;</code>
+     *
+     * <pre>
+     * 领导人已经提交的日志的索引值
+     * </pre>
+     */
+    long getCommitIndex();
+
+    // repeated .raft.LogEntry entries = 6;
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> 
+        getEntriesList();
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index);
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    int getEntriesCount();
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+        getEntriesOrBuilderList();
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+        int index);
+
+    // optional uint64 leader_commit_index = 7;
+    /**
+     * <code>optional uint64 leader_commit_index = 7;</code>
+     *
+     * <pre>
+     * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+     * </pre>
+     */
+    boolean hasLeaderCommitIndex();
+    /**
+     * <code>optional uint64 leader_commit_index = 7;</code>
+     *
+     * <pre>
+     * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+     * </pre>
+     */
+    long getLeaderCommitIndex();
+
+    // optional .raft.CompressionType compression = 8;
+    /**
+     * <code>optional .raft.CompressionType compression = 8;</code>
+     *
+     * <pre>
+     * compressed_entries的压缩方式
+     * </pre>
+     */
+    boolean hasCompression();
+    /**
+     * <code>optional .raft.CompressionType compression = 8;</code>
+     *
+     * <pre>
+     * compressed_entries的压缩方式
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression();
+
+    // optional bytes compressed_entries = 9;
+    /**
+     * <code>optional bytes compressed_entries = 9;</code>
+     *
+     * <pre>
+     * 整体压缩后的LogEntryBatch，设置时entries为空
+     * </pre>
+     */
+    boolean hasCompressedEntries();
+    /**
+     * <code>optional bytes compressed_entries = 9;</code>
+     *
+     * <pre>
+     * 整体压缩后的LogEntryBatch，设置时entries为空
+     * </pre>
+     */
+    com.google.protobuf.ByteString getCompressedEntries();
+  }
+  /**
+   * Protobuf type {@code raft.AppendEntriesRequest}
+   */
+  public static final class AppendEntriesRequest extends
+      com.google.protobuf.GeneratedMessage
+      implements AppendEntriesRequestOrBuilder {
+    // Use AppendEntriesRequest.newBuilder() to construct.
+    private AppendEntriesRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private AppendEntriesRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final AppendEntriesRequest defaultInstance;
+    public static AppendEntriesRequest getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public AppendEntriesRequest getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private AppendEntriesRequest(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              serverId_ = input.readUInt32();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              term_ = input.readUInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              prevLogIndex_ = input.readUInt64();
+              break;
+            }
+            case 32: {
+              bitField0_ |= 0x00000008;
+              prevLogTerm_ = input.readUInt64();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              commitIndex_ = input.readUInt64();
+              break;
+            }
+            case 50: {
+              if (!((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+                entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>();
+                mutable_bitField0_ |= 0x00000020;
+              }
+              entries_.add(input.readMessage(com.github.raftimpl.raft.proto.RaftProto.LogEntry.PARSER, extensionRegistry));
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000020;
+              leaderCommitIndex_ = input.readUInt64();
+              break;
+            }
+            case 64: {
+              int rawValue = input.readEnum();
+              com.github.raftimpl.raft.proto.RaftProto.CompressionType value = com.github.raftimpl.raft.proto.RaftProto.CompressionType.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(8, rawValue);
+              } else {
+                bitField0_ |= 0x00000040;
+                compression_ = value;
+              }
+              break;
+            }
+            case 74: {
+              bitField0_ |= 0x00000080;
+              compressedEntries_ = input.readBytes();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000020) == 0x00000020)) {
+          entries_ = java.util.Collections.unmodifiableList(entries_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<AppendEntriesRequest> PARSER =
+        new com.google.protobuf.AbstractParser<AppendEntriesRequest>() {
+      public AppendEntriesRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new AppendEntriesRequest(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<AppendEntriesRequest> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // optional uint32 server_id = 1;
+    public static final int SERVER_ID_FIELD_NUMBER = 1;
+    private int serverId_;
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 领导人的Id
+     * </pre>
+     */
+    public boolean hasServerId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     *
+     * <pre>
+     * 领导人的Id
+     * </pre>
+     */
+    public int getServerId() {
+      return serverId_;
+    }
+
+    // optional uint64 term = 2;
+    public static final int TERM_FIELD_NUMBER = 2;
+    private long term_;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 领导人的任期号
+     * </pre>
+     */
+    public boolean hasTerm() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 领导人的任期号
+     * </pre>
+     */
+    public long getTerm() {
+      return term_;
+    }
+
+    // optional uint64 prev_log_index = 3;
+    public static final int PREV_LOG_INDEX_FIELD_NUMBER = 3;
+    private long prevLogIndex_;
+    /**
+     * <code>optional uint64 prev_log_index = 3;</code>
+     *
+     * <pre>
+     * 新的日志条目紧随之前的索引值
+     * </pre>
+     */
+    public boolean hasPrevLogIndex() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional uint64 prev_log_index = 3;</code>
+     *
+     * <pre>
+     * 新的日志条目紧随之前的索引值
+     * </pre>
+     */
+    public long getPrevLogIndex() {
+      return prevLogIndex_;
+    }
+
+    // optional uint64 prev_log_term = 4;
+    public static final int PREV_LOG_TERM_FIELD_NUMBER = 4;
+    private long prevLogTerm_;
+    /**
+     * <code>optional uint64 prev_log_term = 4;</code>
+     *
+     * <pre>
+     * prev_log_index条目的任期号
+     * </pre>
+     */
+    public boolean hasPrevLogTerm() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional uint64 prev_log_term = 4;</code>
+     *
+     * <pre>
+     * prev_log_index条目的任期号
+     * </pre>
+     */
+    public long getPrevLogTerm() {
+      return prevLogTerm_;
+    }
+
+    // optional uint64 commit_index = 5;
+    public static final int COMMIT_INDEX_FIELD_NUMBER = 5;
+    private long commitIndex_;
+    /**
+     * <code>optional uint64 commit_index = 5;</code>
+     *
+     * <pre>
+     * 领导人已经提交的日志的索引值
+     * </pre>
+     */
+    public boolean hasCommitIndex() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional uint64 commit_index = 5;</code>
+     *
+     * <pre>
+     * 领导人已经提交的日志的索引值
+     * </pre>
+     */
+    public long getCommitIndex() {
+      return commitIndex_;
+    }
+
+    // repeated .raft.LogEntry entries = 6;
+    public static final int ENTRIES_FIELD_NUMBER = 6;
+    private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_;
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
+      return entries_;
+    }
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+        getEntriesOrBuilderList() {
+      return entries_;
+    }
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    public int getEntriesCount() {
+      return entries_.size();
+    }
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
+      return entries_.get(index);
+    }
+    /**
+     * <code>repeated .raft.LogEntry entries = 6;</code>
+     *
+     * <pre>
+     * 准备存储的日志条目（表示心跳时为空）
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+        int index) {
+      return entries_.get(index);
+    }
+
+    // optional uint64 leader_commit_index = 7;
+    public static final int LEADER_COMMIT_INDEX_FIELD_NUMBER = 7;
+    private long leaderCommitIndex_;
+    /**
+     * <code>optional uint64 leader_commit_index = 7;</code>
+     *
+     * <pre>
+     * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+     * </pre>
+     */
+    public boolean hasLeaderCommitIndex() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional uint64 leader_commit_index = 7;</code>
+     *
+     * <pre>
+     * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+     * </pre>
+     */
+    public long getLeaderCommitIndex() {
+      return leaderCommitIndex_;
+    }
+
+    // optional .raft.CompressionType compression = 8;
+    public static final int COMPRESSION_FIELD_NUMBER = 8;
+    private com.github.raftimpl.raft.proto.RaftProto.CompressionType compression_;
+    /**
+     * <code>optional .raft.CompressionType compression = 8;</code>
+     *
+     * <pre>
+     * compressed_entries的压缩方式
+     * </pre>
+     */
+    public boolean hasCompression() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional .raft.CompressionType compression = 8;</code>
+     *
+     * <pre>
+     * compressed_entries的压缩方式
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression() {
+      return compression_;
+    }
+
+    // optional bytes compressed_entries = 9;
+    public static final int COMPRESSED_ENTRIES_FIELD_NUMBER = 9;
+    private com.google.protobuf.ByteString compressedEntries_;
+    /**
+     * <code>optional bytes compressed_entries = 9;</code>
+     *
+     * <pre>
+     * 整体压缩后的LogEntryBatch，设置时entries为空
+     * </pre>
+     */
+    public boolean hasCompressedEntries() {
+      return ((bitField0_ & 0x00000080) == 0x00000080);
+    }
+    /**
+     * <code>optional bytes compressed_entries = 9;</code>
+     *
+     * <pre>
+     * 整体压缩后的LogEntryBatch，设置时entries为空
+     * </pre>
+     */
+    public com.google.protobuf.ByteString getCompressedEntries() {
+      return compressedEntries_;
+    }
+
+    private void initFields() {
+      serverId_ = 0;
+      term_ = 0L;
+      prevLogIndex_ = 0L;
+      prevLogTerm_ = 0L;
+      commitIndex_ = 0L;
+      entries_ = java.util.Collections.emptyList();
+      leaderCommitIndex_ = 0L;
+      compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+      compressedEntries_ = com.google.protobuf.ByteString.EMPTY;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt32(1, serverId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt64(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, prevLogIndex_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeUInt64(4, prevLogTerm_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeUInt64(5, commitIndex_);
+      }
+      for (int i = 0; i < entries_.size(); i++) {
+        output.writeMessage(6, entries_.get(i));
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeUInt64(7, leaderCommitIndex_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeEnum(8, compression_.getNumber());
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        output.writeBytes(9, compressedEntries_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(1, serverId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, prevLogIndex_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(4, prevLogTerm_);
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(5, commitIndex_);
+      }
+      for (int i = 0; i < entries_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(6, entries_.get(i));
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(7, leaderCommitIndex_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(8, compression_.getNumber());
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(9, compressedEntries_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code raft.AppendEntriesRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.Builder.class);
+      }
+
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getEntriesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        serverId_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        term_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        prevLogIndex_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        prevLogTerm_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000008);
+        commitIndex_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000020);
+        } else {
+          entriesBuilder_.clear();
+        }
+        leaderCommitIndex_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+        bitField0_ = (bitField0_ & ~0x00000080);
+        compressedEntries_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000100);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesRequest_descriptor;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.getDefaultInstance();
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest build() {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest result = new com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.serverId_ = serverId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.term_ = term_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.prevLogIndex_ = prevLogIndex_;
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.prevLogTerm_ = prevLogTerm_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.commitIndex_ = commitIndex_;
+        if (entriesBuilder_ == null) {
+          if (((bitField0_ & 0x00000020) == 0x00000020)) {
+            entries_ = java.util.Collections.unmodifiableList(entries_);
+            bitField0_ = (bitField0_ & ~0x00000020);
+          }
+          result.entries_ = entries_;
+        } else {
+          result.entries_ = entriesBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.leaderCommitIndex_ = leaderCommitIndex_;
+        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.compression_ = compression_;
+        if (((from_bitField0_ & 0x00000100) == 0x00000100)) {
+          to_bitField0_ |= 0x00000080;
+        }
+        result.compressedEntries_ = compressedEntries_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest.getDefaultInstance()) return this;
+        if (other.hasServerId()) {
+          setServerId(other.getServerId());
+        }
+        if (other.hasTerm()) {
+          setTerm(other.getTerm());
+        }
+        if (other.hasPrevLogIndex()) {
+          setPrevLogIndex(other.getPrevLogIndex());
+        }
+        if (other.hasPrevLogTerm()) {
+          setPrevLogTerm(other.getPrevLogTerm());
+        }
+        if (other.hasCommitIndex()) {
+          setCommitIndex(other.getCommitIndex());
+        }
+        if (entriesBuilder_ == null) {
+          if (!other.entries_.isEmpty()) {
+            if (entries_.isEmpty()) {
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000020);
+            } else {
+              ensureEntriesIsMutable();
+              entries_.addAll(other.entries_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.entries_.isEmpty()) {
+            if (entriesBuilder_.isEmpty()) {
+              entriesBuilder_.dispose();
+              entriesBuilder_ = null;
+              entries_ = other.entries_;
+              bitField0_ = (bitField0_ & ~0x00000020);
+              entriesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getEntriesFieldBuilder() : null;
+            } else {
+              entriesBuilder_.addAllMessages(other.entries_);
+            }
+          }
+        }
+        if (other.hasLeaderCommitIndex()) {
+          setLeaderCommitIndex(other.getLeaderCommitIndex());
+        }
+        if (other.hasCompression()) {
+          setCompression(other.getCompression());
+        }
+        if (other.hasCompressedEntries()) {
+          setCompressedEntries(other.getCompressedEntries());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.AppendEntriesRequest) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional uint32 server_id = 1;
+      private int serverId_ ;
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 领导人的Id
+       * </pre>
+       */
+      public boolean hasServerId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 领导人的Id
+       * </pre>
+       */
+      public int getServerId() {
+        return serverId_;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 领导人的Id
+       * </pre>
+       */
+      public Builder setServerId(int value) {
+        bitField0_ |= 0x00000001;
+        serverId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       *
+       * <pre>
+       * 领导人的Id
+       * </pre>
+       */
+      public Builder clearServerId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        serverId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 term = 2;
+      private long term_ ;
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 领导人的任期号
+       * </pre>
+       */
+      public boolean hasTerm() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 领导人的任期号
+       * </pre>
+       */
+      public long getTerm() {
+        return term_;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 领导人的任期号
+       * </pre>
+       */
+      public Builder setTerm(long value) {
+        bitField0_ |= 0x00000002;
+        term_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 领导人的任期号
+       * </pre>
+       */
+      public Builder clearTerm() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        term_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 prev_log_index = 3;
+      private long prevLogIndex_ ;
+      /**
+       * <code>optional uint64 prev_log_index = 3;</code>
+       *
+       * <pre>
+       * 新的日志条目紧随之前的索引值
+       * </pre>
+       */
+      public boolean hasPrevLogIndex() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint64 prev_log_index = 3;</code>
+       *
+       * <pre>
+       * 新的日志条目紧随之前的索引值
+       * </pre>
+       */
+      public long getPrevLogIndex() {
+        return prevLogIndex_;
+      }
+      /**
+       * <code>optional uint64 prev_log_index = 3;</code>
+       *
+       * <pre>
+       * 新的日志条目紧随之前的索引值
+       * </pre>
+       */
+      public Builder setPrevLogIndex(long value) {
+        bitField0_ |= 0x00000004;
+        prevLogIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 prev_log_index = 3;</code>
+       *
+       * <pre>
+       * 新的日志条目紧随之前的索引值
+       * </pre>
+       */
+      public Builder clearPrevLogIndex() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        prevLogIndex_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 prev_log_term = 4;
+      private long prevLogTerm_ ;
+      /**
+       * <code>optional uint64 prev_log_term = 4;</code>
+       *
+       * <pre>
+       * prev_log_index条目的任期号
+       * </pre>
+       */
+      public boolean hasPrevLogTerm() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional uint64 prev_log_term = 4;</code>
+       *
+       * <pre>
+       * prev_log_index条目的任期号
+       * </pre>
+       */
+      public long getPrevLogTerm() {
+        return prevLogTerm_;
+      }
+      /**
+       * <code>optional uint64 prev_log_term = 4;</code>
+       *
+       * <pre>
+       * prev_log_index条目的任期号
+       * </pre>
+       */
+      public Builder setPrevLogTerm(long value) {
+        bitField0_ |= 0x00000008;
+        prevLogTerm_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 prev_log_term = 4;</code>
+       *
+       * <pre>
+       * prev_log_index条目的任期号
+       * </pre>
+       */
+      public Builder clearPrevLogTerm() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        prevLogTerm_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 commit_index = 5;
+      private long commitIndex_ ;
+      /**
+       * <code>optional uint64 commit_index = 5;</code>
+       *
+       * <pre>
+       * 领导人已经提交的日志的索引值
+       * </pre>
+       */
+      public boolean hasCommitIndex() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint64 commit_index = 5;</code>
+       *
+       * <pre>
+       * 领导人已经提交的日志的索引值
+       * </pre>
+       */
+      public long getCommitIndex() {
+        return commitIndex_;
+      }
+      /**
+       * <code>optional uint64 commit_index = 5;</code>
+       *
+       * <pre>
+       * 领导人已经提交的日志的索引值
+       * </pre>
+       */
+      public Builder setCommitIndex(long value) {
+        bitField0_ |= 0x00000010;
+        commitIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 commit_index = 5;</code>
+       *
+       * <pre>
+       * 领导人已经提交的日志的索引值
+       * </pre>
+       */
+      public Builder clearCommitIndex() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        commitIndex_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // repeated .raft.LogEntry entries = 6;
+      private java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> entries_ =
+        java.util.Collections.emptyList();
+      private void ensureEntriesIsMutable() {
+        if (!((bitField0_ & 0x00000020) == 0x00000020)) {
+          entries_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.LogEntry>(entries_);
+          bitField0_ |= 0x00000020;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> entriesBuilder_;
+
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry> getEntriesList() {
+        if (entriesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(entries_);
+        } else {
+          return entriesBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public int getEntriesCount() {
+        if (entriesBuilder_ == null) {
+          return entries_.size();
+        } else {
+          return entriesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);
+        } else {
+          return entriesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder setEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.set(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder setEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder addEntries(com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder addEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
+        if (entriesBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureEntriesIsMutable();
+          entries_.add(index, value);
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder addEntries(
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder addEntries(
+          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          entriesBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder addAllEntries(
+          java.lang.Iterable<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntry> values) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          super.addAll(values, entries_);
+          onChanged();
+        } else {
+          entriesBuilder_.addAllMessages(values);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder clearEntries() {
+        if (entriesBuilder_ == null) {
+          entries_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000020);
+          onChanged();
+        } else {
+          entriesBuilder_.clear();
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public Builder removeEntries(int index) {
+        if (entriesBuilder_ == null) {
+          ensureEntriesIsMutable();
+          entries_.remove(index);
+          onChanged();
+        } else {
+          entriesBuilder_.remove(index);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder getEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+          int index) {
+        if (entriesBuilder_ == null) {
+          return entries_.get(index);  } else {
+          return entriesBuilder_.getMessageOrBuilder(index);
+        }
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+           getEntriesOrBuilderList() {
+        if (entriesBuilder_ != null) {
+          return entriesBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(entries_);
+        }
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder() {
+        return getEntriesFieldBuilder().addBuilder(
+            com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder(
+          int index) {
+        return getEntriesFieldBuilder().addBuilder(
+            index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .raft.LogEntry entries = 6;</code>
+       *
+       * <pre>
+       * 准备存储的日志条目（表示心跳时为空）
+       * </pre>
+       */
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder> 
+           getEntriesBuilderList() {
+        return getEntriesFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
+          getEntriesFieldBuilder() {
+        if (entriesBuilder_ == null) {
+          entriesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder>(
+                  entries_,
+                  ((bitField0_ & 0x00000020) == 0x00000020),
+                  getParentForChildren(),
+                  isClean());
+          entries_ = null;
+        }
+        return entriesBuilder_;
+      }
+
+      // optional uint64 leader_commit_index = 7;
+      private long leaderCommitIndex_ ;
+      /**
+       * <code>optional uint64 leader_commit_index = 7;</code>
+       *
+       * <pre>
+       * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+       * </pre>
+       */
+      public boolean hasLeaderCommitIndex() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional uint64 leader_commit_index = 7;</code>
+       *
+       * <pre>
+       * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+       * </pre>
+       */
+      public long getLeaderCommitIndex() {
+        return leaderCommitIndex_;
+      }
+      /**
+       * <code>optional uint64 leader_commit_index = 7;</code>
+       *
+       * <pre>
+       * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+       * </pre>
+       */
+      public Builder setLeaderCommitIndex(long value) {
+        bitField0_ |= 0x00000040;
+        leaderCommitIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 leader_commit_index = 7;</code>
+       *
+       * <pre>
+       * 领导人当前的commitIndex，不受本次日志范围限制，用于跟随者读
+       * </pre>
+       */
+      public Builder clearLeaderCommitIndex() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        leaderCommitIndex_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional .raft.CompressionType compression = 8;
+      private com.github.raftimpl.raft.proto.RaftProto.CompressionType compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+      /**
+       * <code>optional .raft.CompressionType compression = 8;</code>
+       *
+       * <pre>
+       * compressed_entries的压缩方式
+       * </pre>
+       */
+      public boolean hasCompression() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 8;</code>
+       *
+       * <pre>
+       * compressed_entries的压缩方式
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression() {
+        return compression_;
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 8;</code>
+       *
+       * <pre>
+       * compressed_entries的压缩方式
+       * </pre>
+       */
+      public Builder setCompression(com.github.raftimpl.raft.proto.RaftProto.CompressionType value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000080;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 8;</code>
+       *
+       * <pre>
+       * compressed_entries的压缩方式
+       * </pre>
+       */
+      public Builder clearCompression() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+        onChanged();
+        return this;
+      }
+
+      // optional bytes compressed_entries = 9;
+      private com.google.protobuf.ByteString compressedEntries_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes compressed_entries = 9;</code>
+       *
+       * <pre>
+       * 整体压缩后的LogEntryBatch，设置时entries为空
+       * </pre>
+       */
+      public boolean hasCompressedEntries() {
+        return ((bitField0_ & 0x00000100) == 0x00000100);
+      }
+      /**
+       * <code>optional bytes compressed_entries = 9;</code>
+       *
+       * <pre>
+       * 整体压缩后的LogEntryBatch，设置时entries为空
+       * </pre>
+       */
+      public com.google.protobuf.ByteString getCompressedEntries() {
+        return compressedEntries_;
+      }
+      /**
+       * <code>optional bytes compressed_entries = 9;</code>
+       *
+       * <pre>
+       * 整体压缩后的LogEntryBatch，设置时entries为空
+       * </pre>
+       */
+      public Builder setCompressedEntries(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000100;
+        compressedEntries_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes compressed_entries = 9;</code>
+       *
+       * <pre>
+       * 整体压缩后的LogEntryBatch，设置时entries为空
+       * </pre>
+       */
+      public Builder clearCompressedEntries() {
+        bitField0_ = (bitField0_ & ~0x00000100);
+        compressedEntries_ = getDefaultInstance().getCompressedEntries();
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:raft.AppendEntriesRequest)
+    }
+
+    static {
+      defaultInstance = new AppendEntriesRequest(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:raft.AppendEntriesRequest)
+  }
+
+  public interface AppendEntriesResponseOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // optional .raft.ResCode res_code = 1;
+    /**
+     * <code>optional .raft.ResCode res_code = 1;</code>
+     *
+     * <pre>
+     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+     * </pre>
+     */
+    boolean hasResCode();
+    /**
+     * <code>optional .raft.ResCode res_code = 1;</code>
+     *
+     * <pre>
+     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode();
+
+    // optional uint64 term = 2;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 当前的任期号，用于领导人去更新自己
+     * </pre>
+     */
+    boolean hasTerm();
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 当前的任期号，用于领导人去更新自己
+     * </pre>
+     */
+    long getTerm();
+
+    // optional uint64 last_log_index = 3;
+    /**
+     * <code>optional uint64 last_log_index = 3;</code>
+     */
+    boolean hasLastLogIndex();
+    /**
+     * <code>optional uint64 last_log_index = 3;</code>
+     */
+    long getLastLogIndex();
+  }
+  /**
+   * Protobuf type {@code raft.AppendEntriesResponse}
+   */
+  public static final class AppendEntriesResponse extends
+      com.google.protobuf.GeneratedMessage
+      implements AppendEntriesResponseOrBuilder {
+    // Use AppendEntriesResponse.newBuilder() to construct.
+    private AppendEntriesResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private AppendEntriesResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final AppendEntriesResponse defaultInstance;
+    public static AppendEntriesResponse getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public AppendEntriesResponse getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private AppendEntriesResponse(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              int rawValue = input.readEnum();
+              com.github.raftimpl.raft.proto.RaftProto.ResCode value = com.github.raftimpl.raft.proto.RaftProto.ResCode.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(1, rawValue);
+              } else {
+                bitField0_ |= 0x00000001;
+                resCode_ = value;
+              }
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              term_ = input.readUInt64();
+              break;
+            }
+            case 24: {
+              bitField0_ |= 0x00000004;
+              lastLogIndex_ = input.readUInt64();
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<AppendEntriesResponse> PARSER =
+        new com.google.protobuf.AbstractParser<AppendEntriesResponse>() {
+      public AppendEntriesResponse parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new AppendEntriesResponse(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<AppendEntriesResponse> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // optional .raft.ResCode res_code = 1;
+    public static final int RES_CODE_FIELD_NUMBER = 1;
+    private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_;
+    /**
+     * <code>optional .raft.ResCode res_code = 1;</code>
+     *
+     * <pre>
+     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+     * </pre>
+     */
+    public boolean hasResCode() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional .raft.ResCode res_code = 1;</code>
+     *
+     * <pre>
+     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
+      return resCode_;
+    }
+
+    // optional uint64 term = 2;
+    public static final int TERM_FIELD_NUMBER = 2;
+    private long term_;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 当前的任期号，用于领导人去更新自己
+     * </pre>
+     */
+    public boolean hasTerm() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint64 term = 2;</code>
+     *
+     * <pre>
+     * 当前的任期号，用于领导人去更新自己
+     * </pre>
+     */
+    public long getTerm() {
+      return term_;
+    }
+
+    // optional uint64 last_log_index = 3;
+    public static final int LAST_LOG_INDEX_FIELD_NUMBER = 3;
+    private long lastLogIndex_;
+    /**
+     * <code>optional uint64 last_log_index = 3;</code>
+     */
+    public boolean hasLastLogIndex() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional uint64 last_log_index = 3;</code>
+     */
+    public long getLastLogIndex() {
+      return lastLogIndex_;
+    }
+
+    private void initFields() {
+      resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      term_ = 0L;
+      lastLogIndex_ = 0L;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeEnum(1, resCode_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt64(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeUInt64(3, lastLogIndex_);
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(1, resCode_.getNumber());
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(3, lastLogIndex_);
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code raft.AppendEntriesResponse}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponseOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.Builder.class);
+      }
+
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        term_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        lastLogIndex_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.getDefaultInstance();
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse build() {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse result = new com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.resCode_ = resCode_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.term_ = term_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.lastLogIndex_ = lastLogIndex_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.getDefaultInstance()) return this;
+        if (other.hasResCode()) {
+          setResCode(other.getResCode());
+        }
+        if (other.hasTerm()) {
+          setTerm(other.getTerm());
+        }
+        if (other.hasLastLogIndex()) {
+          setLastLogIndex(other.getLastLogIndex());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional .raft.ResCode res_code = 1;
+      private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       *
+       * <pre>
+       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+       * </pre>
+       */
+      public boolean hasResCode() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       *
+       * <pre>
+       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
+        return resCode_;
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       *
+       * <pre>
+       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+       * </pre>
+       */
+      public Builder setResCode(com.github.raftimpl.raft.proto.RaftProto.ResCode value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000001;
+        resCode_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       *
+       * <pre>
+       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
+       * </pre>
+       */
+      public Builder clearResCode() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 term = 2;
+      private long term_ ;
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 当前的任期号，用于领导人去更新自己
+       * </pre>
+       */
+      public boolean hasTerm() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 当前的任期号，用于领导人去更新自己
+       * </pre>
+       */
+      public long getTerm() {
+        return term_;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 当前的任期号，用于领导人去更新自己
+       * </pre>
+       */
+      public Builder setTerm(long value) {
+        bitField0_ |= 0x00000002;
+        term_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       *
+       * <pre>
+       * 当前的任期号，用于领导人去更新自己
+       * </pre>
+       */
+      public Builder clearTerm() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        term_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 last_log_index = 3;
+      private long lastLogIndex_ ;
+      /**
+       * <code>optional uint64 last_log_index = 3;</code>
+       */
+      public boolean hasLastLogIndex() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional uint64 last_log_index = 3;</code>
+       */
+      public long getLastLogIndex() {
+        return lastLogIndex_;
+      }
+      /**
+       * <code>optional uint64 last_log_index = 3;</code>
+       */
+      public Builder setLastLogIndex(long value) {
+        bitField0_ |= 0x00000004;
+        lastLogIndex_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 last_log_index = 3;</code>
+       */
+      public Builder clearLastLogIndex() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        lastLogIndex_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:raft.AppendEntriesResponse)
+    }
+
+    static {
+      defaultInstance = new AppendEntriesResponse(true);
+      defaultInstance.initFields();
+    }
+
+    // @@protoc_insertion_point(class_scope:raft.AppendEntriesResponse)
+  }
+
+  public interface InstallSnapshotRequestOrBuilder
+      extends com.google.protobuf.MessageOrBuilder {
+
+    // optional uint32 server_id = 1;
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     */
+    boolean hasServerId();
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     */
+    int getServerId();
+
+    // optional uint64 term = 2;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     */
+    boolean hasTerm();
+    /**
+     * <code>optional uint64 term = 2;</code>
+     */
+    long getTerm();
+
+    // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    boolean hasSnapshotMetaData();
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData();
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder();
+
+    // optional string file_name = 4;
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    boolean hasFileName();
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    java.lang.String getFileName();
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    com.google.protobuf.ByteString
+        getFileNameBytes();
+
+    // optional uint64 offset = 5;
+    /**
+     * <code>optional uint64 offset = 5;</code>
+     */
+    boolean hasOffset();
+    /**
+     * <code>optional uint64 offset = 5;</code>
+     */
+    long getOffset();
+
+    // optional bytes data = 6;
+    /**
+     * <code>optional bytes data = 6;</code>
+     */
+    boolean hasData();
+    /**
+     * <code>optional bytes data = 6;</code>
+     */
+    com.google.protobuf.ByteString getData();
+
+    // optional bool is_first = 7;
+    /**
+     * <code>optional bool is_first = 7;</code>
+     */
+    boolean hasIsFirst();
+    /**
+     * <code>optional bool is_first = 7;</code>
+     */
+    boolean getIsFirst();
+
+    // optional bool is_last = 8;
+    /**
+     * <code>optional bool is_last = 8;</code>
+     */
+    boolean hasIsLast();
+    /**
+     * <code>optional bool is_last = 8;</code>
+     */
+    boolean getIsLast();
+
+    // repeated .raft.SnapshotFile files = 9;
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> 
+        getFilesList();
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotFile getFiles(int index);
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    int getFilesCount();
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder> 
+        getFilesOrBuilderList();
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder getFilesOrBuilder(
+        int index);
+
+    // optional .raft.CompressionType compression = 10;
+    /**
+     * <code>optional .raft.CompressionType compression = 10;</code>
+     *
+     * <pre>
+     * data的压缩方式
+     * </pre>
+     */
+    boolean hasCompression();
+    /**
+     * <code>optional .raft.CompressionType compression = 10;</code>
+     *
+     * <pre>
+     * data的压缩方式
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression();
+  }
+  /**
+   * Protobuf type {@code raft.InstallSnapshotRequest}
+   */
+  public static final class InstallSnapshotRequest extends
+      com.google.protobuf.GeneratedMessage
+      implements InstallSnapshotRequestOrBuilder {
+    // Use InstallSnapshotRequest.newBuilder() to construct.
+    private InstallSnapshotRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      super(builder);
+      this.unknownFields = builder.getUnknownFields();
+    }
+    private InstallSnapshotRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+
+    private static final InstallSnapshotRequest defaultInstance;
+    public static InstallSnapshotRequest getDefaultInstance() {
+      return defaultInstance;
+    }
+
+    public InstallSnapshotRequest getDefaultInstanceForType() {
+      return defaultInstance;
+    }
+
+    private final com.google.protobuf.UnknownFieldSet unknownFields;
+    @java.lang.Override
+    public final com.google.protobuf.UnknownFieldSet
+        getUnknownFields() {
+      return this.unknownFields;
+    }
+    private InstallSnapshotRequest(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      initFields();
+      int mutable_bitField0_ = 0;
+      com.google.protobuf.UnknownFieldSet.Builder unknownFields =
+          com.google.protobuf.UnknownFieldSet.newBuilder();
+      try {
+        boolean done = false;
+        while (!done) {
+          int tag = input.readTag();
+          switch (tag) {
+            case 0:
+              done = true;
+              break;
+            default: {
+              if (!parseUnknownField(input, unknownFields,
+                                     extensionRegistry, tag)) {
+                done = true;
+              }
+              break;
+            }
+            case 8: {
+              bitField0_ |= 0x00000001;
+              serverId_ = input.readUInt32();
+              break;
+            }
+            case 16: {
+              bitField0_ |= 0x00000002;
+              term_ = input.readUInt64();
+              break;
+            }
+            case 26: {
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder subBuilder = null;
+              if (((bitField0_ & 0x00000004) == 0x00000004)) {
+                subBuilder = snapshotMetaData_.toBuilder();
+              }
+              snapshotMetaData_ = input.readMessage(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.PARSER, extensionRegistry);
+              if (subBuilder != null) {
+                subBuilder.mergeFrom(snapshotMetaData_);
+                snapshotMetaData_ = subBuilder.buildPartial();
+              }
+              bitField0_ |= 0x00000004;
+              break;
+            }
+            case 34: {
+              bitField0_ |= 0x00000008;
+              fileName_ = input.readBytes();
+              break;
+            }
+            case 40: {
+              bitField0_ |= 0x00000010;
+              offset_ = input.readUInt64();
+              break;
+            }
+            case 50: {
+              bitField0_ |= 0x00000020;
+              data_ = input.readBytes();
+              break;
+            }
+            case 56: {
+              bitField0_ |= 0x00000040;
+              isFirst_ = input.readBool();
+              break;
+            }
+            case 64: {
+              bitField0_ |= 0x00000080;
+              isLast_ = input.readBool();
+              break;
+            }
+            case 74: {
+              if (!((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+                files_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile>();
+                mutable_bitField0_ |= 0x00000100;
+              }
+              files_.add(input.readMessage(com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.PARSER, extensionRegistry));
+              break;
+            }
+            case 80: {
+              int rawValue = input.readEnum();
+              com.github.raftimpl.raft.proto.RaftProto.CompressionType value = com.github.raftimpl.raft.proto.RaftProto.CompressionType.valueOf(rawValue);
+              if (value == null) {
+                unknownFields.mergeVarintField(10, rawValue);
+              } else {
+                bitField0_ |= 0x00000100;
+                compression_ = value;
+              }
+              break;
+            }
+          }
+        }
+      } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+        throw e.setUnfinishedMessage(this);
+      } catch (java.io.IOException e) {
+        throw new com.google.protobuf.InvalidProtocolBufferException(
+            e.getMessage()).setUnfinishedMessage(this);
+      } finally {
+        if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
+          files_ = java.util.Collections.unmodifiableList(files_);
+        }
+        this.unknownFields = unknownFields.build();
+        makeExtensionsImmutable();
+      }
+    }
+    public static final com.google.protobuf.Descriptors.Descriptor
+        getDescriptor() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+    }
+
+    protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+        internalGetFieldAccessorTable() {
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_fieldAccessorTable
+          .ensureFieldAccessorsInitialized(
+              com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.class, com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.Builder.class);
+    }
+
+    public static com.google.protobuf.Parser<InstallSnapshotRequest> PARSER =
+        new com.google.protobuf.AbstractParser<InstallSnapshotRequest>() {
+      public InstallSnapshotRequest parsePartialFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws com.google.protobuf.InvalidProtocolBufferException {
+        return new InstallSnapshotRequest(input, extensionRegistry);
+      }
+    };
+
+    @java.lang.Override
+    public com.google.protobuf.Parser<InstallSnapshotRequest> getParserForType() {
+      return PARSER;
+    }
+
+    private int bitField0_;
+    // optional uint32 server_id = 1;
+    public static final int SERVER_ID_FIELD_NUMBER = 1;
+    private int serverId_;
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     */
+    public boolean hasServerId() {
+      return ((bitField0_ & 0x00000001) == 0x00000001);
+    }
+    /**
+     * <code>optional uint32 server_id = 1;</code>
+     */
+    public int getServerId() {
+      return serverId_;
+    }
+
+    // optional uint64 term = 2;
+    public static final int TERM_FIELD_NUMBER = 2;
+    private long term_;
+    /**
+     * <code>optional uint64 term = 2;</code>
+     */
+    public boolean hasTerm() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional uint64 term = 2;</code>
+     */
+    public long getTerm() {
+      return term_;
+    }
+
+    // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
+    public static final int SNAPSHOT_META_DATA_FIELD_NUMBER = 3;
+    private com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData snapshotMetaData_;
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    public boolean hasSnapshotMetaData() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData() {
+      return snapshotMetaData_;
+    }
+    /**
+     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+     *
+     * <pre>
+     * 每个请求都带上，标识属于哪个snapshot
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder() {
+      return snapshotMetaData_;
+    }
+
+    // optional string file_name = 4;
+    public static final int FILE_NAME_FIELD_NUMBER = 4;
+    private java.lang.Object fileName_;
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    public boolean hasFileName() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
+    }
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    public java.lang.String getFileName() {
+      java.lang.Object ref = fileName_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          fileName_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string file_name = 4;</code>
+     */
+    public com.google.protobuf.ByteString
+        getFileNameBytes() {
+      java.lang.Object ref = fileName_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        fileName_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
+    // optional uint64 offset = 5;
+    public static final int OFFSET_FIELD_NUMBER = 5;
+    private long offset_;
+    /**
+     * <code>optional uint64 offset = 5;</code>
+     */
+    public boolean hasOffset() {
+      return ((bitField0_ & 0x00000010) == 0x00000010);
+    }
+    /**
+     * <code>optional uint64 offset = 5;</code>
+     */
+    public long getOffset() {
+      return offset_;
+    }
+
+    // optional bytes data = 6;
+    public static final int DATA_FIELD_NUMBER = 6;
+    private com.google.protobuf.ByteString data_;
+    /**
+     * <code>optional bytes data = 6;</code>
+     */
+    public boolean hasData() {
+      return ((bitField0_ & 0x00000020) == 0x00000020);
+    }
+    /**
+     * <code>optional bytes data = 6;</code>
+     */
+    public com.google.protobuf.ByteString getData() {
+      return data_;
+    }
+
+    // optional bool is_first = 7;
+    public static final int IS_FIRST_FIELD_NUMBER = 7;
+    private boolean isFirst_;
+    /**
+     * <code>optional bool is_first = 7;</code>
+     */
+    public boolean hasIsFirst() {
+      return ((bitField0_ & 0x00000040) == 0x00000040);
+    }
+    /**
+     * <code>optional bool is_first = 7;</code>
+     */
+    public boolean getIsFirst() {
+      return isFirst_;
+    }
+
+    // optional bool is_last = 8;
+    public static final int IS_LAST_FIELD_NUMBER = 8;
+    private boolean isLast_;
+    /**
+     * <code>optional bool is_last = 8;</code>
+     */
+    public boolean hasIsLast() {
+      return ((bitField0_ & 0x00000080) == 0x00000080);
+    }
+    /**
+     * <code>optional bool is_last = 8;</code>
+     */
+    public boolean getIsLast() {
+      return isLast_;
+    }
+
+    // repeated .raft.SnapshotFile files = 9;
+    public static final int FILES_FIELD_NUMBER = 9;
+    private java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> files_;
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> getFilesList() {
+      return files_;
+    }
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder> 
+        getFilesOrBuilderList() {
+      return files_;
+    }
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    public int getFilesCount() {
+      return files_.size();
+    }
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile getFiles(int index) {
+      return files_.get(index);
+    }
+    /**
+     * <code>repeated .raft.SnapshotFile files = 9;</code>
+     *
+     * <pre>
+     * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder getFilesOrBuilder(
+        int index) {
+      return files_.get(index);
+    }
+
+    // optional .raft.CompressionType compression = 10;
+    public static final int COMPRESSION_FIELD_NUMBER = 10;
+    private com.github.raftimpl.raft.proto.RaftProto.CompressionType compression_;
+    /**
+     * <code>optional .raft.CompressionType compression = 10;</code>
+     *
+     * <pre>
+     * data的压缩方式
+     * </pre>
+     */
+    public boolean hasCompression() {
+      return ((bitField0_ & 0x00000100) == 0x00000100);
+    }
+    /**
+     * <code>optional .raft.CompressionType compression = 10;</code>
+     *
+     * <pre>
+     * data的压缩方式
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression() {
+      return compression_;
+    }
+
+    private void initFields() {
+      serverId_ = 0;
+      term_ = 0L;
+      snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
+      fileName_ = "";
+      offset_ = 0L;
+      data_ = com.google.protobuf.ByteString.EMPTY;
+      isFirst_ = false;
+      isLast_ = false;
+      files_ = java.util.Collections.emptyList();
+      compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+    }
+    private byte memoizedIsInitialized = -1;
+    public final boolean isInitialized() {
+      byte isInitialized = memoizedIsInitialized;
+      if (isInitialized != -1) return isInitialized == 1;
+
+      memoizedIsInitialized = 1;
+      return true;
+    }
+
+    public void writeTo(com.google.protobuf.CodedOutputStream output)
+                        throws java.io.IOException {
+      getSerializedSize();
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        output.writeUInt32(1, serverId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        output.writeUInt64(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        output.writeMessage(3, snapshotMetaData_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        output.writeBytes(4, getFileNameBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        output.writeUInt64(5, offset_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        output.writeBytes(6, data_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        output.writeBool(7, isFirst_);
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        output.writeBool(8, isLast_);
+      }
+      for (int i = 0; i < files_.size(); i++) {
+        output.writeMessage(9, files_.get(i));
+      }
+      if (((bitField0_ & 0x00000100) == 0x00000100)) {
+        output.writeEnum(10, compression_.getNumber());
+      }
+      getUnknownFields().writeTo(output);
+    }
+
+    private int memoizedSerializedSize = -1;
+    public int getSerializedSize() {
+      int size = memoizedSerializedSize;
+      if (size != -1) return size;
+
+      size = 0;
+      if (((bitField0_ & 0x00000001) == 0x00000001)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt32Size(1, serverId_);
+      }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(2, term_);
+      }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, snapshotMetaData_);
+      }
+      if (((bitField0_ & 0x00000008) == 0x00000008)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(4, getFileNameBytes());
+      }
+      if (((bitField0_ & 0x00000010) == 0x00000010)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeUInt64Size(5, offset_);
+      }
+      if (((bitField0_ & 0x00000020) == 0x00000020)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBytesSize(6, data_);
+      }
+      if (((bitField0_ & 0x00000040) == 0x00000040)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(7, isFirst_);
+      }
+      if (((bitField0_ & 0x00000080) == 0x00000080)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeBoolSize(8, isLast_);
+      }
+      for (int i = 0; i < files_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(9, files_.get(i));
+      }
+      if (((bitField0_ & 0x00000100) == 0x00000100)) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeEnumSize(10, compression_.getNumber());
+      }
+      size += getUnknownFields().getSerializedSize();
+      memoizedSerializedSize = size;
+      return size;
+    }
+
+    private static final long serialVersionUID = 0L;
+    @java.lang.Override
+    protected java.lang.Object writeReplace()
+        throws java.io.ObjectStreamException {
+      return super.writeReplace();
+    }
+
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        com.google.protobuf.ByteString data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        com.google.protobuf.ByteString data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(byte[] data)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        byte[] data,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws com.google.protobuf.InvalidProtocolBufferException {
+      return PARSER.parseFrom(data, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseDelimitedFrom(java.io.InputStream input)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseDelimitedFrom(
+        java.io.InputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseDelimitedFrom(input, extensionRegistry);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        com.google.protobuf.CodedInputStream input)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input);
+    }
+    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+        com.google.protobuf.CodedInputStream input,
+        com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+        throws java.io.IOException {
+      return PARSER.parseFrom(input, extensionRegistry);
+    }
+
+    public static Builder newBuilder() { return Builder.create(); }
+    public Builder newBuilderForType() { return newBuilder(); }
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest prototype) {
+      return newBuilder().mergeFrom(prototype);
+    }
+    public Builder toBuilder() { return newBuilder(this); }
+
+    @java.lang.Override
+    protected Builder newBuilderForType(
+        com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+      Builder builder = new Builder(parent);
+      return builder;
+    }
+    /**
+     * Protobuf type {@code raft.InstallSnapshotRequest}
+     */
+    public static final class Builder extends
+        com.google.protobuf.GeneratedMessage.Builder<Builder>
+       implements com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequestOrBuilder {
+      public static final com.google.protobuf.Descriptors.Descriptor
+          getDescriptor() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+      }
+
+      protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
+          internalGetFieldAccessorTable() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_fieldAccessorTable
+            .ensureFieldAccessorsInitialized(
+                com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.class, com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.Builder.class);
+      }
+
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.newBuilder()
+      private Builder() {
+        maybeForceBuilderInitialization();
+      }
+
+      private Builder(
+          com.google.protobuf.GeneratedMessage.BuilderParent parent) {
+        super(parent);
+        maybeForceBuilderInitialization();
+      }
+      private void maybeForceBuilderInitialization() {
+        if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getSnapshotMetaDataFieldBuilder();
+          getFilesFieldBuilder();
+        }
+      }
+      private static Builder create() {
+        return new Builder();
+      }
+
+      public Builder clear() {
+        super.clear();
+        serverId_ = 0;
+        bitField0_ = (bitField0_ & ~0x00000001);
+        term_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000002);
+        if (snapshotMetaDataBuilder_ == null) {
+          snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
+        } else {
+          snapshotMetaDataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
+        fileName_ = "";
+        bitField0_ = (bitField0_ & ~0x00000008);
+        offset_ = 0L;
+        bitField0_ = (bitField0_ & ~0x00000010);
+        data_ = com.google.protobuf.ByteString.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000020);
+        isFirst_ = false;
+        bitField0_ = (bitField0_ & ~0x00000040);
+        isLast_ = false;
+        bitField0_ = (bitField0_ & ~0x00000080);
+        if (filesBuilder_ == null) {
+          files_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
+        } else {
+          filesBuilder_.clear();
+        }
+        compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+        bitField0_ = (bitField0_ & ~0x00000200);
+        return this;
+      }
+
+      public Builder clone() {
+        return create().mergeFrom(buildPartial());
+      }
+
+      public com.google.protobuf.Descriptors.Descriptor
+          getDescriptorForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.getDefaultInstance();
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest build() {
+        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest result = buildPartial();
+        if (!result.isInitialized()) {
+          throw newUninitializedMessageException(result);
+        }
+        return result;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest result = new com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.serverId_ = serverId_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.term_ = term_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        if (snapshotMetaDataBuilder_ == null) {
+          result.snapshotMetaData_ = snapshotMetaData_;
+        } else {
+          result.snapshotMetaData_ = snapshotMetaDataBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
+          to_bitField0_ |= 0x00000008;
+        }
+        result.fileName_ = fileName_;
+        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
+          to_bitField0_ |= 0x00000010;
+        }
+        result.offset_ = offset_;
+        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
+          to_bitField0_ |= 0x00000020;
+        }
+        result.data_ = data_;
+        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
+          to_bitField0_ |= 0x00000040;
+        }
+        result.isFirst_ = isFirst_;
+        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
+          to_bitField0_ |= 0x00000080;
+        }
+        result.isLast_ = isLast_;
+        if (filesBuilder_ == null) {
+          if (((bitField0_ & 0x00000100) == 0x00000100)) {
+            files_ = java.util.Collections.unmodifiableList(files_);
+            bitField0_ = (bitField0_ & ~0x00000100);
+          }
+          result.files_ = files_;
+        } else {
+          result.files_ = filesBuilder_.build();
+        }
+        if (((from_bitField0_ & 0x00000200) == 0x00000200)) {
+          to_bitField0_ |= 0x00000100;
+        }
+        result.compression_ = compression_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.getDefaultInstance()) return this;
+        if (other.hasServerId()) {
+          setServerId(other.getServerId());
+        }
+        if (other.hasTerm()) {
+          setTerm(other.getTerm());
+        }
+        if (other.hasSnapshotMetaData()) {
+          mergeSnapshotMetaData(other.getSnapshotMetaData());
+        }
+        if (other.hasFileName()) {
+          bitField0_ |= 0x00000008;
+          fileName_ = other.fileName_;
+          onChanged();
+        }
+        if (other.hasOffset()) {
+          setOffset(other.getOffset());
+        }
+        if (other.hasData()) {
+          setData(other.getData());
+        }
+        if (other.hasIsFirst()) {
+          setIsFirst(other.getIsFirst());
+        }
+        if (other.hasIsLast()) {
+          setIsLast(other.getIsLast());
+        }
+        if (filesBuilder_ == null) {
+          if (!other.files_.isEmpty()) {
+            if (files_.isEmpty()) {
+              files_ = other.files_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+            } else {
+              ensureFilesIsMutable();
+              files_.addAll(other.files_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.files_.isEmpty()) {
+            if (filesBuilder_.isEmpty()) {
+              filesBuilder_.dispose();
+              filesBuilder_ = null;
+              files_ = other.files_;
+              bitField0_ = (bitField0_ & ~0x00000100);
+              filesBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getFilesFieldBuilder() : null;
+            } else {
+              filesBuilder_.addAllMessages(other.files_);
+            }
+          }
+        }
+        if (other.hasCompression()) {
+          setCompression(other.getCompression());
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional uint32 server_id = 1;
+      private int serverId_ ;
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       */
+      public boolean hasServerId() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       */
+      public int getServerId() {
+        return serverId_;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       */
+      public Builder setServerId(int value) {
+        bitField0_ |= 0x00000001;
+        serverId_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint32 server_id = 1;</code>
+       */
+      public Builder clearServerId() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        serverId_ = 0;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 term = 2;
+      private long term_ ;
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public boolean hasTerm() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public long getTerm() {
+        return term_;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public Builder setTerm(long value) {
+        bitField0_ |= 0x00000002;
+        term_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public Builder clearTerm() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        term_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
+      private com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
+      private com.google.protobuf.SingleFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder> snapshotMetaDataBuilder_;
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public boolean hasSnapshotMetaData() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData() {
+        if (snapshotMetaDataBuilder_ == null) {
+          return snapshotMetaData_;
+        } else {
+          return snapshotMetaDataBuilder_.getMessage();
+        }
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public Builder setSnapshotMetaData(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData value) {
+        if (snapshotMetaDataBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          snapshotMetaData_ = value;
+          onChanged();
+        } else {
+          snapshotMetaDataBuilder_.setMessage(value);
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public Builder setSnapshotMetaData(
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder builderForValue) {
+        if (snapshotMetaDataBuilder_ == null) {
+          snapshotMetaData_ = builderForValue.build();
+          onChanged();
+        } else {
+          snapshotMetaDataBuilder_.setMessage(builderForValue.build());
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public Builder mergeSnapshotMetaData(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData value) {
+        if (snapshotMetaDataBuilder_ == null) {
+          if (((bitField0_ & 0x00000004) == 0x00000004) &&
+              snapshotMetaData_ != com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance()) {
+            snapshotMetaData_ =
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.newBuilder(snapshotMetaData_).mergeFrom(value).buildPartial();
+          } else {
+            snapshotMetaData_ = value;
+          }
+          onChanged();
+        } else {
+          snapshotMetaDataBuilder_.mergeFrom(value);
+        }
+        bitField0_ |= 0x00000004;
+        return this;
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public Builder clearSnapshotMetaData() {
+        if (snapshotMetaDataBuilder_ == null) {
+          snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
+          onChanged();
+        } else {
+          snapshotMetaDataBuilder_.clear();
+        }
+        bitField0_ = (bitField0_ & ~0x00000004);
+        return this;
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder getSnapshotMetaDataBuilder() {
+        bitField0_ |= 0x00000004;
+        onChanged();
+        return getSnapshotMetaDataFieldBuilder().getBuilder();
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder() {
+        if (snapshotMetaDataBuilder_ != null) {
+          return snapshotMetaDataBuilder_.getMessageOrBuilder();
+        } else {
+          return snapshotMetaData_;
+        }
+      }
+      /**
+       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
+       *
+       * <pre>
+       * 每个请求都带上，标识属于哪个snapshot
+       * </pre>
+       */
+      private com.google.protobuf.SingleFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder> 
+          getSnapshotMetaDataFieldBuilder() {
+        if (snapshotMetaDataBuilder_ == null) {
+          snapshotMetaDataBuilder_ = new com.google.protobuf.SingleFieldBuilder<
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder>(
+                  snapshotMetaData_,
+                  getParentForChildren(),
+                  isClean());
+          snapshotMetaData_ = null;
+        }
+        return snapshotMetaDataBuilder_;
+      }
+
+      // optional string file_name = 4;
+      private java.lang.Object fileName_ = "";
+      /**
+       * <code>optional string file_name = 4;</code>
+       */
+      public boolean hasFileName() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
+      }
+      /**
+       * <code>optional string file_name = 4;</code>
+       */
+      public java.lang.String getFileName() {
+        java.lang.Object ref = fileName_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          fileName_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string file_name = 4;</code>
+       */
+      public com.google.protobuf.ByteString
+          getFileNameBytes() {
+        java.lang.Object ref = fileName_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          fileName_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>optional string file_name = 4;</code>
+       */
+      public Builder setFileName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        fileName_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string file_name = 4;</code>
+       */
+      public Builder clearFileName() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        fileName_ = getDefaultInstance().getFileName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string file_name = 4;</code>
+       */
+      public Builder setFileNameBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000008;
+        fileName_ = value;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 offset = 5;
+      private long offset_ ;
+      /**
+       * <code>optional uint64 offset = 5;</code>
+       */
+      public boolean hasOffset() {
+        return ((bitField0_ & 0x00000010) == 0x00000010);
+      }
+      /**
+       * <code>optional uint64 offset = 5;</code>
+       */
+      public long getOffset() {
+        return offset_;
+      }
+      /**
+       * <code>optional uint64 offset = 5;</code>
+       */
+      public Builder setOffset(long value) {
+        bitField0_ |= 0x00000010;
+        offset_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 offset = 5;</code>
+       */
+      public Builder clearOffset() {
+        bitField0_ = (bitField0_ & ~0x00000010);
+        offset_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // optional bytes data = 6;
+      private com.google.protobuf.ByteString data_ = com.google.protobuf.ByteString.EMPTY;
+      /**
+       * <code>optional bytes data = 6;</code>
+       */
+      public boolean hasData() {
+        return ((bitField0_ & 0x00000020) == 0x00000020);
+      }
+      /**
+       * <code>optional bytes data = 6;</code>
+       */
+      public com.google.protobuf.ByteString getData() {
+        return data_;
+      }
+      /**
+       * <code>optional bytes data = 6;</code>
+       */
+      public Builder setData(com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000020;
+        data_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bytes data = 6;</code>
+       */
+      public Builder clearData() {
+        bitField0_ = (bitField0_ & ~0x00000020);
+        data_ = getDefaultInstance().getData();
+        onChanged();
+        return this;
+      }
+
+      // optional bool is_first = 7;
+      private boolean isFirst_ ;
+      /**
+       * <code>optional bool is_first = 7;</code>
+       */
+      public boolean hasIsFirst() {
+        return ((bitField0_ & 0x00000040) == 0x00000040);
+      }
+      /**
+       * <code>optional bool is_first = 7;</code>
+       */
+      public boolean getIsFirst() {
+        return isFirst_;
+      }
+      /**
+       * <code>optional bool is_first = 7;</code>
+       */
+      public Builder setIsFirst(boolean value) {
+        bitField0_ |= 0x00000040;
+        isFirst_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool is_first = 7;</code>
+       */
+      public Builder clearIsFirst() {
+        bitField0_ = (bitField0_ & ~0x00000040);
+        isFirst_ = false;
+        onChanged();
+        return this;
+      }
+
+      // optional bool is_last = 8;
+      private boolean isLast_ ;
+      /**
+       * <code>optional bool is_last = 8;</code>
+       */
+      public boolean hasIsLast() {
+        return ((bitField0_ & 0x00000080) == 0x00000080);
+      }
+      /**
+       * <code>optional bool is_last = 8;</code>
+       */
+      public boolean getIsLast() {
+        return isLast_;
+      }
+      /**
+       * <code>optional bool is_last = 8;</code>
+       */
+      public Builder setIsLast(boolean value) {
+        bitField0_ |= 0x00000080;
+        isLast_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional bool is_last = 8;</code>
+       */
+      public Builder clearIsLast() {
+        bitField0_ = (bitField0_ & ~0x00000080);
+        isLast_ = false;
+        onChanged();
+        return this;
+      }
+
+      // repeated .raft.SnapshotFile files = 9;
+      private java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> files_ =
+        java.util.Collections.emptyList();
+      private void ensureFilesIsMutable() {
+        if (!((bitField0_ & 0x00000100) == 0x00000100)) {
+          files_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile>(files_);
+          bitField0_ |= 0x00000100;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotFile, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder> filesBuilder_;
+
+      /**
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.LogEntry getEntries(int index) {
-        if (entriesBuilder_ == null) {
-          return entries_.get(index);
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> getFilesList() {
+        if (filesBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(files_);
         } else {
-          return entriesBuilder_.getMessage(index);
+          return filesBuilder_.getMessageList();
         }
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder setEntries(
-          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
-        if (entriesBuilder_ == null) {
+      public int getFilesCount() {
+        if (filesBuilder_ == null) {
+          return files_.size();
+        } else {
+          return filesBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
+       *
+       * <pre>
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile getFiles(int index) {
+        if (filesBuilder_ == null) {
+          return files_.get(index);
+        } else {
+          return filesBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
+       *
+       * <pre>
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
+       * </pre>
+       */
+      public Builder setFiles(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile value) {
+        if (filesBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
-          ensureEntriesIsMutable();
-          entries_.set(index, value);
+          ensureFilesIsMutable();
+          files_.set(index, value);
           onChanged();
         } else {
-          entriesBuilder_.setMessage(index, value);
+          filesBuilder_.setMessage(index, value);
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder setEntries(
-          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
-        if (entriesBuilder_ == null) {
-          ensureEntriesIsMutable();
-          entries_.set(index, builderForValue.build());
+      public Builder setFiles(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder builderForValue) {
+        if (filesBuilder_ == null) {
+          ensureFilesIsMutable();
+          files_.set(index, builderForValue.build());
           onChanged();
         } else {
-          entriesBuilder_.setMessage(index, builderForValue.build());
+          filesBuilder_.setMessage(index, builderForValue.build());
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder addEntries(com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
-        if (entriesBuilder_ == null) {
+      public Builder addFiles(com.github.raftimpl.raft.proto.RaftProto.SnapshotFile value) {
+        if (filesBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
-          ensureEntriesIsMutable();
-          entries_.add(value);
+          ensureFilesIsMutable();
+          files_.add(value);
           onChanged();
         } else {
-          entriesBuilder_.addMessage(value);
+          filesBuilder_.addMessage(value);
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder addEntries(
-          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry value) {
-        if (entriesBuilder_ == null) {
+      public Builder addFiles(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile value) {
+        if (filesBuilder_ == null) {
           if (value == null) {
             throw new NullPointerException();
           }
-          ensureEntriesIsMutable();
-          entries_.add(index, value);
+          ensureFilesIsMutable();
+          files_.add(index, value);
           onChanged();
         } else {
-          entriesBuilder_.addMessage(index, value);
+          filesBuilder_.addMessage(index, value);
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder addEntries(
-          com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
-        if (entriesBuilder_ == null) {
-          ensureEntriesIsMutable();
-          entries_.add(builderForValue.build());
+      public Builder addFiles(
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder builderForValue) {
+        if (filesBuilder_ == null) {
+          ensureFilesIsMutable();
+          files_.add(builderForValue.build());
           onChanged();
         } else {
-          entriesBuilder_.addMessage(builderForValue.build());
+          filesBuilder_.addMessage(builderForValue.build());
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder addEntries(
-          int index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder builderForValue) {
-        if (entriesBuilder_ == null) {
-          ensureEntriesIsMutable();
-          entries_.add(index, builderForValue.build());
+      public Builder addFiles(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder builderForValue) {
+        if (filesBuilder_ == null) {
+          ensureFilesIsMutable();
+          files_.add(index, builderForValue.build());
           onChanged();
         } else {
-          entriesBuilder_.addMessage(index, builderForValue.build());
+          filesBuilder_.addMessage(index, builderForValue.build());
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder addAllEntries(
-          java.lang.Iterable<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntry> values) {
-        if (entriesBuilder_ == null) {
-          ensureEntriesIsMutable();
-          super.addAll(values, entries_);
+      public Builder addAllFiles(
+          java.lang.Iterable<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotFile> values) {
+        if (filesBuilder_ == null) {
+          ensureFilesIsMutable();
+          super.addAll(values, files_);
           onChanged();
         } else {
-          entriesBuilder_.addAllMessages(values);
+          filesBuilder_.addAllMessages(values);
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder clearEntries() {
-        if (entriesBuilder_ == null) {
-          entries_ = java.util.Collections.emptyList();
-          bitField0_ = (bitField0_ & ~0x00000020);
+      public Builder clearFiles() {
+        if (filesBuilder_ == null) {
+          files_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000100);
           onChanged();
         } else {
-          entriesBuilder_.clear();
+          filesBuilder_.clear();
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public Builder removeEntries(int index) {
-        if (entriesBuilder_ == null) {
-          ensureEntriesIsMutable();
-          entries_.remove(index);
+      public Builder removeFiles(int index) {
+        if (filesBuilder_ == null) {
+          ensureFilesIsMutable();
+          files_.remove(index);
           onChanged();
         } else {
-          entriesBuilder_.remove(index);
+          filesBuilder_.remove(index);
         }
         return this;
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder getEntriesBuilder(
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder getFilesBuilder(
           int index) {
-        return getEntriesFieldBuilder().getBuilder(index);
+        return getFilesFieldBuilder().getBuilder(index);
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder getEntriesOrBuilder(
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder getFilesOrBuilder(
           int index) {
-        if (entriesBuilder_ == null) {
-          return entries_.get(index);  } else {
-          return entriesBuilder_.getMessageOrBuilder(index);
+        if (filesBuilder_ == null) {
+          return files_.get(index);  } else {
+          return filesBuilder_.getMessageOrBuilder(index);
         }
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
-           getEntriesOrBuilderList() {
-        if (entriesBuilder_ != null) {
-          return entriesBuilder_.getMessageOrBuilderList();
+      public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder> 
+           getFilesOrBuilderList() {
+        if (filesBuilder_ != null) {
+          return filesBuilder_.getMessageOrBuilderList();
         } else {
-          return java.util.Collections.unmodifiableList(entries_);
+          return java.util.Collections.unmodifiableList(files_);
         }
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder() {
-        return getEntriesFieldBuilder().addBuilder(
-            com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder addFilesBuilder() {
+        return getFilesFieldBuilder().addBuilder(
+            com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.getDefaultInstance());
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder addEntriesBuilder(
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder addFilesBuilder(
           int index) {
-        return getEntriesFieldBuilder().addBuilder(
-            index, com.github.raftimpl.raft.proto.RaftProto.LogEntry.getDefaultInstance());
+        return getFilesFieldBuilder().addBuilder(
+            index, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.getDefaultInstance());
       }
       /**
-       * <code>repeated .raft.LogEntry entries = 6;</code>
+       * <code>repeated .raft.SnapshotFile files = 9;</code>
        *
        * <pre>
-       * 准备存储的日志条目（表示心跳时为空）
+       * is_first请求携带snapshot的文件清单，follower据此复用本地已有的相同文件，切换snapshot之前据此校验收到的数据
        * </pre>
        */
-      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder> 
-           getEntriesBuilderList() {
-        return getEntriesFieldBuilder().getBuilderList();
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder> 
+           getFilesBuilderList() {
+        return getFilesFieldBuilder().getBuilderList();
       }
       private com.google.protobuf.RepeatedFieldBuilder<
-          com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder> 
-          getEntriesFieldBuilder() {
-        if (entriesBuilder_ == null) {
-          entriesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
-              com.github.raftimpl.raft.proto.RaftProto.LogEntry, com.github.raftimpl.raft.proto.RaftProto.LogEntry.Builder, com.github.raftimpl.raft.proto.RaftProto.LogEntryOrBuilder>(
-                  entries_,
-                  ((bitField0_ & 0x00000020) == 0x00000020),
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotFile, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder> 
+          getFilesFieldBuilder() {
+        if (filesBuilder_ == null) {
+          filesBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotFile, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder>(
+                  files_,
+                  ((bitField0_ & 0x00000100) == 0x00000100),
                   getParentForChildren(),
                   isClean());
-          entries_ = null;
+          files_ = null;
         }
-        return entriesBuilder_;
+        return filesBuilder_;
       }
 
-      // @@protoc_insertion_point(builder_scope:raft.AppendEntriesRequest)
+      // optional .raft.CompressionType compression = 10;
+      private com.github.raftimpl.raft.proto.RaftProto.CompressionType compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+      /**
+       * <code>optional .raft.CompressionType compression = 10;</code>
+       *
+       * <pre>
+       * data的压缩方式
+       * </pre>
+       */
+      public boolean hasCompression() {
+        return ((bitField0_ & 0x00000200) == 0x00000200);
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 10;</code>
+       *
+       * <pre>
+       * data的压缩方式
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.CompressionType getCompression() {
+        return compression_;
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 10;</code>
+       *
+       * <pre>
+       * data的压缩方式
+       * </pre>
+       */
+      public Builder setCompression(com.github.raftimpl.raft.proto.RaftProto.CompressionType value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000200;
+        compression_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .raft.CompressionType compression = 10;</code>
+       *
+       * <pre>
+       * data的压缩方式
+       * </pre>
+       */
+      public Builder clearCompression() {
+        bitField0_ = (bitField0_ & ~0x00000200);
+        compression_ = com.github.raftimpl.raft.proto.RaftProto.CompressionType.COMPRESSION_NONE;
+        onChanged();
+        return this;
+      }
+
+      // @@protoc_insertion_point(builder_scope:raft.InstallSnapshotRequest)
     }
 
     static {
-      defaultInstance = new AppendEntriesRequest(true);
+      defaultInstance = new InstallSnapshotRequest(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:raft.AppendEntriesRequest)
+    // @@protoc_insertion_point(class_scope:raft.InstallSnapshotRequest)
   }
 
-  public interface AppendEntriesResponseOrBuilder
+  public interface SnapshotFileOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
-    // optional .raft.ResCode res_code = 1;
+    // optional string file_name = 1;
     /**
-     * <code>optional .raft.ResCode res_code = 1;</code>
-     *
-     * <pre>
-     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-     * </pre>
+     * <code>optional string file_name = 1;</code>
      */
-    boolean hasResCode();
+    boolean hasFileName();
     /**
-     * <code>optional .raft.ResCode res_code = 1;</code>
-     *
-     * <pre>
-     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-     * </pre>
+     * <code>optional string file_name = 1;</code>
      */
-    com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode();
+    java.lang.String getFileName();
+    /**
+     * <code>optional string file_name = 1;</code>
+     */
+    com.google.protobuf.ByteString
+        getFileNameBytes();
 
-    // optional uint64 term = 2;
+    // optional uint64 size = 2;
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 size = 2;</code>
+     */
+    boolean hasSize();
+    /**
+     * <code>optional uint64 size = 2;</code>
+     */
+    long getSize();
+
+    // optional uint64 checksum = 3;
+    /**
+     * <code>optional uint64 checksum = 3;</code>
      *
      * <pre>
-     * 当前的任期号，用于领导人去更新自己
+     * crc32
      * </pre>
      */
-    boolean hasTerm();
+    boolean hasChecksum();
     /**
-     * <code>optional uint64 term = 2;</code>
+     * <code>optional uint64 checksum = 3;</code>
      *
      * <pre>
-     * 当前的任期号，用于领导人去更新自己
+     * crc32
      * </pre>
      */
-    long getTerm();
-
-    // optional uint64 last_log_index = 3;
-    /**
-     * <code>optional uint64 last_log_index = 3;</code>
-     */
-    boolean hasLastLogIndex();
-    /**
-     * <code>optional uint64 last_log_index = 3;</code>
-     */
-    long getLastLogIndex();
+    long getChecksum();
   }
   /**
-   * Protobuf type {@code raft.AppendEntriesResponse}
+   * Protobuf type {@code raft.SnapshotFile}
+   *
+   * <pre>
+   * snapshot数据文件
+   * </pre>
    */
-  public static final class AppendEntriesResponse extends
+  public static final class SnapshotFile extends
       com.google.protobuf.GeneratedMessage
-      implements AppendEntriesResponseOrBuilder {
-    // Use AppendEntriesResponse.newBuilder() to construct.
-    private AppendEntriesResponse(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      implements SnapshotFileOrBuilder {
+    // Use SnapshotFile.newBuilder() to construct.
+    private SnapshotFile(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private AppendEntriesResponse(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private SnapshotFile(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final AppendEntriesResponse defaultInstance;
-    public static AppendEntriesResponse getDefaultInstance() {
+    private static final SnapshotFile defaultInstance;
+    public static SnapshotFile getDefaultInstance() {
       return defaultInstance;
     }
 
-    public AppendEntriesResponse getDefaultInstanceForType() {
+    public SnapshotFile getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -6693,7 +10274,7 @@ public final class RaftProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private AppendEntriesResponse(
+    private SnapshotFile(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -6716,25 +10297,19 @@ public final class RaftProto {
               }
               break;
             }
-            case 8: {
-              int rawValue = input.readEnum();
-              com.github.raftimpl.raft.proto.RaftProto.ResCode value = com.github.raftimpl.raft.proto.RaftProto.ResCode.valueOf(rawValue);
-              if (value == null) {
-                unknownFields.mergeVarintField(1, rawValue);
-              } else {
-                bitField0_ |= 0x00000001;
-                resCode_ = value;
-              }
+            case 10: {
+              bitField0_ |= 0x00000001;
+              fileName_ = input.readBytes();
               break;
             }
             case 16: {
               bitField0_ |= 0x00000002;
-              term_ = input.readUInt64();
+              size_ = input.readUInt64();
               break;
             }
             case 24: {
               bitField0_ |= 0x00000004;
-              lastLogIndex_ = input.readUInt64();
+              checksum_ = input.readUInt64();
               break;
             }
           }
@@ -6751,100 +10326,119 @@ public final class RaftProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotFile_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_fieldAccessorTable
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotFile_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.Builder.class);
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.class, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<AppendEntriesResponse> PARSER =
-        new com.google.protobuf.AbstractParser<AppendEntriesResponse>() {
-      public AppendEntriesResponse parsePartialFrom(
+    public static com.google.protobuf.Parser<SnapshotFile> PARSER =
+        new com.google.protobuf.AbstractParser<SnapshotFile>() {
+      public SnapshotFile parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new AppendEntriesResponse(input, extensionRegistry);
+        return new SnapshotFile(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<AppendEntriesResponse> getParserForType() {
+    public com.google.protobuf.Parser<SnapshotFile> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // optional .raft.ResCode res_code = 1;
-    public static final int RES_CODE_FIELD_NUMBER = 1;
-    private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_;
+    // optional string file_name = 1;
+    public static final int FILE_NAME_FIELD_NUMBER = 1;
+    private java.lang.Object fileName_;
     /**
-     * <code>optional .raft.ResCode res_code = 1;</code>
-     *
-     * <pre>
-     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-     * </pre>
+     * <code>optional string file_name = 1;</code>
      */
-    public boolean hasResCode() {
+    public boolean hasFileName() {
       return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>optional .raft.ResCode res_code = 1;</code>
-     *
-     * <pre>
-     * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-     * </pre>
+     * <code>optional string file_name = 1;</code>
      */
-    public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
-      return resCode_;
+    public java.lang.String getFileName() {
+      java.lang.Object ref = fileName_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          fileName_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string file_name = 1;</code>
+     */
+    public com.google.protobuf.ByteString
+        getFileNameBytes() {
+      java.lang.Object ref = fileName_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        fileName_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
     }
 
-    // optional uint64 term = 2;
-    public static final int TERM_FIELD_NUMBER = 2;
-    private long term_;
+    // optional uint64 size = 2;
+    public static final int SIZE_FIELD_NUMBER = 2;
+    private long size_;
     /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 当前的任期号，用于领导人去更新自己
-     * </pre>
+     * <code>optional uint64 size = 2;</code>
      */
-    public boolean hasTerm() {
+    public boolean hasSize() {
       return ((bitField0_ & 0x00000002) == 0x00000002);
     }
     /**
-     * <code>optional uint64 term = 2;</code>
-     *
-     * <pre>
-     * 当前的任期号，用于领导人去更新自己
-     * </pre>
+     * <code>optional uint64 size = 2;</code>
      */
-    public long getTerm() {
-      return term_;
+    public long getSize() {
+      return size_;
     }
 
-    // optional uint64 last_log_index = 3;
-    public static final int LAST_LOG_INDEX_FIELD_NUMBER = 3;
-    private long lastLogIndex_;
+    // optional uint64 checksum = 3;
+    public static final int CHECKSUM_FIELD_NUMBER = 3;
+    private long checksum_;
     /**
-     * <code>optional uint64 last_log_index = 3;</code>
+     * <code>optional uint64 checksum = 3;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    public boolean hasLastLogIndex() {
+    public boolean hasChecksum() {
       return ((bitField0_ & 0x00000004) == 0x00000004);
     }
     /**
-     * <code>optional uint64 last_log_index = 3;</code>
+     * <code>optional uint64 checksum = 3;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    public long getLastLogIndex() {
-      return lastLogIndex_;
+    public long getChecksum() {
+      return checksum_;
     }
 
     private void initFields() {
-      resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
-      term_ = 0L;
-      lastLogIndex_ = 0L;
+      fileName_ = "";
+      size_ = 0L;
+      checksum_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -6859,13 +10453,13 @@ public final class RaftProto {
                         throws java.io.IOException {
       getSerializedSize();
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeEnum(1, resCode_.getNumber());
+        output.writeBytes(1, getFileNameBytes());
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeUInt64(2, term_);
+        output.writeUInt64(2, size_);
       }
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        output.writeUInt64(3, lastLogIndex_);
+        output.writeUInt64(3, checksum_);
       }
       getUnknownFields().writeTo(output);
     }
@@ -6878,15 +10472,15 @@ public final class RaftProto {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeEnumSize(1, resCode_.getNumber());
+          .computeBytesSize(1, getFileNameBytes());
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(2, term_);
+          .computeUInt64Size(2, size_);
       }
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(3, lastLogIndex_);
+          .computeUInt64Size(3, checksum_);
       }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -6900,53 +10494,53 @@ public final class RaftProto {
       return super.writeReplace();
     }
 
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(byte[] data)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseDelimitedFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseDelimitedFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -6955,7 +10549,7 @@ public final class RaftProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse prototype) {
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.SnapshotFile prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -6967,24 +10561,28 @@ public final class RaftProto {
       return builder;
     }
     /**
-     * Protobuf type {@code raft.AppendEntriesResponse}
+     * Protobuf type {@code raft.SnapshotFile}
+     *
+     * <pre>
+     * snapshot数据文件
+     * </pre>
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponseOrBuilder {
+       implements com.github.raftimpl.raft.proto.RaftProto.SnapshotFileOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotFile_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_fieldAccessorTable
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotFile_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.class, com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.Builder.class);
+                com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.class, com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.Builder.class);
       }
 
-      // Construct using com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.newBuilder()
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -7004,11 +10602,11 @@ public final class RaftProto {
 
       public Builder clear() {
         super.clear();
-        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+        fileName_ = "";
         bitField0_ = (bitField0_ & ~0x00000001);
-        term_ = 0L;
+        size_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
-        lastLogIndex_ = 0L;
+        checksum_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
@@ -7019,61 +10617,63 @@ public final class RaftProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_AppendEntriesResponse_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotFile_descriptor;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse getDefaultInstanceForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.getDefaultInstance();
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.getDefaultInstance();
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse build() {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse result = buildPartial();
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile build() {
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotFile result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse result = new com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse(this);
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotFile buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotFile result = new com.github.raftimpl.raft.proto.RaftProto.SnapshotFile(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.resCode_ = resCode_;
+        result.fileName_ = fileName_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
-        result.term_ = term_;
+        result.size_ = size_;
         if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
           to_bitField0_ |= 0x00000004;
         }
-        result.lastLogIndex_ = lastLogIndex_;
+        result.checksum_ = checksum_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse)other);
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.SnapshotFile) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.SnapshotFile)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse.getDefaultInstance()) return this;
-        if (other.hasResCode()) {
-          setResCode(other.getResCode());
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.SnapshotFile other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.SnapshotFile.getDefaultInstance()) return this;
+        if (other.hasFileName()) {
+          bitField0_ |= 0x00000001;
+          fileName_ = other.fileName_;
+          onChanged();
         }
-        if (other.hasTerm()) {
-          setTerm(other.getTerm());
+        if (other.hasSize()) {
+          setSize(other.getSize());
         }
-        if (other.hasLastLogIndex()) {
-          setLastLogIndex(other.getLastLogIndex());
+        if (other.hasChecksum()) {
+          setChecksum(other.getChecksum());
         }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
@@ -7087,11 +10687,11 @@ public final class RaftProto {
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse parsedMessage = null;
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotFile parsedMessage = null;
         try {
           parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
         } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.AppendEntriesResponse) e.getUnfinishedMessage();
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.SnapshotFile) e.getUnfinishedMessage();
           throw e;
         } finally {
           if (parsedMessage != null) {
@@ -7102,262 +10702,252 @@ public final class RaftProto {
       }
       private int bitField0_;
 
-      // optional .raft.ResCode res_code = 1;
-      private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      // optional string file_name = 1;
+      private java.lang.Object fileName_ = "";
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
-       *
-       * <pre>
-       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-       * </pre>
+       * <code>optional string file_name = 1;</code>
        */
-      public boolean hasResCode() {
+      public boolean hasFileName() {
         return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
-       *
-       * <pre>
-       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-       * </pre>
+       * <code>optional string file_name = 1;</code>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
-        return resCode_;
+      public java.lang.String getFileName() {
+        java.lang.Object ref = fileName_;
+        if (!(ref instanceof java.lang.String)) {
+          java.lang.String s = ((com.google.protobuf.ByteString) ref)
+              .toStringUtf8();
+          fileName_ = s;
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
-       *
-       * <pre>
-       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-       * </pre>
+       * <code>optional string file_name = 1;</code>
        */
-      public Builder setResCode(com.github.raftimpl.raft.proto.RaftProto.ResCode value) {
-        if (value == null) {
-          throw new NullPointerException();
+      public com.google.protobuf.ByteString
+          getFileNameBytes() {
+        java.lang.Object ref = fileName_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          fileName_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
         }
-        bitField0_ |= 0x00000001;
-        resCode_ = value;
+      }
+      /**
+       * <code>optional string file_name = 1;</code>
+       */
+      public Builder setFileName(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        fileName_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
-       *
-       * <pre>
-       * 跟随者包含了匹配上 prevLogIndex 和 prevLogTerm 的日志时为真
-       * </pre>
+       * <code>optional string file_name = 1;</code>
        */
-      public Builder clearResCode() {
+      public Builder clearFileName() {
         bitField0_ = (bitField0_ & ~0x00000001);
-        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+        fileName_ = getDefaultInstance().getFileName();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string file_name = 1;</code>
+       */
+      public Builder setFileNameBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000001;
+        fileName_ = value;
         onChanged();
         return this;
       }
 
-      // optional uint64 term = 2;
-      private long term_ ;
+      // optional uint64 size = 2;
+      private long size_ ;
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 当前的任期号，用于领导人去更新自己
-       * </pre>
+       * <code>optional uint64 size = 2;</code>
        */
-      public boolean hasTerm() {
+      public boolean hasSize() {
         return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 当前的任期号，用于领导人去更新自己
-       * </pre>
+       * <code>optional uint64 size = 2;</code>
        */
-      public long getTerm() {
-        return term_;
+      public long getSize() {
+        return size_;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 当前的任期号，用于领导人去更新自己
-       * </pre>
+       * <code>optional uint64 size = 2;</code>
        */
-      public Builder setTerm(long value) {
+      public Builder setSize(long value) {
         bitField0_ |= 0x00000002;
-        term_ = value;
+        size_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
-       *
-       * <pre>
-       * 当前的任期号，用于领导人去更新自己
-       * </pre>
+       * <code>optional uint64 size = 2;</code>
        */
-      public Builder clearTerm() {
+      public Builder clearSize() {
         bitField0_ = (bitField0_ & ~0x00000002);
-        term_ = 0L;
+        size_ = 0L;
         onChanged();
         return this;
       }
 
-      // optional uint64 last_log_index = 3;
-      private long lastLogIndex_ ;
+      // optional uint64 checksum = 3;
+      private long checksum_ ;
       /**
-       * <code>optional uint64 last_log_index = 3;</code>
+       * <code>optional uint64 checksum = 3;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public boolean hasLastLogIndex() {
+      public boolean hasChecksum() {
         return ((bitField0_ & 0x00000004) == 0x00000004);
       }
       /**
-       * <code>optional uint64 last_log_index = 3;</code>
+       * <code>optional uint64 checksum = 3;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public long getLastLogIndex() {
-        return lastLogIndex_;
+      public long getChecksum() {
+        return checksum_;
       }
       /**
-       * <code>optional uint64 last_log_index = 3;</code>
+       * <code>optional uint64 checksum = 3;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public Builder setLastLogIndex(long value) {
+      public Builder setChecksum(long value) {
         bitField0_ |= 0x00000004;
-        lastLogIndex_ = value;
+        checksum_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 last_log_index = 3;</code>
+       * <code>optional uint64 checksum = 3;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public Builder clearLastLogIndex() {
+      public Builder clearChecksum() {
         bitField0_ = (bitField0_ & ~0x00000004);
-        lastLogIndex_ = 0L;
+        checksum_ = 0L;
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:raft.AppendEntriesResponse)
+      // @@protoc_insertion_point(builder_scope:raft.SnapshotFile)
     }
 
     static {
-      defaultInstance = new AppendEntriesResponse(true);
+      defaultInstance = new SnapshotFile(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:raft.AppendEntriesResponse)
+    // @@protoc_insertion_point(class_scope:raft.SnapshotFile)
   }
 
-  public interface InstallSnapshotRequestOrBuilder
+  public interface SnapshotChunkOrBuilder
       extends com.google.protobuf.MessageOrBuilder {
 
-    // optional uint32 server_id = 1;
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     */
-    boolean hasServerId();
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     */
-    int getServerId();
-
-    // optional uint64 term = 2;
-    /**
-     * <code>optional uint64 term = 2;</code>
-     */
-    boolean hasTerm();
-    /**
-     * <code>optional uint64 term = 2;</code>
-     */
-    long getTerm();
-
-    // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    boolean hasSnapshotMetaData();
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData();
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder();
-
-    // optional string file_name = 4;
+    // optional string file_name = 1;
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     boolean hasFileName();
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     java.lang.String getFileName();
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     com.google.protobuf.ByteString
         getFileNameBytes();
 
-    // optional uint64 offset = 5;
+    // optional uint64 offset = 2;
     /**
-     * <code>optional uint64 offset = 5;</code>
+     * <code>optional uint64 offset = 2;</code>
      */
     boolean hasOffset();
     /**
-     * <code>optional uint64 offset = 5;</code>
+     * <code>optional uint64 offset = 2;</code>
      */
     long getOffset();
 
-    // optional bytes data = 6;
-    /**
-     * <code>optional bytes data = 6;</code>
-     */
-    boolean hasData();
-    /**
-     * <code>optional bytes data = 6;</code>
-     */
-    com.google.protobuf.ByteString getData();
-
-    // optional bool is_first = 7;
+    // optional uint32 length = 3;
     /**
-     * <code>optional bool is_first = 7;</code>
+     * <code>optional uint32 length = 3;</code>
      */
-    boolean hasIsFirst();
+    boolean hasLength();
     /**
-     * <code>optional bool is_first = 7;</code>
+     * <code>optional uint32 length = 3;</code>
      */
-    boolean getIsFirst();
+    int getLength();
 
-    // optional bool is_last = 8;
+    // optional uint64 checksum = 4;
     /**
-     * <code>optional bool is_last = 8;</code>
+     * <code>optional uint64 checksum = 4;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    boolean hasIsLast();
+    boolean hasChecksum();
     /**
-     * <code>optional bool is_last = 8;</code>
+     * <code>optional uint64 checksum = 4;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    boolean getIsLast();
+    long getChecksum();
   }
   /**
-   * Protobuf type {@code raft.InstallSnapshotRequest}
+   * Protobuf type {@code raft.SnapshotChunk}
+   *
+   * <pre>
+   * follower已经写入的snapshot数据块
+   * </pre>
    */
-  public static final class InstallSnapshotRequest extends
+  public static final class SnapshotChunk extends
       com.google.protobuf.GeneratedMessage
-      implements InstallSnapshotRequestOrBuilder {
-    // Use InstallSnapshotRequest.newBuilder() to construct.
-    private InstallSnapshotRequest(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
+      implements SnapshotChunkOrBuilder {
+    // Use SnapshotChunk.newBuilder() to construct.
+    private SnapshotChunk(com.google.protobuf.GeneratedMessage.Builder<?> builder) {
       super(builder);
       this.unknownFields = builder.getUnknownFields();
     }
-    private InstallSnapshotRequest(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
+    private SnapshotChunk(boolean noInit) { this.unknownFields = com.google.protobuf.UnknownFieldSet.getDefaultInstance(); }
 
-    private static final InstallSnapshotRequest defaultInstance;
-    public static InstallSnapshotRequest getDefaultInstance() {
+    private static final SnapshotChunk defaultInstance;
+    public static SnapshotChunk getDefaultInstance() {
       return defaultInstance;
     }
 
-    public InstallSnapshotRequest getDefaultInstanceForType() {
+    public SnapshotChunk getDefaultInstanceForType() {
       return defaultInstance;
     }
 
@@ -7367,7 +10957,7 @@ public final class RaftProto {
         getUnknownFields() {
       return this.unknownFields;
     }
-    private InstallSnapshotRequest(
+    private SnapshotChunk(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
@@ -7390,52 +10980,24 @@ public final class RaftProto {
               }
               break;
             }
-            case 8: {
+            case 10: {
               bitField0_ |= 0x00000001;
-              serverId_ = input.readUInt32();
+              fileName_ = input.readBytes();
               break;
             }
             case 16: {
               bitField0_ |= 0x00000002;
-              term_ = input.readUInt64();
+              offset_ = input.readUInt64();
               break;
             }
-            case 26: {
-              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder subBuilder = null;
-              if (((bitField0_ & 0x00000004) == 0x00000004)) {
-                subBuilder = snapshotMetaData_.toBuilder();
-              }
-              snapshotMetaData_ = input.readMessage(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.PARSER, extensionRegistry);
-              if (subBuilder != null) {
-                subBuilder.mergeFrom(snapshotMetaData_);
-                snapshotMetaData_ = subBuilder.buildPartial();
-              }
+            case 24: {
               bitField0_ |= 0x00000004;
+              length_ = input.readUInt32();
               break;
             }
-            case 34: {
+            case 32: {
               bitField0_ |= 0x00000008;
-              fileName_ = input.readBytes();
-              break;
-            }
-            case 40: {
-              bitField0_ |= 0x00000010;
-              offset_ = input.readUInt64();
-              break;
-            }
-            case 50: {
-              bitField0_ |= 0x00000020;
-              data_ = input.readBytes();
-              break;
-            }
-            case 56: {
-              bitField0_ |= 0x00000040;
-              isFirst_ = input.readBool();
-              break;
-            }
-            case 64: {
-              bitField0_ |= 0x00000080;
-              isLast_ = input.readBool();
+              checksum_ = input.readUInt64();
               break;
             }
           }
@@ -7452,97 +11014,43 @@ public final class RaftProto {
     }
     public static final com.google.protobuf.Descriptors.Descriptor
         getDescriptor() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotChunk_descriptor;
     }
 
     protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
         internalGetFieldAccessorTable() {
-      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_fieldAccessorTable
+      return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotChunk_fieldAccessorTable
           .ensureFieldAccessorsInitialized(
-              com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.class, com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.Builder.class);
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.class, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder.class);
     }
 
-    public static com.google.protobuf.Parser<InstallSnapshotRequest> PARSER =
-        new com.google.protobuf.AbstractParser<InstallSnapshotRequest>() {
-      public InstallSnapshotRequest parsePartialFrom(
+    public static com.google.protobuf.Parser<SnapshotChunk> PARSER =
+        new com.google.protobuf.AbstractParser<SnapshotChunk>() {
+      public SnapshotChunk parsePartialFrom(
           com.google.protobuf.CodedInputStream input,
           com.google.protobuf.ExtensionRegistryLite extensionRegistry)
           throws com.google.protobuf.InvalidProtocolBufferException {
-        return new InstallSnapshotRequest(input, extensionRegistry);
+        return new SnapshotChunk(input, extensionRegistry);
       }
     };
 
     @java.lang.Override
-    public com.google.protobuf.Parser<InstallSnapshotRequest> getParserForType() {
+    public com.google.protobuf.Parser<SnapshotChunk> getParserForType() {
       return PARSER;
     }
 
     private int bitField0_;
-    // optional uint32 server_id = 1;
-    public static final int SERVER_ID_FIELD_NUMBER = 1;
-    private int serverId_;
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     */
-    public boolean hasServerId() {
-      return ((bitField0_ & 0x00000001) == 0x00000001);
-    }
-    /**
-     * <code>optional uint32 server_id = 1;</code>
-     */
-    public int getServerId() {
-      return serverId_;
-    }
-
-    // optional uint64 term = 2;
-    public static final int TERM_FIELD_NUMBER = 2;
-    private long term_;
-    /**
-     * <code>optional uint64 term = 2;</code>
-     */
-    public boolean hasTerm() {
-      return ((bitField0_ & 0x00000002) == 0x00000002);
-    }
-    /**
-     * <code>optional uint64 term = 2;</code>
-     */
-    public long getTerm() {
-      return term_;
-    }
-
-    // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
-    public static final int SNAPSHOT_META_DATA_FIELD_NUMBER = 3;
-    private com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData snapshotMetaData_;
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    public boolean hasSnapshotMetaData() {
-      return ((bitField0_ & 0x00000004) == 0x00000004);
-    }
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData() {
-      return snapshotMetaData_;
-    }
-    /**
-     * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-     */
-    public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder() {
-      return snapshotMetaData_;
-    }
-
-    // optional string file_name = 4;
-    public static final int FILE_NAME_FIELD_NUMBER = 4;
+    // optional string file_name = 1;
+    public static final int FILE_NAME_FIELD_NUMBER = 1;
     private java.lang.Object fileName_;
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     public boolean hasFileName() {
-      return ((bitField0_ & 0x00000008) == 0x00000008);
+      return ((bitField0_ & 0x00000001) == 0x00000001);
     }
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     public java.lang.String getFileName() {
       java.lang.Object ref = fileName_;
@@ -7559,7 +11067,7 @@ public final class RaftProto {
       }
     }
     /**
-     * <code>optional string file_name = 4;</code>
+     * <code>optional string file_name = 1;</code>
      */
     public com.google.protobuf.ByteString
         getFileNameBytes() {
@@ -7575,79 +11083,67 @@ public final class RaftProto {
       }
     }
 
-    // optional uint64 offset = 5;
-    public static final int OFFSET_FIELD_NUMBER = 5;
+    // optional uint64 offset = 2;
+    public static final int OFFSET_FIELD_NUMBER = 2;
     private long offset_;
     /**
-     * <code>optional uint64 offset = 5;</code>
+     * <code>optional uint64 offset = 2;</code>
      */
     public boolean hasOffset() {
-      return ((bitField0_ & 0x00000010) == 0x00000010);
+      return ((bitField0_ & 0x00000002) == 0x00000002);
     }
     /**
-     * <code>optional uint64 offset = 5;</code>
+     * <code>optional uint64 offset = 2;</code>
      */
     public long getOffset() {
       return offset_;
     }
 
-    // optional bytes data = 6;
-    public static final int DATA_FIELD_NUMBER = 6;
-    private com.google.protobuf.ByteString data_;
-    /**
-     * <code>optional bytes data = 6;</code>
-     */
-    public boolean hasData() {
-      return ((bitField0_ & 0x00000020) == 0x00000020);
-    }
-    /**
-     * <code>optional bytes data = 6;</code>
-     */
-    public com.google.protobuf.ByteString getData() {
-      return data_;
-    }
-
-    // optional bool is_first = 7;
-    public static final int IS_FIRST_FIELD_NUMBER = 7;
-    private boolean isFirst_;
+    // optional uint32 length = 3;
+    public static final int LENGTH_FIELD_NUMBER = 3;
+    private int length_;
     /**
-     * <code>optional bool is_first = 7;</code>
+     * <code>optional uint32 length = 3;</code>
      */
-    public boolean hasIsFirst() {
-      return ((bitField0_ & 0x00000040) == 0x00000040);
+    public boolean hasLength() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
     }
     /**
-     * <code>optional bool is_first = 7;</code>
+     * <code>optional uint32 length = 3;</code>
      */
-    public boolean getIsFirst() {
-      return isFirst_;
+    public int getLength() {
+      return length_;
     }
 
-    // optional bool is_last = 8;
-    public static final int IS_LAST_FIELD_NUMBER = 8;
-    private boolean isLast_;
+    // optional uint64 checksum = 4;
+    public static final int CHECKSUM_FIELD_NUMBER = 4;
+    private long checksum_;
     /**
-     * <code>optional bool is_last = 8;</code>
+     * <code>optional uint64 checksum = 4;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    public boolean hasIsLast() {
-      return ((bitField0_ & 0x00000080) == 0x00000080);
+    public boolean hasChecksum() {
+      return ((bitField0_ & 0x00000008) == 0x00000008);
     }
     /**
-     * <code>optional bool is_last = 8;</code>
+     * <code>optional uint64 checksum = 4;</code>
+     *
+     * <pre>
+     * crc32
+     * </pre>
      */
-    public boolean getIsLast() {
-      return isLast_;
+    public long getChecksum() {
+      return checksum_;
     }
 
     private void initFields() {
-      serverId_ = 0;
-      term_ = 0L;
-      snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
       fileName_ = "";
       offset_ = 0L;
-      data_ = com.google.protobuf.ByteString.EMPTY;
-      isFirst_ = false;
-      isLast_ = false;
+      length_ = 0;
+      checksum_ = 0L;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -7662,28 +11158,16 @@ public final class RaftProto {
                         throws java.io.IOException {
       getSerializedSize();
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
-        output.writeUInt32(1, serverId_);
+        output.writeBytes(1, getFileNameBytes());
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
-        output.writeUInt64(2, term_);
+        output.writeUInt64(2, offset_);
       }
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
-        output.writeMessage(3, snapshotMetaData_);
+        output.writeUInt32(3, length_);
       }
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
-        output.writeBytes(4, getFileNameBytes());
-      }
-      if (((bitField0_ & 0x00000010) == 0x00000010)) {
-        output.writeUInt64(5, offset_);
-      }
-      if (((bitField0_ & 0x00000020) == 0x00000020)) {
-        output.writeBytes(6, data_);
-      }
-      if (((bitField0_ & 0x00000040) == 0x00000040)) {
-        output.writeBool(7, isFirst_);
-      }
-      if (((bitField0_ & 0x00000080) == 0x00000080)) {
-        output.writeBool(8, isLast_);
+        output.writeUInt64(4, checksum_);
       }
       getUnknownFields().writeTo(output);
     }
@@ -7696,35 +11180,19 @@ public final class RaftProto {
       size = 0;
       if (((bitField0_ & 0x00000001) == 0x00000001)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt32Size(1, serverId_);
+          .computeBytesSize(1, getFileNameBytes());
       }
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(2, term_);
+          .computeUInt64Size(2, offset_);
       }
       if (((bitField0_ & 0x00000004) == 0x00000004)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeMessageSize(3, snapshotMetaData_);
+          .computeUInt32Size(3, length_);
       }
       if (((bitField0_ & 0x00000008) == 0x00000008)) {
         size += com.google.protobuf.CodedOutputStream
-          .computeBytesSize(4, getFileNameBytes());
-      }
-      if (((bitField0_ & 0x00000010) == 0x00000010)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeUInt64Size(5, offset_);
-      }
-      if (((bitField0_ & 0x00000020) == 0x00000020)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeBytesSize(6, data_);
-      }
-      if (((bitField0_ & 0x00000040) == 0x00000040)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeBoolSize(7, isFirst_);
-      }
-      if (((bitField0_ & 0x00000080) == 0x00000080)) {
-        size += com.google.protobuf.CodedOutputStream
-          .computeBoolSize(8, isLast_);
+          .computeUInt64Size(4, checksum_);
       }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
@@ -7738,53 +11206,53 @@ public final class RaftProto {
       return super.writeReplace();
     }
 
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         com.google.protobuf.ByteString data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         com.google.protobuf.ByteString data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(byte[] data)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(byte[] data)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         byte[] data,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws com.google.protobuf.InvalidProtocolBufferException {
       return PARSER.parseFrom(data, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseDelimitedFrom(java.io.InputStream input)
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseDelimitedFrom(java.io.InputStream input)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseDelimitedFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseDelimitedFrom(
         java.io.InputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
       return PARSER.parseDelimitedFrom(input, extensionRegistry);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         com.google.protobuf.CodedInputStream input)
         throws java.io.IOException {
       return PARSER.parseFrom(input);
     }
-    public static com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parseFrom(
+    public static com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parseFrom(
         com.google.protobuf.CodedInputStream input,
         com.google.protobuf.ExtensionRegistryLite extensionRegistry)
         throws java.io.IOException {
@@ -7793,7 +11261,7 @@ public final class RaftProto {
 
     public static Builder newBuilder() { return Builder.create(); }
     public Builder newBuilderForType() { return newBuilder(); }
-    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest prototype) {
+    public static Builder newBuilder(com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk prototype) {
       return newBuilder().mergeFrom(prototype);
     }
     public Builder toBuilder() { return newBuilder(this); }
@@ -7805,24 +11273,28 @@ public final class RaftProto {
       return builder;
     }
     /**
-     * Protobuf type {@code raft.InstallSnapshotRequest}
+     * Protobuf type {@code raft.SnapshotChunk}
+     *
+     * <pre>
+     * follower已经写入的snapshot数据块
+     * </pre>
      */
     public static final class Builder extends
         com.google.protobuf.GeneratedMessage.Builder<Builder>
-       implements com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequestOrBuilder {
+       implements com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder {
       public static final com.google.protobuf.Descriptors.Descriptor
           getDescriptor() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotChunk_descriptor;
       }
 
       protected com.google.protobuf.GeneratedMessage.FieldAccessorTable
           internalGetFieldAccessorTable() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_fieldAccessorTable
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotChunk_fieldAccessorTable
             .ensureFieldAccessorsInitialized(
-                com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.class, com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.Builder.class);
+                com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.class, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder.class);
       }
 
-      // Construct using com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.newBuilder()
+      // Construct using com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.newBuilder()
       private Builder() {
         maybeForceBuilderInitialization();
       }
@@ -7834,7 +11306,6 @@ public final class RaftProto {
       }
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
-          getSnapshotMetaDataFieldBuilder();
         }
       }
       private static Builder create() {
@@ -7843,26 +11314,14 @@ public final class RaftProto {
 
       public Builder clear() {
         super.clear();
-        serverId_ = 0;
+        fileName_ = "";
         bitField0_ = (bitField0_ & ~0x00000001);
-        term_ = 0L;
+        offset_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
-        if (snapshotMetaDataBuilder_ == null) {
-          snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
-        } else {
-          snapshotMetaDataBuilder_.clear();
-        }
+        length_ = 0;
         bitField0_ = (bitField0_ & ~0x00000004);
-        fileName_ = "";
+        checksum_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000008);
-        offset_ = 0L;
-        bitField0_ = (bitField0_ & ~0x00000010);
-        data_ = com.google.protobuf.ByteString.EMPTY;
-        bitField0_ = (bitField0_ & ~0x00000020);
-        isFirst_ = false;
-        bitField0_ = (bitField0_ & ~0x00000040);
-        isLast_ = false;
-        bitField0_ = (bitField0_ & ~0x00000080);
         return this;
       }
 
@@ -7872,323 +11331,108 @@ public final class RaftProto {
 
       public com.google.protobuf.Descriptors.Descriptor
           getDescriptorForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_InstallSnapshotRequest_descriptor;
+        return com.github.raftimpl.raft.proto.RaftProto.internal_static_raft_SnapshotChunk_descriptor;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest getDefaultInstanceForType() {
-        return com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.getDefaultInstance();
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk getDefaultInstanceForType() {
+        return com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.getDefaultInstance();
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest build() {
-        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest result = buildPartial();
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk build() {
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk result = buildPartial();
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
         return result;
       }
 
-      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest result = new com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest(this);
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk result = new com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk(this);
         int from_bitField0_ = bitField0_;
         int to_bitField0_ = 0;
         if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
           to_bitField0_ |= 0x00000001;
         }
-        result.serverId_ = serverId_;
+        result.fileName_ = fileName_;
         if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
           to_bitField0_ |= 0x00000002;
         }
-        result.term_ = term_;
+        result.offset_ = offset_;
         if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
           to_bitField0_ |= 0x00000004;
         }
-        if (snapshotMetaDataBuilder_ == null) {
-          result.snapshotMetaData_ = snapshotMetaData_;
-        } else {
-          result.snapshotMetaData_ = snapshotMetaDataBuilder_.build();
-        }
+        result.length_ = length_;
         if (((from_bitField0_ & 0x00000008) == 0x00000008)) {
           to_bitField0_ |= 0x00000008;
         }
-        result.fileName_ = fileName_;
-        if (((from_bitField0_ & 0x00000010) == 0x00000010)) {
-          to_bitField0_ |= 0x00000010;
-        }
-        result.offset_ = offset_;
-        if (((from_bitField0_ & 0x00000020) == 0x00000020)) {
-          to_bitField0_ |= 0x00000020;
-        }
-        result.data_ = data_;
-        if (((from_bitField0_ & 0x00000040) == 0x00000040)) {
-          to_bitField0_ |= 0x00000040;
-        }
-        result.isFirst_ = isFirst_;
-        if (((from_bitField0_ & 0x00000080) == 0x00000080)) {
-          to_bitField0_ |= 0x00000080;
-        }
-        result.isLast_ = isLast_;
+        result.checksum_ = checksum_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
       }
 
       public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest)other);
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk)other);
         } else {
           super.mergeFrom(other);
           return this;
         }
       }
 
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest.getDefaultInstance()) return this;
-        if (other.hasServerId()) {
-          setServerId(other.getServerId());
-        }
-        if (other.hasTerm()) {
-          setTerm(other.getTerm());
-        }
-        if (other.hasSnapshotMetaData()) {
-          mergeSnapshotMetaData(other.getSnapshotMetaData());
-        }
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.getDefaultInstance()) return this;
         if (other.hasFileName()) {
-          bitField0_ |= 0x00000008;
+          bitField0_ |= 0x00000001;
           fileName_ = other.fileName_;
           onChanged();
         }
         if (other.hasOffset()) {
           setOffset(other.getOffset());
         }
-        if (other.hasData()) {
-          setData(other.getData());
-        }
-        if (other.hasIsFirst()) {
-          setIsFirst(other.getIsFirst());
+        if (other.hasLength()) {
+          setLength(other.getLength());
         }
-        if (other.hasIsLast()) {
-          setIsLast(other.getIsLast());
+        if (other.hasChecksum()) {
+          setChecksum(other.getChecksum());
         }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
-      }
-
-      public final boolean isInitialized() {
-        return true;
-      }
-
-      public Builder mergeFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest parsedMessage = null;
-        try {
-          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotRequest) e.getUnfinishedMessage();
-          throw e;
-        } finally {
-          if (parsedMessage != null) {
-            mergeFrom(parsedMessage);
-          }
-        }
-        return this;
-      }
-      private int bitField0_;
-
-      // optional uint32 server_id = 1;
-      private int serverId_ ;
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       */
-      public boolean hasServerId() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       */
-      public int getServerId() {
-        return serverId_;
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       */
-      public Builder setServerId(int value) {
-        bitField0_ |= 0x00000001;
-        serverId_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional uint32 server_id = 1;</code>
-       */
-      public Builder clearServerId() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        serverId_ = 0;
-        onChanged();
-        return this;
-      }
-
-      // optional uint64 term = 2;
-      private long term_ ;
-      /**
-       * <code>optional uint64 term = 2;</code>
-       */
-      public boolean hasTerm() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
-      }
-      /**
-       * <code>optional uint64 term = 2;</code>
-       */
-      public long getTerm() {
-        return term_;
-      }
-      /**
-       * <code>optional uint64 term = 2;</code>
-       */
-      public Builder setTerm(long value) {
-        bitField0_ |= 0x00000002;
-        term_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional uint64 term = 2;</code>
-       */
-      public Builder clearTerm() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        term_ = 0L;
-        onChanged();
-        return this;
-      }
-
-      // optional .raft.SnapshotMetaData snapshot_meta_data = 3;
-      private com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
-      private com.google.protobuf.SingleFieldBuilder<
-          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder> snapshotMetaDataBuilder_;
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public boolean hasSnapshotMetaData() {
-        return ((bitField0_ & 0x00000004) == 0x00000004);
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData getSnapshotMetaData() {
-        if (snapshotMetaDataBuilder_ == null) {
-          return snapshotMetaData_;
-        } else {
-          return snapshotMetaDataBuilder_.getMessage();
-        }
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public Builder setSnapshotMetaData(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData value) {
-        if (snapshotMetaDataBuilder_ == null) {
-          if (value == null) {
-            throw new NullPointerException();
-          }
-          snapshotMetaData_ = value;
-          onChanged();
-        } else {
-          snapshotMetaDataBuilder_.setMessage(value);
-        }
-        bitField0_ |= 0x00000004;
-        return this;
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public Builder setSnapshotMetaData(
-          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder builderForValue) {
-        if (snapshotMetaDataBuilder_ == null) {
-          snapshotMetaData_ = builderForValue.build();
-          onChanged();
-        } else {
-          snapshotMetaDataBuilder_.setMessage(builderForValue.build());
-        }
-        bitField0_ |= 0x00000004;
-        return this;
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public Builder mergeSnapshotMetaData(com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData value) {
-        if (snapshotMetaDataBuilder_ == null) {
-          if (((bitField0_ & 0x00000004) == 0x00000004) &&
-              snapshotMetaData_ != com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance()) {
-            snapshotMetaData_ =
-              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.newBuilder(snapshotMetaData_).mergeFrom(value).buildPartial();
-          } else {
-            snapshotMetaData_ = value;
-          }
-          onChanged();
-        } else {
-          snapshotMetaDataBuilder_.mergeFrom(value);
-        }
-        bitField0_ |= 0x00000004;
-        return this;
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public Builder clearSnapshotMetaData() {
-        if (snapshotMetaDataBuilder_ == null) {
-          snapshotMetaData_ = com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.getDefaultInstance();
-          onChanged();
-        } else {
-          snapshotMetaDataBuilder_.clear();
-        }
-        bitField0_ = (bitField0_ & ~0x00000004);
-        return this;
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder getSnapshotMetaDataBuilder() {
-        bitField0_ |= 0x00000004;
-        onChanged();
-        return getSnapshotMetaDataFieldBuilder().getBuilder();
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      public com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder getSnapshotMetaDataOrBuilder() {
-        if (snapshotMetaDataBuilder_ != null) {
-          return snapshotMetaDataBuilder_.getMessageOrBuilder();
-        } else {
-          return snapshotMetaData_;
-        }
-      }
-      /**
-       * <code>optional .raft.SnapshotMetaData snapshot_meta_data = 3;</code>
-       */
-      private com.google.protobuf.SingleFieldBuilder<
-          com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder> 
-          getSnapshotMetaDataFieldBuilder() {
-        if (snapshotMetaDataBuilder_ == null) {
-          snapshotMetaDataBuilder_ = new com.google.protobuf.SingleFieldBuilder<
-              com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaData.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotMetaDataOrBuilder>(
-                  snapshotMetaData_,
-                  getParentForChildren(),
-                  isClean());
-          snapshotMetaData_ = null;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
         }
-        return snapshotMetaDataBuilder_;
+        return this;
       }
+      private int bitField0_;
 
-      // optional string file_name = 4;
+      // optional string file_name = 1;
       private java.lang.Object fileName_ = "";
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public boolean hasFileName() {
-        return ((bitField0_ & 0x00000008) == 0x00000008);
+        return ((bitField0_ & 0x00000001) == 0x00000001);
       }
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public java.lang.String getFileName() {
         java.lang.Object ref = fileName_;
@@ -8202,7 +11446,7 @@ public final class RaftProto {
         }
       }
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public com.google.protobuf.ByteString
           getFileNameBytes() {
@@ -8218,185 +11462,165 @@ public final class RaftProto {
         }
       }
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public Builder setFileName(
           java.lang.String value) {
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000008;
+  bitField0_ |= 0x00000001;
         fileName_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public Builder clearFileName() {
-        bitField0_ = (bitField0_ & ~0x00000008);
+        bitField0_ = (bitField0_ & ~0x00000001);
         fileName_ = getDefaultInstance().getFileName();
         onChanged();
         return this;
       }
       /**
-       * <code>optional string file_name = 4;</code>
+       * <code>optional string file_name = 1;</code>
        */
       public Builder setFileNameBytes(
           com.google.protobuf.ByteString value) {
         if (value == null) {
     throw new NullPointerException();
   }
-  bitField0_ |= 0x00000008;
+  bitField0_ |= 0x00000001;
         fileName_ = value;
         onChanged();
         return this;
       }
 
-      // optional uint64 offset = 5;
+      // optional uint64 offset = 2;
       private long offset_ ;
       /**
-       * <code>optional uint64 offset = 5;</code>
+       * <code>optional uint64 offset = 2;</code>
        */
       public boolean hasOffset() {
-        return ((bitField0_ & 0x00000010) == 0x00000010);
+        return ((bitField0_ & 0x00000002) == 0x00000002);
       }
       /**
-       * <code>optional uint64 offset = 5;</code>
+       * <code>optional uint64 offset = 2;</code>
        */
       public long getOffset() {
         return offset_;
       }
       /**
-       * <code>optional uint64 offset = 5;</code>
+       * <code>optional uint64 offset = 2;</code>
        */
       public Builder setOffset(long value) {
-        bitField0_ |= 0x00000010;
+        bitField0_ |= 0x00000002;
         offset_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 offset = 5;</code>
+       * <code>optional uint64 offset = 2;</code>
        */
       public Builder clearOffset() {
-        bitField0_ = (bitField0_ & ~0x00000010);
+        bitField0_ = (bitField0_ & ~0x00000002);
         offset_ = 0L;
         onChanged();
         return this;
       }
 
-      // optional bytes data = 6;
-      private com.google.protobuf.ByteString data_ = com.google.protobuf.ByteString.EMPTY;
-      /**
-       * <code>optional bytes data = 6;</code>
-       */
-      public boolean hasData() {
-        return ((bitField0_ & 0x00000020) == 0x00000020);
-      }
-      /**
-       * <code>optional bytes data = 6;</code>
-       */
-      public com.google.protobuf.ByteString getData() {
-        return data_;
-      }
-      /**
-       * <code>optional bytes data = 6;</code>
-       */
-      public Builder setData(com.google.protobuf.ByteString value) {
-        if (value == null) {
-    throw new NullPointerException();
-  }
-  bitField0_ |= 0x00000020;
-        data_ = value;
-        onChanged();
-        return this;
-      }
-      /**
-       * <code>optional bytes data = 6;</code>
-       */
-      public Builder clearData() {
-        bitField0_ = (bitField0_ & ~0x00000020);
-        data_ = getDefaultInstance().getData();
-        onChanged();
-        return this;
-      }
-
-      // optional bool is_first = 7;
-      private boolean isFirst_ ;
+      // optional uint32 length = 3;
+      private int length_ ;
       /**
-       * <code>optional bool is_first = 7;</code>
+       * <code>optional uint32 length = 3;</code>
        */
-      public boolean hasIsFirst() {
-        return ((bitField0_ & 0x00000040) == 0x00000040);
+      public boolean hasLength() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
       }
       /**
-       * <code>optional bool is_first = 7;</code>
+       * <code>optional uint32 length = 3;</code>
        */
-      public boolean getIsFirst() {
-        return isFirst_;
+      public int getLength() {
+        return length_;
       }
       /**
-       * <code>optional bool is_first = 7;</code>
+       * <code>optional uint32 length = 3;</code>
        */
-      public Builder setIsFirst(boolean value) {
-        bitField0_ |= 0x00000040;
-        isFirst_ = value;
+      public Builder setLength(int value) {
+        bitField0_ |= 0x00000004;
+        length_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional bool is_first = 7;</code>
+       * <code>optional uint32 length = 3;</code>
        */
-      public Builder clearIsFirst() {
-        bitField0_ = (bitField0_ & ~0x00000040);
-        isFirst_ = false;
+      public Builder clearLength() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        length_ = 0;
         onChanged();
         return this;
       }
 
-      // optional bool is_last = 8;
-      private boolean isLast_ ;
+      // optional uint64 checksum = 4;
+      private long checksum_ ;
       /**
-       * <code>optional bool is_last = 8;</code>
+       * <code>optional uint64 checksum = 4;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public boolean hasIsLast() {
-        return ((bitField0_ & 0x00000080) == 0x00000080);
+      public boolean hasChecksum() {
+        return ((bitField0_ & 0x00000008) == 0x00000008);
       }
       /**
-       * <code>optional bool is_last = 8;</code>
+       * <code>optional uint64 checksum = 4;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public boolean getIsLast() {
-        return isLast_;
+      public long getChecksum() {
+        return checksum_;
       }
       /**
-       * <code>optional bool is_last = 8;</code>
+       * <code>optional uint64 checksum = 4;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public Builder setIsLast(boolean value) {
-        bitField0_ |= 0x00000080;
-        isLast_ = value;
+      public Builder setChecksum(long value) {
+        bitField0_ |= 0x00000008;
+        checksum_ = value;
         onChanged();
         return this;
       }
       /**
-       * <code>optional bool is_last = 8;</code>
+       * <code>optional uint64 checksum = 4;</code>
+       *
+       * <pre>
+       * crc32
+       * </pre>
        */
-      public Builder clearIsLast() {
-        bitField0_ = (bitField0_ & ~0x00000080);
-        isLast_ = false;
+      public Builder clearChecksum() {
+        bitField0_ = (bitField0_ & ~0x00000008);
+        checksum_ = 0L;
         onChanged();
         return this;
       }
 
-      // @@protoc_insertion_point(builder_scope:raft.InstallSnapshotRequest)
+      // @@protoc_insertion_point(builder_scope:raft.SnapshotChunk)
     }
 
     static {
-      defaultInstance = new InstallSnapshotRequest(true);
+      defaultInstance = new SnapshotChunk(true);
       defaultInstance.initFields();
     }
 
-    // @@protoc_insertion_point(class_scope:raft.InstallSnapshotRequest)
+    // @@protoc_insertion_point(class_scope:raft.SnapshotChunk)
   }
 
   public interface InstallSnapshotResponseOrBuilder
@@ -8421,6 +11645,87 @@ public final class RaftProto {
      * <code>optional uint64 term = 2;</code>
      */
     long getTerm();
+
+    // repeated .raft.SnapshotChunk received_chunks = 3;
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> 
+        getReceivedChunksList();
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk getReceivedChunks(int index);
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    int getReceivedChunksCount();
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder> 
+        getReceivedChunksOrBuilderList();
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder getReceivedChunksOrBuilder(
+        int index);
+
+    // repeated string reused_files = 4;
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    java.util.List<java.lang.String>
+    getReusedFilesList();
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    int getReusedFilesCount();
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    java.lang.String getReusedFiles(int index);
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    com.google.protobuf.ByteString
+        getReusedFilesBytes(int index);
   }
   /**
    * Protobuf type {@code raft.InstallSnapshotResponse}
@@ -8489,6 +11794,22 @@ public final class RaftProto {
               term_ = input.readUInt64();
               break;
             }
+            case 26: {
+              if (!((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+                receivedChunks_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk>();
+                mutable_bitField0_ |= 0x00000004;
+              }
+              receivedChunks_.add(input.readMessage(com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.PARSER, extensionRegistry));
+              break;
+            }
+            case 34: {
+              if (!((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+                reusedFiles_ = new com.google.protobuf.LazyStringArrayList();
+                mutable_bitField0_ |= 0x00000008;
+              }
+              reusedFiles_.add(input.readBytes());
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -8497,6 +11818,12 @@ public final class RaftProto {
         throw new com.google.protobuf.InvalidProtocolBufferException(
             e.getMessage()).setUnfinishedMessage(this);
       } finally {
+        if (((mutable_bitField0_ & 0x00000004) == 0x00000004)) {
+          receivedChunks_ = java.util.Collections.unmodifiableList(receivedChunks_);
+        }
+        if (((mutable_bitField0_ & 0x00000008) == 0x00000008)) {
+          reusedFiles_ = new com.google.protobuf.UnmodifiableLazyStringList(reusedFiles_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -8557,13 +11884,117 @@ public final class RaftProto {
     /**
      * <code>optional uint64 term = 2;</code>
      */
-    public long getTerm() {
-      return term_;
+    public long getTerm() {
+      return term_;
+    }
+
+    // repeated .raft.SnapshotChunk received_chunks = 3;
+    public static final int RECEIVED_CHUNKS_FIELD_NUMBER = 3;
+    private java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> receivedChunks_;
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> getReceivedChunksList() {
+      return receivedChunks_;
+    }
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder> 
+        getReceivedChunksOrBuilderList() {
+      return receivedChunks_;
+    }
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    public int getReceivedChunksCount() {
+      return receivedChunks_.size();
+    }
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk getReceivedChunks(int index) {
+      return receivedChunks_.get(index);
+    }
+    /**
+     * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+     * </pre>
+     */
+    public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder getReceivedChunksOrBuilder(
+        int index) {
+      return receivedChunks_.get(index);
+    }
+
+    // repeated string reused_files = 4;
+    public static final int REUSED_FILES_FIELD_NUMBER = 4;
+    private com.google.protobuf.LazyStringList reusedFiles_;
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    public java.util.List<java.lang.String>
+        getReusedFilesList() {
+      return reusedFiles_;
+    }
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    public int getReusedFilesCount() {
+      return reusedFiles_.size();
+    }
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    public java.lang.String getReusedFiles(int index) {
+      return reusedFiles_.get(index);
+    }
+    /**
+     * <code>repeated string reused_files = 4;</code>
+     *
+     * <pre>
+     * 回复is_first请求时，带上本地已有、不需要再传输的文件
+     * </pre>
+     */
+    public com.google.protobuf.ByteString
+        getReusedFilesBytes(int index) {
+      return reusedFiles_.getByteString(index);
     }
 
     private void initFields() {
       resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
       term_ = 0L;
+      receivedChunks_ = java.util.Collections.emptyList();
+      reusedFiles_ = com.google.protobuf.LazyStringArrayList.EMPTY;
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -8583,6 +12014,12 @@ public final class RaftProto {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeUInt64(2, term_);
       }
+      for (int i = 0; i < receivedChunks_.size(); i++) {
+        output.writeMessage(3, receivedChunks_.get(i));
+      }
+      for (int i = 0; i < reusedFiles_.size(); i++) {
+        output.writeBytes(4, reusedFiles_.getByteString(i));
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -8600,6 +12037,19 @@ public final class RaftProto {
         size += com.google.protobuf.CodedOutputStream
           .computeUInt64Size(2, term_);
       }
+      for (int i = 0; i < receivedChunks_.size(); i++) {
+        size += com.google.protobuf.CodedOutputStream
+          .computeMessageSize(3, receivedChunks_.get(i));
+      }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < reusedFiles_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeBytesSizeNoTag(reusedFiles_.getByteString(i));
+        }
+        size += dataSize;
+        size += 1 * getReusedFilesList().size();
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -8708,6 +12158,7 @@ public final class RaftProto {
       }
       private void maybeForceBuilderInitialization() {
         if (com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders) {
+          getReceivedChunksFieldBuilder();
         }
       }
       private static Builder create() {
@@ -8720,6 +12171,14 @@ public final class RaftProto {
         bitField0_ = (bitField0_ & ~0x00000001);
         term_ = 0L;
         bitField0_ = (bitField0_ & ~0x00000002);
+        if (receivedChunksBuilder_ == null) {
+          receivedChunks_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000004);
+        } else {
+          receivedChunksBuilder_.clear();
+        }
+        reusedFiles_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
         return this;
       }
 
@@ -8741,135 +12200,627 @@ public final class RaftProto {
         if (!result.isInitialized()) {
           throw newUninitializedMessageException(result);
         }
-        return result;
+        return result;
+      }
+
+      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse buildPartial() {
+        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse result = new com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse(this);
+        int from_bitField0_ = bitField0_;
+        int to_bitField0_ = 0;
+        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
+          to_bitField0_ |= 0x00000001;
+        }
+        result.resCode_ = resCode_;
+        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.term_ = term_;
+        if (receivedChunksBuilder_ == null) {
+          if (((bitField0_ & 0x00000004) == 0x00000004)) {
+            receivedChunks_ = java.util.Collections.unmodifiableList(receivedChunks_);
+            bitField0_ = (bitField0_ & ~0x00000004);
+          }
+          result.receivedChunks_ = receivedChunks_;
+        } else {
+          result.receivedChunks_ = receivedChunksBuilder_.build();
+        }
+        if (((bitField0_ & 0x00000008) == 0x00000008)) {
+          reusedFiles_ = new com.google.protobuf.UnmodifiableLazyStringList(
+              reusedFiles_);
+          bitField0_ = (bitField0_ & ~0x00000008);
+        }
+        result.reusedFiles_ = reusedFiles_;
+        result.bitField0_ = to_bitField0_;
+        onBuilt();
+        return result;
+      }
+
+      public Builder mergeFrom(com.google.protobuf.Message other) {
+        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse) {
+          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse)other);
+        } else {
+          super.mergeFrom(other);
+          return this;
+        }
+      }
+
+      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse other) {
+        if (other == com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse.getDefaultInstance()) return this;
+        if (other.hasResCode()) {
+          setResCode(other.getResCode());
+        }
+        if (other.hasTerm()) {
+          setTerm(other.getTerm());
+        }
+        if (receivedChunksBuilder_ == null) {
+          if (!other.receivedChunks_.isEmpty()) {
+            if (receivedChunks_.isEmpty()) {
+              receivedChunks_ = other.receivedChunks_;
+              bitField0_ = (bitField0_ & ~0x00000004);
+            } else {
+              ensureReceivedChunksIsMutable();
+              receivedChunks_.addAll(other.receivedChunks_);
+            }
+            onChanged();
+          }
+        } else {
+          if (!other.receivedChunks_.isEmpty()) {
+            if (receivedChunksBuilder_.isEmpty()) {
+              receivedChunksBuilder_.dispose();
+              receivedChunksBuilder_ = null;
+              receivedChunks_ = other.receivedChunks_;
+              bitField0_ = (bitField0_ & ~0x00000004);
+              receivedChunksBuilder_ = 
+                com.google.protobuf.GeneratedMessage.alwaysUseFieldBuilders ?
+                   getReceivedChunksFieldBuilder() : null;
+            } else {
+              receivedChunksBuilder_.addAllMessages(other.receivedChunks_);
+            }
+          }
+        }
+        if (!other.reusedFiles_.isEmpty()) {
+          if (reusedFiles_.isEmpty()) {
+            reusedFiles_ = other.reusedFiles_;
+            bitField0_ = (bitField0_ & ~0x00000008);
+          } else {
+            ensureReusedFilesIsMutable();
+            reusedFiles_.addAll(other.reusedFiles_);
+          }
+          onChanged();
+        }
+        this.mergeUnknownFields(other.getUnknownFields());
+        return this;
+      }
+
+      public final boolean isInitialized() {
+        return true;
+      }
+
+      public Builder mergeFrom(
+          com.google.protobuf.CodedInputStream input,
+          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
+          throws java.io.IOException {
+        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse parsedMessage = null;
+        try {
+          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
+        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
+          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse) e.getUnfinishedMessage();
+          throw e;
+        } finally {
+          if (parsedMessage != null) {
+            mergeFrom(parsedMessage);
+          }
+        }
+        return this;
+      }
+      private int bitField0_;
+
+      // optional .raft.ResCode res_code = 1;
+      private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       */
+      public boolean hasResCode() {
+        return ((bitField0_ & 0x00000001) == 0x00000001);
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
+        return resCode_;
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       */
+      public Builder setResCode(com.github.raftimpl.raft.proto.RaftProto.ResCode value) {
+        if (value == null) {
+          throw new NullPointerException();
+        }
+        bitField0_ |= 0x00000001;
+        resCode_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional .raft.ResCode res_code = 1;</code>
+       */
+      public Builder clearResCode() {
+        bitField0_ = (bitField0_ & ~0x00000001);
+        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+        onChanged();
+        return this;
+      }
+
+      // optional uint64 term = 2;
+      private long term_ ;
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public boolean hasTerm() {
+        return ((bitField0_ & 0x00000002) == 0x00000002);
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public long getTerm() {
+        return term_;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public Builder setTerm(long value) {
+        bitField0_ |= 0x00000002;
+        term_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional uint64 term = 2;</code>
+       */
+      public Builder clearTerm() {
+        bitField0_ = (bitField0_ & ~0x00000002);
+        term_ = 0L;
+        onChanged();
+        return this;
+      }
+
+      // repeated .raft.SnapshotChunk received_chunks = 3;
+      private java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> receivedChunks_ =
+        java.util.Collections.emptyList();
+      private void ensureReceivedChunksIsMutable() {
+        if (!((bitField0_ & 0x00000004) == 0x00000004)) {
+          receivedChunks_ = new java.util.ArrayList<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk>(receivedChunks_);
+          bitField0_ |= 0x00000004;
+         }
+      }
+
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder> receivedChunksBuilder_;
+
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> getReceivedChunksList() {
+        if (receivedChunksBuilder_ == null) {
+          return java.util.Collections.unmodifiableList(receivedChunks_);
+        } else {
+          return receivedChunksBuilder_.getMessageList();
+        }
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public int getReceivedChunksCount() {
+        if (receivedChunksBuilder_ == null) {
+          return receivedChunks_.size();
+        } else {
+          return receivedChunksBuilder_.getCount();
+        }
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk getReceivedChunks(int index) {
+        if (receivedChunksBuilder_ == null) {
+          return receivedChunks_.get(index);
+        } else {
+          return receivedChunksBuilder_.getMessage(index);
+        }
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder setReceivedChunks(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk value) {
+        if (receivedChunksBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.set(index, value);
+          onChanged();
+        } else {
+          receivedChunksBuilder_.setMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder setReceivedChunks(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder builderForValue) {
+        if (receivedChunksBuilder_ == null) {
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.set(index, builderForValue.build());
+          onChanged();
+        } else {
+          receivedChunksBuilder_.setMessage(index, builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder addReceivedChunks(com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk value) {
+        if (receivedChunksBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.add(value);
+          onChanged();
+        } else {
+          receivedChunksBuilder_.addMessage(value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder addReceivedChunks(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk value) {
+        if (receivedChunksBuilder_ == null) {
+          if (value == null) {
+            throw new NullPointerException();
+          }
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.add(index, value);
+          onChanged();
+        } else {
+          receivedChunksBuilder_.addMessage(index, value);
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder addReceivedChunks(
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder builderForValue) {
+        if (receivedChunksBuilder_ == null) {
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.add(builderForValue.build());
+          onChanged();
+        } else {
+          receivedChunksBuilder_.addMessage(builderForValue.build());
+        }
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder addReceivedChunks(
+          int index, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder builderForValue) {
+        if (receivedChunksBuilder_ == null) {
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.add(index, builderForValue.build());
+          onChanged();
+        } else {
+          receivedChunksBuilder_.addMessage(index, builderForValue.build());
+        }
+        return this;
       }
-
-      public com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse buildPartial() {
-        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse result = new com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse(this);
-        int from_bitField0_ = bitField0_;
-        int to_bitField0_ = 0;
-        if (((from_bitField0_ & 0x00000001) == 0x00000001)) {
-          to_bitField0_ |= 0x00000001;
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder addAllReceivedChunks(
+          java.lang.Iterable<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk> values) {
+        if (receivedChunksBuilder_ == null) {
+          ensureReceivedChunksIsMutable();
+          super.addAll(values, receivedChunks_);
+          onChanged();
+        } else {
+          receivedChunksBuilder_.addAllMessages(values);
         }
-        result.resCode_ = resCode_;
-        if (((from_bitField0_ & 0x00000002) == 0x00000002)) {
-          to_bitField0_ |= 0x00000002;
+        return this;
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder clearReceivedChunks() {
+        if (receivedChunksBuilder_ == null) {
+          receivedChunks_ = java.util.Collections.emptyList();
+          bitField0_ = (bitField0_ & ~0x00000004);
+          onChanged();
+        } else {
+          receivedChunksBuilder_.clear();
         }
-        result.term_ = term_;
-        result.bitField0_ = to_bitField0_;
-        onBuilt();
-        return result;
+        return this;
       }
-
-      public Builder mergeFrom(com.google.protobuf.Message other) {
-        if (other instanceof com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse) {
-          return mergeFrom((com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse)other);
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public Builder removeReceivedChunks(int index) {
+        if (receivedChunksBuilder_ == null) {
+          ensureReceivedChunksIsMutable();
+          receivedChunks_.remove(index);
+          onChanged();
         } else {
-          super.mergeFrom(other);
-          return this;
+          receivedChunksBuilder_.remove(index);
         }
+        return this;
       }
-
-      public Builder mergeFrom(com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse other) {
-        if (other == com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse.getDefaultInstance()) return this;
-        if (other.hasResCode()) {
-          setResCode(other.getResCode());
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder getReceivedChunksBuilder(
+          int index) {
+        return getReceivedChunksFieldBuilder().getBuilder(index);
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder getReceivedChunksOrBuilder(
+          int index) {
+        if (receivedChunksBuilder_ == null) {
+          return receivedChunks_.get(index);  } else {
+          return receivedChunksBuilder_.getMessageOrBuilder(index);
         }
-        if (other.hasTerm()) {
-          setTerm(other.getTerm());
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public java.util.List<? extends com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder> 
+           getReceivedChunksOrBuilderList() {
+        if (receivedChunksBuilder_ != null) {
+          return receivedChunksBuilder_.getMessageOrBuilderList();
+        } else {
+          return java.util.Collections.unmodifiableList(receivedChunks_);
         }
-        this.mergeUnknownFields(other.getUnknownFields());
-        return this;
       }
-
-      public final boolean isInitialized() {
-        return true;
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder addReceivedChunksBuilder() {
+        return getReceivedChunksFieldBuilder().addBuilder(
+            com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.getDefaultInstance());
       }
-
-      public Builder mergeFrom(
-          com.google.protobuf.CodedInputStream input,
-          com.google.protobuf.ExtensionRegistryLite extensionRegistry)
-          throws java.io.IOException {
-        com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse parsedMessage = null;
-        try {
-          parsedMessage = PARSER.parsePartialFrom(input, extensionRegistry);
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-          parsedMessage = (com.github.raftimpl.raft.proto.RaftProto.InstallSnapshotResponse) e.getUnfinishedMessage();
-          throw e;
-        } finally {
-          if (parsedMessage != null) {
-            mergeFrom(parsedMessage);
-          }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder addReceivedChunksBuilder(
+          int index) {
+        return getReceivedChunksFieldBuilder().addBuilder(
+            index, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.getDefaultInstance());
+      }
+      /**
+       * <code>repeated .raft.SnapshotChunk received_chunks = 3;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上已经收到的同一个snapshot的数据块，leader据此断点续传
+       * </pre>
+       */
+      public java.util.List<com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder> 
+           getReceivedChunksBuilderList() {
+        return getReceivedChunksFieldBuilder().getBuilderList();
+      }
+      private com.google.protobuf.RepeatedFieldBuilder<
+          com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder> 
+          getReceivedChunksFieldBuilder() {
+        if (receivedChunksBuilder_ == null) {
+          receivedChunksBuilder_ = new com.google.protobuf.RepeatedFieldBuilder<
+              com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunk.Builder, com.github.raftimpl.raft.proto.RaftProto.SnapshotChunkOrBuilder>(
+                  receivedChunks_,
+                  ((bitField0_ & 0x00000004) == 0x00000004),
+                  getParentForChildren(),
+                  isClean());
+          receivedChunks_ = null;
         }
-        return this;
+        return receivedChunksBuilder_;
       }
-      private int bitField0_;
 
-      // optional .raft.ResCode res_code = 1;
-      private com.github.raftimpl.raft.proto.RaftProto.ResCode resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      // repeated string reused_files = 4;
+      private com.google.protobuf.LazyStringList reusedFiles_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      private void ensureReusedFilesIsMutable() {
+        if (!((bitField0_ & 0x00000008) == 0x00000008)) {
+          reusedFiles_ = new com.google.protobuf.LazyStringArrayList(reusedFiles_);
+          bitField0_ |= 0x00000008;
+         }
+      }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public boolean hasResCode() {
-        return ((bitField0_ & 0x00000001) == 0x00000001);
+      public java.util.List<java.lang.String>
+          getReusedFilesList() {
+        return java.util.Collections.unmodifiableList(reusedFiles_);
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public com.github.raftimpl.raft.proto.RaftProto.ResCode getResCode() {
-        return resCode_;
+      public int getReusedFilesCount() {
+        return reusedFiles_.size();
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public Builder setResCode(com.github.raftimpl.raft.proto.RaftProto.ResCode value) {
-        if (value == null) {
-          throw new NullPointerException();
-        }
-        bitField0_ |= 0x00000001;
-        resCode_ = value;
-        onChanged();
-        return this;
+      public java.lang.String getReusedFiles(int index) {
+        return reusedFiles_.get(index);
       }
       /**
-       * <code>optional .raft.ResCode res_code = 1;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public Builder clearResCode() {
-        bitField0_ = (bitField0_ & ~0x00000001);
-        resCode_ = com.github.raftimpl.raft.proto.RaftProto.ResCode.RES_CODE_SUCCESS;
+      public com.google.protobuf.ByteString
+          getReusedFilesBytes(int index) {
+        return reusedFiles_.getByteString(index);
+      }
+      /**
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
+       */
+      public Builder setReusedFiles(
+          int index, java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureReusedFilesIsMutable();
+        reusedFiles_.set(index, value);
         onChanged();
         return this;
       }
-
-      // optional uint64 term = 2;
-      private long term_ ;
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public boolean hasTerm() {
-        return ((bitField0_ & 0x00000002) == 0x00000002);
+      public Builder addReusedFiles(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureReusedFilesIsMutable();
+        reusedFiles_.add(value);
+        onChanged();
+        return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public long getTerm() {
-        return term_;
+      public Builder addAllReusedFiles(
+          java.lang.Iterable<java.lang.String> values) {
+        ensureReusedFilesIsMutable();
+        super.addAll(values, reusedFiles_);
+        onChanged();
+        return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public Builder setTerm(long value) {
-        bitField0_ |= 0x00000002;
-        term_ = value;
+      public Builder clearReusedFiles() {
+        reusedFiles_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+        bitField0_ = (bitField0_ & ~0x00000008);
         onChanged();
         return this;
       }
       /**
-       * <code>optional uint64 term = 2;</code>
+       * <code>repeated string reused_files = 4;</code>
+       *
+       * <pre>
+       * 回复is_first请求时，带上本地已有、不需要再传输的文件
+       * </pre>
        */
-      public Builder clearTerm() {
-        bitField0_ = (bitField0_ & ~0x00000002);
-        term_ = 0L;
+      public Builder addReusedFilesBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  ensureReusedFilesIsMutable();
+        reusedFiles_.add(value);
         onChanged();
         return this;
       }
@@ -14576,6 +18527,11 @@ public final class RaftProto {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_raft_LogEntry_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_raft_LogEntryBatch_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_raft_LogEntryBatch_fieldAccessorTable;
   private static com.google.protobuf.Descriptors.Descriptor
     internal_static_raft_VoteRequest_descriptor;
   private static
@@ -14601,6 +18557,16 @@ public final class RaftProto {
   private static
     com.google.protobuf.GeneratedMessage.FieldAccessorTable
       internal_static_raft_InstallSnapshotRequest_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_raft_SnapshotFile_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_raft_SnapshotFile_fieldAccessorTable;
+  private static com.google.protobuf.Descriptors.Descriptor
+    internal_static_raft_SnapshotChunk_descriptor;
+  private static
+    com.google.protobuf.GeneratedMessage.FieldAccessorTable
+      internal_static_raft_SnapshotChunk_fieldAccessorTable;
   private static com.google.protobuf.Descriptors.Descriptor
     internal_static_raft_InstallSnapshotResponse_descriptor;
   private static
@@ -14677,44 +18643,58 @@ public final class RaftProto {
       "_included_term\030\002 \001(\004\022*\n\rconfiguration\030\003 ",
       "\001(\0132\023.raft.Configuration\"T\n\010LogEntry\022\014\n\004" +
       "term\030\001 \001(\004\022\r\n\005index\030\002 \001(\004\022\035\n\004type\030\003 \001(\0162" +
-      "\017.raft.EntryType\022\014\n\004data\030\004 \001(\014\"]\n\013VoteRe" +
-      "quest\022\021\n\tserver_id\030\001 \001(\r\022\014\n\004term\030\002 \001(\004\022\025" +
-      "\n\rlast_log_term\030\003 \001(\004\022\026\n\016last_log_index\030" +
-      "\004 \001(\004\"-\n\014VoteResponse\022\014\n\004term\030\001 \001(\004\022\017\n\007g" +
-      "ranted\030\002 \001(\010\"\235\001\n\024AppendEntriesRequest\022\021\n" +
-      "\tserver_id\030\001 \001(\r\022\014\n\004term\030\002 \001(\004\022\026\n\016prev_l" +
-      "og_index\030\003 \001(\004\022\025\n\rprev_log_term\030\004 \001(\004\022\024\n" +
-      "\014commit_index\030\005 \001(\004\022\037\n\007entries\030\006 \003(\0132\016.r",
-      "aft.LogEntry\"^\n\025AppendEntriesResponse\022\037\n" +
-      "\010res_code\030\001 \001(\0162\r.raft.ResCode\022\014\n\004term\030\002" +
-      " \001(\004\022\026\n\016last_log_index\030\003 \001(\004\"\301\001\n\026Install" +
-      "SnapshotRequest\022\021\n\tserver_id\030\001 \001(\r\022\014\n\004te" +
-      "rm\030\002 \001(\004\0222\n\022snapshot_meta_data\030\003 \001(\0132\026.r" +
-      "aft.SnapshotMetaData\022\021\n\tfile_name\030\004 \001(\t\022" +
-      "\016\n\006offset\030\005 \001(\004\022\014\n\004data\030\006 \001(\014\022\020\n\010is_firs" +
-      "t\030\007 \001(\010\022\017\n\007is_last\030\010 \001(\010\"H\n\027InstallSnaps" +
-      "hotResponse\022\037\n\010res_code\030\001 \001(\0162\r.raft.Res" +
-      "Code\022\014\n\004term\030\002 \001(\004\"\022\n\020GetLeaderRequest\"e",
-      "\n\021GetLeaderResponse\022\037\n\010res_code\030\001 \001(\0162\r." +
-      "raft.ResCode\022\017\n\007res_msg\030\002 \001(\t\022\036\n\006leader\030" +
-      "\003 \001(\0132\016.raft.Endpoint\"0\n\017AddPeersRequest" +
-      "\022\035\n\007servers\030\001 \003(\0132\014.raft.Server\"D\n\020AddPe" +
-      "ersResponse\022\037\n\010res_code\030\001 \001(\0162\r.raft.Res" +
-      "Code\022\017\n\007res_msg\030\002 \001(\t\"3\n\022RemovePeersRequ" +
-      "est\022\035\n\007servers\030\001 \003(\0132\014.raft.Server\"G\n\023Re" +
-      "movePeersResponse\022\037\n\010res_code\030\001 \001(\0162\r.ra" +
-      "ft.ResCode\022\017\n\007res_msg\030\002 \001(\t\"\031\n\027GetConfig" +
-      "urationRequest\"\211\001\n\030GetConfigurationRespo",
-      "nse\022\037\n\010res_code\030\001 \001(\0162\r.raft.ResCode\022\017\n\007" +
-      "res_msg\030\002 \001(\t\022\034\n\006leader\030\003 \001(\0132\014.raft.Ser" +
-      "ver\022\035\n\007servers\030\004 \003(\0132\014.raft.Server\"\035\n\033Ge" +
-      "tLeaderCommitIndexRequest\"4\n\034GetLeaderCo" +
-      "mmitIndexResponse\022\024\n\014commit_index\030\001 \001(\004*" +
-      "K\n\007ResCode\022\024\n\020RES_CODE_SUCCESS\020\000\022\021\n\rRES_" +
-      "CODE_FAIL\020\001\022\027\n\023RES_CODE_NOT_LEADER\020\002*>\n\t" +
-      "EntryType\022\023\n\017ENTRY_TYPE_DATA\020\000\022\034\n\030ENTRY_" +
-      "TYPE_CONFIGURATION\020\001B+\n\036com.github.rafti" +
-      "mpl.raft.protoB\tRaftProto"
+      "\017.raft.EntryType\022\014\n\004data\030\004 \001(\014\"0\n\rLogEnt" +
+      "ryBatch\022\037\n\007entries\030\001 \003(\0132\016.raft.LogEntry" +
+      "\"]\n\013VoteRequest\022\021\n\tserver_id\030\001 \001(\r\022\014\n\004te" +
+      "rm\030\002 \001(\004\022\025\n\rlast_log_term\030\003 \001(\004\022\026\n\016last_" +
+      "log_index\030\004 \001(\004\"-\n\014VoteResponse\022\014\n\004term\030" +
+      "\001 \001(\004\022\017\n\007granted\030\002 \001(\010\"\202\002\n\024AppendEntries" +
+      "Request\022\021\n\tserver_id\030\001 \001(\r\022\014\n\004term\030\002 \001(\004" +
+      "\022\026\n\016prev_log_index\030\003 \001(\004\022\025\n\rprev_log_ter",
+      "m\030\004 \001(\004\022\024\n\014commit_index\030\005 \001(\004\022\037\n\007entries" +
+      "\030\006 \003(\0132\016.raft.LogEntry\022\033\n\023leader_commit_" +
+      "index\030\007 \001(\004\022*\n\013compression\030\010 \001(\0162\025.raft." +
+      "CompressionType\022\032\n\022compressed_entries\030\t " +
+      "\001(\014\"^\n\025AppendEntriesResponse\022\037\n\010res_code" +
+      "\030\001 \001(\0162\r.raft.ResCode\022\014\n\004term\030\002 \001(\004\022\026\n\016l" +
+      "ast_log_index\030\003 \001(\004\"\220\002\n\026InstallSnapshotR" +
+      "equest\022\021\n\tserver_id\030\001 \001(\r\022\014\n\004term\030\002 \001(\004\022" +
+      "2\n\022snapshot_meta_data\030\003 \001(\0132\026.raft.Snaps" +
+      "hotMetaData\022\021\n\tfile_name\030\004 \001(\t\022\016\n\006offset",
+      "\030\005 \001(\004\022\014\n\004data\030\006 \001(\014\022\020\n\010is_first\030\007 \001(\010\022\017" +
+      "\n\007is_last\030\010 \001(\010\022!\n\005files\030\t \003(\0132\022.raft.Sn" +
+      "apshotFile\022*\n\013compression\030\n \001(\0162\025.raft.C" +
+      "ompressionType\"A\n\014SnapshotFile\022\021\n\tfile_n" +
+      "ame\030\001 \001(\t\022\014\n\004size\030\002 \001(\004\022\020\n\010checksum\030\003 \001(" +
+      "\004\"T\n\rSnapshotChunk\022\021\n\tfile_name\030\001 \001(\t\022\016\n" +
+      "\006offset\030\002 \001(\004\022\016\n\006length\030\003 \001(\r\022\020\n\010checksu" +
+      "m\030\004 \001(\004\"\214\001\n\027InstallSnapshotResponse\022\037\n\010r" +
+      "es_code\030\001 \001(\0162\r.raft.ResCode\022\014\n\004term\030\002 \001" +
+      "(\004\022,\n\017received_chunks\030\003 \003(\0132\023.raft.Snaps",
+      "hotChunk\022\024\n\014reused_files\030\004 \003(\t\"\022\n\020GetLea" +
+      "derRequest\"e\n\021GetLeaderResponse\022\037\n\010res_c" +
+      "ode\030\001 \001(\0162\r.raft.ResCode\022\017\n\007res_msg\030\002 \001(" +
+      "\t\022\036\n\006leader\030\003 \001(\0132\016.raft.Endpoint\"0\n\017Add" +
+      "PeersRequest\022\035\n\007servers\030\001 \003(\0132\014.raft.Ser" +
+      "ver\"D\n\020AddPeersResponse\022\037\n\010res_code\030\001 \001(" +
+      "\0162\r.raft.ResCode\022\017\n\007res_msg\030\002 \001(\t\"3\n\022Rem" +
+      "ovePeersRequest\022\035\n\007servers\030\001 \003(\0132\014.raft." +
+      "Server\"G\n\023RemovePeersResponse\022\037\n\010res_cod" +
+      "e\030\001 \001(\0162\r.raft.ResCode\022\017\n\007res_msg\030\002 \001(\t\"",
+      "\031\n\027GetConfigurationRequest\"\211\001\n\030GetConfig" +
+      "urationResponse\022\037\n\010res_code\030\001 \001(\0162\r.raft" +
+      ".ResCode\022\017\n\007res_msg\030\002 \001(\t\022\034\n\006leader\030\003 \001(" +
+      "\0132\014.raft.Server\022\035\n\007servers\030\004 \003(\0132\014.raft." +
+      "Server\"\035\n\033GetLeaderCommitIndexRequest\"4\n" +
+      "\034GetLeaderCommitIndexResponse\022\024\n\014commit_" +
+      "index\030\001 \001(\004*K\n\007ResCode\022\024\n\020RES_CODE_SUCCE" +
+      "SS\020\000\022\021\n\rRES_CODE_FAIL\020\001\022\027\n\023RES_CODE_NOT_" +
+      "LEADER\020\002*S\n\tEntryType\022\023\n\017ENTRY_TYPE_DATA" +
+      "\020\000\022\034\n\030ENTRY_TYPE_CONFIGURATION\020\001\022\023\n\017ENTR",
+      "Y_TYPE_NOOP\020\002*X\n\017CompressionType\022\024\n\020COMP" +
+      "RESSION_NONE\020\000\022\027\n\023COMPRESSION_DEFLATE\020\001\022" +
+      "\026\n\022COMPRESSION_SNAPPY\020\002B+\n\036com.github.ra" +
+      "ftimpl.raft.protoB\tRaftProto"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -14757,98 +18737,116 @@ public final class RaftProto {
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_LogEntry_descriptor,
               new java.lang.String[] { "Term", "Index", "Type", "Data", });
-          internal_static_raft_VoteRequest_descriptor =
+          internal_static_raft_LogEntryBatch_descriptor =
             getDescriptor().getMessageTypes().get(6);
+          internal_static_raft_LogEntryBatch_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_raft_LogEntryBatch_descriptor,
+              new java.lang.String[] { "Entries", });
+          internal_static_raft_VoteRequest_descriptor =
+            getDescriptor().getMessageTypes().get(7);
           internal_static_raft_VoteRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_VoteRequest_descriptor,
               new java.lang.String[] { "ServerId", "Term", "LastLogTerm", "LastLogIndex", });
           internal_static_raft_VoteResponse_descriptor =
-            getDescriptor().getMessageTypes().get(7);
+            getDescriptor().getMessageTypes().get(8);
           internal_static_raft_VoteResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_VoteResponse_descriptor,
               new java.lang.String[] { "Term", "Granted", });
           internal_static_raft_AppendEntriesRequest_descriptor =
-            getDescriptor().getMessageTypes().get(8);
+            getDescriptor().getMessageTypes().get(9);
           internal_static_raft_AppendEntriesRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_AppendEntriesRequest_descriptor,
-              new java.lang.String[] { "ServerId", "Term", "PrevLogIndex", "PrevLogTerm", "CommitIndex", "Entries", });
+              new java.lang.String[] { "ServerId", "Term", "PrevLogIndex", "PrevLogTerm", "CommitIndex", "Entries", "LeaderCommitIndex", "Compression", "CompressedEntries", });
           internal_static_raft_AppendEntriesResponse_descriptor =
-            getDescriptor().getMessageTypes().get(9);
+            getDescriptor().getMessageTypes().get(10);
           internal_static_raft_AppendEntriesResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_AppendEntriesResponse_descriptor,
               new java.lang.String[] { "ResCode", "Term", "LastLogIndex", });
           internal_static_raft_InstallSnapshotRequest_descriptor =
-            getDescriptor().getMessageTypes().get(10);
+            getDescriptor().getMessageTypes().get(11);
           internal_static_raft_InstallSnapshotRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_InstallSnapshotRequest_descriptor,
-              new java.lang.String[] { "ServerId", "Term", "SnapshotMetaData", "FileName", "Offset", "Data", "IsFirst", "IsLast", });
+              new java.lang.String[] { "ServerId", "Term", "SnapshotMetaData", "FileName", "Offset", "Data", "IsFirst", "IsLast", "Files", "Compression", });
+          internal_static_raft_SnapshotFile_descriptor =
+            getDescriptor().getMessageTypes().get(12);
+          internal_static_raft_SnapshotFile_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_raft_SnapshotFile_descriptor,
+              new java.lang.String[] { "FileName", "Size", "Checksum", });
+          internal_static_raft_SnapshotChunk_descriptor =
+            getDescriptor().getMessageTypes().get(13);
+          internal_static_raft_SnapshotChunk_fieldAccessorTable = new
+            com.google.protobuf.GeneratedMessage.FieldAccessorTable(
+              internal_static_raft_SnapshotChunk_descriptor,
+              new java.lang.String[] { "FileName", "Offset", "Length", "Checksum", });
           internal_static_raft_InstallSnapshotResponse_descriptor =
-            getDescriptor().getMessageTypes().get(11);
+            getDescriptor().getMessageTypes().get(14);
           internal_static_raft_InstallSnapshotResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_InstallSnapshotResponse_descriptor,
-              new java.lang.String[] { "ResCode", "Term", });
+              new java.lang.String[] { "ResCode", "Term", "ReceivedChunks", "ReusedFiles", });
           internal_static_raft_GetLeaderRequest_descriptor =
-            getDescriptor().getMessageTypes().get(12);
+            getDescriptor().getMessageTypes().get(15);
           internal_static_raft_GetLeaderRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetLeaderRequest_descriptor,
               new java.lang.String[] { });
           internal_static_raft_GetLeaderResponse_descriptor =
-            getDescriptor().getMessageTypes().get(13);
+            getDescriptor().getMessageTypes().get(16);
           internal_static_raft_GetLeaderResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetLeaderResponse_descriptor,
               new java.lang.String[] { "ResCode", "ResMsg", "Leader", });
           internal_static_raft_AddPeersRequest_descriptor =
-            getDescriptor().getMessageTypes().get(14);
+            getDescriptor().getMessageTypes().get(17);
           internal_static_raft_AddPeersRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_AddPeersRequest_descriptor,
               new java.lang.String[] { "Servers", });
           internal_static_raft_AddPeersResponse_descriptor =
-            getDescriptor().getMessageTypes().get(15);
+            getDescriptor().getMessageTypes().get(18);
           internal_static_raft_AddPeersResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_AddPeersResponse_descriptor,
               new java.lang.String[] { "ResCode", "ResMsg", });
           internal_static_raft_RemovePeersRequest_descriptor =
-            getDescriptor().getMessageTypes().get(16);
+            getDescriptor().getMessageTypes().get(19);
           internal_static_raft_RemovePeersRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_RemovePeersRequest_descriptor,
               new java.lang.String[] { "Servers", });
           internal_static_raft_RemovePeersResponse_descriptor =
-            getDescriptor().getMessageTypes().get(17);
+            getDescriptor().getMessageTypes().get(20);
           internal_static_raft_RemovePeersResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_RemovePeersResponse_descriptor,
               new java.lang.String[] { "ResCode", "ResMsg", });
           internal_static_raft_GetConfigurationRequest_descriptor =
-            getDescriptor().getMessageTypes().get(18);
+            getDescriptor().getMessageTypes().get(21);
           internal_static_raft_GetConfigurationRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetConfigurationRequest_descriptor,
               new java.lang.String[] { });
           internal_static_raft_GetConfigurationResponse_descriptor =
-            getDescriptor().getMessageTypes().get(19);
+            getDescriptor().getMessageTypes().get(22);
           internal_static_raft_GetConfigurationResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetConfigurationResponse_descriptor,
               new java.lang.String[] { "ResCode", "ResMsg", "Leader", "Servers", });
           internal_static_raft_GetLeaderCommitIndexRequest_descriptor =
-            getDescriptor().getMessageTypes().get(20);
+            getDescriptor().getMessageTypes().get(23);
           internal_static_raft_GetLeaderCommitIndexRequest_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetLeaderCommitIndexRequest_descriptor,
               new java.lang.String[] { });
           internal_static_raft_GetLeaderCommitIndexResponse_descriptor =
-            getDescriptor().getMessageTypes().get(21);
+            getDescriptor().getMessageTypes().get(24);
           internal_static_raft_GetLeaderCommitIndexResponse_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_raft_GetLeaderCommitIndexResponse_descriptor,
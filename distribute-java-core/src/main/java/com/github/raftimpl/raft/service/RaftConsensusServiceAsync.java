@@ -22,4 +22,8 @@ public interface RaftConsensusServiceAsync extends RaftConsensusService {
     Future<RaftProto.InstallSnapshotResponse> installSnap(
             RaftProto.InstallSnapshotRequest request,
             RpcCallback<RaftProto.InstallSnapshotResponse> callback);
+
+    Future<RaftProto.GetLeaderCommitIndexResponse> getLeaderCommitIndex(
+            RaftProto.GetLeaderCommitIndexRequest request,
+            RpcCallback<RaftProto.GetLeaderCommitIndexResponse> callback);
 }
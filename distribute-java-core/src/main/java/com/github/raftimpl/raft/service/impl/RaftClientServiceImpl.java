@@ -95,16 +95,11 @@ public class RaftClientServiceImpl implements RaftClientService {
         }
         List<Peer> requestPeers = new ArrayList<>(request.getServersCount());
         for (RaftProto.Server server : request.getServersList()) {
-            final Peer peer = new Peer(server);
+            Peer peer = new Peer(server);
             peer.setNextIndex(1);
             requestPeers.add(peer);
             raftNode.getPeerMap().putIfAbsent(server.getServerId(), peer);
-            raftNode.getExecutorService().submit(new Runnable() {
-                @Override
-                public void run() {
-                    raftNode.appendEntries(peer);
-                }
-            });
+            raftNode.wakeupReplicator(peer);
         }
 
         int catchUpNum = 0;
@@ -150,7 +145,7 @@ public class RaftClientServiceImpl implements RaftClientService {
             raftNode.getLock().lock();
             try {
                 for (Peer peer : requestPeers) {
-                    peer.getRpcClient().stop();
+                    peer.stop();
                     raftNode.getPeerMap().remove(peer.getStorageServer().getServerId());
                 }
             } finally {
@@ -3,8 +3,11 @@ package com.github.raftimpl.raft.service.impl;
 import com.github.raftimpl.raft.RaftNode;
 import com.github.raftimpl.raft.proto.RaftProto;
 import com.github.raftimpl.raft.service.RaftConsensusService;
+import com.github.raftimpl.raft.storage.SegmentedLog;
+import com.github.raftimpl.raft.util.CompressionUtils;
 import com.github.raftimpl.raft.util.ConfigurationUtils;
 import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.ByteString;
 import com.googlecode.protobuf.format.JsonFormat;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.Validate;
@@ -14,6 +17,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 public class RaftConsensusServiceImpl implements RaftConsensusService {
@@ -40,6 +45,12 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
             if (request.getTerm() < raftNode.getCurrentTerm()) {
                 return responseBuilder.build();
             }
+            if (raftNode.getRaftOptions().isLeaseReadEnabled() && raftNode.isLeaderAlive()) {
+                // leader还在租约期内，不支持发起选举
+                LOG.info("reject preVote request from server {}, leader {} is alive",
+                        request.getServerId(), raftNode.getLeaderId());
+                return responseBuilder.build();
+            }
             boolean isLogOk = request.getLastLogTerm() > raftNode.getLastLogTerm()
                     || (request.getLastLogTerm() == raftNode.getLastLogTerm()
                     && request.getLastLogIndex() >= raftNode.getRaftLog().getLastLogIndex());
@@ -72,6 +83,12 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
             if (request.getTerm() < raftNode.getCurrentTerm()) {
                 return responseBuilder.build();
             }
+            if (raftNode.getRaftOptions().isLeaseReadEnabled() && raftNode.isLeaderAlive()) {
+                // leader还在租约期内，不更新任期也不投票，避免选出新leader后旧leader仍按租约读
+                LOG.info("reject RequestVote request from server {}, leader {} is alive",
+                        request.getServerId(), raftNode.getLeaderId());
+                return responseBuilder.build();
+            }
             if (request.getTerm() > raftNode.getCurrentTerm()) {
                 raftNode.stepDown(request.getTerm());
             }
@@ -97,6 +114,8 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
 
     @Override
     public RaftProto.AppendEntriesResponse appendEntries(RaftProto.AppendEntriesRequest request) {
+        // 压缩的日志列表在锁外解压，之后按未压缩的请求处理
+        request = CompressionUtils.decompressEntries(request);
         raftNode.getLock().lock();
         try {
             RaftProto.AppendEntriesResponse.Builder responseBuilder
@@ -123,6 +142,10 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
                 responseBuilder.setTerm(request.getTerm() + 1);
                 return responseBuilder.build();
             }
+            raftNode.updateLeaderContactTime();
+            if (request.hasLeaderCommitIndex()) {
+                raftNode.updateLeaderCommitIndex(request.getLeaderCommitIndex());
+            }
 
             if (request.getPrevLogIndex() > raftNode.getRaftLog().getLastLogIndex()) {
                 LOG.info("Rejecting AppendEntries RPC would leave gap, " +
@@ -205,6 +228,9 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
                         raftNode.getLeaderId(),
                         PRINTER.printToString(raftNode.getConfig()));
             }
+            if (raftNode.getLeaderId() == request.getServerId()) {
+                raftNode.updateLeaderContactTime();
+            }
         } finally {
             raftNode.getLock().unlock();
         }
@@ -220,46 +246,69 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
         try {
             // write snapshot data to local
             String tmpSnapshotDir = raftNode.getSnapshot().getSnapshotDir() + ".tmp";
-            File file = new File(tmpSnapshotDir);
             if (request.getIsFirst()) {
-                if (file.exists()) {
-                    file.delete();
-                }
-                file.mkdir();
-                LOG.info("begin accept install snapshot request from serverId={}", request.getServerId());
-                raftNode.getSnapshot().updateMeta(tmpSnapshotDir,
-                        request.getSnapshotMetaData().getLastIncludedIndex(),
-                        request.getSnapshotMetaData().getLastIncludedTerm(),
-                        request.getSnapshotMetaData().getConfig());
+                // 同一个snapshot之前没有传完时保留已收到的数据，告诉leader从哪里续传
+                List<RaftProto.SnapshotChunk> receivedChunks = raftNode.getSnapshot().beginReceive(
+                        tmpSnapshotDir, request.getSnapshotMetaData(), request.getFilesList());
+                responseBuilder.addAllReceivedChunks(receivedChunks);
+                // 本地snapshot中没有变化的文件直接复用，leader不需要再传输
+                List<String> reusedFiles = raftNode.getSnapshot().reuseLocalFiles(
+                        tmpSnapshotDir, request.getFilesList());
+                responseBuilder.addAllReusedFiles(reusedFiles);
+                LOG.info("begin accept install snapshot request from serverId={}, receivedChunks={}, "
+                                + "reusedFiles={}/{}", request.getServerId(), receivedChunks.size(),
+                        reusedFiles.size(), request.getFilesCount());
+            } else if (!raftNode.getSnapshot().isReceiving(request.getSnapshotMetaData())) {
+                // 之前某次安装遗留的请求，或者leader已经换了snapshot，写入会破坏正在接收的snapshot
+                LOG.warn("reject install snapshot request of another snapshot, lastIncludedIndex={}, "
+                                + "lastIncludedTerm={}", request.getSnapshotMetaData().getLastIncludedIndex(),
+                        request.getSnapshotMetaData().getLastIncludedTerm());
+                return responseBuilder.build();
             }
-            // write to file
             String currentDataDirName = tmpSnapshotDir + File.separator + "data";
             File currentDataDir = new File(currentDataDirName);
             if (!currentDataDir.exists()) {
                 currentDataDir.mkdirs();
             }
-
-            String currentDataFileName = currentDataDirName + File.separator + request.getFileName();
-            File currentDataFile = new File(currentDataFileName);
-            // 文件名可能是个相对路径，比如topic/0/message.txt
-            if (!currentDataFile.getParentFile().exists()) {
-                currentDataFile.getParentFile().mkdirs();
-            }
-            if (!currentDataFile.exists()) {
-                currentDataFile.createNewFile();
+            // 第一个和最后一个请求只有控制信息，不带文件数据
+            if (request.hasFileName()) {
+                // write to file
+                String currentDataFileName = currentDataDirName + File.separator + request.getFileName();
+                File currentDataFile = new File(currentDataFileName);
+                // 文件名可能是个相对路径，比如topic/0/message.txt
+                if (!currentDataFile.getParentFile().exists()) {
+                    currentDataFile.getParentFile().mkdirs();
+                }
+                if (!currentDataFile.exists()) {
+                    currentDataFile.createNewFile();
+                }
+                randomAccessFile = RaftFileUtils.openFile(
+                        tmpSnapshotDir + File.separator + "data",
+                        request.getFileName(), "rw");
+                // leader会并发发送多个数据块，到达顺序不确定，这里按offset定位写入，不拷贝数据
+                FileChannel channel = randomAccessFile.getChannel();
+                ByteString rawData = CompressionUtils.decompress(request.getData(), request.getCompression());
+                ByteBuffer data = rawData.asReadOnlyByteBuffer();
+                long position = request.getOffset();
+                while (data.hasRemaining()) {
+                    position += channel.write(data, position);
+                }
+                raftNode.getSnapshot().addReceivedChunk(request.getFileName(), request.getOffset(), rawData);
             }
-            randomAccessFile = RaftFileUtils.openFile(
-                    tmpSnapshotDir + File.separator + "data",
-                    request.getFileName(), "rw");
-            randomAccessFile.seek(request.getOffset());
-            randomAccessFile.write(request.getData().toByteArray());
             // move tmp dir to snapshot dir if this is the last package
             if (request.getIsLast()) {
+                // 所有文件都与leader的清单一致才切换snapshot，否则丢弃已收到的数据，下次重新接收
+                if (!raftNode.getSnapshot().verifyReceived(tmpSnapshotDir)) {
+                    LOG.warn("received snapshot does not match the manifest, discard it");
+                    raftNode.getSnapshot().endReceive();
+                    return responseBuilder.build();
+                }
                 File snapshotDirFile = new File(raftNode.getSnapshot().getSnapshotDir());
                 if (snapshotDirFile.exists()) {
                     FileUtils.deleteDirectory(snapshotDirFile);
                 }
                 FileUtils.moveDirectory(new File(tmpSnapshotDir), snapshotDirFile);
+                raftNode.getSnapshot().endReceive();
             }
             responseBuilder.setResCode(RaftProto.ResCode.RES_CODE_SUCCESS);
             LOG.info("install snapshot request from server {} " +
@@ -274,26 +323,49 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
         }
 
         if (request.getIsLast() && responseBuilder.getResCode() == RaftProto.ResCode.RES_CODE_SUCCESS) {
-            // apply state machine
-            // TODO: make this async
-            String snapshotDataDir = raftNode.getSnapshot().getSnapshotDir() + File.separator + "data";
-            raftNode.getStateMachine().readSnap(snapshotDataDir);
-            long lastSnapshotIndex;
-            // 重新加载snapshot
-            raftNode.getSnapshot().getLock().lock();
+            // apply state machine，替换状态机期间apply线程不能写状态机
+            raftNode.getApplyLock().lock();
             try {
-                raftNode.getSnapshot().reload();
-                lastSnapshotIndex = raftNode.getSnapshot().getMeta().getLastIncludedIndex();
-            } finally {
-                raftNode.getSnapshot().getLock().unlock();
-            }
+                String snapshotDataDir = raftNode.getSnapshot().getSnapshotDir() + File.separator + "data";
+                raftNode.getStateMachine().readSnap(snapshotDataDir);
+                long lastSnapshotIndex;
+                long lastSnapshotTerm;
+                // 重新加载snapshot
+                raftNode.getSnapshot().getLock().lock();
+                try {
+                    raftNode.getSnapshot().reload();
+                    lastSnapshotIndex = raftNode.getSnapshot().getMeta().getLastIncludedIndex();
+                    lastSnapshotTerm = raftNode.getSnapshot().getMeta().getLastIncludedTerm();
+                } finally {
+                    raftNode.getSnapshot().getLock().unlock();
+                }
 
-            // discard old log entries
-            raftNode.getLock().lock();
-            try {
-                raftNode.getRaftLog().truncatePrefix(lastSnapshotIndex + 1);
+                // discard old log entries
+                raftNode.getLock().lock();
+                try {
+                    SegmentedLog raftLog = raftNode.getRaftLog();
+                    // 本地日志不包含snapshot的最后一条日志时，整个日志都已经过期，需要全部丢弃，
+                    // 否则follower带着旧数据重启后，lastLogIndex小于snapshot，会一直拒绝leader的日志
+                    if (raftLog.getLastLogIndex() < lastSnapshotIndex
+                            || (lastSnapshotIndex >= raftLog.getFirstLogIndex()
+                            && raftLog.getEntryTerm(lastSnapshotIndex) != lastSnapshotTerm)) {
+                        raftLog.truncateSuffix(raftLog.getFirstLogIndex() - 1);
+                    }
+                    raftLog.truncatePrefix(lastSnapshotIndex + 1);
+                    raftNode.getSnapshotPolicy().recordSnapshot(System.nanoTime(), raftLog.getTotalSize());
+                    // 状态机已经包含snapshot之前的所有日志
+                    if (raftNode.getCommitIndex() < lastSnapshotIndex) {
+                        raftNode.setCommitIndex(lastSnapshotIndex);
+                    }
+                    if (raftNode.getLastAppliedIndex() < lastSnapshotIndex) {
+                        raftNode.setLastAppliedIndex(lastSnapshotIndex);
+                    }
+                    raftNode.getCommitIndexCondition().signalAll();
+                } finally {
+                    raftNode.getLock().unlock();
+                }
             } finally {
-                raftNode.getLock().unlock();
+                raftNode.getApplyLock().unlock();
             }
             LOG.info("end accept install snapshot request from serverId={}", request.getServerId());
         }
@@ -309,25 +381,13 @@ public class RaftConsensusServiceImpl implements RaftConsensusService {
     private void advanceCommitIndex(RaftProto.AppendEntriesRequest request) {
         long newCommitIndex = Math.min(request.getCommitIndex(),
                 request.getPrevLogIndex() + request.getEntriesCount());
-        raftNode.setCommitIndex(newCommitIndex);
-        raftNode.getRaftLog().updateMeta(null,null, null, newCommitIndex);
-        if (raftNode.getLastAppliedIndex() < raftNode.getCommitIndex()) {
-            // apply state machine
-            for (long index = raftNode.getLastAppliedIndex() + 1;
-                 index <= raftNode.getCommitIndex(); index++) {
-                RaftProto.LogEntry entry = raftNode.getRaftLog().getEntry(index);
-                if (entry != null) {
-                    if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_DATA) {
-                        raftNode.getStateMachine().applyData(entry.getData().toByteArray());
-                    } else if (entry.getType() == RaftProto.EntryType.ENTRY_TYPE_CONFIGURATION) {
-                        raftNode.applyConfig(entry);
-                    }
-                }
-                raftNode.setLastAppliedIndex(index);
-            }
+        // leader流水线发送的请求可能乱序到达，commitIndex只能前进
+        if (newCommitIndex > raftNode.getCommitIndex()) {
+            raftNode.setCommitIndex(newCommitIndex);
+            raftNode.getRaftLog().updateMeta(null, null, null, newCommitIndex);
+            // 由apply线程应用到状态机，应用完成后会唤醒Follower-Read（Read Index）下等待的线程
+            raftNode.signalApply();
         }
-        // 在Follower-Read（Read Index）下，Follower会进入等待条件，等待日志应用到复制状态机，因此需要唤醒等待线程
-        raftNode.getCommitIndexCondition().signalAll();
     }
 
     @Override
@@ -0,0 +1,91 @@
+package com.github.raftimpl.raft.storage;
+
+import com.github.raftimpl.raft.proto.RaftProto;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按字节数限制大小的日志缓存，超过上限时淘汰最久没有访问的日志。
+ * 新追加的日志和顺序读时预读的日志都放在这里，
+ * 复制给follower、follower应用日志、生成snapshot时大部分读取不需要访问文件。
+ */
+public class LogEntryCache {
+
+    private final long maxBytes;
+    private long currentBytes;
+    private final LinkedHashMap<Long, RaftProto.LogEntry> entries =
+            new LinkedHashMap<>(1024, 0.75f, true);
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public LogEntryCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public RaftProto.LogEntry get(long index) {
+        RaftProto.LogEntry entry;
+        synchronized (this) {
+            entry = entries.get(index);
+        }
+        if (entry != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return entry;
+    }
+
+    public synchronized void put(RaftProto.LogEntry entry) {
+        int entrySize = entry.getSerializedSize();
+        if (entrySize > maxBytes) {
+            return;
+        }
+        RaftProto.LogEntry oldEntry = entries.put(entry.getIndex(), entry);
+        if (oldEntry != null) {
+            currentBytes -= oldEntry.getSerializedSize();
+        }
+        currentBytes += entrySize;
+        Iterator<RaftProto.LogEntry> iterator = entries.values().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            currentBytes -= iterator.next().getSerializedSize();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 删除index不在[firstIndex, lastIndex]范围内的日志，日志被截断时调用
+     */
+    public synchronized void retain(long firstIndex, long lastIndex) {
+        Iterator<Map.Entry<Long, RaftProto.LogEntry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, RaftProto.LogEntry> entry = iterator.next();
+            if (entry.getKey() < firstIndex || entry.getKey() > lastIndex) {
+                currentBytes -= entry.getValue().getSerializedSize();
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
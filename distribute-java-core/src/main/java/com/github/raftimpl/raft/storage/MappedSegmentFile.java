@@ -0,0 +1,126 @@
+package com.github.raftimpl.raft.storage;
+
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于mmap的segment文件。
+ * 可写文件按capacity预分配并整体映射，追加和读取都直接操作映射内存，不需要每条日志一次系统调用；
+ * 文件关闭时截断到有效数据长度，所以只读的segment文件长度即有效数据长度。
+ * 映射内存由GC回收，不主动unmap，避免其他线程还在读的时候访问到已释放的内存。
+ */
+public class MappedSegmentFile implements SegmentFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedSegmentFile.class);
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private boolean writable;
+    private volatile MappedByteBuffer buffer;
+    private volatile long size;
+
+    /**
+     * @param file segment文件
+     * @param writable 是否可写
+     * @param capacity 可写文件预分配的大小
+     * @param preallocated 是否是预分配的文件，预分配文件的已有内容都是无效数据
+     */
+    public MappedSegmentFile(File file, boolean writable, int capacity, boolean preallocated) throws IOException {
+        this.writable = writable;
+        this.randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r");
+        this.channel = randomAccessFile.getChannel();
+        // 上次没有正常关闭的文件可能带着预分配的空间，
+        // 有效数据长度由SegmentedLog加载数据后调用truncate确定
+        this.size = preallocated ? 0 : randomAccessFile.length();
+        if (writable) {
+            if (randomAccessFile.length() < capacity) {
+                randomAccessFile.setLength(capacity);
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, randomAccessFile.length());
+        } else {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void append(ByteBuffer data) throws IOException {
+        if (!writable) {
+            throw new IOException("segment file is read only");
+        }
+        int position = (int) size;
+        int dataLen = data.remaining();
+        if (position + dataLen > buffer.capacity()) {
+            // 单条日志超过预分配空间时扩容
+            long newCapacity = Math.max((long) buffer.capacity() * 2, (long) position + dataLen);
+            if (newCapacity > Integer.MAX_VALUE) {
+                throw new IOException("segment file too large");
+            }
+            randomAccessFile.setLength(newCapacity);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newCapacity);
+        }
+        ByteBuffer target = buffer.duplicate();
+        target.position(position);
+        target.put(data);
+        size = position + dataLen;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) {
+        long currentSize = size;
+        if (position >= currentSize) {
+            return -1;
+        }
+        int readLen = (int) Math.min(dst.remaining(), currentSize - position);
+        ByteBuffer source = buffer.duplicate();
+        source.position((int) position);
+        source.limit((int) position + readLen);
+        dst.put(source);
+        return readLen;
+    }
+
+    @Override
+    public void truncate(long newSize) throws IOException {
+        if (!writable) {
+            throw new IOException("segment file is read only");
+        }
+        long oldSize = Math.min(size, buffer.capacity());
+        // 把截掉的区域清零，避免重启时把残留数据当成有效record，已经是0的区域不写，免得把空洞变成实际占用
+        ByteBuffer target = buffer.duplicate();
+        for (int i = (int) newSize; i < oldSize; i++) {
+            if (target.get(i) != 0) {
+                target.put(i, (byte) 0);
+            }
+        }
+        size = newSize;
+    }
+
+    @Override
+    public void force() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() {
+        if (writable) {
+            try {
+                channel.truncate(size);
+            } catch (IOException ex) {
+                LOG.warn("truncate segment file error, msg={}", ex.getMessage());
+            }
+        }
+        RaftFileUtils.closeFile(randomAccessFile);
+    }
+}
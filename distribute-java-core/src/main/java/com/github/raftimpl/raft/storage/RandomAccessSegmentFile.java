@@ -0,0 +1,102 @@
+package com.github.raftimpl.raft.storage;
+
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * 基于RandomAccessFile的segment文件。
+ * 可写文件可能是预分配的，有效数据长度小于文件长度，关闭时截断到有效数据长度。
+ */
+public class RandomAccessSegmentFile implements SegmentFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RandomAccessSegmentFile.class);
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private boolean writable;
+    private volatile long size;
+
+    public RandomAccessSegmentFile(File file, boolean writable) throws IOException {
+        this(file, writable, false);
+    }
+
+    /**
+     * @param preallocated 是否是预分配的文件，预分配文件的已有内容都是无效数据
+     */
+    public RandomAccessSegmentFile(File file, boolean writable, boolean preallocated) throws IOException {
+        this.writable = writable;
+        this.randomAccessFile = new RandomAccessFile(file, writable ? "rw" : "r");
+        this.channel = randomAccessFile.getChannel();
+        this.size = preallocated ? 0 : randomAccessFile.length();
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void append(ByteBuffer data) throws IOException {
+        long position = size;
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+        size = position;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+        long currentSize = size;
+        if (position >= currentSize) {
+            return -1;
+        }
+        // 文件长度可能大于有效数据长度，先限制dst，一次read不会读到有效数据之后的内容
+        int oldLimit = dst.limit();
+        dst.limit(dst.position() + (int) Math.min(dst.remaining(), currentSize - position));
+        int readLen = 0;
+        try {
+            while (dst.hasRemaining()) {
+                int n = channel.read(dst, position + readLen);
+                if (n < 0) {
+                    break;
+                }
+                readLen += n;
+            }
+        } finally {
+            dst.limit(oldLimit);
+        }
+        return readLen;
+    }
+
+    @Override
+    public void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        size = newSize;
+    }
+
+    @Override
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() {
+        if (writable) {
+            try {
+                if (channel.size() > size) {
+                    channel.truncate(size);
+                }
+            } catch (IOException ex) {
+                LOG.warn("truncate segment file error, msg={}", ex.getMessage());
+            }
+        }
+        RaftFileUtils.closeFile(randomAccessFile);
+    }
+}
@@ -1,39 +1,235 @@
 package com.github.raftimpl.raft.storage;
 
 import com.github.raftimpl.raft.proto.RaftProto;
+import com.github.raftimpl.raft.util.CompressionUtils;
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.ByteString;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.io.RandomAccessFile;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * 一个segment文件对应的日志。
+ * 内存中只保存每条日志在文件中的偏移和term，日志内容按需从文件读取，
+ * 所以内存占用只和日志条数有关，和日志大小无关。
+ * 一次追加的多条日志可能合并在同一条record中，这些日志的偏移相同，都是record的偏移。
+ */
 public class Segment {
 
-    public static class Record {
-        public long offset;
-        public RaftProto.LogEntry entry;
-        public Record(long offset, RaftProto.LogEntry entry) {
-            this.offset = offset;
-            this.entry = entry;
-        }
-    }
+    private static final Logger LOG = LoggerFactory.getLogger(Segment.class);
+    private static final int INITIAL_CAPACITY = 64;
 
     private boolean canWrite;
     private long startIndex;
     private long endIndex;
     private long fileSize;
     private String fileName;
-    private RandomAccessFile randomAccessFile;
-    private List<Record> entries = new ArrayList<>();
+    private SegmentFile segmentFile;
+    // 第i条日志（index = startIndex + i）所在record在文件中的偏移和term
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private long[] terms = new long[INITIAL_CAPACITY];
+    private int entryCount;
 
     public RaftProto.LogEntry getEntry(long index) {
+        List<RaftProto.LogEntry> entries = readEntries(index, 1, 0);
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    /**
+     * 从fromIndex开始顺序读取多条日志，只发起一次读文件操作，用于顺序读时预读
+     * @param fromIndex 起始index
+     * @param maxCount 最多读取的条数
+     * @param maxBytes 最多读取的字节数，至少读取一条
+     * @return 读到的日志，读取失败时返回空列表
+     */
+    public List<RaftProto.LogEntry> readEntries(long fromIndex, int maxCount, long maxBytes) {
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        int first = indexInSegment(fromIndex);
+        if (first < 0) {
+            return entries;
+        }
+        long startOffset = offsets[first];
+        int last = first;
+        while (last + 1 < entryCount && last + 1 - first < maxCount) {
+            // 同一条record中的日志已经要读出来了，不占字节数
+            if (offsets[last + 1] != offsets[last]
+                    && getRecordEnd(last + 1) - startOffset > maxBytes) {
+                break;
+            }
+            last++;
+        }
+        long endOffset = getRecordEnd(last);
+        ByteBuffer records = ByteBuffer.allocate((int) (endOffset - startOffset));
+        try {
+            if (segmentFile.read(records, startOffset) != records.capacity()) {
+                LOG.warn("read entries failed, segment={}, fromIndex={}", fileName, fromIndex);
+                return entries;
+            }
+        } catch (IOException ex) {
+            LOG.warn("read entries failed, segment={}, fromIndex={}, msg={}",
+                    fileName, fromIndex, ex.getMessage());
+            return entries;
+        }
+        records.flip();
+        long toIndex = fromIndex + (last - first);
+        while (records.hasRemaining()) {
+            List<RaftProto.LogEntry> recordEntries = decodeRecord(records);
+            if (recordEntries == null) {
+                break;
+            }
+            for (RaftProto.LogEntry entry : recordEntries) {
+                if (entry.getIndex() >= fromIndex && entry.getIndex() <= toIndex) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    // 第i条日志所在record的结束偏移
+    private long getRecordEnd(int i) {
+        int next = i + 1;
+        while (next < entryCount && offsets[next] == offsets[i]) {
+            next++;
+        }
+        return next < entryCount ? offsets[next] : fileSize;
+    }
+
+    /**
+     * 第i条日志所在record中第一条日志的位置
+     */
+    public int getRecordStart(int i) {
+        int start = i;
+        while (start > 0 && offsets[start - 1] == offsets[i]) {
+            start--;
+        }
+        return start;
+    }
+
+    public long getEntryTerm(long index) {
+        int i = indexInSegment(index);
+        if (i < 0) {
+            return 0;
+        }
+        return terms[i];
+    }
+
+    private int indexInSegment(long index) {
         if (startIndex == 0 || endIndex == 0) {
-            return null;
+            return -1;
         }
         if (index < startIndex || index > endIndex) {
+            return -1;
+        }
+        int i = (int) (index - startIndex);
+        return i < entryCount ? i : -1;
+    }
+
+    /**
+     * 记录追加到文件末尾的一条日志
+     */
+    public void addEntry(long offset, long term) {
+        if (entryCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, entryCount * 2);
+            terms = Arrays.copyOf(terms, entryCount * 2);
+        }
+        offsets[entryCount] = offset;
+        terms[entryCount] = term;
+        entryCount++;
+    }
+
+    /**
+     * 只保留前count条日志
+     */
+    public void truncateEntries(int count) {
+        if (count < entryCount) {
+            entryCount = count;
+        }
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getOffsetAt(int i) {
+        return offsets[i];
+    }
+
+    public long getTermAt(int i) {
+        return terms[i];
+    }
+
+    /**
+     * 解析一条只包含一条日志的record
+     * @return 日志条目，数据不完整或者crc校验失败时返回null
+     */
+    public static RaftProto.LogEntry decodeEntry(ByteBuffer record) {
+        List<RaftProto.LogEntry> entries = decodeRecord(record);
+        return entries != null && entries.size() == 1 ? entries.get(0) : null;
+    }
+
+    /**
+     * 从buffer的当前位置解析一条完整的record，解析后position移到record末尾
+     * @return record中的日志条目，数据不完整或者crc校验失败时返回null
+     */
+    public static List<RaftProto.LogEntry> decodeRecord(ByteBuffer record) {
+        if (record.remaining() < RaftFileUtils.RECORD_HEADER_SIZE) {
+            return null;
+        }
+        long crcField = record.getLong();
+        long crc32FromFile = RaftFileUtils.getRecordCRC32(crcField);
+        long flags = RaftFileUtils.getRecordFlags(crcField);
+        int dataLen = record.getInt();
+        if (dataLen <= 0 || dataLen > record.remaining()) {
+            return null;
+        }
+        // 堆内buffer直接在原数组上校验和解析，避免多拷贝一次
+        byte[] data;
+        int dataOffset;
+        if (record.hasArray()) {
+            data = record.array();
+            dataOffset = record.arrayOffset() + record.position();
+            record.position(record.position() + dataLen);
+        } else {
+            data = new byte[dataLen];
+            dataOffset = 0;
+            record.get(data);
+        }
+        if (RaftFileUtils.getCRC32(data, dataOffset, dataLen) != crc32FromFile) {
+            LOG.warn("crc32 check failed");
+            return null;
+        }
+        try {
+            if ((flags & RaftFileUtils.RECORD_FLAG_COMPRESSED) != 0) {
+                RaftProto.CompressionType compression = RaftFileUtils.getRecordCompression(flags);
+                if (compression == null) {
+                    LOG.warn("unknown record flags {}", Long.toHexString(flags));
+                    return null;
+                }
+                // crc是对压缩后的数据计算的，校验通过后再解压
+                ByteString batchData = CompressionUtils.decompress(
+                        ByteString.copyFrom(data, dataOffset, dataLen), compression);
+                List<RaftProto.LogEntry> entries = RaftProto.LogEntryBatch.parseFrom(batchData).getEntriesList();
+                return entries.isEmpty() ? null : entries;
+            } else if (flags == RaftFileUtils.RECORD_FLAG_BATCH) {
+                List<RaftProto.LogEntry> entries
+                        = RaftProto.LogEntryBatch.PARSER.parseFrom(data, dataOffset, dataLen).getEntriesList();
+                return entries.isEmpty() ? null : entries;
+            } else if (flags != 0) {
+                LOG.warn("unknown record flags {}", Long.toHexString(flags));
+                return null;
+            }
+            return Collections.singletonList(RaftProto.LogEntry.PARSER.parseFrom(data, dataOffset, dataLen));
+        } catch (IOException ex) {
+            LOG.warn("parse entry failed, msg={}", ex.getMessage());
             return null;
         }
-        int indexInList = (int) (index - startIndex);
-        return entries.get(indexInList).entry;
     }
 
     public boolean isCanWrite() {
@@ -76,19 +272,11 @@ public class Segment {
         this.fileName = fileName;
     }
 
-    public RandomAccessFile getRandomAccessFile() {
-        return randomAccessFile;
-    }
-
-    public void setRandomAccessFile(RandomAccessFile randomAccessFile) {
-        this.randomAccessFile = randomAccessFile;
-    }
-
-    public List<Record> getEntries() {
-        return entries;
+    public SegmentFile getSegmentFile() {
+        return segmentFile;
     }
 
-    public void setEntries(List<Record> entries) {
-        this.entries = entries;
+    public void setSegmentFile(SegmentFile segmentFile) {
+        this.segmentFile = segmentFile;
     }
 }
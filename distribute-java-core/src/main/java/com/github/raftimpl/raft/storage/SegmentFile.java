@@ -0,0 +1,39 @@
+package com.github.raftimpl.raft.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * segment文件的读写接口，文件内容是连续的record，
+ * 每条record格式为：crc32(8字节) + 数据长度(4字节) + 数据
+ */
+public interface SegmentFile {
+
+    /**
+     * @return 已写入的有效数据长度，也是下一条record的写入位置
+     */
+    long size();
+
+    /**
+     * 在有效数据末尾追加一段完整的record数据
+     */
+    void append(ByteBuffer data) throws IOException;
+
+    /**
+     * 从position开始读取数据，直到填满dst或者到达有效数据末尾
+     * @return 读取的字节数，position超出有效数据时返回-1
+     */
+    int read(ByteBuffer dst, long position) throws IOException;
+
+    /**
+     * 把有效数据截断到newSize
+     */
+    void truncate(long newSize) throws IOException;
+
+    /**
+     * 把已写入的数据刷到磁盘
+     */
+    void force() throws IOException;
+
+    void close();
+}
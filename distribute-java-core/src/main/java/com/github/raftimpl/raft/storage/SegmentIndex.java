@@ -0,0 +1,104 @@
+package com.github.raftimpl.raft.storage;
+
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 封闭segment的索引文件，保存每条日志的偏移和term，重启时不需要重新扫描segment文件。
+ * 文件格式：startIndex(8字节) + 日志条数(4字节) + segment文件大小(8字节)
+ * + 每条日志的偏移和term(各8字节) + 前面所有数据的crc32(8字节)
+ */
+public class SegmentIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentIndex.class);
+    private static final int HEADER_SIZE = 8 + 4 + 8;
+    private static final int CRC_SIZE = 8;
+
+    /**
+     * 写索引文件，先写临时文件再改名，避免留下写了一半的索引
+     */
+    public static void write(File indexFile, Segment segment) throws IOException {
+        write(indexFile, encode(segment));
+    }
+
+    /**
+     * 把segment的偏移和term编码成索引文件内容，调用方需要保证期间segment不会被修改
+     */
+    public static byte[] encode(Segment segment) {
+        int entryCount = segment.getEntryCount();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entryCount * 16 + CRC_SIZE);
+        buffer.putLong(segment.getStartIndex());
+        buffer.putInt(entryCount);
+        buffer.putLong(segment.getFileSize());
+        for (int i = 0; i < entryCount; i++) {
+            buffer.putLong(segment.getOffsetAt(i));
+            buffer.putLong(segment.getTermAt(i));
+        }
+        buffer.putLong(RaftFileUtils.getCRC32(buffer.array(), 0, buffer.position()));
+        return buffer.array();
+    }
+
+    /**
+     * 把encode得到的内容写到索引文件
+     */
+    public static void write(File indexFile, byte[] data) throws IOException {
+        File tmpFile = new File(indexFile.getPath() + ".tmp");
+        FileOutputStream outputStream = null;
+        try {
+            outputStream = new FileOutputStream(tmpFile);
+            outputStream.write(data);
+        } finally {
+            RaftFileUtils.closeFile(outputStream);
+        }
+        Files.move(tmpFile.toPath(), indexFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 读索引文件，并把偏移和term加到segment中
+     * @return 索引文件存在并且与segment文件一致时返回true
+     */
+    public static boolean read(File indexFile, Segment segment) {
+        if (!indexFile.exists()) {
+            return false;
+        }
+        try {
+            byte[] data = Files.readAllBytes(indexFile.toPath());
+            if (data.length < HEADER_SIZE + CRC_SIZE) {
+                LOG.warn("index file {} is too short", indexFile.getName());
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            long crc32 = buffer.getLong(data.length - CRC_SIZE);
+            if (RaftFileUtils.getCRC32(data, 0, data.length - CRC_SIZE) != crc32) {
+                LOG.warn("index file {} crc32 check failed", indexFile.getName());
+                return false;
+            }
+            long startIndex = buffer.getLong();
+            int entryCount = buffer.getInt();
+            long fileSize = buffer.getLong();
+            if (startIndex != segment.getStartIndex()
+                    || entryCount != segment.getEndIndex() - segment.getStartIndex() + 1
+                    || fileSize != segment.getFileSize()
+                    || data.length != HEADER_SIZE + entryCount * 16 + CRC_SIZE) {
+                LOG.warn("index file {} does not match segment", indexFile.getName());
+                return false;
+            }
+            for (int i = 0; i < entryCount; i++) {
+                segment.addEntry(buffer.getLong(), buffer.getLong());
+            }
+            return true;
+        } catch (IOException ex) {
+            LOG.warn("read index file {} failed, msg={}", indexFile.getName(), ex.getMessage());
+            return false;
+        }
+    }
+}
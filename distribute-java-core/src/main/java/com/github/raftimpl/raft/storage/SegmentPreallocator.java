@@ -0,0 +1,182 @@
+package com.github.raftimpl.raft.storage;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 后台预分配segment文件。
+ * 总是提前准备好下一个segment文件，segment切换时只需要改名，不需要在写日志的路径上创建文件；
+ * truncatePrefix删除的segment文件也放到这里复用，避免重新分配磁盘空间。
+ * 复用的文件保留着旧数据，加载segment时通过日志index是否连续识别出旧数据。
+ */
+public class SegmentPreallocator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentPreallocator.class);
+    private static final int ZERO_BUFFER_SIZE = 1024 * 1024;
+    private static final int SYNC_BYTES = 4 * ZERO_BUFFER_SIZE;
+
+    private final String preallocDir;
+    private final int segmentFileSize;
+    private final int maxRecycledFiles;
+    // 已经准备好的文件
+    private final LinkedBlockingQueue<File> readyFiles = new LinkedBlockingQueue<>();
+    // 是否有新文件正在分配
+    private final AtomicBoolean isAllocating = new AtomicBoolean(false);
+    private final AtomicLong fileSeq = new AtomicLong();
+    private final ExecutorService executor;
+
+    public SegmentPreallocator(String preallocDir, int segmentFileSize, int maxRecycledFiles) {
+        this.preallocDir = preallocDir;
+        this.segmentFileSize = segmentFileSize;
+        this.maxRecycledFiles = maxRecycledFiles;
+        File dir = new File(preallocDir);
+        // 上次没有用完的文件不知道是否准备完成，直接删掉
+        try {
+            if (dir.exists()) {
+                FileUtils.cleanDirectory(dir);
+            } else {
+                dir.mkdirs();
+            }
+        } catch (IOException ex) {
+            LOG.warn("clean prealloc dir failed, msg={}", ex.getMessage());
+        }
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "segment-preallocator");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        ensureReadyFile();
+    }
+
+    /**
+     * 取一个准备好的文件，改名为target
+     * @return 没有准备好的文件时返回false，由调用方自己创建文件
+     */
+    public boolean take(File target) {
+        File file = readyFiles.poll();
+        boolean success = false;
+        if (file != null) {
+            try {
+                Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                success = true;
+            } catch (IOException ex) {
+                LOG.warn("move prealloc file {} failed, msg={}", file.getName(), ex.getMessage());
+                FileUtils.deleteQuietly(file);
+            }
+        } else {
+            LOG.info("no prealloc segment file is ready");
+        }
+        ensureReadyFile();
+        return success;
+    }
+
+    /**
+     * 回收不再使用的segment文件，已经有足够多的可用文件时直接删除
+     */
+    public void recycle(File segmentFile) throws IOException {
+        if (readyFiles.size() >= maxRecycledFiles) {
+            FileUtils.forceDelete(segmentFile);
+            return;
+        }
+        final File recycledFile = new File(preallocDir + File.separator
+                + "recycled-" + fileSeq.incrementAndGet());
+        Files.move(segmentFile.toPath(), recycledFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(recycledFile, "rw")) {
+                    randomAccessFile.setLength(segmentFileSize);
+                    readyFiles.offer(recycledFile);
+                } catch (IOException ex) {
+                    LOG.warn("recycle segment file failed, msg={}", ex.getMessage());
+                    FileUtils.deleteQuietly(recycledFile);
+                }
+            }
+        });
+    }
+
+    /**
+     * 在后台线程执行任务，用于segment切换后不需要同步完成的工作
+     */
+    public void execute(Runnable task) {
+        executor.submit(task);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureReadyFile() {
+        if (!readyFiles.isEmpty() || !isAllocating.compareAndSet(false, true)) {
+            return;
+        }
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    allocateFile();
+                } finally {
+                    isAllocating.set(false);
+                }
+            }
+        });
+    }
+
+    // 写0而不是只设置文件长度，让文件系统真正分配好磁盘空间，写日志时fsync不需要再更新文件大小
+    private void allocateFile() {
+        long seq = fileSeq.incrementAndGet();
+        File tmpFile = new File(preallocDir + File.separator + "prealloc-" + seq + ".tmp");
+        File file = new File(preallocDir + File.separator + "prealloc-" + seq);
+        long startTime = System.currentTimeMillis();
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(tmpFile, "rw")) {
+            FileChannel channel = randomAccessFile.getChannel();
+            ByteBuffer zeros = ByteBuffer.allocateDirect(ZERO_BUFFER_SIZE);
+            long position = 0;
+            while (position < segmentFileSize) {
+                zeros.clear();
+                zeros.limit((int) Math.min(ZERO_BUFFER_SIZE, segmentFileSize - position));
+                position += channel.write(zeros, position);
+                // 边写边刷盘，避免短时间内产生大量脏页，导致写日志时被操作系统的回写限流卡住
+                if (position % SYNC_BYTES == 0) {
+                    channel.force(false);
+                }
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            LOG.warn("prealloc segment file failed, msg={}", ex.getMessage());
+            FileUtils.deleteQuietly(tmpFile);
+            return;
+        }
+        if (!tmpFile.renameTo(file)) {
+            LOG.warn("rename prealloc file {} failed", tmpFile.getName());
+            FileUtils.deleteQuietly(tmpFile);
+            return;
+        }
+        readyFiles.offer(file);
+        LOG.debug("prealloc segment file {} cost {}ms", file.getName(), System.currentTimeMillis() - startTime);
+    }
+}
@@ -1,18 +1,33 @@
 package com.github.raftimpl.raft.storage;
 
 import com.github.raftimpl.raft.RaftOptions;
+import com.github.raftimpl.raft.util.CompressionUtils;
 import com.github.raftimpl.raft.util.RaftFileUtils;
 import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class SegmentedLog {
 
@@ -20,23 +35,70 @@ public class SegmentedLog {
 
     private String logDir;
     private String logDataDir;
+    // 封闭segment的索引文件目录
+    private String logIndexDir;
+    // 预分配segment文件，不开启时为null
+    private SegmentPreallocator preallocator;
     private int maxSegmentFileSize;
+    private RaftOptions.LogSyncPolicy logSyncPolicy;
+    private boolean segmentMmapEnabled;
     private RaftProto.LogMetaData metaData;
     private TreeMap<Long, Segment> startLogIndexSegmentMap = new TreeMap<>();
     // segment log占用的内存大小，用于判断是否需要做snapshot
     private volatile long totalSize;
+    // 有未刷盘数据的segment，只在PERIODIC刷盘策略下使用
+    private volatile Segment unsyncedSegment;
+    private ScheduledExecutorService syncExecutor;
+    // fsync次数、总耗时、最大耗时
+    private final AtomicLong syncCount = new AtomicLong();
+    private final AtomicLong syncTotalNanos = new AtomicLong();
+    private volatile long syncMaxNanos;
+    // 日志缓存，segment只保存偏移，命中缓存时不需要读文件
+    private final LogEntryCache entryCache;
+    // 缓存未命中时一次预读的日志条数和字节数
+    private int logReadAheadCount;
+    private int logReadAheadBytes;
+    // 一次追加的多条日志是否合并成一条record
+    private boolean segmentBatchRecordEnabled;
+    // record的压缩方式，小于compressionMinBytes的record不压缩
+    private RaftProto.CompressionType compressionType;
+    private int compressionMinBytes;
 
     public SegmentedLog(String raftDataDir, int maxSegmentFileSize) {
+        this(raftDataDir, newRaftOptions(maxSegmentFileSize));
+    }
+
+    public SegmentedLog(String raftDataDir, RaftOptions raftOptions) {
         this.logDir = raftDataDir + File.separator + "log";
         this.logDataDir = logDir + File.separator + "data";
-        this.maxSegmentFileSize = maxSegmentFileSize;
+        this.logIndexDir = logDir + File.separator + "index";
+        this.maxSegmentFileSize = raftOptions.getMaxSegmentFileSize();
+        this.logSyncPolicy = raftOptions.getLogSyncPolicy();
+        this.segmentMmapEnabled = raftOptions.isSegmentMmapEnabled();
+        this.entryCache = new LogEntryCache(raftOptions.getLogEntryCacheBytes());
+        this.logReadAheadCount = raftOptions.getLogReadAheadCount();
+        this.logReadAheadBytes = raftOptions.getLogReadAheadBytes();
+        this.segmentBatchRecordEnabled = raftOptions.isSegmentBatchRecordEnabled();
+        this.compressionType = raftOptions.getCompressionType();
+        this.compressionMinBytes = raftOptions.getCompressionMinBytes();
         File file = new File(logDataDir);
         if (!file.exists()) {
             file.mkdirs();
         }
+        File indexDir = new File(logIndexDir);
+        if (!indexDir.exists()) {
+            indexDir.mkdirs();
+        }
         readSegments();
+        loadSegments(raftOptions.getLogLoadThreadNum());
+        removeEmptySegments();
         for (Segment segment : startLogIndexSegmentMap.values()) {
-            this.loadSegmentData(segment);
+            totalSize += segment.getFileSize();
+        }
+        deleteStaleSegmentIndexes();
+        if (raftOptions.isSegmentPreallocEnabled()) {
+            preallocator = new SegmentPreallocator(logDir + File.separator + "prealloc",
+                    maxSegmentFileSize, raftOptions.getMaxRecycledSegmentFiles());
         }
 
         metaData = this.readMeta();
@@ -47,6 +109,84 @@ public class SegmentedLog {
             }
             metaData = RaftProto.LogMetaData.newBuilder().setFirstLogIndex(1).build();
         }
+
+        if (logSyncPolicy == RaftOptions.LogSyncPolicy.PERIODIC) {
+            syncExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "segment-log-sync");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            long interval = raftOptions.getLogSyncIntervalMilliseconds();
+            syncExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    syncUnsyncedSegment();
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 并行加载所有segment，封闭的segment有索引文件时直接读索引，不需要扫描
+     */
+    private void loadSegments(int threadNum) {
+        if (startLogIndexSegmentMap.isEmpty()) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        threadNum = Math.max(1, Math.min(threadNum, startLogIndexSegmentMap.size()));
+        ExecutorService loadExecutor = Executors.newFixedThreadPool(threadNum);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (final Segment segment : startLogIndexSegmentMap.values()) {
+                futures.add(loadExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        loadSegmentData(segment);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("load segments interrupted");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            loadExecutor.shutdown();
+        }
+        LOG.info("load {} segments cost {}ms", startLogIndexSegmentMap.size(),
+                System.currentTimeMillis() - startTime);
+    }
+
+    // 拿到新的segment文件后还没写入日志就宕机，会留下没有日志的open segment，删掉
+    private void removeEmptySegments() {
+        Iterator<Segment> iterator = startLogIndexSegmentMap.values().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next();
+            if (segment.getEntryCount() > 0) {
+                continue;
+            }
+            LOG.info("remove empty segment {}", segment.getFileName());
+            segment.getSegmentFile().close();
+            FileUtils.deleteQuietly(new File(logDataDir + File.separator + segment.getFileName()));
+            iterator.remove();
+        }
+    }
+
+    private static RaftOptions newRaftOptions(int maxSegmentFileSize) {
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(maxSegmentFileSize);
+        return raftOptions;
     }
 
     public RaftProto.LogEntry getEntry(long index) {
@@ -60,18 +200,39 @@ public class SegmentedLog {
         if (startLogIndexSegmentMap.size() == 0) {
             return null;
         }
+        RaftProto.LogEntry entry = entryCache.get(index);
+        if (entry != null) {
+            return entry;
+        }
+        // 读日志基本都是顺序的（复制给follower、应用到状态机、生成snapshot），
+        // 未命中时把后面的日志一起读出来放到缓存
         Segment segment = startLogIndexSegmentMap.floorEntry(index).getValue();
-        return segment.getEntry(index);
+        List<RaftProto.LogEntry> entries = segment.readEntries(index, logReadAheadCount, logReadAheadBytes);
+        if (entries.isEmpty()) {
+            return null;
+        }
+        for (RaftProto.LogEntry readEntry : entries) {
+            entryCache.put(readEntry);
+        }
+        return entries.get(0);
     }
 
     public long getEntryTerm(long index) {
-        RaftProto.LogEntry entry = getEntry(index);
-        if (entry == null) {
+        long firstLogIndex = getFirstLogIndex();
+        long lastLogIndex = getLastLogIndex();
+        if (index == 0 || index < firstLogIndex || index > lastLogIndex) {
+            return 0;
+        }
+        if (startLogIndexSegmentMap.size() == 0) {
             return 0;
         }
-        return entry.getTerm();
+        // term保存在segment的索引中，不需要读文件
+        Segment segment = startLogIndexSegmentMap.floorEntry(index).getValue();
+        return segment.getEntryTerm(index);
     }
 
+
+
     public long getFirstLogIndex() {
         return metaData.getFirstLogIndex();
     }
@@ -87,77 +248,192 @@ public class SegmentedLog {
         return lastSegment.getEndIndex();
     }
 
+    /**
+     * 追加一批日志，并按照刷盘策略在整批写完后fsync一次。
+     * 开启segmentBatchRecordEnabled时，写入同一个segment的连续日志合并成一条record，只有一个头部和crc，一次写入
+     * @param entries 日志条目
+     * @return 追加后的lastLogIndex
+     */
     public long append(List<RaftProto.LogEntry> entries) {
         long newLastLogIndex = this.getLastLogIndex();
-        for (RaftProto.LogEntry entry : entries) {
-            newLastLogIndex++;
-            int entrySize = entry.getSerializedSize();
-            int segmentSize = startLogIndexSegmentMap.size();
-            boolean isNeedNewSegmentFile = false;
+        int i = 0;
+        while (i < entries.size()) {
             try {
-                if (segmentSize == 0) {
-                    isNeedNewSegmentFile = true;
-                } else {
-                    Segment segment = startLogIndexSegmentMap.lastEntry().getValue();
-                    if (!segment.isCanWrite()) {
-                        isNeedNewSegmentFile = true;
-                    } else if (segment.getFileSize() + entrySize >= maxSegmentFileSize) {
-                        isNeedNewSegmentFile = true;
-                        // 最后一个segment的文件close并改名
-                        segment.getRandomAccessFile().close();
-                        segment.setCanWrite(false);
-                        String newFileName = String.format("%020d-%020d",
-                                segment.getStartIndex(), segment.getEndIndex());
-                        String newFullFileName = logDataDir + File.separator + newFileName;
-                        File newFile = new File(newFullFileName);
-                        String oldFullFileName = logDataDir + File.separator + segment.getFileName();
-                        File oldFile = new File(oldFullFileName);
-                        FileUtils.moveFile(oldFile, newFile);
-                        segment.setFileName(newFileName);
-                        segment.setRandomAccessFile(RaftFileUtils.openFile(logDataDir, newFileName, "r"));
-                    }
-                }
-                Segment newSegment;
-                // 新建segment文件
-                if (isNeedNewSegmentFile) {
-                    // open new segment file
-                    String newSegmentFileName = String.format("open-%d", newLastLogIndex);
-                    String newFullFileName = logDataDir + File.separator + newSegmentFileName;
-                    File newSegmentFile = new File(newFullFileName);
-                    if (!newSegmentFile.exists()) {
-                        newSegmentFile.createNewFile();
+                Segment segment = prepareSegment(newLastLogIndex + 1,
+                        withIndex(entries.get(i), newLastLogIndex + 1).getSerializedSize());
+                List<RaftProto.LogEntry> batch = new ArrayList<>();
+                // 合并后record的大小：一个头部，加上每条日志在LogEntryBatch中的tag、长度前缀和内容
+                long batchSize = RaftFileUtils.RECORD_HEADER_SIZE;
+                while (i < entries.size()) {
+                    RaftProto.LogEntry entry = withIndex(entries.get(i), newLastLogIndex + 1);
+                    int entrySize = CodedOutputStream.computeMessageSize(
+                            RaftProto.LogEntryBatch.ENTRIES_FIELD_NUMBER, entry);
+                    if (!batch.isEmpty() && (!segmentBatchRecordEnabled
+                            || segment.getFileSize() + batchSize + entrySize >= maxSegmentFileSize)) {
+                        break;
                     }
-                    Segment segment = new Segment();
-                    segment.setCanWrite(true);
-                    segment.setStartIndex(newLastLogIndex);
-                    segment.setEndIndex(0);
-                    segment.setFileName(newSegmentFileName);
-                    segment.setRandomAccessFile(RaftFileUtils.openFile(logDataDir, newSegmentFileName, "rw"));
-                    newSegment = segment;
-                } else {
-                    newSegment = startLogIndexSegmentMap.lastEntry().getValue();
+                    newLastLogIndex++;
+                    batch.add(entry);
+                    batchSize += entrySize;
+                    i++;
                 }
-                // 写proto到segment中
-                if (entry.getIndex() == 0) {
-                    entry = RaftProto.LogEntry.newBuilder(entry)
-                            .setIndex(newLastLogIndex).build();
+                appendRecord(segment, batch);
+                if (!startLogIndexSegmentMap.containsKey(segment.getStartIndex())) {
+                    startLogIndexSegmentMap.put(segment.getStartIndex(), segment);
                 }
-                newSegment.setEndIndex(entry.getIndex());
-                newSegment.getEntries().add(new Segment.Record(
-                        newSegment.getRandomAccessFile().getFilePointer(), entry));
-                RaftFileUtils.writeProtoToFile(newSegment.getRandomAccessFile(), entry);
-                newSegment.setFileSize(newSegment.getRandomAccessFile().length());
-                if (!startLogIndexSegmentMap.containsKey(newSegment.getStartIndex())) {
-                    startLogIndexSegmentMap.put(newSegment.getStartIndex(), newSegment);
-                }
-                totalSize += entrySize;
             }  catch (IOException ex) {
                 throw new RuntimeException("append raft log exception, msg=" + ex.getMessage());
             }
         }
+        if (!entries.isEmpty() && !startLogIndexSegmentMap.isEmpty()) {
+            Segment lastSegment = startLogIndexSegmentMap.lastEntry().getValue();
+            if (logSyncPolicy == RaftOptions.LogSyncPolicy.BATCH) {
+                try {
+                    syncSegment(lastSegment);
+                } catch (IOException ex) {
+                    throw new RuntimeException("sync raft log exception, msg=" + ex.getMessage());
+                }
+            } else if (logSyncPolicy == RaftOptions.LogSyncPolicy.PERIODIC) {
+                unsyncedSegment = lastSegment;
+            }
+        }
         return newLastLogIndex;
     }
 
+    /**
+     * 没有index的日志补上index，写入文件的大小以补上index之后为准
+     */
+    private RaftProto.LogEntry withIndex(RaftProto.LogEntry entry, long index) {
+        if (entry.getIndex() != 0) {
+            return entry;
+        }
+        return RaftProto.LogEntry.newBuilder(entry).setIndex(index).build();
+    }
+
+    /**
+     * 返回可以写入下一条日志的segment，当前segment写满时封闭它并新建segment
+     * @param nextIndex 下一条日志的index
+     * @param entrySize 下一条日志的大小
+     */
+    private Segment prepareSegment(long nextIndex, int entrySize) throws IOException {
+        if (!startLogIndexSegmentMap.isEmpty()) {
+            Segment segment = startLogIndexSegmentMap.lastEntry().getValue();
+            if (segment.isCanWrite()
+                    && segment.getFileSize() + RaftFileUtils.RECORD_HEADER_SIZE + entrySize < maxSegmentFileSize) {
+                return segment;
+            }
+            if (segment.isCanWrite()) {
+                // 最后一个segment的文件刷盘、close并改名
+                if (logSyncPolicy != RaftOptions.LogSyncPolicy.NONE) {
+                    syncSegment(segment);
+                }
+                segment.getSegmentFile().close();
+                segment.setCanWrite(false);
+                String newFileName = String.format("%020d-%020d",
+                        segment.getStartIndex(), segment.getEndIndex());
+                String newFullFileName = logDataDir + File.separator + newFileName;
+                File newFile = new File(newFullFileName);
+                String oldFullFileName = logDataDir + File.separator + segment.getFileName();
+                File oldFile = new File(oldFullFileName);
+                FileUtils.moveFile(oldFile, newFile);
+                segment.setFileName(newFileName);
+                segment.setSegmentFile(openSegmentFile(newFileName, false));
+                writeSegmentIndexAsync(segment);
+            }
+        }
+        // open new segment file
+        String newSegmentFileName = String.format("open-%d", nextIndex);
+        String newFullFileName = logDataDir + File.separator + newSegmentFileName;
+        File newSegmentFile = new File(newFullFileName);
+        // 优先使用后台预分配好的文件
+        boolean preallocated = preallocator != null && preallocator.take(newSegmentFile);
+        if (!preallocated && !newSegmentFile.exists()) {
+            newSegmentFile.createNewFile();
+        }
+        Segment segment = new Segment();
+        segment.setCanWrite(true);
+        segment.setStartIndex(nextIndex);
+        segment.setEndIndex(0);
+        segment.setFileName(newSegmentFileName);
+        segment.setSegmentFile(openSegmentFile(newSegmentFileName, true, preallocated));
+        return segment;
+    }
+
+    /**
+     * 把连续的日志编码成一条record追加到segment末尾，只有一条日志时使用原来的单条格式。
+     * 开启压缩时整条record的LogEntryBatch一起压缩，压缩后没有变小则按未压缩格式写入
+     */
+    private void appendRecord(Segment segment, List<RaftProto.LogEntry> entries) throws IOException {
+        ByteBuffer record = encodeCompressedRecord(entries);
+        if (record == null) {
+            if (entries.size() == 1) {
+                record = RaftFileUtils.encodeRecord(entries.get(0));
+            } else {
+                record = RaftFileUtils.encodeRecord(RaftProto.LogEntryBatch.newBuilder()
+                        .addAllEntries(entries).build(), RaftFileUtils.RECORD_FLAG_BATCH);
+            }
+        }
+        int recordSize = record.remaining();
+        SegmentFile segmentFile = segment.getSegmentFile();
+        long offset = segmentFile.size();
+        for (RaftProto.LogEntry entry : entries) {
+            segment.addEntry(offset, entry.getTerm());
+            segment.setEndIndex(entry.getIndex());
+        }
+        // crc、长度和数据一次写入
+        segmentFile.append(record);
+        segment.setFileSize(segmentFile.size());
+        totalSize += recordSize;
+        for (RaftProto.LogEntry entry : entries) {
+            entryCache.put(entry);
+        }
+    }
+
+    // 未开启压缩、数据太小或者压缩后没有变小时返回null
+    private ByteBuffer encodeCompressedRecord(List<RaftProto.LogEntry> entries) {
+        if (compressionType == RaftProto.CompressionType.COMPRESSION_NONE) {
+            return null;
+        }
+        ByteString batchData = RaftProto.LogEntryBatch.newBuilder()
+                .addAllEntries(entries).build().toByteString();
+        ByteString compressed = CompressionUtils.compressIfSmaller(batchData, compressionType, compressionMinBytes);
+        if (compressed == null) {
+            return null;
+        }
+        return RaftFileUtils.encodeRecord(compressed, RaftFileUtils.getCompressedRecordFlags(compressionType));
+    }
+
+    private void syncSegment(Segment segment) throws IOException {
+        long startTime = System.nanoTime();
+        segment.getSegmentFile().force();
+        long costNanos = System.nanoTime() - startTime;
+        syncCount.incrementAndGet();
+        syncTotalNanos.addAndGet(costNanos);
+        if (costNanos > syncMaxNanos) {
+            syncMaxNanos = costNanos;
+        }
+        if (costNanos > TimeUnit.MILLISECONDS.toNanos(100)) {
+            LOG.warn("slow sync segment {} cost {}ms", segment.getFileName(), costNanos / 1000000);
+        } else {
+            LOG.debug("sync segment {} cost {}us", segment.getFileName(), costNanos / 1000);
+        }
+    }
+
+    // 后台刷盘线程调用
+    private void syncUnsyncedSegment() {
+        Segment segment = unsyncedSegment;
+        if (segment == null) {
+            return;
+        }
+        unsyncedSegment = null;
+        try {
+            syncSegment(segment);
+        } catch (IOException ex) {
+            // segment可能刚好被截断或关闭，关闭前已经刷过盘
+            LOG.debug("sync segment {} failed, msg={}", segment.getFileName(), ex.getMessage());
+        }
+    }
+
     public void truncatePrefix(long newFirstIndex) {
         if (newFirstIndex <= getFirstLogIndex()) {
             return;
@@ -171,8 +447,13 @@ public class SegmentedLog {
             if (newFirstIndex > segment.getEndIndex()) {
                 File oldFile = new File(logDataDir + File.separator + segment.getFileName());
                 try {
-                    RaftFileUtils.closeFile(segment.getRandomAccessFile());
-                    FileUtils.forceDelete(oldFile);
+                    segment.getSegmentFile().close();
+                    if (preallocator != null) {
+                        preallocator.recycle(oldFile);
+                    } else {
+                        FileUtils.forceDelete(oldFile);
+                    }
+                    deleteSegmentIndex(segment.getFileName());
                     totalSize -= segment.getFileSize();
                     startLogIndexSegmentMap.remove(segment.getStartIndex());
                 } catch (Exception ex2) {
@@ -189,6 +470,7 @@ public class SegmentedLog {
             newActualFirstIndex = startLogIndexSegmentMap.firstKey();
         }
         updateMeta(null, null, newActualFirstIndex, null);
+        entryCache.retain(newActualFirstIndex, Long.MAX_VALUE);
         LOG.info("Truncating log from old first index {} to new first index {}",
                 oldFirstIndex, newActualFirstIndex);
     }
@@ -197,6 +479,7 @@ public class SegmentedLog {
         if (newEndIndex >= getLastLogIndex()) {
             return;
         }
+        entryCache.retain(0, newEndIndex);
         LOG.info("Truncating log from old end index {} to new end index {}",
                 getLastLogIndex(), newEndIndex);
         while (!startLogIndexSegmentMap.isEmpty()) {
@@ -207,29 +490,54 @@ public class SegmentedLog {
                 } else if (newEndIndex < segment.getStartIndex()) {
                     totalSize -= segment.getFileSize();
                     // delete file
-                    segment.getRandomAccessFile().close();
+                    segment.getSegmentFile().close();
                     String fullFileName = logDataDir + File.separator + segment.getFileName();
                     FileUtils.forceDelete(new File(fullFileName));
+                    deleteSegmentIndex(segment.getFileName());
                     startLogIndexSegmentMap.remove(segment.getStartIndex());
                 } else if (newEndIndex < segment.getEndIndex()) {
                     int i = (int) (newEndIndex + 1 - segment.getStartIndex());
+                    // 截断位置在一条合并的record中间时，截掉整条record，再把前面要保留的日志重新写入
+                    int recordStart = segment.getRecordStart(i);
+                    List<RaftProto.LogEntry> keptEntries = Collections.emptyList();
+                    if (recordStart < i) {
+                        keptEntries = segment.readEntries(segment.getStartIndex() + recordStart,
+                                i - recordStart, Long.MAX_VALUE);
+                        if (keptEntries.size() != i - recordStart) {
+                            throw new IOException("read entries failed when truncate segment " + segment.getFileName());
+                        }
+                    }
                     segment.setEndIndex(newEndIndex);
-                    long newFileSize = segment.getEntries().get(i).offset;
+                    long newFileSize = segment.getOffsetAt(recordStart);
                     totalSize -= (segment.getFileSize() - newFileSize);
                     segment.setFileSize(newFileSize);
-                    segment.getEntries().removeAll(
-                            segment.getEntries().subList(i, segment.getEntries().size()));
-                    FileChannel fileChannel = segment.getRandomAccessFile().getChannel();
-                    fileChannel.truncate(segment.getFileSize());
-                    fileChannel.close();
-                    segment.getRandomAccessFile().close();
-                    String oldFullFileName = logDataDir + File.separator + segment.getFileName();
-                    String newFileName = String.format("%020d-%020d",
-                            segment.getStartIndex(), segment.getEndIndex());
-                    segment.setFileName(newFileName);
-                    String newFullFileName = logDataDir + File.separator + segment.getFileName();
-                    new File(oldFullFileName).renameTo(new File(newFullFileName));
-                    segment.setRandomAccessFile(RaftFileUtils.openFile(logDataDir, segment.getFileName(), "rw"));
+                    segment.truncateEntries(recordStart);
+                    segment.getSegmentFile().close();
+                    // 正在写的segment保持open文件名，封闭的segment按新的endIndex改名
+                    if (!segment.isCanWrite()) {
+                        deleteSegmentIndex(segment.getFileName());
+                        String oldFullFileName = logDataDir + File.separator + segment.getFileName();
+                        String newFileName = String.format("%020d-%020d",
+                                segment.getStartIndex(), segment.getEndIndex());
+                        segment.setFileName(newFileName);
+                        String newFullFileName = logDataDir + File.separator + segment.getFileName();
+                        new File(oldFullFileName).renameTo(new File(newFullFileName));
+                    }
+                    // 封闭的segment是只读打开的，先以可写方式打开截断，再按原来的方式打开
+                    SegmentFile segmentFile = openSegmentFile(segment.getFileName(), true);
+                    segmentFile.truncate(segment.getFileSize());
+                    if (!keptEntries.isEmpty()) {
+                        segment.setSegmentFile(segmentFile);
+                        appendRecord(segment, keptEntries);
+                    }
+                    if (!segment.isCanWrite()) {
+                        segmentFile.close();
+                        segmentFile = openSegmentFile(segment.getFileName(), false);
+                    }
+                    segment.setSegmentFile(segmentFile);
+                    if (!segment.isCanWrite()) {
+                        writeSegmentIndexAsync(segment);
+                    }
                 }
             } catch (IOException ex) {
                 LOG.warn("io exception, msg={}", ex.getMessage());
@@ -238,30 +546,111 @@ public class SegmentedLog {
     }
 
     public void loadSegmentData(Segment segment) {
+        if (!segment.isCanWrite() && SegmentIndex.read(indexFileOf(segment.getFileName()), segment)) {
+            return;
+        }
         try {
-            RandomAccessFile randomAccessFile = segment.getRandomAccessFile();
+            SegmentFile segmentFile = segment.getSegmentFile();
             long totalLength = segment.getFileSize();
             long offset = 0;
             while (offset < totalLength) {
-                RaftProto.LogEntry entry = RaftFileUtils.readProtoFromFile(
-                        randomAccessFile, RaftProto.LogEntry.class);
-                if (entry == null) {
+                ByteBuffer record = readRecord(segmentFile, offset);
+                List<RaftProto.LogEntry> entries = record == null ? null : Segment.decodeRecord(record);
+                // 复用的segment文件里有旧数据，index不连续说明已经读到了旧数据
+                if (entries == null || !isContinuous(segment, entries)) {
+                    break;
+                }
+                for (RaftProto.LogEntry entry : entries) {
+                    segment.setEndIndex(entry.getIndex());
+                    segment.addEntry(offset, entry.getTerm());
+                }
+                offset += record.capacity();
+            }
+            if (offset < totalLength) {
+                if (!segment.isCanWrite()) {
                     throw new RuntimeException("read segment log failed");
                 }
-                Segment.Record record = new Segment.Record(offset, entry);
-                segment.getEntries().add(record);
-                offset = randomAccessFile.getFilePointer();
+                // 正在写的segment末尾可能是写了一半的record或者mmap预分配的空间，截掉
+                LOG.info("truncate segment {} from {} to {}", segment.getFileName(), totalLength, offset);
+                segmentFile.truncate(offset);
+                segment.setFileSize(offset);
             }
-            totalSize += totalLength;
         } catch (Exception ex) {
             LOG.error("read segment meet exception, msg={}", ex.getMessage());
             throw new RuntimeException("file not found");
         }
+        // 没有索引或者索引损坏的封闭segment，扫描后补上索引，下次启动不需要再扫描
+        if (!segment.isCanWrite()) {
+            writeSegmentIndex(segment);
+        }
+    }
+
+    private File indexFileOf(String segmentFileName) {
+        return new File(logIndexDir + File.separator + segmentFileName + ".idx");
+    }
+
+    private void writeSegmentIndex(Segment segment) {
+        writeSegmentIndex(indexFileOf(segment.getFileName()), SegmentIndex.encode(segment));
+    }
+
+    private void writeSegmentIndex(File indexFile, byte[] indexData) {
+        try {
+            SegmentIndex.write(indexFile, indexData);
+        } catch (IOException ex) {
+            // 索引只用于加速启动，写失败时下次启动重新扫描segment
+            LOG.warn("write segment index failed, file={}, msg={}", indexFile.getName(), ex.getMessage());
+        }
+    }
+
+    // segment切换时在后台写索引，不阻塞写日志。
+    // 索引内容在当前线程（持有日志锁）编码好，后台线程不读segment，之后segment被截断或者回收也不影响
+    private void writeSegmentIndexAsync(Segment segment) {
+        final File indexFile = indexFileOf(segment.getFileName());
+        final byte[] indexData = SegmentIndex.encode(segment);
+        runIndexTask(new Runnable() {
+            @Override
+            public void run() {
+                writeSegmentIndex(indexFile, indexData);
+            }
+        });
+    }
 
-        int entrySize = segment.getEntries().size();
-        if (entrySize > 0) {
-            segment.setStartIndex(segment.getEntries().get(0).entry.getIndex());
-            segment.setEndIndex(segment.getEntries().get(entrySize - 1).entry.getIndex());
+    private void deleteSegmentIndex(String segmentFileName) {
+        final File indexFile = indexFileOf(segmentFileName);
+        runIndexTask(new Runnable() {
+            @Override
+            public void run() {
+                if (indexFile.exists() && !indexFile.delete()) {
+                    LOG.warn("delete segment index failed, file={}", indexFile.getName());
+                }
+            }
+        });
+    }
+
+    // 索引文件的写和删在同一个后台线程按提交顺序执行，
+    // 避免还没执行的旧索引写入晚于删除，留下与同名新segment不一致的索引
+    private void runIndexTask(Runnable task) {
+        if (preallocator == null) {
+            task.run();
+        } else {
+            preallocator.execute(task);
+        }
+    }
+
+    // 删除没有对应segment的索引文件，比如删除segment后还没来得及删除索引就宕机了
+    private void deleteStaleSegmentIndexes() {
+        Set<String> indexFileNames = new HashSet<>();
+        for (Segment segment : startLogIndexSegmentMap.values()) {
+            indexFileNames.add(indexFileOf(segment.getFileName()).getName());
+        }
+        File[] indexFiles = new File(logIndexDir).listFiles();
+        if (indexFiles == null) {
+            return;
+        }
+        for (File indexFile : indexFiles) {
+            if (!indexFileNames.contains(indexFile.getName()) && !indexFile.delete()) {
+                LOG.warn("delete stale segment index failed, file={}", indexFile.getName());
+            }
         }
     }
 
@@ -290,8 +679,8 @@ public class SegmentedLog {
                         continue;
                     }
                 }
-                segment.setRandomAccessFile(RaftFileUtils.openFile(logDataDir, fileName, "rw"));
-                segment.setFileSize(segment.getRandomAccessFile().length());
+                segment.setSegmentFile(openSegmentFile(fileName, segment.isCanWrite()));
+                segment.setFileSize(segment.getSegmentFile().size());
                 startLogIndexSegmentMap.put(segment.getStartIndex(), segment);
             }
         } catch(IOException ioException){
@@ -300,6 +689,55 @@ public class SegmentedLog {
         }
     }
 
+    /**
+     * 读取offset处的一条完整record，包括头部
+     * @return record，数据不完整时返回null
+     */
+    private ByteBuffer readRecord(SegmentFile segmentFile, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RaftFileUtils.RECORD_HEADER_SIZE);
+        if (segmentFile.read(header, offset) != RaftFileUtils.RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int dataLen = header.getInt(Long.SIZE / Byte.SIZE);
+        if (dataLen <= 0 || offset + RaftFileUtils.RECORD_HEADER_SIZE + dataLen > segmentFile.size()) {
+            return null;
+        }
+        ByteBuffer record = ByteBuffer.allocate(RaftFileUtils.RECORD_HEADER_SIZE + dataLen);
+        if (segmentFile.read(record, offset) != record.capacity()) {
+            return null;
+        }
+        record.flip();
+        return record;
+    }
+
+    // record中的日志是否紧接着segment已有的日志
+    private boolean isContinuous(Segment segment, List<RaftProto.LogEntry> entries) {
+        long expectedIndex = segment.getStartIndex() + segment.getEntryCount();
+        for (RaftProto.LogEntry entry : entries) {
+            if (entry.getIndex() != expectedIndex++) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private SegmentFile openSegmentFile(String fileName, boolean writable) {
+        return openSegmentFile(fileName, writable, false);
+    }
+
+    private SegmentFile openSegmentFile(String fileName, boolean writable, boolean preallocated) {
+        File file = new File(logDataDir + File.separator + fileName);
+        try {
+            if (segmentMmapEnabled) {
+                return new MappedSegmentFile(file, writable, maxSegmentFileSize, preallocated);
+            }
+            return new RandomAccessSegmentFile(file, writable, preallocated);
+        } catch (IOException ex) {
+            LOG.warn("open segment file error, file={}, msg={}", fileName, ex.getMessage());
+            throw new RuntimeException("open segment file error, file=" + fileName);
+        }
+    }
+
     public RaftProto.LogMetaData readMeta() {
         String fileName = logDir + File.separator + "metadata";
         File file = new File(fileName);
@@ -341,6 +779,11 @@ public class SegmentedLog {
         File file = new File(fileName);
         try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
             RaftFileUtils.writeProtoToFile(randomAccessFile, metaData);
+            // currentTerm和votedFor必须持久化，commitIndex丢失可以从leader重新获取
+            if (logSyncPolicy != RaftOptions.LogSyncPolicy.NONE
+                    && (currentTerm != null || votedFor != null)) {
+                randomAccessFile.getChannel().force(false);
+            }
             LOG.info("new segment meta info, currentTerm={}, votedFor={}, firstLogIndex={}",
                     metaData.getCurrentTerm(), metaData.getVotedFor(), metaData.getFirstLogIndex());
         } catch (IOException ex) {
@@ -348,6 +791,21 @@ public class SegmentedLog {
         }
     }
 
+    /**
+     * 停止后台线程并关闭所有segment文件
+     */
+    public void close() {
+        if (syncExecutor != null) {
+            syncExecutor.shutdown();
+        }
+        if (preallocator != null) {
+            preallocator.shutdown();
+        }
+        for (Segment segment : startLogIndexSegmentMap.values()) {
+            segment.getSegmentFile().close();
+        }
+    }
+
     public RaftProto.LogMetaData getMeta() {
         return metaData;
     }
@@ -356,4 +814,20 @@ public class SegmentedLog {
         return totalSize;
     }
 
+    public LogEntryCache getEntryCache() {
+        return entryCache;
+    }
+
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+
+    public long getSyncTotalNanos() {
+        return syncTotalNanos.get();
+    }
+
+    public long getSyncMaxNanos() {
+        return syncMaxNanos;
+    }
+
 }
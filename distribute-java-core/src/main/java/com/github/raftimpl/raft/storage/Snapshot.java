@@ -2,6 +2,7 @@ package com.github.raftimpl.raft.storage;
 
 import com.github.raftimpl.raft.proto.RaftProto;
 import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.ByteString;
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,7 +12,11 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
@@ -34,6 +39,14 @@ public class Snapshot {
     // 表示节点自己是否在对状态机做snapshot
     private AtomicBoolean isTakeSnapshot = new AtomicBoolean(false);
     private Lock lock = new ReentrantLock();
+    // follower正在接收的snapshot，以及已经写入临时目录的数据块，用于断点续传
+    private RaftProto.SnapshotMetaData receivingMetaData;
+    private Map<String, RaftProto.SnapshotChunk> receivedChunks = new LinkedHashMap<>();
+    // 正在接收的snapshot的文件清单，切换snapshot之前据此校验数据是否完整
+    private List<RaftProto.SnapshotFile> receivingFiles = Collections.emptyList();
+    // 当前snapshot的文件清单，snapshot不变时复用，避免每次安装都重新计算crc32
+    private RaftProto.SnapshotMetaData manifestMetaData;
+    private List<RaftProto.SnapshotFile> manifest;
 
     public Snapshot(String raftDataDir) {
         this.snapshotDir = raftDataDir + File.separator + "snapshot";
@@ -131,6 +144,150 @@ public class Snapshot {
         }
     }
 
+    /**
+     * follower开始接收leader发来的snapshot，in lock。
+     * 如果临时目录中已经有同一个snapshot的部分数据，保留这些数据，返回已写入的数据块；
+     * 否则清空临时目录，重新接收。
+     * @param tmpSnapshotDir 接收snapshot的临时目录
+     * @param metaData leader发来的snapshot元数据
+     * @param files leader的文件清单
+     * @return 已经写入临时目录的数据块
+     */
+    public List<RaftProto.SnapshotChunk> beginReceive(String tmpSnapshotDir,
+                                                      RaftProto.SnapshotMetaData metaData,
+                                                      List<RaftProto.SnapshotFile> files) throws IOException {
+        File tmpSnapshotDirFile = new File(tmpSnapshotDir);
+        receivingFiles = files;
+        if (tmpSnapshotDirFile.exists() && isReceiving(metaData)) {
+            return new ArrayList<>(receivedChunks.values());
+        }
+        // 上一次未完成的安装可能留下了数据文件，整个目录删除重建
+        if (tmpSnapshotDirFile.exists()) {
+            FileUtils.deleteDirectory(tmpSnapshotDirFile);
+        }
+        tmpSnapshotDirFile.mkdir();
+        receivedChunks.clear();
+        receivingMetaData = metaData;
+        updateMeta(tmpSnapshotDir, metaData.getLastIncludedIndex(),
+                metaData.getLastIncludedTerm(), metaData.getConfig());
+        return Collections.emptyList();
+    }
+
+    /**
+     * 获取snapshot的文件清单（文件名、大小、crc32），in lock
+     * @param snapshotMetaData 与snapshotDataFileMap同时获取的snapshot元数据
+     * @param snapshotDataFileMap openSnapshotFiles打开的文件
+     * @return 文件清单
+     */
+    public List<RaftProto.SnapshotFile> getManifest(RaftProto.SnapshotMetaData snapshotMetaData,
+                                                    TreeMap<String, SnapshotDataFile> snapshotDataFileMap)
+            throws IOException {
+        if (manifest != null && manifestMetaData == snapshotMetaData) {
+            return manifest;
+        }
+        List<RaftProto.SnapshotFile> files = new ArrayList<>(snapshotDataFileMap.size());
+        for (SnapshotDataFile dataFile : snapshotDataFileMap.values()) {
+            files.add(RaftProto.SnapshotFile.newBuilder()
+                    .setFileName(dataFile.fileName)
+                    .setSize(dataFile.randomAccessFile.length())
+                    .setChecksum(RaftFileUtils.getCRC32(dataFile.randomAccessFile.getChannel()))
+                    .build());
+        }
+        manifest = files;
+        manifestMetaData = snapshotMetaData;
+        return manifest;
+    }
+
+    /**
+     * follower把本地当前snapshot中与leader清单一致（大小和crc32相同）的文件链接到临时目录，
+     * 这些文件不需要leader再传输，in lock
+     * @param tmpSnapshotDir 接收snapshot的临时目录
+     * @param files leader的文件清单
+     * @return 复用的文件名
+     */
+    public List<String> reuseLocalFiles(String tmpSnapshotDir, List<RaftProto.SnapshotFile> files) {
+        List<String> reusedFiles = new ArrayList<>();
+        String localDataDir = snapshotDir + File.separator + "data";
+        String tmpDataDir = tmpSnapshotDir + File.separator + "data";
+        for (RaftProto.SnapshotFile file : files) {
+            File localFile = new File(localDataDir, file.getFileName());
+            if (!localFile.isFile() || localFile.length() != file.getSize()) {
+                continue;
+            }
+            try {
+                try (RandomAccessFile randomAccessFile = new RandomAccessFile(localFile, "r")) {
+                    if (RaftFileUtils.getCRC32(randomAccessFile.getChannel()) != file.getChecksum()) {
+                        continue;
+                    }
+                }
+                Path target = FileSystems.getDefault().getPath(tmpDataDir, file.getFileName());
+                Files.createDirectories(target.getParent());
+                Files.deleteIfExists(target);
+                // snapshot中的文件生成后不再修改，优先使用硬链接，不支持时再复制
+                RaftFileUtils.linkOrCopyFile(localFile.toPath(), target);
+                reusedFiles.add(file.getFileName());
+            } catch (IOException ex) {
+                LOG.warn("reuse snapshot file {} failed, msg={}", file.getFileName(), ex.getMessage());
+            }
+        }
+        return reusedFiles;
+    }
+
+    // in lock, 记录一个已经写入临时目录的数据块
+    public void addReceivedChunk(String fileName, long offset, ByteString data) {
+        RaftProto.SnapshotChunk chunk = RaftProto.SnapshotChunk.newBuilder()
+                .setFileName(fileName)
+                .setOffset(offset)
+                .setLength(data.size())
+                .setChecksum(RaftFileUtils.getCRC32(data.asReadOnlyByteBuffer()))
+                .build();
+        receivedChunks.put(fileName + ":" + offset, chunk);
+    }
+
+    // in lock, 请求是否属于正在接收的snapshot，旧的或者其他snapshot的请求不能写入临时目录
+    public boolean isReceiving(RaftProto.SnapshotMetaData metaData) {
+        return receivingMetaData != null
+                && receivingMetaData.getLastIncludedIndex() == metaData.getLastIncludedIndex()
+                && receivingMetaData.getLastIncludedTerm() == metaData.getLastIncludedTerm();
+    }
+
+    /**
+     * 切换snapshot之前校验临时目录中的文件与leader的文件清单一致（大小和crc32相同），in lock。
+     * 还有数据块没有写入、或者写入了错误的数据时返回false
+     * @param tmpSnapshotDir 接收snapshot的临时目录
+     */
+    public boolean verifyReceived(String tmpSnapshotDir) {
+        if (receivingMetaData == null) {
+            return false;
+        }
+        String tmpDataDir = tmpSnapshotDir + File.separator + "data";
+        for (RaftProto.SnapshotFile file : receivingFiles) {
+            File receivedFile = new File(tmpDataDir, file.getFileName());
+            if (!receivedFile.isFile() || receivedFile.length() != file.getSize()) {
+                LOG.warn("snapshot file {} is incomplete, size={}, expected={}", file.getFileName(),
+                        receivedFile.length(), file.getSize());
+                return false;
+            }
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(receivedFile, "r")) {
+                if (RaftFileUtils.getCRC32(randomAccessFile.getChannel()) != file.getChecksum()) {
+                    LOG.warn("snapshot file {} crc32 check failed", file.getFileName());
+                    return false;
+                }
+            } catch (IOException ex) {
+                LOG.warn("verify snapshot file {} failed, msg={}", file.getFileName(), ex.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // in lock, snapshot接收完成，或者校验失败需要重新接收
+    public void endReceive() {
+        receivingMetaData = null;
+        receivedChunks.clear();
+        receivingFiles = Collections.emptyList();
+    }
+
     public RaftProto.SnapshotMetaData getMeta() {
         return metaData;
     }
@@ -0,0 +1,142 @@
+package com.github.raftimpl.raft.util;
+
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.xerial.snappy.Snappy;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 日志、AppendEntries请求和snapshot数据块的压缩、解压
+ */
+public class CompressionUtils {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    public static ByteString compress(ByteString data, RaftProto.CompressionType type) {
+        try {
+            switch (type) {
+                case COMPRESSION_NONE:
+                    return data;
+                case COMPRESSION_DEFLATE:
+                    return deflate(data);
+                case COMPRESSION_SNAPPY:
+                    return ByteString.copyFrom(Snappy.compress(data.toByteArray()));
+                default:
+                    throw new IllegalArgumentException("unknown compression type " + type);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("compress data error", ex);
+        }
+    }
+
+    public static ByteString decompress(ByteString data, RaftProto.CompressionType type) {
+        try {
+            switch (type) {
+                case COMPRESSION_NONE:
+                    return data;
+                case COMPRESSION_DEFLATE:
+                    return inflate(data);
+                case COMPRESSION_SNAPPY:
+                    return ByteString.copyFrom(Snappy.uncompress(data.toByteArray()));
+                default:
+                    throw new IllegalArgumentException("unknown compression type " + type);
+            }
+        } catch (IOException | DataFormatException ex) {
+            throw new RuntimeException("decompress data error", ex);
+        }
+    }
+
+    /**
+     * 按指定方式压缩数据，数据小于minBytes或者压缩后没有变小时返回null，调用方按未压缩处理
+     */
+    public static ByteString compressIfSmaller(ByteString data, RaftProto.CompressionType type, int minBytes) {
+        if (type == RaftProto.CompressionType.COMPRESSION_NONE || data.size() < minBytes) {
+            return null;
+        }
+        ByteString compressed = compress(data, type);
+        return compressed.size() < data.size() ? compressed : null;
+    }
+
+    /**
+     * 把请求中的日志列表整体压缩成compressed_entries，多条小日志之间的重复内容也能被压缩；
+     * 没有日志、日志太小或者压缩后没有变小时原样返回
+     */
+    public static RaftProto.AppendEntriesRequest compressEntries(
+            RaftProto.AppendEntriesRequest request, RaftProto.CompressionType type, int minBytes) {
+        if (type == RaftProto.CompressionType.COMPRESSION_NONE || request.getEntriesCount() == 0) {
+            return request;
+        }
+        ByteString entriesData = RaftProto.LogEntryBatch.newBuilder()
+                .addAllEntries(request.getEntriesList()).build().toByteString();
+        ByteString compressed = compressIfSmaller(entriesData, type, minBytes);
+        if (compressed == null) {
+            return request;
+        }
+        return request.toBuilder()
+                .clearEntries()
+                .setCompression(type)
+                .setCompressedEntries(compressed)
+                .build();
+    }
+
+    // 返回带日志列表的请求，没有压缩的请求原样返回
+    public static RaftProto.AppendEntriesRequest decompressEntries(RaftProto.AppendEntriesRequest request) {
+        if (!request.hasCompressedEntries()) {
+            return request;
+        }
+        ByteString entriesData = decompress(request.getCompressedEntries(), request.getCompression());
+        List<RaftProto.LogEntry> entries;
+        try {
+            entries = RaftProto.LogEntryBatch.parseFrom(entriesData).getEntriesList();
+        } catch (InvalidProtocolBufferException ex) {
+            throw new RuntimeException("parse compressed entries error", ex);
+        }
+        return request.toBuilder()
+                .clearCompression()
+                .clearCompressedEntries()
+                .addAllEntries(entries)
+                .build();
+    }
+
+    private static ByteString deflate(ByteString data) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data.toByteArray());
+            deflater.finish();
+            ByteString.Output output = ByteString.newOutput(data.size() / 2 + 16);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int len = deflater.deflate(buffer);
+                output.write(buffer, 0, len);
+            }
+            return output.toByteString();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteString inflate(ByteString data) throws IOException, DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.toByteArray());
+            ByteString.Output output = ByteString.newOutput(data.size() * 2);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int len = inflater.inflate(buffer);
+                if (len == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated deflate data");
+                }
+                output.write(buffer, 0, len);
+            }
+            return output.toByteString();
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -1,11 +1,19 @@
 package com.github.raftimpl.raft.util;
 
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
 import com.google.protobuf.Message;
+import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.zip.CRC32;
 
@@ -14,6 +22,16 @@ public class RaftFileUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(RaftFileUtils.class);
 
+    // record头部长度：crc32(8字节) + 数据长度(4字节)
+    public static final int RECORD_HEADER_SIZE = (Long.SIZE + Integer.SIZE) / Byte.SIZE;
+    // crc32只占record头部前8字节的低32位，高32位用作record标志，旧格式的record标志为0
+    private static final long RECORD_CRC_MASK = 0xFFFFFFFFL;
+    // record数据是LogEntryBatch，包含多条日志
+    public static final long RECORD_FLAG_BATCH = 1L << 32;
+    // record数据是压缩后的LogEntryBatch，压缩方式记录在标志的第40~47位
+    public static final long RECORD_FLAG_COMPRESSED = 1L << 33;
+    private static final int RECORD_COMPRESSION_SHIFT = 40;
+
     public static List<String> getSortedFilesInDir(
             String dirName, String rootDirName) throws IOException {
         List<String> fileList = new ArrayList<>();
@@ -38,6 +56,56 @@ public class RaftFileUtils {
         return fileList;
     }
 
+    /**
+     * 把srcDir的内容复制到destDir，destDir已存在时先删除。
+     * 文件名以immutableSuffixes结尾的文件生成后不会再被修改，使用硬链接代替复制，
+     * 其他文件（如leveldb的MANIFEST、CURRENT、log）仍然复制，避免两边互相影响
+     * @param srcDir 源目录
+     * @param destDir 目标目录
+     * @param immutableSuffixes 不可变文件的后缀
+     */
+    public static void linkOrCopyDirectory(File srcDir, File destDir, String... immutableSuffixes)
+            throws IOException {
+        if (destDir.exists()) {
+            FileUtils.deleteDirectory(destDir);
+        }
+        if (!destDir.mkdirs()) {
+            throw new IOException("create dir failed, dir=" + destDir);
+        }
+        File[] files = srcDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            File destFile = new File(destDir, file.getName());
+            if (file.isDirectory()) {
+                linkOrCopyDirectory(file, destFile, immutableSuffixes);
+                continue;
+            }
+            boolean immutable = false;
+            for (String suffix : immutableSuffixes) {
+                if (file.getName().endsWith(suffix)) {
+                    immutable = true;
+                    break;
+                }
+            }
+            if (immutable) {
+                linkOrCopyFile(file.toPath(), destFile.toPath());
+            } else {
+                Files.copy(file.toPath(), destFile.toPath());
+            }
+        }
+    }
+
+    // 优先创建硬链接，文件系统不支持（如跨设备）时再复制
+    public static void linkOrCopyFile(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException ex) {
+            Files.copy(source, target);
+        }
+    }
+
     public static RandomAccessFile openFile(String dir, String fileName, String mode) {
         try {
             String fullFileName = dir + File.separator + fileName;
@@ -121,10 +189,108 @@ public class RaftFileUtils {
         }
     }
 
+    /**
+     * 把proto编码成一条完整的record，格式与writeProtoToFile相同，便于一次写入文件
+     */
+    public static <T extends Message> ByteBuffer encodeRecord(T message) {
+        return encodeRecord(message, 0);
+    }
+
+    /**
+     * 同{@link #encodeRecord(Message)}，flags写在crc字段的高32位
+     */
+    public static <T extends Message> ByteBuffer encodeRecord(T message, long flags) {
+        // 直接序列化到record的数据区，不经过中间的byte[]
+        int dataLen = message.getSerializedSize();
+        byte[] record = new byte[RECORD_HEADER_SIZE + dataLen];
+        try {
+            CodedOutputStream output = CodedOutputStream.newInstance(record, RECORD_HEADER_SIZE, dataLen);
+            message.writeTo(output);
+            output.checkNoSpaceLeft();
+        } catch (IOException ex) {
+            throw new RuntimeException("encode record error", ex);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        buffer.putLong(flags | getCRC32(record, RECORD_HEADER_SIZE, dataLen));
+        buffer.putInt(dataLen);
+        buffer.rewind();
+        return buffer;
+    }
+
+    /**
+     * 把已经编码好的数据封装成一条record，flags写在crc字段的高32位
+     */
+    public static ByteBuffer encodeRecord(ByteString data, long flags) {
+        int dataLen = data.size();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + dataLen);
+        buffer.position(RECORD_HEADER_SIZE);
+        data.copyTo(buffer);
+        byte[] record = buffer.array();
+        buffer.rewind();
+        buffer.putLong(flags | getCRC32(record, RECORD_HEADER_SIZE, dataLen));
+        buffer.putInt(dataLen);
+        buffer.rewind();
+        return buffer;
+    }
+
+    // 压缩后的LogEntryBatch对应的record标志
+    public static long getCompressedRecordFlags(RaftProto.CompressionType type) {
+        return RECORD_FLAG_BATCH | RECORD_FLAG_COMPRESSED | ((long) type.getNumber() << RECORD_COMPRESSION_SHIFT);
+    }
+
+    /**
+     * 压缩的record使用的压缩方式
+     * @return 压缩方式，标志不是合法的压缩record标志时返回null
+     */
+    public static RaftProto.CompressionType getRecordCompression(long flags) {
+        RaftProto.CompressionType type = RaftProto.CompressionType.valueOf(
+                (int) ((flags >>> RECORD_COMPRESSION_SHIFT) & 0xFF));
+        if (type == null || type == RaftProto.CompressionType.COMPRESSION_NONE
+                || flags != getCompressedRecordFlags(type)) {
+            return null;
+        }
+        return type;
+    }
+
+    public static long getRecordCRC32(long crcField) {
+        return crcField & RECORD_CRC_MASK;
+    }
+
+    public static long getRecordFlags(long crcField) {
+        return crcField & ~RECORD_CRC_MASK;
+    }
+
     public static long getCRC32(byte[] data) {
         CRC32 crc32 = new CRC32();
         crc32.update(data);
         return crc32.getValue();
     }
 
+    public static long getCRC32(byte[] data, int offset, int length) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, offset, length);
+        return crc32.getValue();
+    }
+
+    public static long getCRC32(ByteBuffer data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        return crc32.getValue();
+    }
+
+    // 计算整个文件的crc32，按位置读，不改变文件指针
+    public static long getCRC32(FileChannel channel) throws IOException {
+        CRC32 crc32 = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long position = 0;
+        int readLen;
+        while ((readLen = channel.read(buffer, position)) > 0) {
+            buffer.flip();
+            crc32.update(buffer);
+            buffer.clear();
+            position += readLen;
+        }
+        return crc32.getValue();
+    }
+
 }
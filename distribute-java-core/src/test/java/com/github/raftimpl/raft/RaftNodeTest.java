@@ -0,0 +1,1088 @@
+package com.github.raftimpl.raft;
+
+import com.baidu.brpc.client.RpcCallback;
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.github.raftimpl.raft.service.RaftConsensusServiceAsync;
+import com.github.raftimpl.raft.service.impl.RaftConsensusServiceImpl;
+import com.github.raftimpl.raft.storage.Snapshot;
+import com.github.raftimpl.raft.util.CompressionUtils;
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.ByteString;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 三节点集群中的一个RaftNode，另外两个节点由FakeConsensusService模拟
+ */
+public class RaftNodeTest {
+
+    private static final String RAFT_DATA_DIR = "./data";
+
+    private RaftNode raftNode;
+    private MemoryStateMachine stateMachine = new MemoryStateMachine();
+    private List<FakeConsensusService> followers = new ArrayList<>();
+
+    @After
+    public void tearDown() throws IOException {
+        if (raftNode != null) {
+            raftNode.shutdown();
+        }
+        for (FakeConsensusService follower : followers) {
+            follower.shutdown();
+        }
+        FileUtils.deleteDirectory(new File(RAFT_DATA_DIR));
+    }
+
+    private RaftOptions newRaftOptions() {
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setDataDir(RAFT_DATA_DIR);
+        raftOptions.setElectionTimeoutMilliseconds(100);
+        // 启动后的第一轮心跳之后不再定时发心跳，请求数只和测试的操作有关
+        raftOptions.setHeartbeatPeriodMilliseconds(60000);
+        raftOptions.setSnapshotCheckIntervalMilliseconds(60000);
+        raftOptions.setMaxAwaitTimeout(5000);
+        raftOptions.setRaftConsensusThreadNum(4);
+        raftOptions.setMaxSegmentFileSize(1024 * 1024);
+        return raftOptions;
+    }
+
+    private RaftProto.Server newServer(int serverId) {
+        return RaftProto.Server.newBuilder()
+                .setServerId(serverId)
+                .setEndpoint(RaftProto.Endpoint.newBuilder().setHost("127.0.0.1").setPort(8050 + serverId))
+                .build();
+    }
+
+    // 启动server 1，server 2、3由FakeConsensusService模拟
+    private void startNode(RaftOptions raftOptions) {
+        List<RaftProto.Server> servers = new ArrayList<>();
+        for (int serverId = 1; serverId <= 3; serverId++) {
+            servers.add(newServer(serverId));
+        }
+        raftNode = new RaftNode(raftOptions, servers, servers.get(0), stateMachine);
+        for (int serverId = 2; serverId <= 3; serverId++) {
+            FakeConsensusService follower = new FakeConsensusService();
+            followers.add(follower);
+            Peer peer = new Peer(servers.get(serverId - 1), follower);
+            peer.setNextIndex(raftNode.getRaftLog().getLastLogIndex() + 1);
+            raftNode.getPeerMap().put(serverId, peer);
+        }
+        raftNode.init();
+    }
+
+    // 启动server 1，等待它成为leader，并且当选时追加的空日志已经复制到所有follower并应用
+    private void startLeader(RaftOptions raftOptions) throws Exception {
+        startNode(raftOptions);
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return raftNode.getState() == RaftNode.NodeState.STATE_LEADER;
+            }
+        });
+        final long noopIndex;
+        raftNode.getLock().lock();
+        try {
+            noopIndex = raftNode.getRaftLog().getLastLogIndex();
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return raftNode.getLastAppliedIndex() >= noopIndex;
+            }
+        });
+        for (Peer peer : raftNode.getPeerMap().values()) {
+            waitForMatchIndex(peer, noopIndex);
+            waitForInflightRequests(peer, 0);
+        }
+    }
+
+    private void waitFor(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.call()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail("condition not satisfied in 10s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private CompletableFuture<ProposeResult> propose(String data) {
+        return raftNode.propose(ByteString.copyFromUtf8(data), RaftProto.EntryType.ENTRY_TYPE_DATA);
+    }
+
+    @Test
+    public void testGroupCommit() throws Exception {
+        startLeader(newRaftOptions());
+        int proposalNum = 50;
+        List<CompletableFuture<ProposeResult>> futures = new ArrayList<>();
+        // 持有raft锁时group commit线程写不了日志，这期间提交的proposal最多分两批写入
+        raftNode.getLock().lock();
+        try {
+            for (int i = 0; i < proposalNum; i++) {
+                futures.add(propose("data" + i));
+            }
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        long firstIndex = futures.get(0).get(5, TimeUnit.SECONDS).getIndex();
+        for (int i = 0; i < proposalNum; i++) {
+            ProposeResult result = futures.get(i).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(firstIndex + i, result.getIndex());
+            Assert.assertEquals(raftNode.getCurrentTerm(), result.getTerm());
+        }
+        List<String> appliedData = stateMachine.getAppliedData();
+        Assert.assertEquals("data0", appliedData.get(appliedData.size() - proposalNum));
+        Assert.assertEquals("data" + (proposalNum - 1), appliedData.get(appliedData.size() - 1));
+        for (Peer peer : raftNode.getPeerMap().values()) {
+            waitForMatchIndex(peer, firstIndex + proposalNum - 1);
+        }
+
+        // 每批日志只触发一次复制，follower收到的带日志的请求数不会超过批数
+        for (FakeConsensusService follower : followers) {
+            int requestNum = 0;
+            for (RaftProto.AppendEntriesRequest request : follower.getAppendRequests()) {
+                if (request.getEntriesCount() > 0
+                        && request.getPrevLogIndex() + request.getEntriesCount() >= firstIndex) {
+                    requestNum++;
+                }
+            }
+            Assert.assertTrue("requestNum=" + requestNum, requestNum >= 1 && requestNum <= 2);
+        }
+    }
+
+    @Test
+    public void testCompressAppendEntries() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setCompressionType(RaftProto.CompressionType.COMPRESSION_SNAPPY);
+        startLeader(raftOptions);
+        int proposalNum = 20;
+        List<CompletableFuture<ProposeResult>> futures = new ArrayList<>();
+        // 每条日志都小于compressionMinBytes，同一个请求中的日志列表一起压缩
+        raftNode.getLock().lock();
+        try {
+            for (int i = 0; i < proposalNum; i++) {
+                futures.add(propose("{\"key\":\"hello" + i + "\",\"value\":\"world\"}"));
+            }
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        long lastIndex = futures.get(proposalNum - 1).get(5, TimeUnit.SECONDS).getIndex();
+        for (Peer peer : raftNode.getPeerMap().values()) {
+            waitForMatchIndex(peer, lastIndex);
+        }
+        for (FakeConsensusService follower : followers) {
+            boolean hasCompressedRequest = false;
+            for (RaftProto.AppendEntriesRequest request : follower.getAppendRequests()) {
+                if (request.hasCompressedEntries()) {
+                    Assert.assertEquals(0, request.getEntriesCount());
+                    Assert.assertEquals(RaftProto.CompressionType.COMPRESSION_SNAPPY, request.getCompression());
+                    hasCompressedRequest = true;
+                }
+            }
+            Assert.assertTrue(hasCompressedRequest);
+        }
+        // 状态机收到的是原始数据
+        List<String> appliedData = stateMachine.getAppliedData();
+        Assert.assertEquals("{\"key\":\"hello" + (proposalNum - 1) + "\",\"value\":\"world\"}",
+                appliedData.get(appliedData.size() - 1));
+    }
+
+    @Test
+    public void testProposeCompletesAfterApplied() throws Exception {
+        startLeader(newRaftOptions());
+        ProposeResult result = propose("hello").get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(raftNode.getCurrentTerm(), result.getTerm());
+        // 日志应用到状态机之后future才完成
+        Assert.assertTrue(raftNode.getLastAppliedIndex() >= result.getIndex());
+        Assert.assertTrue(stateMachine.getAppliedData().contains("hello"));
+    }
+
+    @Test
+    public void testProposeFailsWhenLeadershipLost() throws Exception {
+        startLeader(newRaftOptions());
+        for (FakeConsensusService follower : followers) {
+            follower.hold();
+        }
+        final int requestNum = getEntryRequestNum(followers.get(0));
+        CompletableFuture<ProposeResult> future = propose("lost");
+        // 日志已经写入并发给follower，但还没有提交
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return getEntryRequestNum(followers.get(0)) > requestNum;
+            }
+        });
+        Assert.assertFalse(future.isDone());
+
+        CompletableFuture<ProposeResult> notLeaderFuture;
+        raftNode.getLock().lock();
+        try {
+            raftNode.stepDown(raftNode.getCurrentTerm() + 1);
+            notLeaderFuture = propose("not leader");
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        assertProposeFailed(future, ProposeException.ErrorCode.TERM_CHANGED);
+        assertProposeFailed(notLeaderFuture, ProposeException.ErrorCode.NOT_LEADER);
+    }
+
+    @Test
+    public void testApplyOutsideRaftLock() throws Exception {
+        startLeader(newRaftOptions());
+        propose("first").get(5, TimeUnit.SECONDS);
+        // 持有applyLock模拟状态机写入很慢，日志照常提交，raft锁不被apply占用
+        raftNode.getApplyLock().lock();
+        final CompletableFuture<ProposeResult> future;
+        try {
+            future = propose("slow");
+            waitFor(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return raftNode.getCommitIndex() == raftNode.getRaftLog().getLastLogIndex();
+                }
+            });
+            Assert.assertTrue(raftNode.getLock().tryLock(1, TimeUnit.SECONDS));
+            raftNode.getLock().unlock();
+            Thread.sleep(100);
+            Assert.assertFalse(future.isDone());
+            Assert.assertTrue(raftNode.getLastAppliedIndex() < raftNode.getCommitIndex());
+            Assert.assertFalse(stateMachine.getAppliedData().contains("slow"));
+        } finally {
+            raftNode.getApplyLock().unlock();
+        }
+        // 应用到状态机之后future才完成
+        ProposeResult result = future.get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(raftNode.getLastAppliedIndex() >= result.getIndex());
+        Assert.assertEquals("slow", stateMachine.getAppliedData().get(stateMachine.getAppliedData().size() - 1));
+    }
+
+    @Test
+    public void testApplyInOrderOnOneThread() throws Exception {
+        startLeader(newRaftOptions());
+        List<CompletableFuture<ProposeResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(propose("data" + i));
+        }
+        for (CompletableFuture<ProposeResult> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        // 所有日志按顺序由同一个apply线程应用，不在调用方和复制线程上应用
+        List<String> appliedData = stateMachine.getAppliedData();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("data" + i, appliedData.get(appliedData.size() - 100 + i));
+        }
+        Set<String> applyThreadNames = new HashSet<>(stateMachine.getApplyThreadNames());
+        Assert.assertEquals(1, applyThreadNames.size());
+        String applyThreadName = applyThreadNames.iterator().next();
+        Assert.assertNotEquals(Thread.currentThread().getName(), applyThreadName);
+        Assert.assertFalse(applyThreadName.startsWith("replicator-"));
+    }
+
+    @Test
+    public void testLeaseRead() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setElectionTimeoutMilliseconds(1000);
+        raftOptions.setLeaseReadEnabled(true);
+        startLeader(raftOptions);
+        // 当选后提交的是当前任期的空日志
+        raftNode.getLock().lock();
+        try {
+            RaftProto.LogEntry entry = raftNode.getRaftLog().getEntry(raftNode.getCommitIndex());
+            Assert.assertEquals(RaftProto.EntryType.ENTRY_TYPE_NOOP, entry.getType());
+            Assert.assertEquals(raftNode.getCurrentTerm(), entry.getTerm());
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        Assert.assertFalse(stateMachine.getAppliedData().contains(""));
+
+        // 租约有效期内直接读，不再向follower确认leader身份
+        int requestNum = followers.get(0).getAppendRequests().size();
+        Assert.assertTrue(raftNode.waitUntilApplied());
+        Assert.assertEquals(requestNum, followers.get(0).getAppendRequests().size());
+
+        // 租约过期后退回ReadIndex，重新与follower确认
+        Thread.sleep(1000);
+        Assert.assertTrue(raftNode.waitUntilApplied());
+        Assert.assertTrue(followers.get(0).getAppendRequests().size() > requestNum);
+    }
+
+    @Test
+    public void testRejectVoteAfterRestart() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setElectionTimeoutMilliseconds(2000);
+        raftOptions.setLeaseReadEnabled(true);
+        startNode(raftOptions);
+        RaftConsensusServiceImpl consensusService = new RaftConsensusServiceImpl(raftNode);
+        long term = raftNode.getCurrentTerm();
+        RaftProto.VoteRequest request = RaftProto.VoteRequest.newBuilder()
+                .setServerId(2)
+                .setTerm(term + 1)
+                .setLastLogTerm(raftNode.getLastLogTerm())
+                .setLastLogIndex(raftNode.getRaftLog().getLastLogIndex())
+                .build();
+        // 刚启动时不知道旧leader的租约是否过期，一个选举超时时间内不投票，也不更新任期
+        Assert.assertFalse(consensusService.preVote(request).getGranted());
+        Assert.assertFalse(consensusService.requestVote(request).getGranted());
+        Assert.assertEquals(term, raftNode.getCurrentTerm());
+
+        // 没有开启租约读时正常投票
+        raftOptions.setLeaseReadEnabled(false);
+        Assert.assertTrue(consensusService.preVote(request).getGranted());
+        Assert.assertTrue(consensusService.requestVote(request).getGranted());
+        Assert.assertEquals(term + 1, raftNode.getCurrentTerm());
+    }
+
+    @Test
+    public void testReadIndexBatching() throws Exception {
+        startLeader(newRaftOptions());
+        propose("data").get(5, TimeUnit.SECONDS);
+        for (FakeConsensusService follower : followers) {
+            follower.hold();
+        }
+        int readerNum = 10;
+        ExecutorService readExecutor = Executors.newFixedThreadPool(readerNum);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            Callable<Boolean> reader = new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return raftNode.waitUntilApplied();
+                }
+            };
+            // 第一个读请求发起一轮确认
+            results.add(readExecutor.submit(reader));
+            waitFor(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return getReadIndexRequestNum() == 2;
+                }
+            });
+            // 确认期间到达的读请求都等待下一轮，不再单独发心跳
+            for (int i = 1; i < readerNum; i++) {
+                results.add(readExecutor.submit(reader));
+            }
+            Thread.sleep(200);
+            Assert.assertEquals(2, getReadIndexRequestNum());
+            for (Future<Boolean> result : results) {
+                Assert.assertFalse(result.isDone());
+            }
+
+            for (FakeConsensusService follower : followers) {
+                follower.release();
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+            // 10个读请求只用了两轮确认，每轮每个follower一个心跳
+            Assert.assertEquals(4, getReadIndexRequestNum());
+        } finally {
+            readExecutor.shutdownNow();
+        }
+    }
+
+    // 启动server 1作为follower，server 2是leader，选举超时时间足够长，测试期间不会发起选举
+    private void startFollower(RaftOptions raftOptions) {
+        raftOptions.setElectionTimeoutMilliseconds(60000);
+        startNode(raftOptions);
+        raftNode.getLock().lock();
+        try {
+            raftNode.setLeaderId(2);
+            raftNode.updateLeaderContactTime();
+        } finally {
+            raftNode.getLock().unlock();
+        }
+    }
+
+    @Test
+    public void testFollowerReadBatching() throws Exception {
+        startFollower(newRaftOptions());
+        FakeConsensusService leader = followers.get(0);
+        leader.hold();
+        int readerNum = 10;
+        ExecutorService readExecutor = Executors.newFixedThreadPool(readerNum);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            Callable<Boolean> reader = new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return raftNode.waitForLeaderCommitIndex();
+                }
+            };
+            results.add(readExecutor.submit(reader));
+            final FakeConsensusService heldLeader = leader;
+            waitFor(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return heldLeader.getCommitIndexRequestNum() == 1;
+                }
+            });
+            // 请求期间到达的读请求合并到下一轮
+            for (int i = 1; i < readerNum; i++) {
+                results.add(readExecutor.submit(reader));
+            }
+            Thread.sleep(200);
+            Assert.assertEquals(1, leader.getCommitIndexRequestNum());
+
+            leader.release();
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals(2, leader.getCommitIndexRequestNum());
+        } finally {
+            readExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFollowerReadWithCachedCommitIndex() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setLeaderCommitIndexCacheMilliseconds(1000);
+        startFollower(raftOptions);
+        FakeConsensusService leader = followers.get(0);
+        // AppendEntries带来的leader commitIndex足够新时，不再请求leader
+        raftNode.getLock().lock();
+        try {
+            raftNode.updateLeaderCommitIndex(0);
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(raftNode.waitForLeaderCommitIndex());
+        }
+        Assert.assertEquals(0, leader.getCommitIndexRequestNum());
+
+        // 缓存过期后重新请求
+        Thread.sleep(1100);
+        Assert.assertTrue(raftNode.waitForLeaderCommitIndex());
+        Assert.assertEquals(1, leader.getCommitIndexRequestNum());
+    }
+
+    @Test
+    public void testStaleRead() throws Exception {
+        startFollower(newRaftOptions());
+        raftNode.getLock().lock();
+        try {
+            raftNode.setLeaderId(0);
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        // 不知道leader时不能直接读
+        Assert.assertFalse(raftNode.isStaleReadAllowed(1000, 0));
+
+        raftNode.getLock().lock();
+        try {
+            raftNode.setLeaderId(2);
+            raftNode.updateLeaderCommitIndex(10);
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        // 不接受陈旧数据
+        Assert.assertFalse(raftNode.isStaleReadAllowed(0, 0));
+        // 本地落后leader commitIndex 10条
+        Assert.assertFalse(raftNode.isStaleReadAllowed(0, 5));
+        Assert.assertTrue(raftNode.isStaleReadAllowed(0, 20));
+        Assert.assertTrue(raftNode.isStaleReadAllowed(1000, 20));
+        // 超过允许的陈旧时间没有收到leader消息
+        Thread.sleep(100);
+        Assert.assertFalse(raftNode.isStaleReadAllowed(50, 0));
+        Assert.assertFalse(raftNode.isStaleReadAllowed(50, 20));
+        raftNode.getLock().lock();
+        try {
+            raftNode.updateLeaderContactTime();
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        Assert.assertTrue(raftNode.isStaleReadAllowed(50, 0));
+    }
+
+    @Test
+    public void testInstallSnapshotWindow() throws Exception {
+        // 本地snapshot包含到index 10的日志，文件a分成3块，b由follower复用，空文件c也占一块
+        Snapshot snapshot = new Snapshot(RAFT_DATA_DIR);
+        String snapshotDataDir = snapshot.getSnapshotDir() + File.separator + "data";
+        FileUtils.writeStringToFile(new File(snapshotDataDir, "a"), "0123456789abcdefghijklmno", "UTF-8");
+        FileUtils.writeStringToFile(new File(snapshotDataDir, "b"), "0123456789", "UTF-8");
+        FileUtils.writeStringToFile(new File(snapshotDataDir, "c"), "", "UTF-8");
+        snapshot.updateMeta(snapshot.getSnapshotDir(), 10L, 1L, RaftProto.Configuration.getDefaultInstance());
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setMaxSnapshotBytesPerRequest(10);
+        raftOptions.setMaxInflightSnapshotRequests(2);
+        startNode(raftOptions);
+        final FakeConsensusService follower = followers.get(0);
+        followers.get(1).setLastLogIndex(10);
+        follower.hold();
+        follower.setReusedFiles(Collections.singletonList("b"));
+        Peer peer = raftNode.getPeerMap().get(2);
+        raftNode.getLock().lock();
+        try {
+            peer.setNextIndex(1);
+        } finally {
+            raftNode.getLock().unlock();
+        }
+
+        // 窗口满之后等待响应，最后一个请求要等所有数据块都确认后才发送
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return follower.getSnapshotChunkRequests().size() == 2;
+            }
+        });
+        Thread.sleep(200);
+        Assert.assertEquals(2, follower.getSnapshotChunkRequests().size());
+        Assert.assertFalse(follower.isSnapshotInstalled());
+
+        follower.release();
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return follower.isSnapshotInstalled();
+            }
+        });
+        Assert.assertEquals(0, follower.getInflightChunksAtLast());
+        Assert.assertEquals(2, follower.getMaxInflightChunks());
+        List<String> chunkNames = new ArrayList<>();
+        for (RaftProto.InstallSnapshotRequest request : follower.getSnapshotChunkRequests()) {
+            chunkNames.add(request.getFileName() + ":" + request.getOffset());
+            Assert.assertEquals(10, request.getSnapshotMetaData().getLastIncludedIndex());
+            Assert.assertEquals(1, request.getSnapshotMetaData().getLastIncludedTerm());
+        }
+        Assert.assertEquals(Arrays.asList("a:0", "a:10", "a:20", "c:0"), chunkNames);
+
+        // 安装完成后从snapshot之后继续复制日志
+        waitForMatchIndex(peer, raftNode.getRaftLog().getLastLogIndex());
+    }
+
+    @Test
+    public void testInstallSnapshotRejectsIncomplete() throws Exception {
+        startFollower(newRaftOptions());
+        RaftConsensusServiceImpl consensusService = new RaftConsensusServiceImpl(raftNode);
+        RaftProto.SnapshotMetaData metaData = RaftProto.SnapshotMetaData.newBuilder()
+                .setLastIncludedIndex(10).setLastIncludedTerm(1).build();
+        RaftProto.SnapshotFile file = RaftProto.SnapshotFile.newBuilder()
+                .setFileName("a")
+                .setSize(10)
+                .setChecksum(RaftFileUtils.getCRC32("helloworld".getBytes()))
+                .build();
+        RaftProto.InstallSnapshotRequest firstRequest = newInstallSnapshotRequest(metaData)
+                .setIsFirst(true).addFiles(file).build();
+        RaftProto.InstallSnapshotRequest lastRequest = newInstallSnapshotRequest(metaData).setIsLast(true).build();
+
+        // 还有数据块没有到达时收到最后一个请求，不切换snapshot
+        assertInstallSnapshot(consensusService, firstRequest, true);
+        assertInstallSnapshot(consensusService, newSnapshotChunkRequest(metaData, 0, "hello"), true);
+        assertInstallSnapshot(consensusService, lastRequest, false);
+        Assert.assertEquals(0, raftNode.getSnapshot().getMeta().getLastIncludedIndex());
+
+        // 校验失败后丢弃已收到的数据，需要重新开始；其他snapshot的数据块被拒绝
+        assertInstallSnapshot(consensusService, newSnapshotChunkRequest(metaData, 5, "world"), false);
+        assertInstallSnapshot(consensusService, firstRequest, true);
+        RaftProto.SnapshotMetaData oldMetaData = metaData.toBuilder().setLastIncludedIndex(5).build();
+        assertInstallSnapshot(consensusService, newSnapshotChunkRequest(oldMetaData, 0, "HELLO"), false);
+        assertInstallSnapshot(consensusService, newSnapshotChunkRequest(metaData, 5, "world"), true);
+        assertInstallSnapshot(consensusService, newSnapshotChunkRequest(metaData, 0, "hello"), true);
+        assertInstallSnapshot(consensusService, lastRequest, true);
+        Assert.assertEquals(10, raftNode.getSnapshot().getMeta().getLastIncludedIndex());
+        Assert.assertEquals(10, raftNode.getLastAppliedIndex());
+        Assert.assertEquals("helloworld", FileUtils.readFileToString(
+                new File(raftNode.getSnapshot().getSnapshotDir() + File.separator + "data", "a"), "UTF-8"));
+    }
+
+    private RaftProto.InstallSnapshotRequest.Builder newInstallSnapshotRequest(RaftProto.SnapshotMetaData metaData) {
+        return RaftProto.InstallSnapshotRequest.newBuilder()
+                .setServerId(2)
+                .setTerm(raftNode.getCurrentTerm())
+                .setSnapshotMetaData(metaData);
+    }
+
+    private RaftProto.InstallSnapshotRequest newSnapshotChunkRequest(RaftProto.SnapshotMetaData metaData,
+                                                                     long offset, String data) {
+        return newInstallSnapshotRequest(metaData)
+                .setFileName("a")
+                .setOffset(offset)
+                .setData(ByteString.copyFromUtf8(data))
+                .build();
+    }
+
+    private void assertInstallSnapshot(RaftConsensusServiceImpl consensusService,
+                                       RaftProto.InstallSnapshotRequest request, boolean isSuccess) {
+        RaftProto.ResCode resCode = consensusService.installSnap(request).getResCode();
+        Assert.assertEquals(isSuccess ? RaftProto.ResCode.RES_CODE_SUCCESS : RaftProto.ResCode.RES_CODE_FAIL, resCode);
+    }
+
+    @Test
+    public void testInflightWindow() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setMaxInflightAppendRequests(2);
+        raftOptions.setMaxLogEntriesPerRequest(1);
+        startLeader(raftOptions);
+        final FakeConsensusService follower = followers.get(0);
+        final Peer peer = raftNode.getPeerMap().get(2);
+        waitForInflightRequests(peer, 0);
+        final int requestNum = getEntryRequestNum(follower);
+        follower.hold();
+        List<CompletableFuture<ProposeResult>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(propose("data" + i));
+        }
+        // 窗口满之后不再发送，等待响应
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return getEntryRequestNum(follower) == requestNum + 2;
+            }
+        });
+        Thread.sleep(200);
+        Assert.assertEquals(requestNum + 2, getEntryRequestNum(follower));
+        Assert.assertEquals(2, getInflightRequests(peer));
+
+        follower.release();
+        for (CompletableFuture<ProposeResult> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        waitForMatchIndex(peer, raftNode.getRaftLog().getLastLogIndex());
+        // 每条日志只发送一次
+        Assert.assertEquals(requestNum + 5, getEntryRequestNum(follower));
+        waitForInflightRequests(peer, 0);
+    }
+
+    @Test
+    public void testRollbackOnReject() throws Exception {
+        RaftOptions raftOptions = newRaftOptions();
+        raftOptions.setMaxInflightAppendRequests(4);
+        raftOptions.setMaxLogEntriesPerRequest(1);
+        startLeader(raftOptions);
+        FakeConsensusService follower = followers.get(0);
+        Peer peer = raftNode.getPeerMap().get(2);
+        for (int i = 0; i < 3; i++) {
+            propose("data" + i).get(5, TimeUnit.SECONDS);
+        }
+        long lastIndex = raftNode.getRaftLog().getLastLogIndex();
+        waitForMatchIndex(peer, lastIndex);
+        waitForInflightRequests(peer, 0);
+
+        // follower实际少了最后两条日志（比如新leader当选时只知道follower的nextIndex），
+        // 之后乐观发出的4个请求都会被拒绝
+        follower.hold();
+        follower.setLastLogIndex(lastIndex - 2);
+        raftNode.getLock().lock();
+        try {
+            peer.setMatchIndex(lastIndex - 2);
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        long replicateEpoch = peer.getReplicateEpoch();
+        final int requestNum = follower.getAppendRequests().size();
+        for (int i = 0; i < 4; i++) {
+            propose("data" + (3 + i));
+        }
+        final FakeConsensusService heldFollower = follower;
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return heldFollower.getAppendRequests().size() == requestNum + 4;
+            }
+        });
+        follower.release();
+        waitForMatchIndex(peer, lastIndex + 4);
+
+        // 只有第一个拒绝回退了nextIndex，同一纪元的其他拒绝被忽略
+        Assert.assertEquals(replicateEpoch + 1, peer.getReplicateEpoch());
+        // 回退后从follower的最后一条日志之后重新发送
+        Assert.assertEquals(lastIndex - 2, follower.getAppendRequests().get(requestNum + 4).getPrevLogIndex());
+    }
+
+    @Test
+    public void testSendFailureDoesNotThrow() throws Exception {
+        startLeader(newRaftOptions());
+        Peer peer = raftNode.getPeerMap().get(2);
+        waitForInflightRequests(peer, 0);
+        followers.get(0).setDown(true);
+        // 发送时的异常只通过回调处理，归还in-flight窗口，不抛给复制线程
+        Assert.assertFalse(raftNode.appendEntries(peer));
+        Assert.assertEquals(0, getInflightRequests(peer));
+    }
+
+    @Test
+    public void testReplicatorThread() throws Exception {
+        startLeader(newRaftOptions());
+        for (int i = 0; i < 10; i++) {
+            propose("data" + i).get(5, TimeUnit.SECONDS);
+        }
+        // 发给每个follower的请求都由它自己的复制线程发出
+        for (int i = 0; i < followers.size(); i++) {
+            int serverId = i + 2;
+            for (String threadName : followers.get(i).getSenderThreadNames()) {
+                Assert.assertEquals("replicator-" + serverId, threadName);
+            }
+        }
+
+        final FakeConsensusService follower = followers.get(0);
+        Peer peer = raftNode.getPeerMap().get(2);
+        waitForInflightRequests(peer, 0);
+        int requestNum = follower.getAppendRequests().size();
+        // 复制线程阻塞在raft锁上时，多次唤醒合并成一次
+        raftNode.getLock().lock();
+        try {
+            for (int i = 0; i < 100; i++) {
+                raftNode.wakeupReplicator(peer);
+            }
+        } finally {
+            raftNode.getLock().unlock();
+        }
+        Thread.sleep(200);
+        waitForInflightRequests(peer, 0);
+        int heartbeatNum = follower.getAppendRequests().size() - requestNum;
+        Assert.assertTrue("heartbeatNum=" + heartbeatNum, heartbeatNum >= 1 && heartbeatNum <= 2);
+    }
+
+    private int getInflightRequests(Peer peer) {
+        raftNode.getLock().lock();
+        try {
+            return peer.getInflightRequests();
+        } finally {
+            raftNode.getLock().unlock();
+        }
+    }
+
+    private void waitForInflightRequests(final Peer peer, final int inflightRequests) throws Exception {
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return getInflightRequests(peer) == inflightRequests;
+            }
+        });
+    }
+
+    private void waitForMatchIndex(final Peer peer, final long matchIndex) throws Exception {
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                raftNode.getLock().lock();
+                try {
+                    return peer.getMatchIndex() == matchIndex;
+                } finally {
+                    raftNode.getLock().unlock();
+                }
+            }
+        });
+    }
+
+    private void assertProposeFailed(CompletableFuture<ProposeResult> future,
+                                     ProposeException.ErrorCode errorCode) throws Exception {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assert.fail("propose should fail");
+        } catch (ExecutionException ex) {
+            Assert.assertTrue(ex.getCause() instanceof ProposeException);
+            Assert.assertEquals(errorCode, ((ProposeException) ex.getCause()).getErrorCode());
+        }
+    }
+
+    // follower收到的带日志的AppendEntries请求数
+    private int getEntryRequestNum(FakeConsensusService follower) {
+        int requestNum = 0;
+        for (RaftProto.AppendEntriesRequest request : follower.getAppendRequests()) {
+            if (request.getEntriesCount() > 0) {
+                requestNum++;
+            }
+        }
+        return requestNum;
+    }
+
+    // 所有follower收到的ReadIndex心跳数，ReadIndex心跳不是由复制线程发出的
+    private int getReadIndexRequestNum() {
+        int requestNum = 0;
+        for (FakeConsensusService follower : followers) {
+            for (String threadName : follower.getSenderThreadNames()) {
+                if (!threadName.startsWith("replicator-")) {
+                    requestNum++;
+                }
+            }
+        }
+        return requestNum;
+    }
+
+    /**
+     * 按顺序记录应用的数据和应用数据的线程
+     */
+    private static class MemoryStateMachine implements StateMachine {
+        private final List<String> appliedData = new CopyOnWriteArrayList<>();
+        private final List<String> applyThreadNames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void writeSnap(String snapshotDir, String tmpSnapshotDataDir, RaftNode raftNode,
+                              long localLastAppliedIndex) {
+        }
+
+        @Override
+        public void readSnap(String snapshotDir) {
+        }
+
+        @Override
+        public void applyData(byte[] dataBytes) {
+            appliedData.add(new String(dataBytes));
+            applyThreadNames.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public byte[] get(byte[] dataBytes) {
+            return null;
+        }
+
+        public List<String> getAppliedData() {
+            return appliedData;
+        }
+
+        public List<String> getApplyThreadNames() {
+            return applyThreadNames;
+        }
+    }
+
+    /**
+     * 模拟一个follower：投票总是同意，日志连续时接受AppendEntries；测试follower读时也用来模拟leader。
+     * 响应在单独的线程中按请求到达的顺序回调，hold期间先暂存，release后再回调
+     */
+    private static class FakeConsensusService implements RaftConsensusServiceAsync {
+        private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
+        private final List<RaftProto.AppendEntriesRequest> appendRequests = new CopyOnWriteArrayList<>();
+        // 发出每个AppendEntries请求的线程
+        private final List<String> senderThreadNames = new CopyOnWriteArrayList<>();
+        private final List<Runnable> heldCallbacks = new ArrayList<>();
+        private boolean isHeld;
+        // 模拟连接失败，发送时直接抛出异常
+        private volatile boolean isDown;
+        private long lastLogIndex;
+        // 作为leader收到的getLeaderCommitIndex请求数，返回的commitIndex总是0
+        private final AtomicInteger commitIndexRequestNum = new AtomicInteger();
+        // 收到的snapshot数据块请求，已发出还没有回调的数据块数，以及收到最后一个请求时还没有回调的数据块数
+        private final List<RaftProto.InstallSnapshotRequest> snapshotChunkRequests = new CopyOnWriteArrayList<>();
+        private final AtomicInteger inflightChunks = new AtomicInteger();
+        private int maxInflightChunks;
+        private int inflightChunksAtLast = -1;
+        private boolean isSnapshotInstalled;
+        // 回复第一个snapshot请求时告诉leader可以复用的文件
+        private List<String> reusedFiles = Collections.emptyList();
+
+        public synchronized void hold() {
+            isHeld = true;
+        }
+
+        public synchronized void release() {
+            isHeld = false;
+            for (Runnable callback : heldCallbacks) {
+                callbackExecutor.execute(callback);
+            }
+            heldCallbacks.clear();
+        }
+
+        public void shutdown() {
+            callbackExecutor.shutdownNow();
+        }
+
+        public void setDown(boolean isDown) {
+            this.isDown = isDown;
+        }
+
+        public synchronized void setLastLogIndex(long lastLogIndex) {
+            this.lastLogIndex = lastLogIndex;
+        }
+
+        public List<RaftProto.AppendEntriesRequest> getAppendRequests() {
+            return appendRequests;
+        }
+
+        public List<String> getSenderThreadNames() {
+            return senderThreadNames;
+        }
+
+        public int getCommitIndexRequestNum() {
+            return commitIndexRequestNum.get();
+        }
+
+        public synchronized void setReusedFiles(List<String> reusedFiles) {
+            this.reusedFiles = reusedFiles;
+        }
+
+        public List<RaftProto.InstallSnapshotRequest> getSnapshotChunkRequests() {
+            return snapshotChunkRequests;
+        }
+
+        public synchronized int getMaxInflightChunks() {
+            return maxInflightChunks;
+        }
+
+        public synchronized int getInflightChunksAtLast() {
+            return inflightChunksAtLast;
+        }
+
+        public synchronized boolean isSnapshotInstalled() {
+            return isSnapshotInstalled;
+        }
+
+        private synchronized void respond(Runnable callback) {
+            if (isHeld) {
+                heldCallbacks.add(callback);
+            } else {
+                callbackExecutor.execute(callback);
+            }
+        }
+
+        private void respondVote(RaftProto.VoteRequest request, final RpcCallback<RaftProto.VoteResponse> callback) {
+            final RaftProto.VoteResponse response = RaftProto.VoteResponse.newBuilder()
+                    .setGranted(true)
+                    .setTerm(request.getTerm())
+                    .build();
+            respond(new Runnable() {
+                @Override
+                public void run() {
+                    callback.success(response);
+                }
+            });
+        }
+
+        @Override
+        public Future<RaftProto.VoteResponse> preVote(RaftProto.VoteRequest request,
+                                                      RpcCallback<RaftProto.VoteResponse> callback) {
+            respondVote(request, callback);
+            return null;
+        }
+
+        @Override
+        public Future<RaftProto.VoteResponse> requestVote(RaftProto.VoteRequest request,
+                                                          RpcCallback<RaftProto.VoteResponse> callback) {
+            respondVote(request, callback);
+            return null;
+        }
+
+        @Override
+        public Future<RaftProto.AppendEntriesResponse> appendEntries(
+                RaftProto.AppendEntriesRequest request,
+                final RpcCallback<RaftProto.AppendEntriesResponse> callback) {
+            if (isDown) {
+                throw new RuntimeException("connection refused");
+            }
+            appendRequests.add(request);
+            senderThreadNames.add(Thread.currentThread().getName());
+            // 和RaftConsensusServiceImpl一样，先解压日志列表
+            request = CompressionUtils.decompressEntries(request);
+            RaftProto.AppendEntriesResponse.Builder responseBuilder = RaftProto.AppendEntriesResponse.newBuilder()
+                    .setTerm(request.getTerm());
+            synchronized (this) {
+                if (request.getPrevLogIndex() > lastLogIndex) {
+                    responseBuilder.setResCode(RaftProto.ResCode.RES_CODE_FAIL);
+                } else {
+                    lastLogIndex = Math.max(lastLogIndex, request.getPrevLogIndex() + request.getEntriesCount());
+                    responseBuilder.setResCode(RaftProto.ResCode.RES_CODE_SUCCESS);
+                }
+                responseBuilder.setLastLogIndex(lastLogIndex);
+            }
+            final RaftProto.AppendEntriesResponse response = responseBuilder.build();
+            respond(new Runnable() {
+                @Override
+                public void run() {
+                    callback.success(response);
+                }
+            });
+            return null;
+        }
+
+        @Override
+        public Future<RaftProto.InstallSnapshotResponse> installSnap(
+                RaftProto.InstallSnapshotRequest request,
+                final RpcCallback<RaftProto.InstallSnapshotResponse> callback) {
+            snapshotChunkRequests.add(request);
+            int inflightChunkNum = inflightChunks.incrementAndGet();
+            synchronized (this) {
+                maxInflightChunks = Math.max(maxInflightChunks, inflightChunkNum);
+            }
+            final RaftProto.InstallSnapshotResponse response = RaftProto.InstallSnapshotResponse.newBuilder()
+                    .setResCode(RaftProto.ResCode.RES_CODE_SUCCESS)
+                    .setTerm(request.getTerm())
+                    .build();
+            respond(new Runnable() {
+                @Override
+                public void run() {
+                    inflightChunks.decrementAndGet();
+                    callback.success(response);
+                }
+            });
+            return null;
+        }
+
+        @Override
+        public Future<RaftProto.GetLeaderCommitIndexResponse> getLeaderCommitIndex(
+                RaftProto.GetLeaderCommitIndexRequest request,
+                final RpcCallback<RaftProto.GetLeaderCommitIndexResponse> callback) {
+            commitIndexRequestNum.incrementAndGet();
+            final RaftProto.GetLeaderCommitIndexResponse response = RaftProto.GetLeaderCommitIndexResponse.newBuilder()
+                    .setCommitIndex(0)
+                    .build();
+            respond(new Runnable() {
+                @Override
+                public void run() {
+                    callback.success(response);
+                }
+            });
+            return null;
+        }
+
+        @Override
+        public RaftProto.VoteResponse preVote(RaftProto.VoteRequest request) {
+            throw new UnsupportedOperationException("preVote");
+        }
+
+        @Override
+        public RaftProto.VoteResponse requestVote(RaftProto.VoteRequest request) {
+            throw new UnsupportedOperationException("requestVote");
+        }
+
+        @Override
+        public RaftProto.AppendEntriesResponse appendEntries(RaftProto.AppendEntriesRequest request) {
+            throw new UnsupportedOperationException("appendEntries");
+        }
+
+        @Override
+        public synchronized RaftProto.InstallSnapshotResponse installSnap(RaftProto.InstallSnapshotRequest request) {
+            RaftProto.InstallSnapshotResponse.Builder responseBuilder = RaftProto.InstallSnapshotResponse.newBuilder()
+                    .setResCode(RaftProto.ResCode.RES_CODE_SUCCESS)
+                    .setTerm(request.getTerm());
+            if (request.getIsFirst()) {
+                responseBuilder.addAllReusedFiles(reusedFiles);
+            }
+            if (request.getIsLast()) {
+                inflightChunksAtLast = inflightChunks.get();
+                lastLogIndex = Math.max(lastLogIndex, request.getSnapshotMetaData().getLastIncludedIndex());
+                isSnapshotInstalled = true;
+            }
+            return responseBuilder.build();
+        }
+
+        @Override
+        public RaftProto.GetLeaderCommitIndexResponse getLeaderCommitIndex(
+                RaftProto.GetLeaderCommitIndexRequest request) {
+            throw new UnsupportedOperationException("getLeaderCommitIndex");
+        }
+    }
+}
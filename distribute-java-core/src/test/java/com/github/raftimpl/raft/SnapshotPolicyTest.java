@@ -0,0 +1,58 @@
+package com.github.raftimpl.raft;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class SnapshotPolicyTest {
+
+    private RaftOptions newRaftOptions() {
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setSnapshotPeriodSeconds(10);
+        raftOptions.setSnapshotMinLogSize(1000);
+        raftOptions.setSnapshotMaxLogSize(100000);
+        raftOptions.setSnapshotMaxReplayMilliseconds(1000);
+        raftOptions.setSnapshotMinFreeDiskRatio(0.1);
+        return raftOptions;
+    }
+
+    @Test
+    public void testCheck() {
+        SnapshotPolicy policy = new SnapshotPolicy(newRaftOptions());
+        long start = System.nanoTime();
+        policy.recordSnapshot(start, 500);
+        long afterPeriod = start + TimeUnit.SECONDS.toNanos(11);
+
+        // 没有新apply的日志时不做snapshot
+        Assert.assertEquals(SnapshotPolicy.Trigger.NONE, policy.check(200000, 0, 0.01, afterPeriod));
+        // 日志总大小超过上限、磁盘空间不足时不受最小间隔限制
+        Assert.assertEquals(SnapshotPolicy.Trigger.URGENT, policy.check(100000, 10, 0.5, start + 1));
+        Assert.assertEquals(SnapshotPolicy.Trigger.URGENT, policy.check(600, 10, 0.01, start + 1));
+        Assert.assertEquals(SnapshotPolicy.Trigger.URGENT, policy.check(600, 10, 0.01, afterPeriod));
+        // 最小间隔内不做snapshot
+        Assert.assertEquals(SnapshotPolicy.Trigger.NONE, policy.check(5000, 10, 0.5, start + 1));
+        // 按上次snapshot之后新增的日志大小判断
+        Assert.assertEquals(SnapshotPolicy.Trigger.NONE, policy.check(1400, 10, 0.5, afterPeriod));
+        Assert.assertEquals(SnapshotPolicy.Trigger.NORMAL, policy.check(1500, 10, 0.5, afterPeriod));
+    }
+
+    @Test
+    public void testReplayEstimate() {
+        SnapshotPolicy policy = new SnapshotPolicy(newRaftOptions());
+        long start = System.nanoTime();
+        policy.recordSnapshot(start, 0);
+        long afterPeriod = start + TimeUnit.SECONDS.toNanos(11);
+        Assert.assertEquals(0, policy.estimateReplayMillis(1000000));
+
+        // 每条日志1ms
+        policy.recordApply(100, TimeUnit.MILLISECONDS.toNanos(100));
+        Assert.assertEquals(500, policy.estimateReplayMillis(500));
+        Assert.assertEquals(SnapshotPolicy.Trigger.NONE, policy.check(100, 500, 0.5, afterPeriod));
+        Assert.assertEquals(SnapshotPolicy.Trigger.NORMAL, policy.check(100, 1000, 0.5, afterPeriod));
+
+        // 新样本按权重平滑
+        policy.recordApply(100, TimeUnit.MILLISECONDS.toNanos(600));
+        Assert.assertEquals(2000000, policy.getApplyNanosPerEntry(), 1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.raftimpl.raft.storage;
+
+import com.github.raftimpl.raft.RaftOptions;
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LogEntryCacheTest {
+
+    private RaftProto.LogEntry newEntry(long index, int dataSize) {
+        return RaftProto.LogEntry.newBuilder()
+                .setIndex(index)
+                .setTerm(1)
+                .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                .setData(ByteString.copyFrom(new byte[dataSize]))
+                .build();
+    }
+
+    @Test
+    public void testEvictByBytes() {
+        int entrySize = newEntry(1, 100).getSerializedSize();
+        LogEntryCache cache = new LogEntryCache(entrySize * 3);
+        for (int i = 1; i <= 5; i++) {
+            cache.put(newEntry(i, 100));
+        }
+        Assert.assertEquals(3, cache.getEntryCount());
+        Assert.assertTrue(cache.getCurrentBytes() <= cache.getMaxBytes());
+        Assert.assertNull(cache.get(1));
+        Assert.assertNotNull(cache.get(5));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        cache.retain(0, 3);
+        Assert.assertEquals(1, cache.getEntryCount());
+        Assert.assertEquals(entrySize, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void testReadAhead() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(1024 * 1024);
+        raftOptions.setLogReadAheadCount(10);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            entries.add(newEntry(i, 10));
+        }
+        segmentedLog.append(entries);
+        segmentedLog.updateMeta(1L, null, null, null);
+
+        // 重新打开，缓存为空，顺序读时每次未命中预读10条
+        segmentedLog.close();
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        for (int i = 1; i <= 20; i++) {
+            Assert.assertEquals(i, segmentedLog.getEntry(i).getIndex());
+        }
+        Assert.assertEquals(2, segmentedLog.getEntryCache().getMissCount());
+        Assert.assertEquals(18, segmentedLog.getEntryCache().getHitCount());
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.raftimpl.raft.storage;
 
+import com.github.raftimpl.raft.RaftOptions;
 import com.github.raftimpl.raft.proto.RaftProto;
+import com.github.raftimpl.raft.util.RaftFileUtils;
 import com.google.protobuf.ByteString;
 import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
@@ -8,8 +10,11 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class SegmentedLogTest {
 
@@ -33,6 +38,391 @@ public class SegmentedLogTest {
         Assert.assertTrue(lastLogIndex == 9);
 
         segmentedLog.truncatePrefix(5);
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testBatchSyncPolicy() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(1024 * 1024);
+        raftOptions.setLogSyncPolicy(RaftOptions.LogSyncPolicy.BATCH);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            RaftProto.LogEntry entry = RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(1)
+                    .build();
+            entries.add(entry);
+        }
+        Assert.assertEquals(9, segmentedLog.append(entries));
+        // 一批日志只fsync一次
+        Assert.assertEquals(1, segmentedLog.getSyncCount());
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testMmapSegment() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setSegmentMmapEnabled(true);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            RaftProto.LogEntry entry = RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(1)
+                    .build();
+            entries.add(entry);
+        }
+        Assert.assertEquals(9, segmentedLog.append(entries));
+        segmentedLog.truncateSuffix(7);
+        segmentedLog.updateMeta(1L, null, null, null);
+
+        // 重新加载，截断后的数据和改名后的segment都能正确恢复
+        segmentedLog.close();
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(7, segmentedLog.getLastLogIndex());
+        for (int i = 1; i <= 7; i++) {
+            Assert.assertEquals("testEntryData" + i,
+                    segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+        entries.clear();
+        entries.add(RaftProto.LogEntry.newBuilder()
+                .setData(ByteString.copyFrom("testEntryData8".getBytes()))
+                .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                .setTerm(2)
+                .build());
+        Assert.assertEquals(8, segmentedLog.append(entries));
+        Assert.assertEquals(2, segmentedLog.getEntryTerm(8));
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testReadWithinValidSize() throws IOException {
+        File dir = new File("./data");
+        dir.mkdirs();
+        File file = new File(dir, "segment");
+        RandomAccessSegmentFile writer = new RandomAccessSegmentFile(file, true);
+        writer.append(ByteBuffer.wrap("0123456789".getBytes()));
+        RandomAccessSegmentFile reader = new RandomAccessSegmentFile(file, false);
+        writer.append(ByteBuffer.wrap("abcdefghij".getBytes()));
+
+        // 文件已经比reader的有效数据长，读取只到有效数据末尾
+        ByteBuffer dst = ByteBuffer.allocate(20);
+        Assert.assertEquals(10, reader.read(dst, 0));
+        Assert.assertEquals(10, dst.position());
+        Assert.assertEquals(20, dst.limit());
+        Assert.assertEquals(-1, reader.read(dst, 10));
+        reader.close();
+        writer.close();
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testReadEntryFromFile() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        for (int i = 1; i < 10; i++) {
+            RaftProto.LogEntry entry = RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(i)
+                    .build();
+            entries.add(entry);
+        }
+        segmentedLog.append(entries);
+        // 不缓存日志时，每次都从segment文件读取
+        for (int i = 1; i < 10; i++) {
+            RaftProto.LogEntry entry = segmentedLog.getEntry(i);
+            Assert.assertEquals(i, entry.getIndex());
+            Assert.assertEquals("testEntryData" + i, entry.getData().toStringUtf8());
+            Assert.assertEquals(i, segmentedLog.getEntryTerm(i));
+        }
+        Assert.assertNull(segmentedLog.getEntry(10));
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testLoadSegmentIndex() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        // 每次追加一条，每条日志一条record
+        for (int i = 1; i < 10; i++) {
+            List<RaftProto.LogEntry> entries = new ArrayList<>();
+            entries.add(RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(i)
+                    .build());
+            segmentedLog.append(entries);
+        }
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        // 封闭的segment都有索引文件，损坏其中一个，重启时重新扫描该segment
+        File[] indexFiles = new File(raftDataDir + "/log/index").listFiles();
+        Assert.assertEquals(2, indexFiles.length);
+        FileUtils.writeByteArrayToFile(indexFiles[0], new byte[]{1, 2, 3});
+
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(9, segmentedLog.getLastLogIndex());
+        for (int i = 1; i < 10; i++) {
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+            Assert.assertEquals(i, segmentedLog.getEntryTerm(i));
+        }
+        Assert.assertTrue(indexFiles[0].length() > 3);
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testSegmentIndexAfterTruncateSuffix() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        for (int i = 1; i < 10; i++) {
+            List<RaftProto.LogEntry> entries = new ArrayList<>();
+            entries.add(RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(1)
+                    .build());
+            segmentedLog.append(entries);
+        }
+        // 封闭segment的索引还没在后台写完就截断并重写，索引必须与最终的segment一致
+        segmentedLog.truncateSuffix(2);
+        for (int i = 3; i < 10; i++) {
+            List<RaftProto.LogEntry> entries = new ArrayList<>();
+            entries.add(RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("newEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(2)
+                    .build());
+            segmentedLog.append(entries);
+        }
+        segmentedLog.updateMeta(2L, null, null, null);
+        segmentedLog.close();
+
+        File[] segmentFiles = new File(raftDataDir + "/log/data").listFiles();
+        File[] indexFiles = new File(raftDataDir + "/log/index").listFiles();
+        Set<String> segmentFileNames = new HashSet<>();
+        for (File segmentFile : segmentFiles) {
+            segmentFileNames.add(segmentFile.getName());
+        }
+        for (File indexFile : indexFiles) {
+            Assert.assertTrue(segmentFileNames.contains(indexFile.getName().replace(".idx", "")));
+        }
+
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(9, segmentedLog.getLastLogIndex());
+        for (int i = 1; i < 10; i++) {
+            String data = i <= 2 ? "testEntryData" + i : "newEntryData" + i;
+            Assert.assertEquals(data, segmentedLog.getEntry(i).getData().toStringUtf8());
+            Assert.assertEquals(i <= 2 ? 1 : 2, segmentedLog.getEntryTerm(i));
+        }
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testRecycleSegmentFile() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setMaxRecycledSegmentFiles(4);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        for (int i = 1; i <= 30; i++) {
+            List<RaftProto.LogEntry> entries = new ArrayList<>();
+            entries.add(RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(1)
+                    .build());
+            segmentedLog.append(entries);
+            // 删除的segment文件被回收，后面新建segment时复用
+            if (i % 10 == 0) {
+                segmentedLog.truncatePrefix(i - 3);
+            }
+        }
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        // 复用文件里的旧数据不能被当成有效日志
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(30, segmentedLog.getLastLogIndex());
+        for (long i = segmentedLog.getFirstLogIndex(); i <= 30; i++) {
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    private List<RaftProto.LogEntry> newEntries(int fromIndex, int toIndex, long term) {
+        List<RaftProto.LogEntry> entries = new ArrayList<>();
+        for (int i = fromIndex; i <= toIndex; i++) {
+            entries.add(RaftProto.LogEntry.newBuilder()
+                    .setData(ByteString.copyFrom(("testEntryData" + i).getBytes()))
+                    .setType(RaftProto.EntryType.ENTRY_TYPE_DATA)
+                    .setTerm(term)
+                    .build());
+        }
+        return entries;
+    }
+
+    @Test
+    public void testBatchRecord() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(1024 * 1024);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        List<RaftProto.LogEntry> entries = newEntries(1, 9, 1);
+        Assert.assertEquals(9, segmentedLog.append(entries));
+        Assert.assertEquals(1, segmentedLog.append(newEntries(10, 10, 2)) - 9);
+
+        // 前9条合并成一条record，只有一个头部
+        RaftProto.LogEntryBatch.Builder batchBuilder = RaftProto.LogEntryBatch.newBuilder();
+        for (int i = 0; i < entries.size(); i++) {
+            batchBuilder.addEntries(entries.get(i).toBuilder().setIndex(i + 1));
+        }
+        RaftProto.LogEntry lastEntry = newEntries(10, 10, 2).get(0).toBuilder().setIndex(10).build();
+        Assert.assertEquals(2 * RaftFileUtils.RECORD_HEADER_SIZE + batchBuilder.build().getSerializedSize()
+                + lastEntry.getSerializedSize(), segmentedLog.getTotalSize());
+
+        // 不缓存日志时从record中间读取，也可以跨record读取
+        Assert.assertEquals("testEntryData5", segmentedLog.getEntry(5).getData().toStringUtf8());
+        Assert.assertEquals(2, segmentedLog.getEntryTerm(10));
+        Assert.assertEquals(10, segmentedLog.getEntry(10).getIndex());
+
+        // 截断到record中间，保留的日志重新写入，重启后可以正确恢复
+        segmentedLog.truncateSuffix(6);
+        Assert.assertEquals(6, segmentedLog.getLastLogIndex());
+        Assert.assertEquals(7, segmentedLog.append(newEntries(7, 7, 3)));
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(7, segmentedLog.getLastLogIndex());
+        for (int i = 1; i <= 7; i++) {
+            Assert.assertEquals(i, segmentedLog.getEntry(i).getIndex());
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+        Assert.assertEquals(3, segmentedLog.getEntryTerm(7));
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testSegmentSizeWithRecordOverhead() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(256);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        for (int i = 1; i <= 100; i += 10) {
+            segmentedLog.append(newEntries(i, i + 9, 1));
+        }
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        // 计入record头部和合并日志的长度前缀后，封闭的segment不会超过maxSegmentFileSize
+        File[] segmentFiles = new File(raftDataDir + "/log/data").listFiles();
+        int closedSegmentNum = 0;
+        for (File segmentFile : segmentFiles) {
+            if (!segmentFile.getName().startsWith("open-")) {
+                closedSegmentNum++;
+                Assert.assertTrue(segmentFile.length() < raftOptions.getMaxSegmentFileSize());
+            }
+        }
+        Assert.assertTrue(closedSegmentNum > 1);
+
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(100, segmentedLog.getLastLogIndex());
+        Assert.assertEquals("testEntryData100", segmentedLog.getEntry(100).getData().toStringUtf8());
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testReadSingleRecordSegment() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(128);
+        raftOptions.setLogEntryCacheBytes(0);
+        raftOptions.setSegmentBatchRecordEnabled(false);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        segmentedLog.append(newEntries(1, 9, 1));
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        // 每条日志一条record的旧格式segment，开启合并后仍然可以读取和追加
+        raftOptions.setSegmentBatchRecordEnabled(true);
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(9, segmentedLog.getLastLogIndex());
+        Assert.assertEquals(12, segmentedLog.append(newEntries(10, 12, 1)));
+        for (int i = 1; i <= 12; i++) {
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+        segmentedLog.close();
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testCompressedRecord() throws IOException {
+        String raftDataDir = "./data";
+        RaftOptions raftOptions = new RaftOptions();
+        raftOptions.setMaxSegmentFileSize(1024 * 1024);
+        raftOptions.setLogEntryCacheBytes(0);
+        SegmentedLog segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(10, segmentedLog.append(newEntries(1, 10, 1)));
+        long uncompressedSize = segmentedLog.getTotalSize();
+        segmentedLog.updateMeta(1L, null, null, null);
+        segmentedLog.close();
+
+        // 开启压缩后，之前未压缩的record仍然可以读取
+        raftOptions.setCompressionType(RaftProto.CompressionType.COMPRESSION_DEFLATE);
+        raftOptions.setCompressionMinBytes(64);
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        // 每条日志都小于compressionMinBytes，整条record一起压缩
+        Assert.assertEquals(20, segmentedLog.append(newEntries(11, 20, 1)));
+        Assert.assertTrue(segmentedLog.getTotalSize() - uncompressedSize < uncompressedSize);
+        // 太小的record不压缩
+        Assert.assertEquals(21, segmentedLog.append(newEntries(21, 21, 2)));
+        for (int i = 1; i <= 21; i++) {
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+
+        // 截断到压缩的record中间，保留的日志重新写入，重启后可以正确恢复
+        segmentedLog.truncateSuffix(15);
+        segmentedLog.close();
+        segmentedLog = new SegmentedLog(raftDataDir, raftOptions);
+        Assert.assertEquals(15, segmentedLog.getLastLogIndex());
+        for (int i = 1; i <= 15; i++) {
+            Assert.assertEquals(i, segmentedLog.getEntry(i).getIndex());
+            Assert.assertEquals("testEntryData" + i, segmentedLog.getEntry(i).getData().toStringUtf8());
+        }
+        segmentedLog.close();
         FileUtils.deleteDirectory(new File(raftDataDir));
     }
 }
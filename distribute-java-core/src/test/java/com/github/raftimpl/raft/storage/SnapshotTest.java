@@ -1,5 +1,8 @@
 package com.github.raftimpl.raft.storage;
 
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.github.raftimpl.raft.util.RaftFileUtils;
+import com.google.protobuf.ByteString;
 import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
@@ -9,6 +12,8 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TreeMap;
 
 public class SnapshotTest {
@@ -38,4 +43,95 @@ public class SnapshotTest {
         Files.delete(link);
         FileUtils.deleteDirectory(new File(raftDataDir));
     }
+
+    @Test
+    public void testResumeReceive() throws IOException {
+        String raftDataDir = "./data";
+        Snapshot snapshot = new Snapshot(raftDataDir);
+        String tmpSnapshotDir = snapshot.getSnapshotDir() + ".tmp";
+        RaftProto.SnapshotMetaData metaData = RaftProto.SnapshotMetaData.newBuilder()
+                .setLastIncludedIndex(100).setLastIncludedTerm(2).build();
+        List<RaftProto.SnapshotFile> files = new ArrayList<>();
+        Assert.assertTrue(snapshot.beginReceive(tmpSnapshotDir, metaData, files).isEmpty());
+        snapshot.addReceivedChunk("queue1.txt", 0, ByteString.copyFromUtf8("hello"));
+        snapshot.addReceivedChunk("queue1.txt", 5, ByteString.copyFromUtf8("world"));
+
+        // 同一个snapshot重新开始接收时，返回已经收到的数据块
+        List<RaftProto.SnapshotChunk> receivedChunks = snapshot.beginReceive(tmpSnapshotDir, metaData, files);
+        Assert.assertEquals(2, receivedChunks.size());
+        Assert.assertEquals(5, receivedChunks.get(1).getOffset());
+        Assert.assertEquals(RaftFileUtils.getCRC32("world".getBytes()), receivedChunks.get(1).getChecksum());
+
+        // 新的snapshot需要重新接收
+        RaftProto.SnapshotMetaData newMetaData = metaData.toBuilder().setLastIncludedIndex(200).build();
+        Assert.assertTrue(snapshot.beginReceive(tmpSnapshotDir, newMetaData, files).isEmpty());
+
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testReuseLocalFiles() throws IOException {
+        String raftDataDir = "./data";
+        Snapshot snapshot = new Snapshot(raftDataDir);
+        String snapshotDataDir = snapshot.getSnapshotDir() + File.separator + "data";
+        FileUtils.writeStringToFile(new File(snapshotDataDir, "000001.sst"), "sst1", "UTF-8");
+        FileUtils.writeStringToFile(new File(snapshotDataDir, "CURRENT"), "MANIFEST-000001", "UTF-8");
+        snapshot.reload();
+        TreeMap<String, Snapshot.SnapshotDataFile> snapshotFileMap = snapshot.openSnapshotFiles();
+        List<RaftProto.SnapshotFile> manifest = snapshot.getManifest(snapshot.getMeta(), snapshotFileMap);
+        snapshot.closeSnapshotFiles(snapshotFileMap);
+        Assert.assertEquals(2, manifest.size());
+
+        // leader的CURRENT内容不同，只有sst文件可以复用
+        List<RaftProto.SnapshotFile> leaderFiles = new ArrayList<>(manifest);
+        leaderFiles.set(1, manifest.get(1).toBuilder().setChecksum(manifest.get(1).getChecksum() + 1).build());
+        String tmpSnapshotDir = snapshot.getSnapshotDir() + ".tmp";
+        snapshot.beginReceive(tmpSnapshotDir, RaftProto.SnapshotMetaData.newBuilder()
+                .setLastIncludedIndex(100).setLastIncludedTerm(2).build(), leaderFiles);
+        List<String> reusedFiles = snapshot.reuseLocalFiles(tmpSnapshotDir, leaderFiles);
+        Assert.assertEquals(1, reusedFiles.size());
+        Assert.assertEquals("000001.sst", reusedFiles.get(0));
+        Assert.assertEquals("sst1", FileUtils.readFileToString(
+                new File(tmpSnapshotDir + File.separator + "data", "000001.sst"), "UTF-8"));
+
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
+
+    @Test
+    public void testVerifyReceived() throws IOException {
+        String raftDataDir = "./data";
+        Snapshot snapshot = new Snapshot(raftDataDir);
+        String tmpSnapshotDir = snapshot.getSnapshotDir() + ".tmp";
+        File receivedFile = new File(tmpSnapshotDir + File.separator + "data", "queue1.txt");
+        RaftProto.SnapshotMetaData metaData = RaftProto.SnapshotMetaData.newBuilder()
+                .setLastIncludedIndex(100).setLastIncludedTerm(2).build();
+        List<RaftProto.SnapshotFile> files = new ArrayList<>();
+        files.add(RaftProto.SnapshotFile.newBuilder()
+                .setFileName("queue1.txt")
+                .setSize(10)
+                .setChecksum(RaftFileUtils.getCRC32("helloworld".getBytes()))
+                .build());
+        // 没有在接收snapshot
+        Assert.assertFalse(snapshot.isReceiving(metaData));
+        Assert.assertFalse(snapshot.verifyReceived(tmpSnapshotDir));
+
+        snapshot.beginReceive(tmpSnapshotDir, metaData, files);
+        Assert.assertTrue(snapshot.isReceiving(metaData));
+        Assert.assertFalse(snapshot.isReceiving(metaData.toBuilder().setLastIncludedIndex(50).build()));
+        Assert.assertFalse(snapshot.isReceiving(metaData.toBuilder().setLastIncludedTerm(1).build()));
+
+        // 还缺数据块
+        FileUtils.writeStringToFile(receivedFile, "hello", "UTF-8");
+        Assert.assertFalse(snapshot.verifyReceived(tmpSnapshotDir));
+        // 大小一致但数据不对
+        FileUtils.writeStringToFile(receivedFile, "helloWORLD", "UTF-8");
+        Assert.assertFalse(snapshot.verifyReceived(tmpSnapshotDir));
+        FileUtils.writeStringToFile(receivedFile, "helloworld", "UTF-8");
+        Assert.assertTrue(snapshot.verifyReceived(tmpSnapshotDir));
+
+        snapshot.endReceive();
+        Assert.assertFalse(snapshot.isReceiving(metaData));
+
+        FileUtils.deleteDirectory(new File(raftDataDir));
+    }
 }
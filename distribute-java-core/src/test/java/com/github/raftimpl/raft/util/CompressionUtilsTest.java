@@ -0,0 +1,77 @@
+package com.github.raftimpl.raft.util;
+
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressionUtilsTest {
+
+    private ByteString newTextData() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("{\"key\":\"hello").append(i).append("\",\"value\":\"world\"}");
+        }
+        return ByteString.copyFromUtf8(sb.toString());
+    }
+
+    @Test
+    public void testCompressAndDecompress() {
+        ByteString data = newTextData();
+        for (RaftProto.CompressionType type : RaftProto.CompressionType.values()) {
+            ByteString compressed = CompressionUtils.compress(data, type);
+            if (type != RaftProto.CompressionType.COMPRESSION_NONE) {
+                Assert.assertTrue(compressed.size() < data.size());
+            }
+            Assert.assertEquals(data, CompressionUtils.decompress(compressed, type));
+        }
+        Assert.assertEquals(ByteString.EMPTY, CompressionUtils.decompress(
+                CompressionUtils.compress(ByteString.EMPTY, RaftProto.CompressionType.COMPRESSION_DEFLATE),
+                RaftProto.CompressionType.COMPRESSION_DEFLATE));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDecompressTruncatedData() {
+        ByteString compressed = CompressionUtils.compress(newTextData(), RaftProto.CompressionType.COMPRESSION_DEFLATE);
+        CompressionUtils.decompress(compressed.substring(0, compressed.size() / 2),
+                RaftProto.CompressionType.COMPRESSION_DEFLATE);
+    }
+
+    @Test
+    public void testCompressIfSmaller() {
+        ByteString data = newTextData();
+        RaftProto.CompressionType type = RaftProto.CompressionType.COMPRESSION_DEFLATE;
+        Assert.assertNull(CompressionUtils.compressIfSmaller(data, RaftProto.CompressionType.COMPRESSION_NONE, 0));
+        Assert.assertNull(CompressionUtils.compressIfSmaller(data, type, data.size() + 1));
+        Assert.assertNotNull(CompressionUtils.compressIfSmaller(data, type, data.size()));
+        // 压缩后不变小的数据不压缩
+        Assert.assertNull(CompressionUtils.compressIfSmaller(ByteString.copyFromUtf8("abc"), type, 0));
+    }
+
+    @Test
+    public void testCompressEntries() {
+        RaftProto.AppendEntriesRequest.Builder requestBuilder = RaftProto.AppendEntriesRequest.newBuilder()
+                .setTerm(1).setPrevLogIndex(0).setCommitIndex(0);
+        // 每条日志都小于compressionMinBytes，整个日志列表一起压缩
+        for (int i = 1; i <= 50; i++) {
+            requestBuilder.addEntries(RaftProto.LogEntry.newBuilder()
+                    .setIndex(i).setTerm(1)
+                    .setData(ByteString.copyFromUtf8("{\"key\":\"hello" + i + "\",\"value\":\"world\"}")));
+        }
+        RaftProto.AppendEntriesRequest request = requestBuilder.build();
+        RaftProto.CompressionType type = RaftProto.CompressionType.COMPRESSION_SNAPPY;
+        RaftProto.AppendEntriesRequest compressed = CompressionUtils.compressEntries(request, type, 256);
+        Assert.assertEquals(0, compressed.getEntriesCount());
+        Assert.assertEquals(type, compressed.getCompression());
+        Assert.assertTrue(compressed.getSerializedSize() < request.getSerializedSize());
+        Assert.assertEquals(request, CompressionUtils.decompressEntries(compressed));
+
+        // 未开启压缩、心跳和太小的日志列表原样发送
+        Assert.assertSame(request, CompressionUtils.compressEntries(
+                request, RaftProto.CompressionType.COMPRESSION_NONE, 0));
+        RaftProto.AppendEntriesRequest heartbeat = request.toBuilder().clearEntries().build();
+        Assert.assertSame(heartbeat, CompressionUtils.compressEntries(heartbeat, type, 0));
+        Assert.assertSame(request, CompressionUtils.compressEntries(request, type, request.getSerializedSize()));
+        Assert.assertSame(request, CompressionUtils.decompressEntries(request));
+    }
+}
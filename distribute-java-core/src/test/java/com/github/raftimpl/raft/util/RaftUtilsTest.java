@@ -1,11 +1,16 @@
 package com.github.raftimpl.raft.util;
 
+import com.github.raftimpl.raft.proto.RaftProto;
+import com.github.raftimpl.raft.storage.Segment;
+import com.google.protobuf.ByteString;
 import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.List;
 
 public class RaftUtilsTest {
@@ -35,4 +40,64 @@ public class RaftUtilsTest {
         File dataDir = new File("./data");
         FileUtils.deleteDirectory(dataDir);
     }
+
+    @Test
+    public void testCompressedRecordFlags() {
+        for (RaftProto.CompressionType type : RaftProto.CompressionType.values()) {
+            long flags = RaftFileUtils.getCompressedRecordFlags(type);
+            Assert.assertEquals(0, RaftFileUtils.getRecordCRC32(flags));
+            if (type == RaftProto.CompressionType.COMPRESSION_NONE) {
+                Assert.assertNull(RaftFileUtils.getRecordCompression(flags));
+            } else {
+                Assert.assertEquals(type, RaftFileUtils.getRecordCompression(flags));
+            }
+        }
+        Assert.assertNull(RaftFileUtils.getRecordCompression(RaftFileUtils.RECORD_FLAG_BATCH));
+        Assert.assertNull(RaftFileUtils.getRecordCompression(RaftFileUtils.RECORD_FLAG_COMPRESSED));
+    }
+
+    @Test
+    public void testEncodeAndDecodeRecord() {
+        RaftProto.LogEntry entry = RaftProto.LogEntry.newBuilder()
+                .setIndex(10).setTerm(2)
+                .setData(ByteString.copyFromUtf8("hello")).build();
+        ByteBuffer record = RaftFileUtils.encodeRecord(entry);
+        Assert.assertEquals(RaftFileUtils.RECORD_HEADER_SIZE + entry.getSerializedSize(), record.remaining());
+        // record放在一个更大的数组中间，模拟一次读出多条record的情况
+        ByteBuffer buffer = ByteBuffer.allocate(record.remaining() + 8);
+        buffer.position(4);
+        buffer.put(record);
+        buffer.position(4);
+        buffer.limit(buffer.capacity() - 4);
+        Assert.assertEquals(entry, Segment.decodeEntry(buffer.slice()));
+
+        // 数据损坏时crc校验失败
+        buffer.put(buffer.limit() - 1, (byte) 'x');
+        Assert.assertNull(Segment.decodeEntry(buffer.slice()));
+    }
+
+    @Test
+    public void testLinkOrCopyDirectory() throws IOException {
+        File srcDir = new File("./data/link/src");
+        new File(srcDir, "sub").mkdirs();
+        FileUtils.writeStringToFile(new File(srcDir, "000005.sst"), "table", "UTF-8");
+        FileUtils.writeStringToFile(new File(srcDir, "sub/000006.sst"), "table2", "UTF-8");
+        FileUtils.writeStringToFile(new File(srcDir, "CURRENT"), "MANIFEST-000004", "UTF-8");
+        File destDir = new File("./data/link/dest");
+        FileUtils.writeStringToFile(new File(destDir, "stale"), "stale", "UTF-8");
+
+        RaftFileUtils.linkOrCopyDirectory(srcDir, destDir, ".sst");
+        Assert.assertFalse(new File(destDir, "stale").exists());
+        // 不可变文件是硬链接，其他文件是独立的副本
+        Assert.assertTrue(Files.isSameFile(new File(srcDir, "000005.sst").toPath(),
+                new File(destDir, "000005.sst").toPath()));
+        Assert.assertEquals("table2", FileUtils.readFileToString(new File(destDir, "sub/000006.sst"), "UTF-8"));
+        FileUtils.writeStringToFile(new File(destDir, "CURRENT"), "MANIFEST-000007", "UTF-8");
+        Assert.assertEquals("MANIFEST-000004", FileUtils.readFileToString(new File(srcDir, "CURRENT"), "UTF-8"));
+
+        // 删除源文件不影响链接出来的文件
+        FileUtils.deleteDirectory(srcDir);
+        Assert.assertEquals("table", FileUtils.readFileToString(new File(destDir, "000005.sst"), "UTF-8"));
+        FileUtils.deleteDirectory(new File("./data"));
+    }
 }